@@ -0,0 +1,1213 @@
+package com.ridgid.oss.common.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Inspectable expression tree of a predicate over the (named) properties of values of type T; an alternative to the
+ * nested lambdas composed by {@code Predicates} for filters that test many values, or that are to be pushed down to a
+ * database.
+ * <p>
+ * An expression is built from the comparisons offered by the properties (see {@code property}, {@code intProperty},
+ * {@code longProperty} and {@code doubleProperty}) combined with {@code allOf}, {@code anyOf} and {@code not}.
+ * {@code simplify()} flattens nested junctions, folds constants, removes duplicate operands, merges the equality checks
+ * of a property within a disjunction into a single IN check and the range checks of an int or long property within a
+ * conjunction into a single range check, and orders the operands of each junction cheapest first. {@code compile()}
+ * compiles the simplified tree into a single {@code Predicate} that extracts each property only once per junction for
+ * each value tested, and compares primitive properties without boxing. The tree may be inspected (e.g., to translate
+ * it into a database query) with a {@code Visitor}.
+ * <p>
+ * Properties are identified by their name (and kind): properties with the same name are assumed to extract the same
+ * value. As in SQL, a comparison of a null property value (other than isNull and isNotNull) is unknown: it is neither
+ * true nor false, so neither {@code p.isEqualTo(v)} nor {@code not(p.isEqualTo(v))} holds for a null p. A junction is
+ * evaluated with the same three-valued logic (false AND unknown is false, true OR unknown is true, and unknown
+ * otherwise), and, as in a WHERE clause, {@code compile()} only accepts the values for which the whole expression is
+ * true. A compiled expression therefore accepts the same values as its translation into SQL, and reordering the
+ * operands of a junction never changes its result.
+ *
+ * @param <T> type of the values tested
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public abstract class PredicateExpression<T>
+{
+    private PredicateExpression() {
+    }
+
+    public static <T, V extends Comparable<? super V>>
+    ObjectProperty<T, V> property(String name,
+                                  Function<? super T, ? extends V> extractor)
+    {
+        return new ObjectProperty<>(name, extractor);
+    }
+
+    public static <T> IntProperty<T> intProperty(String name,
+                                                 ToIntFunction<? super T> extractor)
+    {
+        return new IntProperty<>(name, extractor);
+    }
+
+    public static <T> LongProperty<T> longProperty(String name,
+                                                   ToLongFunction<? super T> extractor)
+    {
+        return new LongProperty<>(name, extractor);
+    }
+
+    public static <T> DoubleProperty<T> doubleProperty(String name,
+                                                       ToDoubleFunction<? super T> extractor)
+    {
+        return new DoubleProperty<>(name, extractor);
+    }
+
+    public static <T> PredicateExpression<T> always() {
+        return new Constant<>(true);
+    }
+
+    public static <T> PredicateExpression<T> never() {
+        return new Constant<>(false);
+    }
+
+    @SafeVarargs
+    public static <T> PredicateExpression<T> allOf(PredicateExpression<T>... operands) {
+        return new Junction<>(true, Arrays.asList(operands));
+    }
+
+    public static <T> PredicateExpression<T> allOf(Collection<? extends PredicateExpression<T>> operands) {
+        return new Junction<>(true, new ArrayList<>(operands));
+    }
+
+    @SafeVarargs
+    public static <T> PredicateExpression<T> anyOf(PredicateExpression<T>... operands) {
+        return new Junction<>(false, Arrays.asList(operands));
+    }
+
+    public static <T> PredicateExpression<T> anyOf(Collection<? extends PredicateExpression<T>> operands) {
+        return new Junction<>(false, new ArrayList<>(operands));
+    }
+
+    public static <T> PredicateExpression<T> not(PredicateExpression<T> operand) {
+        return new Negation<>(operand);
+    }
+
+    public PredicateExpression<T> and(PredicateExpression<T> other) {
+        return allOf(this, other);
+    }
+
+    public PredicateExpression<T> or(PredicateExpression<T> other) {
+        return anyOf(this, other);
+    }
+
+    public PredicateExpression<T> negate() {
+        return not(this);
+    }
+
+    /**
+     * @param visitor to visit (the root of) the expression with
+     * @param <R>     type of the result of the visit
+     * @return result of the visit
+     */
+    public abstract <R> R accept(Visitor<T, R> visitor);
+
+    /**
+     * @return equivalent expression, simplified and with the operands of each junction ordered cheapest first
+     */
+    public abstract PredicateExpression<T> simplify();
+
+    /**
+     * @return predicate evaluating the simplified expression
+     */
+    public final Predicate<T> compile() {
+        return simplify().compileSimplified();
+    }
+
+    abstract Predicate<T> compileSimplified();
+
+    /**
+     * @return predicate that is true where the simplified expression is false (not where it is unknown)
+     */
+    abstract Predicate<T> compileNegatedSimplified();
+
+    /**
+     * @return relative cost of evaluating the expression
+     */
+    abstract int cost();
+
+    /**
+     * Visitor of the nodes of an expression; the visitor is responsible for visiting the operands of junctions and
+     * negations (see {@code getOperands} and {@code getOperand})
+     *
+     * @param <T> type of the values tested
+     * @param <R> type of the result of a visit
+     */
+    public interface Visitor<T, R>
+    {
+        R visitConstant(Constant<T> constant);
+
+        R visitComparison(Comparison<T> comparison);
+
+        R visitJunction(Junction<T> junction);
+
+        R visitNegation(Negation<T> negation);
+    }
+
+    public enum Kind
+    {
+        OBJECT,
+        INT,
+        LONG,
+        DOUBLE
+    }
+
+    public enum Operator
+    {
+        EQUAL("="),
+        NOT_EQUAL("<>"),
+        LESS_THAN("<"),
+        LESS_THAN_OR_EQUAL("<="),
+        GREATER_THAN(">"),
+        GREATER_THAN_OR_EQUAL(">="),
+        BETWEEN("BETWEEN"),
+        IN("IN"),
+        IS_NULL("IS NULL"),
+        IS_NOT_NULL("IS NOT NULL");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    /**
+     * Named property of the values tested, from which the comparisons of the expression are built
+     *
+     * @param <T> type of the values tested
+     */
+    public static abstract class Property<T>
+    {
+        private final String name;
+        private final Kind   kind;
+
+        private Property(String name,
+                         Kind kind)
+        {
+            this.name = Objects.requireNonNull(name, "name");
+            this.kind = kind;
+        }
+
+        public final String getName() {
+            return name;
+        }
+
+        public final Kind getKind() {
+            return kind;
+        }
+
+        final Comparison<T> compare(Operator operator,
+                                    Object... operands)
+        {
+            return new Comparison<>(this, operator, Arrays.asList(operands));
+        }
+
+        final Comparison<T> in(Collection<?> operands) {
+            return new Comparison<>(this, Operator.IN, new ArrayList<>(new LinkedHashSet<>(operands)));
+        }
+
+        /**
+         * @return predicate testing the property of a value against all (conjunction) or any of the checks, extracting
+         * the property once
+         */
+        abstract Predicate<T> compile(List<Comparison<T>> checks,
+                                      boolean conjunction);
+
+        /**
+         * @return predicate that is true where the check of the property of a value is false (the values of primitive
+         * properties are never null, so the check is never unknown)
+         */
+        Predicate<T> compileNegated(Comparison<T> check) {
+            Predicate<T> test = compile(Collections.singletonList(check), true);
+            return t -> !test.test(t);
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            return this == o
+                   || o instanceof Property
+                      && kind == ((Property) o).kind
+                      && name.equals(((Property) o).name);
+        }
+
+        @Override
+        public final int hashCode() {
+            return name.hashCode() * 31 + kind.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class ObjectProperty<T, V extends Comparable<? super V>> extends Property<T>
+    {
+        private final Function<? super T, ? extends V> extractor;
+
+        private ObjectProperty(String name,
+                               Function<? super T, ? extends V> extractor)
+        {
+            super(name, Kind.OBJECT);
+            this.extractor = extractor;
+        }
+
+        public PredicateExpression<T> isEqualTo(V value) {
+            return compare(Operator.EQUAL, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isNotEqualTo(V value) {
+            return compare(Operator.NOT_EQUAL, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isLessThan(V value) {
+            return compare(Operator.LESS_THAN, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isLessThanOrEqualTo(V value) {
+            return compare(Operator.LESS_THAN_OR_EQUAL, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isGreaterThan(V value) {
+            return compare(Operator.GREATER_THAN, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isGreaterThanOrEqualTo(V value) {
+            return compare(Operator.GREATER_THAN_OR_EQUAL, Objects.requireNonNull(value, "value"));
+        }
+
+        public PredicateExpression<T> isBetween(V lower,
+                                                V upper)
+        {
+            return compare(Operator.BETWEEN,
+                           Objects.requireNonNull(lower, "lower"),
+                           Objects.requireNonNull(upper, "upper"));
+        }
+
+        @SafeVarargs
+        public final PredicateExpression<T> isIn(V... values) {
+            return isIn(Arrays.asList(values));
+        }
+
+        public PredicateExpression<T> isIn(Collection<? extends V> values) {
+            values.forEach(value -> Objects.requireNonNull(value, "value"));
+            return in(values);
+        }
+
+        public PredicateExpression<T> isNull() {
+            return compare(Operator.IS_NULL);
+        }
+
+        public PredicateExpression<T> isNotNull() {
+            return compare(Operator.IS_NOT_NULL);
+        }
+
+        @Override
+        Predicate<T> compile(List<Comparison<T>> checks,
+                             boolean conjunction)
+        {
+            Function<? super T, ? extends V> extractor = this.extractor;
+            Predicate<Object>                test      = combine(checks,
+                                                                 conjunction,
+                                                                 ObjectProperty::compile,
+                                                                 Predicate[]::new,
+                                                                 (a, b) -> v -> a.test(v) && b.test(v),
+                                                                 (a, b) -> v -> a.test(v) || b.test(v),
+                                                                 all -> v -> {
+                                                                     for ( Predicate<Object> p : all )
+                                                                         if ( !p.test(v) ) return false;
+                                                                     return true;
+                                                                 },
+                                                                 any -> v -> {
+                                                                     for ( Predicate<Object> p : any )
+                                                                         if ( p.test(v) ) return true;
+                                                                     return false;
+                                                                 });
+            return t -> test.test(extractor.apply(t));
+        }
+
+        /**
+         * @return predicate that is true where the check is false: never for a null value, for which the check is unknown
+         * (except for isNull and isNotNull)
+         */
+        @Override
+        Predicate<T> compileNegated(Comparison<T> check) {
+            if ( check.getOperator() == Operator.IS_NULL || check.getOperator() == Operator.IS_NOT_NULL )
+                return super.compileNegated(check);
+            Function<? super T, ? extends V> extractor = this.extractor;
+            Predicate<Object>                test      = compile(check);
+            return t -> {
+                Object v = extractor.apply(t);
+                return v != null && !test.test(v);
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Predicate<Object> compile(Comparison<?> check) {
+            List<Object> operands = check.getOperands();
+            switch ( check.getOperator() ) {
+                case IS_NULL:
+                    return Objects::isNull;
+                case IS_NOT_NULL:
+                    return Objects::nonNull;
+                case IN:
+                    if ( operands.size() > 1 ) {
+                        Set<Object> values = new HashSet<>(operands);
+                        return v -> v != null && values.contains(v);
+                    }
+                    // fall through: a single value
+                case EQUAL:
+                    Object equalTo = operands.get(0);
+                    return v -> v != null && v.equals(equalTo);
+                case NOT_EQUAL:
+                    Object notEqualTo = operands.get(0);
+                    return v -> v != null && !v.equals(notEqualTo);
+                case LESS_THAN:
+                    Comparable lessThan = (Comparable) operands.get(0);
+                    return v -> v != null && ((Comparable) v).compareTo(lessThan) < 0;
+                case LESS_THAN_OR_EQUAL:
+                    Comparable atMost = (Comparable) operands.get(0);
+                    return v -> v != null && ((Comparable) v).compareTo(atMost) <= 0;
+                case GREATER_THAN:
+                    Comparable greaterThan = (Comparable) operands.get(0);
+                    return v -> v != null && ((Comparable) v).compareTo(greaterThan) > 0;
+                case GREATER_THAN_OR_EQUAL:
+                    Comparable atLeast = (Comparable) operands.get(0);
+                    return v -> v != null && ((Comparable) v).compareTo(atLeast) >= 0;
+                case BETWEEN:
+                    Comparable lower = (Comparable) operands.get(0);
+                    Comparable upper = (Comparable) operands.get(1);
+                    return v -> v != null
+                                && ((Comparable) v).compareTo(lower) >= 0
+                                && ((Comparable) v).compareTo(upper) <= 0;
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + check.getOperator());
+            }
+        }
+    }
+
+    public static final class IntProperty<T> extends Property<T>
+    {
+        private final ToIntFunction<? super T> extractor;
+
+        private IntProperty(String name,
+                            ToIntFunction<? super T> extractor)
+        {
+            super(name, Kind.INT);
+            this.extractor = extractor;
+        }
+
+        public PredicateExpression<T> isEqualTo(int value) {
+            return compare(Operator.EQUAL, value);
+        }
+
+        public PredicateExpression<T> isNotEqualTo(int value) {
+            return compare(Operator.NOT_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isLessThan(int value) {
+            return compare(Operator.LESS_THAN, value);
+        }
+
+        public PredicateExpression<T> isLessThanOrEqualTo(int value) {
+            return compare(Operator.LESS_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isGreaterThan(int value) {
+            return compare(Operator.GREATER_THAN, value);
+        }
+
+        public PredicateExpression<T> isGreaterThanOrEqualTo(int value) {
+            return compare(Operator.GREATER_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isBetween(int lower,
+                                                int upper)
+        {
+            return compare(Operator.BETWEEN, lower, upper);
+        }
+
+        public PredicateExpression<T> isIn(int... values) {
+            List<Integer> boxed = new ArrayList<>(values.length);
+            for ( int value : values ) boxed.add(value);
+            return in(boxed);
+        }
+
+        @Override
+        Predicate<T> compile(List<Comparison<T>> checks,
+                             boolean conjunction)
+        {
+            ToIntFunction<? super T> extractor = this.extractor;
+            IntPredicate             test      = combine(checks,
+                                                         conjunction,
+                                                         IntProperty::compile,
+                                                         IntPredicate[]::new,
+                                                         (a, b) -> v -> a.test(v) && b.test(v),
+                                                         (a, b) -> v -> a.test(v) || b.test(v),
+                                                         all -> v -> {
+                                                             for ( IntPredicate p : all )
+                                                                 if ( !p.test(v) ) return false;
+                                                             return true;
+                                                         },
+                                                         any -> v -> {
+                                                             for ( IntPredicate p : any )
+                                                                 if ( p.test(v) ) return true;
+                                                             return false;
+                                                         });
+            return t -> test.test(extractor.applyAsInt(t));
+        }
+
+        private static IntPredicate compile(Comparison<?> check) {
+            List<Object> operands = check.getOperands();
+            int          value    = operands.isEmpty() ? 0 : (Integer) operands.get(0);
+            switch ( check.getOperator() ) {
+                case EQUAL:
+                    return v -> v == value;
+                case NOT_EQUAL:
+                    return v -> v != value;
+                case LESS_THAN:
+                    return v -> v < value;
+                case LESS_THAN_OR_EQUAL:
+                    return v -> v <= value;
+                case GREATER_THAN:
+                    return v -> v > value;
+                case GREATER_THAN_OR_EQUAL:
+                    return v -> v >= value;
+                case BETWEEN:
+                    int upper = (Integer) operands.get(1);
+                    return v -> v >= value && v <= upper;
+                case IN:
+                    int[] values = operands.stream().mapToInt(Integer.class::cast).sorted().toArray();
+                    return v -> Arrays.binarySearch(values, v) >= 0;
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + check.getOperator());
+            }
+        }
+    }
+
+    public static final class LongProperty<T> extends Property<T>
+    {
+        private final ToLongFunction<? super T> extractor;
+
+        private LongProperty(String name,
+                             ToLongFunction<? super T> extractor)
+        {
+            super(name, Kind.LONG);
+            this.extractor = extractor;
+        }
+
+        public PredicateExpression<T> isEqualTo(long value) {
+            return compare(Operator.EQUAL, value);
+        }
+
+        public PredicateExpression<T> isNotEqualTo(long value) {
+            return compare(Operator.NOT_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isLessThan(long value) {
+            return compare(Operator.LESS_THAN, value);
+        }
+
+        public PredicateExpression<T> isLessThanOrEqualTo(long value) {
+            return compare(Operator.LESS_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isGreaterThan(long value) {
+            return compare(Operator.GREATER_THAN, value);
+        }
+
+        public PredicateExpression<T> isGreaterThanOrEqualTo(long value) {
+            return compare(Operator.GREATER_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isBetween(long lower,
+                                                long upper)
+        {
+            return compare(Operator.BETWEEN, lower, upper);
+        }
+
+        public PredicateExpression<T> isIn(long... values) {
+            List<Long> boxed = new ArrayList<>(values.length);
+            for ( long value : values ) boxed.add(value);
+            return in(boxed);
+        }
+
+        @Override
+        Predicate<T> compile(List<Comparison<T>> checks,
+                             boolean conjunction)
+        {
+            ToLongFunction<? super T> extractor = this.extractor;
+            LongPredicate             test      = combine(checks,
+                                                          conjunction,
+                                                          LongProperty::compile,
+                                                          LongPredicate[]::new,
+                                                          (a, b) -> v -> a.test(v) && b.test(v),
+                                                          (a, b) -> v -> a.test(v) || b.test(v),
+                                                          all -> v -> {
+                                                              for ( LongPredicate p : all )
+                                                                  if ( !p.test(v) ) return false;
+                                                              return true;
+                                                          },
+                                                          any -> v -> {
+                                                              for ( LongPredicate p : any )
+                                                                  if ( p.test(v) ) return true;
+                                                              return false;
+                                                          });
+            return t -> test.test(extractor.applyAsLong(t));
+        }
+
+        private static LongPredicate compile(Comparison<?> check) {
+            List<Object> operands = check.getOperands();
+            long         value    = operands.isEmpty() ? 0 : (Long) operands.get(0);
+            switch ( check.getOperator() ) {
+                case EQUAL:
+                    return v -> v == value;
+                case NOT_EQUAL:
+                    return v -> v != value;
+                case LESS_THAN:
+                    return v -> v < value;
+                case LESS_THAN_OR_EQUAL:
+                    return v -> v <= value;
+                case GREATER_THAN:
+                    return v -> v > value;
+                case GREATER_THAN_OR_EQUAL:
+                    return v -> v >= value;
+                case BETWEEN:
+                    long upper = (Long) operands.get(1);
+                    return v -> v >= value && v <= upper;
+                case IN:
+                    long[] values = operands.stream().mapToLong(Long.class::cast).sorted().toArray();
+                    return v -> Arrays.binarySearch(values, v) >= 0;
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + check.getOperator());
+            }
+        }
+    }
+
+    public static final class DoubleProperty<T> extends Property<T>
+    {
+        private final ToDoubleFunction<? super T> extractor;
+
+        private DoubleProperty(String name,
+                               ToDoubleFunction<? super T> extractor)
+        {
+            super(name, Kind.DOUBLE);
+            this.extractor = extractor;
+        }
+
+        public PredicateExpression<T> isEqualTo(double value) {
+            return compare(Operator.EQUAL, value);
+        }
+
+        public PredicateExpression<T> isNotEqualTo(double value) {
+            return compare(Operator.NOT_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isLessThan(double value) {
+            return compare(Operator.LESS_THAN, value);
+        }
+
+        public PredicateExpression<T> isLessThanOrEqualTo(double value) {
+            return compare(Operator.LESS_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isGreaterThan(double value) {
+            return compare(Operator.GREATER_THAN, value);
+        }
+
+        public PredicateExpression<T> isGreaterThanOrEqualTo(double value) {
+            return compare(Operator.GREATER_THAN_OR_EQUAL, value);
+        }
+
+        public PredicateExpression<T> isBetween(double lower,
+                                                double upper)
+        {
+            return compare(Operator.BETWEEN, lower, upper);
+        }
+
+        public PredicateExpression<T> isIn(double... values) {
+            List<Double> boxed = new ArrayList<>(values.length);
+            for ( double value : values ) boxed.add(value);
+            return in(boxed);
+        }
+
+        @Override
+        Predicate<T> compile(List<Comparison<T>> checks,
+                             boolean conjunction)
+        {
+            ToDoubleFunction<? super T> extractor = this.extractor;
+            DoublePredicate             test      = combine(checks,
+                                                            conjunction,
+                                                            DoubleProperty::compile,
+                                                            DoublePredicate[]::new,
+                                                            (a, b) -> v -> a.test(v) && b.test(v),
+                                                            (a, b) -> v -> a.test(v) || b.test(v),
+                                                            all -> v -> {
+                                                                for ( DoublePredicate p : all )
+                                                                    if ( !p.test(v) ) return false;
+                                                                return true;
+                                                            },
+                                                            any -> v -> {
+                                                                for ( DoublePredicate p : any )
+                                                                    if ( p.test(v) ) return true;
+                                                                return false;
+                                                            });
+            return t -> test.test(extractor.applyAsDouble(t));
+        }
+
+        private static DoublePredicate compile(Comparison<?> check) {
+            List<Object> operands = check.getOperands();
+            double       value    = operands.isEmpty() ? 0 : (Double) operands.get(0);
+            switch ( check.getOperator() ) {
+                case EQUAL:
+                    return v -> v == value;
+                case NOT_EQUAL:
+                    return v -> v != value;
+                case LESS_THAN:
+                    return v -> v < value;
+                case LESS_THAN_OR_EQUAL:
+                    return v -> v <= value;
+                case GREATER_THAN:
+                    return v -> v > value;
+                case GREATER_THAN_OR_EQUAL:
+                    return v -> v >= value;
+                case BETWEEN:
+                    double upper = (Double) operands.get(1);
+                    return v -> v >= value && v <= upper;
+                case IN:
+                    double[] values = operands.stream().mapToDouble(Double.class::cast).toArray();
+                    return v -> {
+                        for ( double candidate : values )
+                            if ( v == candidate ) return true;
+                        return false;
+                    };
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + check.getOperator());
+            }
+        }
+    }
+
+    /**
+     * Compile the checks of a property into a single test of the (extracted) value: a single check as is, two checks
+     * as a pair, and more as a loop over all of them
+     */
+    private static <P> P combine(List<? extends Comparison<?>> checks,
+                                 boolean conjunction,
+                                 Function<Comparison<?>, P> compiler,
+                                 IntFunction<P[]> arrayFactory,
+                                 BinaryOperator<P> and,
+                                 BinaryOperator<P> or,
+                                 Function<P[], P> all,
+                                 Function<P[], P> any)
+    {
+        P[] tests = arrayFactory.apply(checks.size());
+        for ( int i = 0; i < tests.length; i++ ) tests[i] = compiler.apply(checks.get(i));
+        if ( tests.length == 1 ) return tests[0];
+        if ( tests.length == 2 ) return conjunction ? and.apply(tests[0], tests[1]) : or.apply(tests[0], tests[1]);
+        return conjunction ? all.apply(tests) : any.apply(tests);
+    }
+
+    public static final class Constant<T> extends PredicateExpression<T>
+    {
+        private final boolean value;
+
+        private Constant(boolean value) {
+            this.value = value;
+        }
+
+        public boolean getValue() {
+            return value;
+        }
+
+        @Override
+        public <R> R accept(Visitor<T, R> visitor) {
+            return visitor.visitConstant(this);
+        }
+
+        @Override
+        public PredicateExpression<T> simplify() {
+            return this;
+        }
+
+        @Override
+        Predicate<T> compileSimplified() {
+            return value ? t -> true : t -> false;
+        }
+
+        @Override
+        Predicate<T> compileNegatedSimplified() {
+            return value ? t -> false : t -> true;
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Constant && value == ((Constant) o).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Boolean.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return value ? "TRUE" : "FALSE";
+        }
+    }
+
+    /**
+     * Comparison of a property with its operands (none for IS_NULL and IS_NOT_NULL, two for BETWEEN, the distinct values
+     * for IN, and one otherwise), boxed
+     */
+    public static final class Comparison<T> extends PredicateExpression<T>
+    {
+        private final Property<T>  property;
+        private final Operator     operator;
+        private final List<Object> operands;
+
+        private Comparison(Property<T> property,
+                           Operator operator,
+                           List<Object> operands)
+        {
+            this.property = property;
+            this.operator = operator;
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        public Property<T> getProperty() {
+            return property;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public List<Object> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public <R> R accept(Visitor<T, R> visitor) {
+            return visitor.visitComparison(this);
+        }
+
+        @Override
+        public PredicateExpression<T> simplify() {
+            if ( operator != Operator.IN || operands.size() > 1 ) return this;
+            return operands.isEmpty() ? never() : new Comparison<>(property, Operator.EQUAL, operands);
+        }
+
+        @Override
+        Predicate<T> compileSimplified() {
+            return property.compile(Collections.singletonList(this), true);
+        }
+
+        @Override
+        Predicate<T> compileNegatedSimplified() {
+            return property.compileNegated(this);
+        }
+
+        @Override
+        int cost() {
+            if ( property.getKind() != Kind.OBJECT ) return operator == Operator.IN ? 2 : 1;
+            switch ( operator ) {
+                case IS_NULL:
+                case IS_NOT_NULL:
+                    return 1;
+                case EQUAL:
+                case NOT_EQUAL:
+                    return 2;
+                case BETWEEN:
+                    return 4;
+                default:
+                    return 3;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o
+                   || o instanceof Comparison
+                      && operator == ((Comparison) o).operator
+                      && property.equals(((Comparison) o).property)
+                      && operands.equals(((Comparison) o).operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(property, operator, operands);
+        }
+
+        @Override
+        public String toString() {
+            switch ( operator ) {
+                case IS_NULL:
+                case IS_NOT_NULL:
+                    return property + " " + operator.getSymbol();
+                case BETWEEN:
+                    return property + " BETWEEN " + operands.get(0) + " AND " + operands.get(1);
+                case IN:
+                    return property + operands.stream().map(String::valueOf).collect(joining(", ", " IN (", ")"));
+                default:
+                    return property + " " + operator.getSymbol() + " " + operands.get(0);
+            }
+        }
+    }
+
+    /**
+     * Conjunction (all of) or disjunction (any of) of its operands
+     */
+    public static final class Junction<T> extends PredicateExpression<T>
+    {
+        private final boolean                      conjunction;
+        private final List<PredicateExpression<T>> operands;
+
+        private Junction(boolean conjunction,
+                         List<PredicateExpression<T>> operands)
+        {
+            operands.forEach(operand -> Objects.requireNonNull(operand, "operand"));
+            this.conjunction = conjunction;
+            this.operands    = Collections.unmodifiableList(operands);
+        }
+
+        public boolean isConjunction() {
+            return conjunction;
+        }
+
+        public List<PredicateExpression<T>> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public <R> R accept(Visitor<T, R> visitor) {
+            return visitor.visitJunction(this);
+        }
+
+        @Override
+        public PredicateExpression<T> simplify() {
+            List<PredicateExpression<T>> flattened = new ArrayList<>(operands.size());
+            for ( PredicateExpression<T> operand : operands ) {
+                PredicateExpression<T> simplified = operand.simplify();
+                if ( simplified instanceof Junction && ((Junction) simplified).conjunction == conjunction )
+                    flattened.addAll(((Junction<T>) simplified).operands);
+                else if ( simplified instanceof Constant ) {
+                    // the identity (true for all of, false for any of) is dropped; the other value decides the junction
+                    if ( ((Constant) simplified).value != conjunction ) return simplified;
+                } else
+                    flattened.add(simplified);
+            }
+            List<PredicateExpression<T>> merged = conjunction ? mergeRanges(flattened) : mergeEqualities(flattened);
+            if ( merged == null ) return never();
+            List<PredicateExpression<T>> distinct = new ArrayList<>(new LinkedHashSet<>(merged));
+            if ( distinct.isEmpty() ) return conjunction ? always() : never();
+            if ( distinct.size() == 1 ) return distinct.get(0);
+            distinct.sort(Comparator.comparingInt(PredicateExpression::cost));
+            return new Junction<>(conjunction, distinct);
+        }
+
+        /**
+         * Merge the EQUAL and IN comparisons of each property of a disjunction into a single IN comparison
+         */
+        private static <T> List<PredicateExpression<T>> mergeEqualities(List<PredicateExpression<T>> operands) {
+            Map<Property<T>, Set<Object>> values = new LinkedHashMap<>();
+            for ( PredicateExpression<T> operand : operands )
+                if ( isEquality(operand) )
+                    values.computeIfAbsent(((Comparison<T>) operand).property, p -> new LinkedHashSet<>())
+                          .addAll(((Comparison<T>) operand).operands);
+            List<PredicateExpression<T>> merged = new ArrayList<>(operands.size());
+            for ( PredicateExpression<T> operand : operands ) {
+                if ( !isEquality(operand) ) {
+                    merged.add(operand);
+                    continue;
+                }
+                Set<Object> propertyValues = values.remove(((Comparison<T>) operand).property);
+                if ( propertyValues != null )
+                    merged.add(((Comparison<T>) operand).property.in(propertyValues).simplify());
+            }
+            return merged;
+        }
+
+        private static boolean isEquality(PredicateExpression<?> operand) {
+            return operand instanceof Comparison
+                   && (((Comparison) operand).operator == Operator.EQUAL
+                       || ((Comparison) operand).operator == Operator.IN);
+        }
+
+        /**
+         * Merge the range comparisons (EQUAL, LESS_THAN, ..., BETWEEN) of each int or long property of a conjunction
+         * into a single comparison
+         *
+         * @return the merged operands, or null if the ranges of a property do not intersect
+         */
+        private static <T> List<PredicateExpression<T>> mergeRanges(List<PredicateExpression<T>> operands) {
+            Map<Property<T>, long[]>  ranges = new LinkedHashMap<>();
+            Map<Property<T>, Integer> counts = new LinkedHashMap<>();
+            for ( PredicateExpression<T> operand : operands ) {
+                if ( !isIntegralRange(operand) ) continue;
+                Comparison<T> comparison = (Comparison<T>) operand;
+                boolean       isInt      = comparison.property.getKind() == Kind.INT;
+                long[]        range      = ranges.computeIfAbsent(comparison.property,
+                                                                  p -> new long[]{
+                                                                      isInt ? Integer.MIN_VALUE : Long.MIN_VALUE,
+                                                                      isInt ? Integer.MAX_VALUE : Long.MAX_VALUE
+                                                                  });
+                counts.merge(comparison.property, 1, Integer::sum);
+                long value = ((Number) comparison.operands.get(0)).longValue();
+                switch ( comparison.operator ) {
+                    case EQUAL:
+                        range[0] = Math.max(range[0], value);
+                        range[1] = Math.min(range[1], value);
+                        break;
+                    case LESS_THAN:
+                        if ( value == Long.MIN_VALUE ) return null;
+                        range[1] = Math.min(range[1], value - 1);
+                        break;
+                    case LESS_THAN_OR_EQUAL:
+                        range[1] = Math.min(range[1], value);
+                        break;
+                    case GREATER_THAN:
+                        if ( value == Long.MAX_VALUE ) return null;
+                        range[0] = Math.max(range[0], value + 1);
+                        break;
+                    case GREATER_THAN_OR_EQUAL:
+                        range[0] = Math.max(range[0], value);
+                        break;
+                    case BETWEEN:
+                        range[0] = Math.max(range[0], value);
+                        range[1] = Math.min(range[1], ((Number) comparison.operands.get(1)).longValue());
+                        break;
+                }
+                if ( range[0] > range[1] ) return null;
+            }
+            List<PredicateExpression<T>> merged = new ArrayList<>(operands.size());
+            for ( PredicateExpression<T> operand : operands ) {
+                if ( !isIntegralRange(operand) || counts.get(((Comparison<T>) operand).property) == 1 ) {
+                    merged.add(operand);
+                    continue;
+                }
+                Property<T> property = ((Comparison<T>) operand).property;
+                long[]      range    = ranges.remove(property);
+                if ( range == null ) continue;
+                boolean isInt = property.getKind() == Kind.INT;
+                long    min   = isInt ? Integer.MIN_VALUE : Long.MIN_VALUE;
+                long    max   = isInt ? Integer.MAX_VALUE : Long.MAX_VALUE;
+                if ( range[0] == range[1] )
+                    merged.add(property.compare(Operator.EQUAL, box(isInt, range[0])));
+                else if ( range[0] == min && range[1] != max )
+                    merged.add(property.compare(Operator.LESS_THAN_OR_EQUAL, box(isInt, range[1])));
+                else if ( range[0] != min && range[1] == max )
+                    merged.add(property.compare(Operator.GREATER_THAN_OR_EQUAL, box(isInt, range[0])));
+                else if ( range[0] != min )
+                    merged.add(property.compare(Operator.BETWEEN, box(isInt, range[0]), box(isInt, range[1])));
+            }
+            return merged;
+        }
+
+        private static boolean isIntegralRange(PredicateExpression<?> operand) {
+            if ( !(operand instanceof Comparison) ) return false;
+            Comparison<?> comparison = (Comparison<?>) operand;
+            Kind          kind       = comparison.property.getKind();
+            if ( kind != Kind.INT && kind != Kind.LONG ) return false;
+            switch ( comparison.operator ) {
+                case EQUAL:
+                case LESS_THAN:
+                case LESS_THAN_OR_EQUAL:
+                case GREATER_THAN:
+                case GREATER_THAN_OR_EQUAL:
+                case BETWEEN:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private static Object box(boolean isInt,
+                                  long value)
+        {
+            return isInt ? (Object) (int) value : (Object) value;
+        }
+
+        /**
+         * Compile the (simplified) junction: the comparisons of the same property are grouped, at the position of the
+         * first of them, so that the property is extracted once
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        Predicate<T> compileSimplified() {
+            Map<Object, List<Comparison<T>>> groups = new LinkedHashMap<>();
+            for ( PredicateExpression<T> operand : operands )
+                groups.computeIfAbsent(operand instanceof Comparison ? ((Comparison) operand).property : operand,
+                                       k -> new ArrayList<>())
+                      .add(operand instanceof Comparison ? (Comparison<T>) operand : null);
+            Predicate<T>[] tests = new Predicate[groups.size()];
+            int            i     = 0;
+            for ( Map.Entry<Object, List<Comparison<T>>> group : groups.entrySet() )
+                tests[i++] = group.getKey() instanceof Property
+                             ? ((Property<T>) group.getKey()).compile(group.getValue(), conjunction)
+                             : ((PredicateExpression<T>) group.getKey()).compileSimplified();
+            return combine(tests, conjunction);
+        }
+
+        /**
+         * Compile the negation of the (simplified) junction by De Morgan's laws, which hold in three-valued logic: the
+         * junction is false where all (disjunction) or any (conjunction) of its operands are false
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        Predicate<T> compileNegatedSimplified() {
+            Predicate<T>[] tests = new Predicate[operands.size()];
+            for ( int i = 0; i < tests.length; i++ ) tests[i] = operands.get(i).compileNegatedSimplified();
+            return combine(tests, !conjunction);
+        }
+
+        private static <T> Predicate<T> combine(Predicate<T>[] tests,
+                                                boolean conjunction)
+        {
+            if ( tests.length == 1 ) return tests[0];
+            Predicate<T> a = tests[0];
+            Predicate<T> b = tests[1];
+            if ( tests.length == 2 ) return conjunction ? t -> a.test(t) && b.test(t) : t -> a.test(t) || b.test(t);
+            if ( tests.length == 3 ) {
+                Predicate<T> c = tests[2];
+                return conjunction
+                       ? t -> a.test(t) && b.test(t) && c.test(t)
+                       : t -> a.test(t) || b.test(t) || c.test(t);
+            }
+            if ( conjunction )
+                return t -> {
+                    for ( Predicate<T> test : tests )
+                        if ( !test.test(t) ) return false;
+                    return true;
+                };
+            return t -> {
+                for ( Predicate<T> test : tests )
+                    if ( test.test(t) ) return true;
+                return false;
+            };
+        }
+
+        @Override
+        int cost() {
+            int cost = 1;
+            for ( PredicateExpression<T> operand : operands ) cost += operand.cost();
+            return cost;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o
+                   || o instanceof Junction
+                      && conjunction == ((Junction) o).conjunction
+                      && operands.equals(((Junction) o).operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return operands.hashCode() * 31 + Boolean.hashCode(conjunction);
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream()
+                           .map(String::valueOf)
+                           .collect(joining(conjunction ? " AND " : " OR ", "(", ")"));
+        }
+    }
+
+    public static final class Negation<T> extends PredicateExpression<T>
+    {
+        private final PredicateExpression<T> operand;
+
+        private Negation(PredicateExpression<T> operand) {
+            this.operand = Objects.requireNonNull(operand, "operand");
+        }
+
+        public PredicateExpression<T> getOperand() {
+            return operand;
+        }
+
+        @Override
+        public <R> R accept(Visitor<T, R> visitor) {
+            return visitor.visitNegation(this);
+        }
+
+        @Override
+        public PredicateExpression<T> simplify() {
+            PredicateExpression<T> simplified = operand.simplify();
+            if ( simplified instanceof Constant ) return new Constant<>(!((Constant) simplified).value);
+            if ( simplified instanceof Negation ) return ((Negation<T>) simplified).operand;
+            return new Negation<>(simplified);
+        }
+
+        /**
+         * The negation is true where its operand is false, and unknown (so not accepted either) where its operand is
+         * unknown
+         */
+        @Override
+        Predicate<T> compileSimplified() {
+            return operand.compileNegatedSimplified();
+        }
+
+        @Override
+        Predicate<T> compileNegatedSimplified() {
+            return operand.compileSimplified();
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Negation && operand.equals(((Negation) o).operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~operand.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.ridgid.oss.common.function;
+
+import com.ridgid.oss.common.function.PredicateExpression.Comparison;
+import com.ridgid.oss.common.function.PredicateExpression.DoubleProperty;
+import com.ridgid.oss.common.function.PredicateExpression.IntProperty;
+import com.ridgid.oss.common.function.PredicateExpression.LongProperty;
+import com.ridgid.oss.common.function.PredicateExpression.ObjectProperty;
+import com.ridgid.oss.common.function.PredicateExpression.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static com.ridgid.oss.common.function.PredicateExpression.allOf;
+import static com.ridgid.oss.common.function.PredicateExpression.always;
+import static com.ridgid.oss.common.function.PredicateExpression.anyOf;
+import static com.ridgid.oss.common.function.PredicateExpression.doubleProperty;
+import static com.ridgid.oss.common.function.PredicateExpression.intProperty;
+import static com.ridgid.oss.common.function.PredicateExpression.longProperty;
+import static com.ridgid.oss.common.function.PredicateExpression.never;
+import static com.ridgid.oss.common.function.PredicateExpression.not;
+import static com.ridgid.oss.common.function.PredicateExpression.property;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PredicateExpression_Test {
+
+    private static class Address {
+        final String city;
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    private static class Row {
+        final String name;
+        final int i;
+        final long l;
+        final double d;
+        final Address address;
+
+        Row(String name, int i, long l, double d, Address address) {
+            this.name = name;
+            this.i = i;
+            this.l = l;
+            this.d = d;
+            this.address = address;
+        }
+
+        @Override
+        public String toString() {
+            return name + "/" + i;
+        }
+    }
+
+    private static final ObjectProperty<Row, String> name = property("name", r -> r.name);
+    private static final IntProperty<Row> i = intProperty("i", r -> r.i);
+    private static final LongProperty<Row> l = longProperty("l", r -> r.l);
+    private static final DoubleProperty<Row> d = doubleProperty("d", r -> r.d);
+    private static final ObjectProperty<Row, String> city
+            = property("address.city", r -> r.address == null ? null : r.address.city);
+
+    private static final Row b = new Row("b", 2, 2L, 2.0, new Address("x"));
+    private static final Row unnamed = new Row(null, 0, 0L, 0.0, null);
+
+    private static final List<Row> rows = Arrays.asList(
+            new Row("a", 1, 1L, 1.0, new Address("x")),
+            b,
+            new Row("c", 3, 3L, 3.0, new Address("y")),
+            unnamed);
+
+    private static List<String> matches(PredicateExpression<Row> expression) {
+        Predicate<Row> test = expression.compile();
+        return rows.stream().filter(test).map(String::valueOf).collect(toList());
+    }
+
+    private static List<String> names(String... rowNames) {
+        return Arrays.asList(rowNames);
+    }
+
+    @Test
+    void it_compiles_every_comparison_of_an_object_property() {
+        assertEquals(names("b/2"), matches(name.isEqualTo("b")));
+        assertEquals(names("a/1", "c/3"), matches(name.isNotEqualTo("b")));
+        assertEquals(names("a/1"), matches(name.isLessThan("b")));
+        assertEquals(names("a/1", "b/2"), matches(name.isLessThanOrEqualTo("b")));
+        assertEquals(names("c/3"), matches(name.isGreaterThan("b")));
+        assertEquals(names("b/2", "c/3"), matches(name.isGreaterThanOrEqualTo("b")));
+        assertEquals(names("a/1", "b/2"), matches(name.isBetween("a", "b")));
+        assertEquals(names("a/1", "c/3"), matches(name.isIn("a", "c", "z")));
+        assertEquals(names("null/0"), matches(name.isNull()));
+        assertEquals(names("a/1", "b/2", "c/3"), matches(name.isNotNull()));
+    }
+
+    @Test
+    void it_compiles_every_comparison_of_an_int_property() {
+        assertEquals(names("b/2"), matches(i.isEqualTo(2)));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(i.isNotEqualTo(2)));
+        assertEquals(names("a/1", "null/0"), matches(i.isLessThan(2)));
+        assertEquals(names("a/1", "b/2", "null/0"), matches(i.isLessThanOrEqualTo(2)));
+        assertEquals(names("c/3"), matches(i.isGreaterThan(2)));
+        assertEquals(names("b/2", "c/3"), matches(i.isGreaterThanOrEqualTo(2)));
+        assertEquals(names("a/1", "b/2"), matches(i.isBetween(1, 2)));
+        assertEquals(names("a/1", "c/3"), matches(i.isIn(1, 3, 5)));
+    }
+
+    @Test
+    void it_compiles_every_comparison_of_a_long_property() {
+        assertEquals(names("b/2"), matches(l.isEqualTo(2L)));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(l.isNotEqualTo(2L)));
+        assertEquals(names("a/1", "null/0"), matches(l.isLessThan(2L)));
+        assertEquals(names("a/1", "b/2", "null/0"), matches(l.isLessThanOrEqualTo(2L)));
+        assertEquals(names("c/3"), matches(l.isGreaterThan(2L)));
+        assertEquals(names("b/2", "c/3"), matches(l.isGreaterThanOrEqualTo(2L)));
+        assertEquals(names("a/1", "b/2"), matches(l.isBetween(1L, 2L)));
+        assertEquals(names("a/1", "c/3"), matches(l.isIn(1L, 3L, 5L)));
+    }
+
+    @Test
+    void it_compiles_every_comparison_of_a_double_property() {
+        assertEquals(names("b/2"), matches(d.isEqualTo(2.0)));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(d.isNotEqualTo(2.0)));
+        assertEquals(names("a/1", "null/0"), matches(d.isLessThan(2.0)));
+        assertEquals(names("a/1", "b/2", "null/0"), matches(d.isLessThanOrEqualTo(2.0)));
+        assertEquals(names("c/3"), matches(d.isGreaterThan(2.0)));
+        assertEquals(names("b/2", "c/3"), matches(d.isGreaterThanOrEqualTo(2.0)));
+        assertEquals(names("a/1", "b/2"), matches(d.isBetween(0.5, 2.5)));
+        assertEquals(names("a/1", "c/3"), matches(d.isIn(1.0, 3.0, 5.0)));
+    }
+
+    @Test
+    void it_rejects_null_operands() {
+        assertThrows(NullPointerException.class, () -> name.isEqualTo(null));
+        assertThrows(NullPointerException.class, () -> name.isBetween("a", null));
+        assertThrows(NullPointerException.class, () -> name.isIn("a", null));
+        assertThrows(NullPointerException.class, () -> not(null));
+        assertThrows(NullPointerException.class, () -> allOf(name.isNull(), null));
+    }
+
+    @Test
+    void it_resolves_a_nested_property_through_its_extractor() {
+        assertEquals(names("a/1", "b/2"), matches(city.isEqualTo("x")));
+        assertEquals(names("null/0"), matches(city.isNull()));
+        assertEquals(names("c/3"), matches(city.isNotEqualTo("x")));
+    }
+
+    @Test
+    void a_negated_comparison_of_a_null_property_is_unknown_so_it_is_not_accepted() {
+        assertEquals(names("a/1", "c/3"), matches(not(name.isEqualTo("b"))));
+        assertEquals(names("b/2"), matches(not(name.isNotEqualTo("b"))));
+        assertEquals(names("b/2", "c/3"), matches(not(name.isLessThan("b"))));
+        assertEquals(names("c/3"), matches(not(name.isIn("a", "b"))));
+        assertEquals(names("c/3"), matches(not(name.isBetween("a", "b"))));
+        assertEquals(names("c/3"), matches(not(city.isEqualTo("x"))));
+    }
+
+    @Test
+    void a_negated_null_check_is_never_unknown() {
+        assertEquals(names("a/1", "b/2", "c/3"), matches(not(name.isNull())));
+        assertEquals(names("null/0"), matches(not(name.isNotNull())));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(not(i.isEqualTo(2))));
+    }
+
+    @Test
+    void a_negated_junction_follows_three_valued_logic() {
+        // NOT (unknown OR false) is unknown; NOT (unknown AND false) is true
+        assertEquals(names("c/3"), matches(not(anyOf(name.isEqualTo("a"), i.isEqualTo(2)))));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(not(allOf(name.isNotNull(), i.isEqualTo(2)))));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(not(allOf(name.isEqualTo("b"), i.isEqualTo(2)))));
+        // NOT (unknown OR true) is false
+        assertEquals(names("a/1", "b/2"), matches(not(anyOf(name.isEqualTo("c"), i.isEqualTo(0)))));
+        // unknown OR true is true
+        assertEquals(names("b/2", "null/0"), matches(anyOf(name.isEqualTo("b"), name.isNull())));
+        assertEquals(names("a/1", "c/3", "null/0"), matches(anyOf(not(name.isEqualTo("b")), name.isNull())));
+    }
+
+    @Test
+    void double_negation_is_the_operand() {
+        PredicateExpression<Row> expression = name.isEqualTo("b");
+        assertEquals(expression, not(not(expression)).simplify());
+        assertEquals(matches(expression), matches(not(not(expression))));
+    }
+
+    @Test
+    void constants_are_folded_by_junctions_and_negations() {
+        PredicateExpression<Row> expression = name.isEqualTo("b");
+        assertEquals(expression, allOf(always(), expression).simplify());
+        assertEquals(never(), allOf(never(), expression).simplify());
+        assertEquals(always(), anyOf(always(), expression).simplify());
+        assertEquals(expression, anyOf(never(), expression).simplify());
+        assertEquals(never(), not(always()).simplify());
+        assertEquals(always(), not(never()).simplify());
+        assertEquals(always(), allOf(Collections.<PredicateExpression<Row>>emptyList()).simplify());
+        assertEquals(never(), anyOf(Collections.<PredicateExpression<Row>>emptyList()).simplify());
+        assertEquals(names(), matches(never()));
+        assertEquals(rows.size(), matches(always()).size());
+    }
+
+    @Test
+    void nested_junctions_of_the_same_kind_are_flattened_and_duplicates_removed() {
+        PredicateExpression<Row> a = name.isNotNull();
+        PredicateExpression<Row> c = d.isGreaterThan(1.5);
+        PredicateExpression<Row> simplified = allOf(a, allOf(c, a)).simplify();
+        assertEquals(allOf(a, c).simplify(), simplified);
+        assertEquals(names("b/2", "c/3"), matches(simplified));
+    }
+
+    @Test
+    void the_equalities_of_a_property_in_a_disjunction_are_merged_into_one_in() {
+        PredicateExpression<Row> simplified = anyOf(name.isEqualTo("a"), name.isIn("c", "a")).simplify();
+        assertTrue(simplified instanceof Comparison);
+        assertEquals(Operator.IN, ((Comparison<Row>) simplified).getOperator());
+        assertEquals(Arrays.<Object>asList("a", "c"), ((Comparison<Row>) simplified).getOperands());
+        assertEquals(names("a/1", "c/3"), matches(simplified));
+        assertEquals(name.isEqualTo("a"), name.isIn("a").simplify());
+        assertEquals(never(), name.isIn(Collections.<String>emptyList()).simplify());
+    }
+
+    @Test
+    void the_ranges_of_an_integral_property_in_a_conjunction_are_merged() {
+        assertEquals(i.isBetween(2, 4), allOf(i.isGreaterThan(1), i.isLessThan(5)).simplify());
+        assertEquals(i.isEqualTo(3), allOf(i.isGreaterThanOrEqualTo(3), i.isLessThanOrEqualTo(3)).simplify());
+        assertEquals(l.isLessThanOrEqualTo(4L), allOf(l.isLessThan(5L), l.isLessThan(9L)).simplify());
+        assertEquals(never(), allOf(i.isGreaterThan(3), i.isLessThan(2)).simplify());
+        assertEquals(never(), allOf(i.isLessThan(Integer.MIN_VALUE), i.isLessThan(0)).simplify());
+        assertEquals(names("b/2"), matches(allOf(i.isGreaterThan(1), i.isLessThan(3))));
+    }
+
+    @Test
+    void reordering_the_operands_of_a_junction_never_changes_its_result() {
+        PredicateExpression<Row> unknown = name.isEqualTo("z");
+        PredicateExpression<Row> known = i.isLessThan(2);
+        assertEquals(matches(anyOf(unknown, known)), matches(anyOf(known, unknown)));
+        assertEquals(matches(allOf(unknown, known)), matches(allOf(known, unknown)));
+        assertEquals(matches(not(anyOf(unknown, known))), matches(not(anyOf(known, unknown))));
+        assertEquals(matches(not(allOf(unknown, known))), matches(not(allOf(known, unknown))));
+        assertFalse(matches(not(anyOf(unknown, known))).contains("null/0"));
+    }
+}
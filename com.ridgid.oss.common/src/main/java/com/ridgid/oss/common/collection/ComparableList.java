@@ -8,6 +8,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -21,7 +22,16 @@ public interface ComparableList<T extends Comparable<? super T>>
     @SuppressWarnings({"unused"})
     @Override
     default int compareTo(List<T> list) {
-        return ComparisonHelpers.comparingNullsLast(this, list);
+        if ( !(this instanceof RandomAccess && list instanceof RandomAccess) )
+            return ComparisonHelpers.comparingNullsLast(this, list);
+        int size      = size();
+        int otherSize = list.size();
+        int length    = Math.min(size, otherSize);
+        for ( int i = 0; i < length; i++ ) {
+            int order = ComparisonHelpers.comparingNullsLast(get(i), list.get(i));
+            if ( order != 0 ) return order;
+        }
+        return Integer.compare(size, otherSize);
     }
 
     @SuppressWarnings("unchecked")
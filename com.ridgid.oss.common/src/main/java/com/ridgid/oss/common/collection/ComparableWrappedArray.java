@@ -10,6 +10,7 @@ public class ComparableWrappedArray<T extends Comparable<T>>
     implements Comparable<ComparableWrappedArray<T>>
 {
     private final T[] array;
+    private       int hash;
 
     public ComparableWrappedArray(T[] array) {
         this.array = array;
@@ -21,7 +22,13 @@ public class ComparableWrappedArray<T extends Comparable<T>>
 
     @Override
     public int compareTo(ComparableWrappedArray<T> o) {
-        return ComparisonHelpers.comparingNullsLast(stream(), o.stream());
+        T[] other  = o.array;
+        int length = Math.min(array.length, other.length);
+        for ( int i = 0; i < length; i++ ) {
+            int order = ComparisonHelpers.comparingNullsLast(array[i], other[i]);
+            if ( order != 0 ) return order;
+        }
+        return Integer.compare(array.length, other.length);
     }
 
     @Override
@@ -34,6 +41,9 @@ public class ComparableWrappedArray<T extends Comparable<T>>
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(array);
+        // computed once: the wrapped array is not to be modified once wrapped (as a key)
+        int h = hash;
+        if ( h == 0 ) hash = h = Arrays.hashCode(array);
+        return h;
     }
 }
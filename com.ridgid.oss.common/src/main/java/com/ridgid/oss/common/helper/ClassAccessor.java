@@ -0,0 +1,368 @@
+package com.ridgid.oss.common.helper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cached, per-class view of the fields of a class with pre-computed field lists and method handle based accessors for
+ * reading and writing the field values.
+ * <p>
+ * The fields of a class (and its super-classes) are reflected, and made accessible, only once per class; thereafter,
+ * obtaining the fields of the class, or, reading or writing a field value does not use reflection. The field accessors
+ * offer primitive-specialized getters and setters so that primitive fields can be read and written without boxing.
+ *
+ * @param <T> class whose fields are accessed
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ClassAccessor<T>
+{
+    private static final ClassValue<ClassAccessor<?>> accessors = new ClassValue<ClassAccessor<?>>()
+    {
+        @Override
+        protected ClassAccessor<?> computeValue(Class<?> type) {
+            return new ClassAccessor<>(type);
+        }
+    };
+
+    private final Class<T>                   type;
+    private final List<FieldAccessor>        declaredFields;
+    private final Map<String, FieldAccessor> declaredFieldsByName;
+    private final List<FieldAccessor>        nonStaticFields;
+    private final List<Field>                nonStaticReflectedFields;
+
+    private ClassAccessor(Class<T> type) {
+        this.type = type;
+        List<FieldAccessor>        declared       = new ArrayList<>();
+        Map<String, FieldAccessor> declaredByName = new HashMap<>();
+        for ( Field f : type.getDeclaredFields() ) {
+            FieldAccessor accessor = new FieldAccessor(f);
+            declared.add(accessor);
+            declaredByName.put(f.getName(), accessor);
+        }
+        this.declaredFields       = Collections.unmodifiableList(declared);
+        this.declaredFieldsByName = Collections.unmodifiableMap(declaredByName);
+
+        List<FieldAccessor> nonStatic = new ArrayList<>();
+        for ( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass() )
+            for ( FieldAccessor accessor : c == type ? declared : of(c).declaredFields )
+                if ( isCopyableNonStatic(accessor.field.getModifiers()) )
+                    nonStatic.add(accessor);
+        this.nonStaticFields = Collections.unmodifiableList(nonStatic);
+
+        List<Field> reflected = new ArrayList<>(nonStatic.size());
+        for ( FieldAccessor accessor : nonStatic ) reflected.add(accessor.field);
+        this.nonStaticReflectedFields = Collections.unmodifiableList(reflected);
+    }
+
+    /**
+     * @param type class to access the fields of
+     * @param <T>  class type
+     * @return the (cached) accessor for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClassAccessor<T> of(Class<T> type) {
+        return (ClassAccessor<T>) accessors.get(type);
+    }
+
+    /**
+     * @param field field to access
+     * @return the (cached) accessor for the field
+     */
+    public static FieldAccessor of(Field field) {
+        FieldAccessor accessor = of(field.getDeclaringClass()).declaredFieldsByName.get(field.getName());
+        if ( accessor == null ) throw new IllegalArgumentException("Unknown field: " + field);
+        return accessor;
+    }
+
+    private static boolean isCopyableNonStatic(int modifiers) {
+        return !(Modifier.isStatic(modifiers)
+                 || Modifier.isFinal(modifiers)
+                 || Modifier.isTransient(modifiers)
+                 || Modifier.isVolatile(modifiers)
+                 || Modifier.isNative(modifiers));
+    }
+
+    /**
+     * @return the class whose fields are accessed
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return accessors for the fields declared by the class itself (not its super-classes), in declaration order
+     */
+    public List<FieldAccessor> getDeclaredFields() {
+        return declaredFields;
+    }
+
+    /**
+     * @param name name of a field declared by the class itself (not its super-classes)
+     * @return accessor for the field, or empty if the class does not declare such a field
+     */
+    public Optional<FieldAccessor> getDeclaredField(String name) {
+        return Optional.ofNullable(declaredFieldsByName.get(name));
+    }
+
+    /**
+     * @return accessors for all the non-static, non-final, non-transient, non-volatile fields of the class and its
+     * super-classes (the fields given by {@code FieldReflectionHelpers.streamAllNonStaticFieldsFor}), sub-class first
+     */
+    public List<FieldAccessor> getNonStaticFields() {
+        return nonStaticFields;
+    }
+
+    /**
+     * @return the (accessible) fields corresponding to {@code getNonStaticFields()}
+     */
+    public List<Field> getNonStaticReflectedFields() {
+        return nonStaticReflectedFields;
+    }
+
+    /**
+     * Method handle based accessor of a single field; for static fields, the target object of the getters and setters is
+     * ignored
+     */
+    public static final class FieldAccessor
+    {
+        private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Field        field;
+        private final boolean      isStatic;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle exactGetter;
+        private final MethodHandle exactSetter;
+
+        private FieldAccessor(Field field) {
+            field.setAccessible(true);
+            this.field    = field;
+            this.isStatic = Modifier.isStatic(field.getModifiers());
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle         get    = lookup.unreflectGetter(field);
+                MethodHandle         set    = isStatic && Modifier.isFinal(field.getModifiers())
+                                              ? null
+                                              : lookup.unreflectSetter(field);
+                if ( isStatic ) {
+                    get = MethodHandles.dropArguments(get, 0, Object.class);
+                    if ( set != null ) set = MethodHandles.dropArguments(set, 0, Object.class);
+                }
+                Class<?> primitive = field.getType().isPrimitive() ? field.getType() : Object.class;
+                this.exactGetter = get.asType(MethodType.methodType(primitive, Object.class));
+                this.exactSetter = set == null ? null : set.asType(MethodType.methodType(void.class, Object.class, primitive));
+                this.getter      = get.asType(OBJECT_GETTER);
+                this.setter      = set == null ? null : set.asType(OBJECT_SETTER);
+            } catch ( IllegalAccessException e ) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * @return the (accessible) field
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * @return name of the field
+         */
+        public String getName() {
+            return field.getName();
+        }
+
+        /**
+         * @return declared type of the field
+         */
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        public Object get(Object obj) {
+            try {
+                return getter.invokeExact(obj);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public void set(Object obj,
+                        Object value)
+        {
+            try {
+                requireSetter().invokeExact(obj, value);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public boolean getBoolean(Object obj) {
+            try {
+                return (boolean) requireType(boolean.class).exactGetter.invokeExact(obj);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public void setBoolean(Object obj,
+                               boolean value)
+        {
+            try {
+                requireType(boolean.class).requireExactSetter().invokeExact(obj, value);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public int getInt(Object obj) {
+            try {
+                return (int) requireType(int.class).exactGetter.invokeExact(obj);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public void setInt(Object obj,
+                           int value)
+        {
+            try {
+                requireType(int.class).requireExactSetter().invokeExact(obj, value);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public long getLong(Object obj) {
+            try {
+                return (long) requireType(long.class).exactGetter.invokeExact(obj);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public void setLong(Object obj,
+                            long value)
+        {
+            try {
+                requireType(long.class).requireExactSetter().invokeExact(obj, value);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public double getDouble(Object obj) {
+            try {
+                return (double) requireType(double.class).exactGetter.invokeExact(obj);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        public void setDouble(Object obj,
+                              double value)
+        {
+            try {
+                requireType(double.class).requireExactSetter().invokeExact(obj, value);
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        /**
+         * Copy the value of this field from one object to another; primitive values are copied without boxing
+         *
+         * @param from object to copy the field value from
+         * @param to   object to copy the field value to
+         */
+        public void copy(Object from,
+                         Object to)
+        {
+            try {
+                Class<?> type = field.getType();
+                if ( type == int.class )
+                    requireExactSetter().invokeExact(to, (int) exactGetter.invokeExact(from));
+                else if ( type == long.class )
+                    requireExactSetter().invokeExact(to, (long) exactGetter.invokeExact(from));
+                else if ( type == double.class )
+                    requireExactSetter().invokeExact(to, (double) exactGetter.invokeExact(from));
+                else if ( type == boolean.class )
+                    requireExactSetter().invokeExact(to, (boolean) exactGetter.invokeExact(from));
+                else
+                    requireSetter().invokeExact(to, (Object) getter.invokeExact(from));
+            } catch ( RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        /**
+         * @param valueType type to adapt the value of the field to (boxing, unboxing, widening or casting it as needed)
+         * @return method handle of type {@code (Object)valueType} that reads the field
+         */
+        MethodHandle getterHandle(Class<?> valueType) {
+            return exactGetter.asType(MethodType.methodType(valueType, Object.class));
+        }
+
+        /**
+         * @param valueType type to adapt the value to set into the field from (boxing, unboxing, widening or casting it
+         *                  as needed)
+         * @return method handle of type {@code (Object,valueType)void} that writes the field
+         */
+        MethodHandle setterHandle(Class<?> valueType) {
+            return requireExactSetter().asType(MethodType.methodType(void.class, Object.class, valueType));
+        }
+
+        private FieldAccessor requireType(Class<?> primitive) {
+            if ( field.getType() != primitive )
+                throw new IllegalArgumentException("Field " + field + " is not of type " + primitive.getName());
+            return this;
+        }
+
+        private MethodHandle requireSetter() {
+            if ( setter == null ) throw new IllegalArgumentException("Field " + field + " is static final");
+            return setter;
+        }
+
+        private MethodHandle requireExactSetter() {
+            if ( exactSetter == null ) throw new IllegalArgumentException("Field " + field + " is static final");
+            return exactSetter;
+        }
+
+        @Override
+        public String toString() {
+            return field.toString();
+        }
+    }
+}
@@ -68,6 +68,19 @@ public final class ComparisonHelpers
         return comparingWithComparator(ComparisonHelpers::comparingWithNullsLast, objects);
     }
 
+    /**
+     * Compare a single pair of values (without allocating the array of the varargs overload)
+     *
+     * @param lhs
+     * @param rhs
+     * @return
+     */
+    public static int comparingNullsLast(Comparable lhs,
+                                         Comparable rhs)
+    {
+        return comparingWithNullsLast(lhs, rhs);
+    }
+
     public static <T extends Comparable<? super T>> int comparing(T[] lhs,
                                                                   T[] rhs)
     {
@@ -3,20 +3,50 @@ package com.ridgid.oss.common.helper;
 import com.ridgid.oss.common.tuple.Pair;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 @SuppressWarnings({"unused", "unchecked"})
 public final class CopyHelpers {
 
+    private static final int MAX_CACHED_PLANS_PER_CLASS_PAIR = 64;
+    private static final int MAX_CACHED_MAPPER_PLANS_PER_CLASS_PAIR = 16;
+    private static final int HOT_TRANSFORM_THRESHOLD = 10_000;
+    private static final MethodType COPY_FIELD = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle FUNCTION_APPLY;
+    private static final ClassValue<ClassValue<TransformerCache>> transformers
+            = new ClassValue<ClassValue<TransformerCache>>() {
+        @Override
+        protected ClassValue<TransformerCache> computeValue(Class<?> modelFromClass) {
+            return new ClassValue<TransformerCache>() {
+                @Override
+                protected TransformerCache computeValue(Class<?> modelToClass) {
+                    return new TransformerCache();
+                }
+            };
+        }
+    };
+
+    static {
+        try {
+            FUNCTION_APPLY = MethodHandles.publicLookup()
+                    .findVirtual(Function.class, "apply", MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private CopyHelpers() {
     }
 
@@ -197,6 +227,47 @@ public final class CopyHelpers {
                 );
     }
 
+    /**
+     * Same as {@code copyTransformerFor(modelFromClass, modelToClass)} except that the fields holding a
+     * {@code CopyableModel} are deep-copied (transformed into a new instance of the {@code CopyableModel} type of the
+     * target field) instead of having the reference to the same instance copied; the source object graph must not be
+     * cyclic.
+     */
+    public static <ModelFrom extends CopyableModel, ModelTo extends CopyableModel>
+    ModelTransformer<ModelFrom, ModelTo> deepCopyTransformerFor(Class<ModelFrom> modelFromClass,
+                                                                Class<ModelTo> modelToClass) {
+        return deepCopyTransformerFor
+                (
+                        modelFromClass,
+                        modelToClass,
+                        Collections.EMPTY_SET,
+                        Collections.EMPTY_MAP
+                );
+    }
+
+    /**
+     * Same as {@code copyTransformerFor(modelFromClass, modelToClass, excludeFromFields, fromToFieldAliases)} except
+     * that the fields holding a {@code CopyableModel} are deep-copied (see {@code deepCopyTransformerFor})
+     */
+    public static <ModelFrom extends CopyableModel, ModelTo extends CopyableModel>
+    ModelTransformer<ModelFrom, ModelTo> deepCopyTransformerFor(Class<ModelFrom> modelFromClass,
+                                                                Class<ModelTo> modelToClass,
+                                                                Set<String> excludeFromFields,
+                                                                Map<String, String> fromToFieldAliases) {
+        return copyTransformerFor
+                (
+                        new CopyPlanKey
+                                (
+                                        modelFromClass,
+                                        modelToClass,
+                                        excludeFromFields,
+                                        fromToFieldAliases,
+                                        Collections.EMPTY_SET,
+                                        Collections.EMPTY_MAP,
+                                        true
+                                )
+                );
+    }
 
     private static <ModelFrom extends CopyableModel, ModelTo extends CopyableModel>
     ModelTransformer<ModelFrom, ModelTo> copyTransformerFor(Class<ModelFrom> modelFromClass,
@@ -205,20 +276,52 @@ public final class CopyHelpers {
                                                             Map<String, String> fromToFieldAliases,
                                                             Set<String> excludeToFields,
                                                             Map<String, Function<Object, Object>> fromTypeMappers) {
-        Map<String, Field> toFields = new HashMap<>();
-        FieldReflectionHelpers
-                .streamAllNonStaticFieldsFor(modelToClass)
+        return copyTransformerFor
+                (
+                        new CopyPlanKey
+                                (
+                                        modelFromClass,
+                                        modelToClass,
+                                        excludeFromFields,
+                                        fromToFieldAliases,
+                                        excludeToFields,
+                                        fromTypeMappers,
+                                        false
+                                )
+                );
+    }
+
+    /**
+     * The copy plan (the field pairs to copy, with their value mappers and copy strategy, compiled into method handles)
+     * is built once per distinct combination of options, and the transformer holding it is cached with the pair of
+     * classes; see {@code TransformerCache}. The cache of a pair is a class value of the target class, and its keys and
+     * transformers reference the source class, so it keeps the source class reachable for as long as the target class
+     * is (when both come from the same class loader, they can still be unloaded together).
+     */
+    private static <ModelFrom extends CopyableModel, ModelTo extends CopyableModel>
+    ModelTransformer<ModelFrom, ModelTo> copyTransformerFor(CopyPlanKey key) {
+        return (ModelTransformer<ModelFrom, ModelTo>) transformers
+                .get(key.modelFromClass)
+                .get(key.modelToClass)
+                .get(key);
+    }
+
+    private static MethodHandle[] compileCopyPlan(CopyPlanKey key) {
+        Map<String, ClassAccessor.FieldAccessor> toFields = new HashMap<>();
+        ClassAccessor.of(key.modelToClass)
+                .getNonStaticFields()
                 .forEach(f -> toFields.putIfAbsent(f.getName(), f));
-        List<FieldTransformer> fieldsMap = FieldReflectionHelpers
-                .streamAllNonStaticFieldsFor(modelFromClass)
-                .filter(f -> !excludeFromFields.contains(f.getName()))
-                .map(f -> new FieldTransformer(f, fromToFieldAliases.getOrDefault(f.getName(), f.getName())))
-                .filter(f -> !excludeToFields.contains(f.getToFieldName()))
+        return ClassAccessor.of(key.modelFromClass)
+                .getNonStaticFields()
+                .stream()
+                .filter(f -> !key.excludeFromFields.contains(f.getName()))
+                .map(f -> new FieldTransformer(f, key.fromToFieldAliases.getOrDefault(f.getName(), f.getName())))
+                .filter(f -> !key.excludeToFields.contains(f.getToFieldName()))
                 .peek(f -> f.setToField(toFields.get(f.getToFieldName())))
                 .filter(f -> f.getToField() != null)
-                .peek(f -> f.setFromTypeMapper(fromTypeMappers.get(f.getFromField().getName())))
-                .collect(toList());
-        return new ModelTransformerImpl(modelFromClass, modelToClass, fieldsMap);
+                .peek(f -> f.setFromTypeMapper(key.fromTypeMappers.get(f.getFromField().getName())))
+                .map(f -> f.compile(key.deep))
+                .toArray(MethodHandle[]::new);
     }
 
     private static <ModelFrom extends CopyableModel, ModelTo extends CopyableModel>
@@ -264,28 +367,34 @@ public final class CopyHelpers {
         private final Class<ModelFrom> modelFromClass;
         private final Class<ModelTo> modelToClass;
         private final Supplier<ModelTo> modelToSupplier;
-        private final List<FieldTransformer> fieldsMap;
+        private final MethodHandle[] copyPlan;
+        private volatile MethodHandle fusedCopyPlan;
+        private final AtomicInteger transformCount = new AtomicInteger();
 
         ModelTransformerImpl(Class<ModelFrom> modelFromClass,
                              Class<ModelTo> modelToClass,
-                             List<FieldTransformer> fieldsMap) {
+                             MethodHandle[] copyPlan) {
             this.modelFromClass = modelFromClass;
             this.modelToClass = modelToClass;
             this.modelToSupplier = prepareModelToSupplier(modelToClass);
-            this.fieldsMap = fieldsMap;
+            this.copyPlan = copyPlan;
         }
 
         private Supplier<ModelTo> prepareModelToSupplier(Class<ModelTo> modelToClass) {
             try {
-                Constructor<ModelTo> modelToConstructor = modelToClass.getConstructor();
+                MethodHandle modelToConstructor = MethodHandles.lookup()
+                        .unreflectConstructor(modelToClass.getConstructor())
+                        .asType(MethodType.methodType(Object.class));
                 return () -> {
                     try {
-                        return modelToConstructor.newInstance();
-                    } catch (NullPointerException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                        throw new RuntimeException("ModelTo type does not have a valid no argument constructor", e);
+                        return (ModelTo) (Object) modelToConstructor.invokeExact();
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        throw new RuntimeException("ModelTo type does not have a valid no argument constructor", t);
                     }
                 };
-            } catch (NoSuchMethodException e) {
+            } catch (NoSuchMethodException | IllegalAccessException e) {
                 return () -> {
                     throw new RuntimeException("ModelTo type does not have a valid no argument constructor", e);
                 };
@@ -310,18 +419,20 @@ public final class CopyHelpers {
         @Override
         public ModelTo transform(Supplier<ModelTo> modelToSupplier, ModelFrom fromModel) {
             ModelTo toModel = modelToSupplier.get();
-            for (FieldTransformer fieldMap : fieldsMap) {
-                Object fromValue = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException
-                        (
-                                fromModel,
-                                fieldMap.getFromField()
-                        );
-                FieldReflectionHelpers.setFieldValueOrThrowException
-                        (
-                                toModel,
-                                fieldMap.getToField(),
-                                fieldMap.mapValue(fromValue)
-                        );
+            try {
+                MethodHandle fused = fusedCopyPlan;
+                if (fused != null) {
+                    fused.invokeExact((Object) fromModel, (Object) toModel);
+                } else {
+                    for (MethodHandle copyField : copyPlan)
+                        copyField.invokeExact((Object) fromModel, (Object) toModel);
+                    if (transformCount.incrementAndGet() >= HOT_TRANSFORM_THRESHOLD && copyPlan.length > 1)
+                        fusedCopyPlan = fuse(copyPlan);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
             }
             return toModel;
         }
@@ -335,20 +446,31 @@ public final class CopyHelpers {
         public Stream<ModelTo> transform(Supplier<ModelTo> modelToSupplier, Collection<ModelFrom> fromModels) {
             return fromModels.stream().map(fm -> transform(modelToSupplier, fm));
         }
+
+        /**
+         * Fold the per-field copy steps of a (hot) copy plan into a single method handle, which the JVM compiles into
+         * one generated copier for the pair of classes, so a transform is a single call instead of one call per field
+         */
+        private static MethodHandle fuse(MethodHandle[] copyPlan) {
+            MethodHandle fused = copyPlan[copyPlan.length - 1];
+            for (int i = copyPlan.length - 2; i >= 0; i--)
+                fused = MethodHandles.foldArguments(fused, copyPlan[i]);
+            return fused;
+        }
     }
 
     private static class FieldTransformer {
-        private final Field fromField;
+        private final ClassAccessor.FieldAccessor fromField;
         private final String toFieldName;
-        private Field toField;
+        private ClassAccessor.FieldAccessor toField;
         private Function<Object, Object> fromTypeMapper;
 
-        FieldTransformer(Field fromField, String toFieldName) {
+        FieldTransformer(ClassAccessor.FieldAccessor fromField, String toFieldName) {
             this.fromField = fromField;
             this.toFieldName = toFieldName;
         }
 
-        Field getFromField() {
+        ClassAccessor.FieldAccessor getFromField() {
             return fromField;
         }
 
@@ -356,11 +478,11 @@ public final class CopyHelpers {
             return toFieldName;
         }
 
-        void setToField(Field toField) {
+        void setToField(ClassAccessor.FieldAccessor toField) {
             this.toField = toField;
         }
 
-        Field getToField() {
+        ClassAccessor.FieldAccessor getToField() {
             return toField;
         }
 
@@ -368,8 +490,183 @@ public final class CopyHelpers {
             this.fromTypeMapper = fromTypeMapper;
         }
 
-        Object mapValue(Object fromValue) {
-            return fromTypeMapper == null ? fromValue : fromTypeMapper.apply(fromValue);
+        /**
+         * @param deep whether a field holding a {@code CopyableModel} is deep-copied
+         * @return method handle of type {@code (Object from, Object to)void} copying the field from one model to the
+         * other: a value mapper, or a deep-copy, is applied to the boxed value; otherwise the value is copied with the
+         * type of the target field (so primitive values are copied without boxing)
+         */
+        MethodHandle compile(boolean deep) {
+            Function<Object, Object> valueMapper = fromTypeMapper;
+            if (valueMapper == null && deep && isDeepCopyable(fromField.getType(), toField.getType()))
+                valueMapper = new DeepCopier(fromField.getType(), toField.getType());
+            MethodHandle get = null;
+            MethodHandle set = null;
+            if (valueMapper == null) {
+                try {
+                    get = fromField.getterHandle(toField.getType());
+                    set = toField.setterHandle(toField.getType());
+                } catch (WrongMethodTypeException e) {
+                    get = null;
+                }
+            }
+            if (get == null) {
+                get = fromField.getterHandle(Object.class);
+                if (valueMapper != null)
+                    get = MethodHandles.filterReturnValue(get, FUNCTION_APPLY.bindTo(valueMapper));
+                set = toField.setterHandle(Object.class);
+            }
+            return MethodHandles.permuteArguments
+                    (
+                            MethodHandles.filterArguments(set, 1, get),
+                            COPY_FIELD,
+                            1,
+                            0
+                    );
+        }
+
+        private static boolean isDeepCopyable(Class<?> fromType, Class<?> toType) {
+            return CopyableModel.class.isAssignableFrom(fromType)
+                    && CopyableModel.class.isAssignableFrom(toType)
+                    && !toType.isInterface()
+                    && !Modifier.isAbstract(toType.getModifiers());
+        }
+    }
+
+    /**
+     * Deep-copies a (non-null) {@code CopyableModel} field value with the (lazily resolved, to allow for models
+     * referencing their own class) deep-copy transformer for the runtime class of the value
+     */
+    private static class DeepCopier implements Function<Object, Object> {
+        private final Class<?> fromType;
+        private final Class<?> toType;
+        private volatile ModelTransformer declaredTypeTransformer;
+
+        DeepCopier(Class<?> fromType, Class<?> toType) {
+            this.fromType = fromType;
+            this.toType = toType;
+        }
+
+        @Override
+        public Object apply(Object fromValue) {
+            if (fromValue == null) return null;
+            ModelTransformer transformer;
+            if (fromValue.getClass() == fromType) {
+                transformer = declaredTypeTransformer;
+                if (transformer == null)
+                    declaredTypeTransformer = transformer = deepCopyTransformerFor(fromType, toType);
+            } else {
+                transformer = deepCopyTransformerFor(fromValue.getClass(), toType);
+            }
+            return transformer.transform((CopyableModel) fromValue);
+        }
+
+        private static ModelTransformer deepCopyTransformerFor(Class<?> fromType, Class<?> toType) {
+            return CopyHelpers.deepCopyTransformerFor
+                    (
+                            (Class<CopyableModel>) fromType,
+                            (Class<CopyableModel>) toType
+                    );
+        }
+    }
+
+    /**
+     * Transformers of one pair of classes, in two bounded least-recently-used caches: one for the plans without value
+     * mappers, and one for the plans with value mappers. The mapper plans are keyed by the identity of the mapper
+     * functions, so callers passing a new lambda on each call only ever evict other mapper plans, never the plain ones.
+     */
+    private static final class TransformerCache {
+        private final Map<CopyPlanKey, ModelTransformer<?, ?>> plans
+                = new LeastRecentlyUsed(MAX_CACHED_PLANS_PER_CLASS_PAIR);
+        private final Map<CopyPlanKey, ModelTransformer<?, ?>> mapperPlans
+                = new LeastRecentlyUsed(MAX_CACHED_MAPPER_PLANS_PER_CLASS_PAIR);
+
+        ModelTransformer<?, ?> get(CopyPlanKey key) {
+            Map<CopyPlanKey, ModelTransformer<?, ?>> cache = key.fromTypeMappers.isEmpty() ? plans : mapperPlans;
+            synchronized (cache) {
+                ModelTransformer<?, ?> transformer = cache.get(key);
+                if (transformer != null) return transformer;
+            }
+            // compiled outside the lock: compiling a plan may resolve the transformers of other pairs of classes
+            ModelTransformer<?, ?> transformer
+                    = new ModelTransformerImpl(key.modelFromClass, key.modelToClass, compileCopyPlan(key));
+            synchronized (cache) {
+                ModelTransformer<?, ?> existing = cache.putIfAbsent(key, transformer);
+                return existing != null ? existing : transformer;
+            }
+        }
+    }
+
+    private static final class LeastRecentlyUsed extends LinkedHashMap<CopyPlanKey, ModelTransformer<?, ?>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        LeastRecentlyUsed(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CopyPlanKey, ModelTransformer<?, ?>> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+    private static final class CopyPlanKey {
+        private final Class<?> modelFromClass;
+        private final Class<?> modelToClass;
+        private final Set<String> excludeFromFields;
+        private final Map<String, String> fromToFieldAliases;
+        private final Set<String> excludeToFields;
+        private final Map<String, Function<Object, Object>> fromTypeMappers;
+        private final boolean deep;
+        private final int hashCode;
+
+        CopyPlanKey(Class<?> modelFromClass,
+                    Class<?> modelToClass,
+                    Set<String> excludeFromFields,
+                    Map<String, String> fromToFieldAliases,
+                    Set<String> excludeToFields,
+                    Map<String, Function<Object, Object>> fromTypeMappers,
+                    boolean deep) {
+            this.modelFromClass = modelFromClass;
+            this.modelToClass = modelToClass;
+            this.excludeFromFields = new HashSet<>(excludeFromFields);
+            this.fromToFieldAliases = new HashMap<>(fromToFieldAliases);
+            this.excludeToFields = new HashSet<>(excludeToFields);
+            this.fromTypeMappers = new HashMap<>(fromTypeMappers);
+            this.deep = deep;
+            this.hashCode = Objects.hash
+                    (
+                            modelFromClass,
+                            modelToClass,
+                            this.excludeFromFields,
+                            this.fromToFieldAliases,
+                            this.excludeToFields,
+                            this.fromTypeMappers,
+                            deep
+                    );
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CopyPlanKey)) return false;
+            CopyPlanKey that = (CopyPlanKey) o;
+            return hashCode == that.hashCode
+                    && deep == that.deep
+                    && modelFromClass == that.modelFromClass
+                    && modelToClass == that.modelToClass
+                    && excludeFromFields.equals(that.excludeFromFields)
+                    && fromToFieldAliases.equals(that.fromToFieldAliases)
+                    && excludeToFields.equals(that.excludeToFields)
+                    && fromTypeMappers.equals(that.fromTypeMappers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 }
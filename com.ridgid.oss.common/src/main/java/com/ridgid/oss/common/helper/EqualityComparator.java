@@ -0,0 +1,652 @@
+package com.ridgid.oss.common.helper;
+
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled, cached structural equality and difference plan for a class: compares the values of a list of fields (given
+ * by name, or dotted path into the object, or all the non-static fields of the class) and of a list of child
+ * collections of two instances of the class.
+ * <p>
+ * The fields, their accessors and the way each value is compared (primitive, {@code equals}, array, field-by-field, or
+ * by identity) are determined once per class and list of fields; thereafter comparing two objects does not use
+ * reflection. {@code areEqual} stops at the first difference and does not allocate (other than to match the elements of
+ * unordered child collections); {@code diff} compares everything and returns the field-level differences. Child
+ * collections that are both {@code List}s are compared element by element in order; any other child collections are
+ * compared as unordered collections, matching their elements by a hash of the compared fields, in linear time.
+ * <p>
+ * Example Usage:
+ * <pre>
+ * {@code
+ *      EqualityComparator<Order> comparator = EqualityComparator.of(Order.class,
+ *                                                                   Arrays.asList("number", "customer.code"),
+ *                                                                   Collections.singletonList("lines"),
+ *                                                                   Collections.singletonList(OrderLine.class));
+ *      if ( !comparator.areEqual(persisted, submitted) )
+ *          for ( FieldDifference difference : comparator.diff(persisted, submitted) ) ...
+ * }
+ * </pre>
+ *
+ * @param <T> class of the objects compared
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class EqualityComparator<T>
+{
+    private static final ClassValue<Map<List<List<?>>, EqualityComparator<?>>> comparators
+        = new ClassValue<Map<List<List<?>>, EqualityComparator<?>>>()
+    {
+        @Override
+        protected Map<List<List<?>>, EqualityComparator<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<ValueKind> valueKinds = new ClassValue<ValueKind>()
+    {
+        @Override
+        protected ValueKind computeValue(Class<?> type) {
+            return ValueKind.of(type);
+        }
+    };
+
+    private static final List<List<?>> ALL_FIELDS = Collections.singletonList(Collections.emptyList());
+
+    private final Class<T>                    type;
+    private final FieldComparison[]           fields;
+    private final ChildCollectionComparison[] childCollections;
+
+    private EqualityComparator(Class<T> type,
+                               FieldComparison[] fields,
+                               ChildCollectionComparison[] childCollections)
+    {
+        this.type             = type;
+        this.fields           = fields;
+        this.childCollections = childCollections;
+    }
+
+    /**
+     * @param type class of the objects to compare
+     * @param <T>  class type
+     * @return the (cached) comparator of all the non-static, non-final, non-transient, non-volatile fields of the class
+     * and its super-classes, except the fields holding a collection
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EqualityComparator<T> of(Class<T> type) {
+        Map<List<List<?>>, EqualityComparator<?>> cache      = comparators.get(type);
+        EqualityComparator<?>                     comparator = cache.get(ALL_FIELDS);
+        if ( comparator == null ) {
+            List<FieldComparison> fields = new ArrayList<>();
+            for ( FieldAccessor field : ClassAccessor.of(type).getNonStaticFields() )
+                if ( !Collection.class.isAssignableFrom(field.getType()) )
+                    fields.add(new FieldComparison(field.getName(), new FieldAccessor[0], field));
+            comparator = cache(cache,
+                               ALL_FIELDS,
+                               new EqualityComparator<>(type,
+                                                        fields.toArray(new FieldComparison[0]),
+                                                        new ChildCollectionComparison[0]));
+        }
+        return (EqualityComparator<T>) comparator;
+    }
+
+    /**
+     * @param type       class of the objects to compare
+     * @param fieldPaths names of the fields (of the class or its super-classes) to compare, or, dotted paths of field
+     *                   names into the object; fields that are static, transient, volatile or hold a collection are
+     *                   ignored
+     * @param <T>        class type
+     * @return the (cached) comparator of the given fields of the class
+     */
+    public static <T> EqualityComparator<T> of(Class<T> type,
+                                               List<String> fieldPaths)
+    {
+        return of(type, fieldPaths, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * @param type                      class of the objects to compare
+     * @param fieldPaths                names of the fields (of the class or its super-classes) to compare, or, dotted
+     *                                  paths of field names into the object; fields that are static, transient,
+     *                                  volatile or hold a collection are ignored
+     * @param childCollectionFieldNames names of the fields holding child collections to compare
+     * @param childElementTypes         type of the elements of each of the child collections; the elements are compared
+     *                                  with {@code EqualityComparator.of(elementType)}
+     * @param <T>                       class type
+     * @return the (cached) comparator of the given fields and child collections of the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EqualityComparator<T> of(Class<T> type,
+                                               List<String> fieldPaths,
+                                               List<String> childCollectionFieldNames,
+                                               List<? extends Class<?>> childElementTypes)
+    {
+        if ( childCollectionFieldNames.size() != childElementTypes.size() )
+            throw new IllegalArgumentException("childCollectionFieldNames and childElementTypes must be the same size");
+        Map<List<List<?>>, EqualityComparator<?>> cache      = comparators.get(type);
+        List<List<?>>                             key        = Arrays.asList(fieldPaths,
+                                                                             childCollectionFieldNames,
+                                                                             childElementTypes);
+        EqualityComparator<?>                     comparator = cache.get(key);
+        if ( comparator == null ) {
+            List<FieldComparison> fields = new ArrayList<>(fieldPaths.size());
+            for ( String fieldPath : fieldPaths ) {
+                FieldComparison field = compileFieldPath(type, fieldPath);
+                if ( field != null ) fields.add(field);
+            }
+            ChildCollectionComparison[] collections = new ChildCollectionComparison[childCollectionFieldNames.size()];
+            for ( int i = 0; i < collections.length; i++ )
+                collections[i] = new ChildCollectionComparison(childCollectionFieldNames.get(i),
+                                                               findField(type, childCollectionFieldNames.get(i)),
+                                                               childElementTypes.get(i));
+            comparator = cache(cache,
+                               Arrays.asList(new ArrayList<>(fieldPaths),
+                                             new ArrayList<>(childCollectionFieldNames),
+                                             new ArrayList<>(childElementTypes)),
+                               new EqualityComparator<>(type, fields.toArray(new FieldComparison[0]), collections));
+        }
+        return (EqualityComparator<T>) comparator;
+    }
+
+    private static EqualityComparator<?> cache(Map<List<List<?>>, EqualityComparator<?>> cache,
+                                               List<List<?>> key,
+                                               EqualityComparator<?> comparator)
+    {
+        EqualityComparator<?> existing = cache.putIfAbsent(key, comparator);
+        return existing == null ? comparator : existing;
+    }
+
+    private static FieldComparison compileFieldPath(Class<?> type,
+                                                    String fieldPath)
+    {
+        String[]        names     = fieldPath.split("\\.");
+        FieldAccessor[] ownerPath = new FieldAccessor[names.length - 1];
+        Class<?>        owner     = type;
+        for ( int i = 0; i < ownerPath.length; i++ ) {
+            ownerPath[i] = findField(owner, names[i]);
+            owner        = ownerPath[i].getType();
+        }
+        FieldAccessor field     = findField(owner, names[names.length - 1]);
+        int           modifiers = field.getField().getModifiers();
+        if ( Modifier.isStatic(modifiers)
+             || Modifier.isTransient(modifiers)
+             || Modifier.isVolatile(modifiers)
+             || Collection.class.isAssignableFrom(field.getType()) )
+            return null;
+        return new FieldComparison(fieldPath, ownerPath, field);
+    }
+
+    private static FieldAccessor findField(Class<?> type,
+                                           String name)
+    {
+        for ( Class<?> c = type; c != null; c = c.getSuperclass() ) {
+            FieldAccessor field = ClassAccessor.of(c).getDeclaredField(name).orElse(null);
+            if ( field != null ) return field;
+        }
+        throw new RuntimeException(new NoSuchFieldException(type.getName() + "." + name));
+    }
+
+    /**
+     * @return class of the objects compared
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @param obj1 first object to compare (may be null)
+     * @param obj2 second object to compare (may be null)
+     * @return true if all the compared fields and child collections of the objects are equal (or both objects are
+     * null); stops comparing at the first difference
+     */
+    public boolean areEqual(T obj1,
+                            T obj2)
+    {
+        if ( obj1 == obj2 ) return true;
+        if ( obj1 == null || obj2 == null ) return false;
+        for ( FieldComparison field : fields )
+            if ( !field.areEqual(obj1, obj2) ) return false;
+        for ( ChildCollectionComparison collection : childCollections )
+            if ( !collection.areEqual(obj1, obj2) ) return false;
+        return true;
+    }
+
+    /**
+     * @param obj1 first (expected) object to compare (may be null)
+     * @param obj2 second (actual) object to compare (may be null)
+     * @return the differences between the compared fields and child collections of the objects, in the order of the
+     * fields and then the child collections; empty if the objects are equal
+     */
+    public List<FieldDifference> diff(T obj1,
+                                      T obj2)
+    {
+        List<FieldDifference> differences = new ArrayList<>(0);
+        diff("", obj1, obj2, differences);
+        return differences;
+    }
+
+    /**
+     * @param coll1 first (expected) collection of objects to compare (may be null)
+     * @param coll2 second (actual) collection of objects to compare (may be null)
+     * @param path  path (name) of the collection, used as the prefix of the paths of the differences
+     * @return the differences between the collections: if both are {@code List}s, between the elements in the same
+     * position; otherwise, the elements of either collection without an equal element in the other collection
+     */
+    public List<FieldDifference> diff(Collection<? extends T> coll1,
+                                      Collection<? extends T> coll2,
+                                      String path)
+    {
+        List<FieldDifference> differences = new ArrayList<>(0);
+        diffCollections(path, coll1, coll2, differences);
+        return differences;
+    }
+
+    /**
+     * Compute a hash code of an object consistent with {@code areEqual}: objects that are equal have the same hash
+     *
+     * @param obj object to hash (may be null)
+     * @return hash of the compared fields of the object
+     */
+    public int hash(T obj) {
+        if ( obj == null ) return 0;
+        int hash = 1;
+        for ( FieldComparison field : fields )
+            hash = 31 * hash + field.hash(obj);
+        return hash;
+    }
+
+    private void diff(String path,
+                      Object obj1,
+                      Object obj2,
+                      List<FieldDifference> differences)
+    {
+        if ( obj1 == obj2 ) return;
+        if ( obj1 == null || obj2 == null ) {
+            differences.add(new FieldDifference(path, obj1, obj2));
+            return;
+        }
+        for ( FieldComparison field : fields )
+            field.diff(path, obj1, obj2, differences);
+        for ( ChildCollectionComparison collection : childCollections )
+            collection.diff(path, obj1, obj2, differences);
+    }
+
+    private static String qualify(String path,
+                                  String name)
+    {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean collectionsAreEqual(Collection<?> coll1,
+                                        Collection<?> coll2)
+    {
+        if ( coll1 == coll2 ) return true;
+        if ( coll1 == null || coll2 == null || coll1.size() != coll2.size() ) return false;
+        if ( coll1 instanceof List && coll2 instanceof List ) {
+            for ( Iterator<?> item1 = coll1.iterator(), item2 = coll2.iterator(); item1.hasNext(); )
+                if ( !areEqual((T) item1.next(), (T) item2.next()) ) return false;
+            return true;
+        }
+        return matchUnordered(coll1, coll2, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void diffCollections(String path,
+                                 Collection<?> coll1,
+                                 Collection<?> coll2,
+                                 List<FieldDifference> differences)
+    {
+        if ( coll1 == coll2 ) return;
+        if ( coll1 == null || coll2 == null ) {
+            differences.add(new FieldDifference(path, coll1, coll2));
+            return;
+        }
+        if ( coll1.size() != coll2.size() ) {
+            differences.add(new FieldDifference(path + ".size()", coll1.size(), coll2.size()));
+            return;
+        }
+        if ( coll1 instanceof List && coll2 instanceof List ) {
+            int index = 0;
+            for ( Iterator<?> item1 = coll1.iterator(), item2 = coll2.iterator(); item1.hasNext(); index++ )
+                diff(path + "[" + index + "]", item1.next(), item2.next(), differences);
+            return;
+        }
+        matchUnordered(coll1, coll2, path, differences);
+    }
+
+    /**
+     * Match each element of the first collection to an equal, not yet matched, element of the second collection (of
+     * the same size) by chaining the elements of the second collection into buckets by hash. When differences are not
+     * collected, stops at the first element without a match; otherwise adds a difference for each element of either
+     * collection without a match.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean matchUnordered(Collection<?> coll1,
+                                   Collection<?> coll2,
+                                   String path,
+                                   List<FieldDifference> differences)
+    {
+        Object[]  elements2 = coll2.toArray();
+        int       mask      = Integer.highestOneBit(Math.max(1, elements2.length) * 2 - 1) * 2 - 1;
+        int[]     buckets   = new int[mask + 1];
+        int[]     next      = new int[elements2.length];
+        int[]     hashes    = new int[elements2.length];
+        boolean[] matched   = new boolean[elements2.length];
+        for ( int j = 0; j < elements2.length; j++ ) {
+            hashes[j] = hash((T) elements2[j]);
+            int bucket = spread(hashes[j]) & mask;
+            next[j]         = buckets[bucket];
+            buckets[bucket] = j + 1;
+        }
+        boolean areEqual = true;
+        for ( Object element1 : coll1 ) {
+            int     hash  = hash((T) element1);
+            boolean found = false;
+            for ( int k = buckets[spread(hash) & mask]; k != 0 && !found; k = next[k - 1] )
+                if ( !matched[k - 1] && hashes[k - 1] == hash && areEqual((T) element1, (T) elements2[k - 1]) )
+                    matched[k - 1] = found = true;
+            if ( found ) continue;
+            if ( differences == null ) return false;
+            differences.add(new FieldDifference(path + "[]", element1, null));
+            areEqual = false;
+        }
+        if ( differences != null && !areEqual )
+            for ( int j = 0; j < elements2.length; j++ )
+                if ( !matched[j] ) differences.add(new FieldDifference(path + "[]", null, elements2[j]));
+        return areEqual;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @param type   declared type of the values to compare
+     * @param value1 first value to compare
+     * @param value2 second value to compare
+     * @return whether the values are equivalent, comparing them the way fields of the declared type are compared
+     */
+    static boolean valuesAreEquivalent(Class<?> type,
+                                       Object value1,
+                                       Object value2)
+    {
+        return valueKinds.get(type).areEquivalent(value1, value2);
+    }
+
+    /**
+     * @param type        declared type of the values to compare
+     * @param path        path of the values, used as the prefix of the paths of the differences
+     * @param value1      first (expected) value to compare
+     * @param value2      second (actual) value to compare
+     * @param differences list to add the differences to
+     */
+    static void diffValues(Class<?> type,
+                           String path,
+                           Object value1,
+                           Object value2,
+                           List<FieldDifference> differences)
+    {
+        valueKinds.get(type).diff(path, value1, value2, differences);
+    }
+
+    /**
+     * How the values of a declared type are compared: primitive values by value; arrays deeply; enumerations and values
+     * of types that declare {@code equals} by {@code equals}; other serializable or comparable values field by field;
+     * anything else by identity
+     */
+    private enum ValueKind
+    {
+        INT,
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        EQUALS,
+        ARRAY,
+        FIELDS,
+        IDENTITY;
+
+        private static ValueKind of(Class<?> type) {
+            if ( type == int.class ) return INT;
+            if ( type == long.class ) return LONG;
+            if ( type == double.class ) return DOUBLE;
+            if ( type == boolean.class ) return BOOLEAN;
+            if ( type.isPrimitive() || type.isEnum() ) return EQUALS;
+            if ( type.isArray() ) return ARRAY;
+            if ( FieldReflectionHelpers.declaresAnyOfMethods(type,
+                                                             "equals",
+                                                             new Class<?>[]{type},
+                                                             "equals",
+                                                             new Class<?>[]{Object.class}) )
+                return EQUALS;
+            if ( Serializable.class.isAssignableFrom(type) || Comparable.class.isAssignableFrom(type) )
+                return FIELDS;
+            return IDENTITY;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean areEquivalent(Object value1,
+                                      Object value2)
+        {
+            if ( value1 == value2 ) return true;
+            switch ( this ) {
+                case ARRAY:
+                    return Objects.deepEquals(value1, value2);
+                case FIELDS:
+                    return value1 != null
+                           && value2 != null
+                           && EqualityComparator.of((Class<Object>) value1.getClass()).areEqual(value1, value2);
+                case IDENTITY:
+                    return false;
+                default:
+                    return Objects.equals(value1, value2);
+            }
+        }
+
+        private void diff(String path,
+                          Object value1,
+                          Object value2,
+                          List<FieldDifference> differences)
+        {
+            if ( this == FIELDS && value1 != null && value2 != null )
+                EqualityComparator.of(value1.getClass()).diff(path, value1, value2, differences);
+            else if ( !areEquivalent(value1, value2) )
+                differences.add(new FieldDifference(path, value1, value2));
+        }
+
+        private int hash(Object value) {
+            switch ( this ) {
+                case ARRAY:
+                    return value == null ? 0 : Arrays.deepHashCode(new Object[]{value});
+                case FIELDS:
+                    // field by field equality may hold between values of different classes, which hash differently
+                    return 0;
+                case IDENTITY:
+                    return System.identityHashCode(value);
+                default:
+                    return Objects.hashCode(value);
+            }
+        }
+    }
+
+    private static final class FieldComparison
+    {
+        private final String          path;
+        private final FieldAccessor[] ownerPath;
+        private final FieldAccessor   field;
+        private final ValueKind       kind;
+
+        private FieldComparison(String path,
+                                FieldAccessor[] ownerPath,
+                                FieldAccessor field)
+        {
+            this.path      = path;
+            this.ownerPath = ownerPath;
+            this.field     = field;
+            this.kind      = valueKinds.get(field.getType());
+        }
+
+        private Object owner(Object obj) {
+            for ( int i = 0; i < ownerPath.length && obj != null; i++ )
+                obj = ownerPath[i].get(obj);
+            return obj;
+        }
+
+        private boolean areEqual(Object obj1,
+                                 Object obj2)
+        {
+            Object owner1 = owner(obj1);
+            Object owner2 = owner(obj2);
+            if ( owner1 == null || owner2 == null ) return owner1 == owner2;
+            switch ( kind ) {
+                case INT:
+                    return field.getInt(owner1) == field.getInt(owner2);
+                case LONG:
+                    return field.getLong(owner1) == field.getLong(owner2);
+                case DOUBLE:
+                    return Double.doubleToLongBits(field.getDouble(owner1))
+                           == Double.doubleToLongBits(field.getDouble(owner2));
+                case BOOLEAN:
+                    return field.getBoolean(owner1) == field.getBoolean(owner2);
+                default:
+                    return kind.areEquivalent(field.get(owner1), field.get(owner2));
+            }
+        }
+
+        private void diff(String objectPath,
+                          Object obj1,
+                          Object obj2,
+                          List<FieldDifference> differences)
+        {
+            if ( areEqual(obj1, obj2) ) return;
+            Object owner1 = owner(obj1);
+            Object owner2 = owner(obj2);
+            kind.diff(qualify(objectPath, path),
+                      owner1 == null ? null : field.get(owner1),
+                      owner2 == null ? null : field.get(owner2),
+                      differences);
+        }
+
+        private int hash(Object obj) {
+            Object owner = owner(obj);
+            if ( owner == null ) return 0;
+            switch ( kind ) {
+                case INT:
+                    return Integer.hashCode(field.getInt(owner));
+                case LONG:
+                    return Long.hashCode(field.getLong(owner));
+                case DOUBLE:
+                    return Double.hashCode(field.getDouble(owner));
+                case BOOLEAN:
+                    return Boolean.hashCode(field.getBoolean(owner));
+                default:
+                    return kind.hash(field.get(owner));
+            }
+        }
+    }
+
+    private static final class ChildCollectionComparison
+    {
+        private final String        name;
+        private final FieldAccessor field;
+        private final Class<?>      elementType;
+
+        private volatile EqualityComparator<?> elementComparator;
+
+        private ChildCollectionComparison(String name,
+                                          FieldAccessor field,
+                                          Class<?> elementType)
+        {
+            this.name        = name;
+            this.field       = field;
+            this.elementType = elementType;
+        }
+
+        /**
+         * Resolved lazily, so that a class may have child collections of its own class
+         */
+        private EqualityComparator<?> elementComparator() {
+            EqualityComparator<?> comparator = elementComparator;
+            if ( comparator == null ) elementComparator = comparator = of(elementType);
+            return comparator;
+        }
+
+        private boolean areEqual(Object obj1,
+                                 Object obj2)
+        {
+            return elementComparator().collectionsAreEqual((Collection<?>) field.get(obj1),
+                                                           (Collection<?>) field.get(obj2));
+        }
+
+        private void diff(String objectPath,
+                          Object obj1,
+                          Object obj2,
+                          List<FieldDifference> differences)
+        {
+            elementComparator().diffCollections(qualify(objectPath, name),
+                                                (Collection<?>) field.get(obj1),
+                                                (Collection<?>) field.get(obj2),
+                                                differences);
+        }
+    }
+
+    /**
+     * A difference between the values of a field (or a child collection) of two compared objects
+     */
+    public static final class FieldDifference
+    {
+        private final String path;
+        private final Object expected;
+        private final Object actual;
+
+        FieldDifference(String path,
+                        Object expected,
+                        Object actual)
+        {
+            this.path     = path;
+            this.expected = expected;
+            this.actual   = actual;
+        }
+
+        /**
+         * @return dotted path of the field that differs, from the compared object; elements of ordered child
+         * collections are given as {@code name[index]}, unmatched elements of unordered child collections as
+         * {@code name[]}, and differing collection sizes as {@code name.size()}
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return value of the field of the first (expected) object, or null if the object, or a field on the path to
+         * the field, is null (or the value is an element of an unordered collection without a match in the first)
+         */
+        public Object getExpected() {
+            return expected;
+        }
+
+        /**
+         * @return value of the field of the second (actual) object, or null if the object, or a field on the path to
+         * the field, is null (or the value is an element of an unordered collection without a match in the second)
+         */
+        public Object getActual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            return "Field Not Equal: " + path
+                   + ", Value Expected = " + expected
+                   + ", Actual Value = " + actual;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.ridgid.oss.common.helper;
 
-import java.io.Serializable;
+import com.ridgid.oss.common.helper.EqualityComparator.FieldDifference;
+
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
 
-@SuppressWarnings({"WeakerAccess", "JavaDoc", "unused"})
+@SuppressWarnings({"WeakerAccess", "JavaDoc", "unused", "unchecked"})
 public final class EqualityHelpers
 {
 
@@ -23,62 +23,13 @@ public final class EqualityHelpers
                                          Object obj2,
                                          List<String> outErrors)
     {
-        boolean areEqual = true;
-        for (String fieldName : entityFieldNames) {
-
-            Optional<Map.Entry<Object, Field>> objectField
-                = FieldReflectionHelpers.determineObjectAndFieldForPathIntoObject(
-                obj1, fieldName);
-            Optional<Object> valueObj1 = objectField.map(Map.Entry::getKey);
-            Optional<Field>  field     = objectField.map(Map.Entry::getValue);
-
-            objectField = FieldReflectionHelpers.determineObjectAndFieldForPathIntoObject(obj2, fieldName);
-            Optional<Object> valueObj2 = objectField.map(Map.Entry::getKey);
-            if (!field.isPresent()) field = objectField.map(Map.Entry::getValue);
-
-            areEqual = areEqual
-                       &&
-                       (!valueObj1.isPresent() && !valueObj2.isPresent())
-                       ||
-                       (
-                           field.isPresent()
-                           &&
-                           fieldIsEqual
-                               (
-                                   valueObj1.orElse(null),
-                                   valueObj2.orElse(null),
-                                   field.get(),
-                                   outErrors
-                               )
-                       );
-        }
-        return areEqual;
-    }
-
-    /**
-     * @param obj1
-     * @param obj2
-     * @param outErrors
-     * @return
-     */
-    private static boolean fieldsAreEqual(Object obj1,
-                                          Object obj2,
-                                          List<String> outErrors)
-    {
-        boolean areEqual = true;
-        for (Field field : FieldReflectionHelpers.getAllNonStaticFieldsFor(obj1.getClass())) {
-            FieldReflectionHelpers.enableFieldAccess(field);
-            areEqual = areEqual
-                       &&
-                       fieldIsEqual
-                           (
-                               obj1,
-                               obj2,
-                               field,
-                               outErrors
-                           );
-        }
-        return areEqual;
+        if (obj1 == null || obj2 == null)
+            return obj1 == obj2 || addError(outErrors, new FieldDifference("", obj1, obj2));
+        return addErrors
+            (
+                outErrors,
+                EqualityComparator.of((Class<Object>) obj1.getClass(), entityFieldNames).diff(obj1, obj2)
+            );
     }
 
     /**
@@ -97,27 +48,13 @@ public final class EqualityHelpers
             ||
             (obj1 != null && obj2 == null))
             return false;
-
-        int      fieldModifiers = field.getModifiers();
-        Class<?> fieldType      = field.getType();
-        if (Modifier.isStatic(fieldModifiers)
-            || Modifier.isTransient(fieldModifiers)
-            || Modifier.isVolatile(fieldModifiers)
-            || Collection.class.isAssignableFrom(fieldType)
-        )
-            return true;
-        Object value1 = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(obj1, field);
-        Object value2 = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(obj2, field);
-        if (!objectsAreEquivalent(fieldType, value1, value2, outErrors)) {
-            outErrors.add
-                (
-                    "Field Not Equal: " + field.getName()
-                    + ", Value Expected = " + value1
-                    + ", Actual Value = " + value2
-                );
-            return false;
-        }
-        return true;
+        return addErrors
+            (
+                outErrors,
+                EqualityComparator
+                    .of((Class<Object>) field.getDeclaringClass(), Collections.singletonList(field.getName()))
+                    .diff(obj1, obj2)
+            );
     }
 
     /**
@@ -128,29 +65,21 @@ public final class EqualityHelpers
      * @return
      */
     public static boolean objectsAreEquivalent(Class<?> objType, Object obj1, Object obj2, List<String> outErrors) {
-        return obj1 == obj2
-               ||
-               (objType.isPrimitive() && Objects.equals(obj1, obj2))
-               ||
-               (objType.isArray() && Objects.deepEquals(obj1, obj2))
-               ||
-               (objType.isEnum() && Objects.equals(obj1, obj2))
-               ||
-               (FieldReflectionHelpers.declaresAnyOfMethods
-                   (
-                       objType,
-                       "equals",
-                       new Class<?>[]{objType},
-                       "equals",
-                       new Class<?>[]{Object.class}
-                   )
-                && Objects.equals(obj1, obj2))
-               ||
-               (Serializable.class.isAssignableFrom(objType) && fieldsAreEqual(obj1, obj2, outErrors))
-               ||
-               (Comparable.class.isAssignableFrom(objType) && fieldsAreEqual(obj1, obj2, outErrors));
+        List<FieldDifference> differences = new ArrayList<>(0);
+        EqualityComparator.diffValues(objType, "", obj1, obj2, differences);
+        return addErrors(outErrors, differences);
+    }
+
+    private static boolean addErrors(List<String> outErrors, List<FieldDifference> differences) {
+        for (FieldDifference difference : differences)
+            outErrors.add(difference.toString());
+        return differences.isEmpty();
     }
 
+    private static boolean addError(List<String> outErrors, FieldDifference difference) {
+        outErrors.add(difference.toString());
+        return false;
+    }
 
     /**
      * @param entityFieldNames
@@ -210,29 +139,30 @@ public final class EqualityHelpers
         for (int i = 0; i < childCollectionFieldNames.size(); i++) {
             String   fName = childCollectionFieldNames.get(i);
             Class<?> cType = childCollectionTypeClasses.get(i);
-            Class<?> eType = childEntityTypeClasses.get(i);
             Field    field = FieldReflectionHelpers.getFieldOrThrowRuntimeException(obj1.getClass(), fName);
-            if (cType.isAssignableFrom(field.getType())) {
+            if (!cType.isAssignableFrom(field.getType())) {
                 outErrors.add("Child Collection Type mismatch: Collection #" + i
                               + ", Name=" + fName
                               + ", Designated Type=" + cType
                               + ", Actual Type=" + field.getType());
                 areEqual = false;
             }
-            Object coll1 = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(obj1, field);
-            Object coll2 = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(obj2, field);
-            areEqual = areEqual
-                       &&
-                       collectionsAreEqual
-                           (
-                               (Collection<?>) coll1,
-                               (Collection<?>) coll2,
-                               eType,
-                               fName,
-                               outErrors
-                           );
         }
-        return areEqual;
+        return areEqual
+               &&
+               addErrors
+                   (
+                       outErrors,
+                       EqualityComparator
+                           .of
+                               (
+                                   (Class<Object>) obj1.getClass(),
+                                   Collections.emptyList(),
+                                   childCollectionFieldNames,
+                                   childEntityTypeClasses
+                               )
+                           .diff(obj1, obj2)
+                   );
     }
 
     /**
@@ -257,14 +187,13 @@ public final class EqualityHelpers
                 );
             return false;
         }
-        boolean  areEqual = true;
-        Object[] arr1     = coll1.toArray();
-        Object[] arr2     = coll2.toArray();
-        for (int i = 0; i < arr1.length; i++)
-             areEqual = areEqual
-                        &&
-                        fieldsAreEqual(arr1[i], arr2[i], outErrors);
-        return areEqual;
+        return addErrors
+            (
+                outErrors,
+                EqualityComparator
+                    .of((Class<Object>) eType)
+                    .diff((Collection<Object>) coll1, (Collection<Object>) coll2, fName)
+            );
     }
 
     /**
@@ -282,13 +211,16 @@ public final class EqualityHelpers
 
         for (Iterator<T> item1 = coll1.iterator(), item2 = coll2.iterator();
              item1.hasNext(); ) {
-            List<String> errorList = new ArrayList<>();
-            EqualityHelpers.fieldsAreEqual(
-                entityFieldNames,
-                item1.next(),
-                item2.next(),
-                errorList);
-            errorList.forEach(error -> errors.append(error).append("\n"));
+            T first  = item1.next();
+            T second = item2.next();
+            if (first == null || second == null) {
+                if (first != second) errors.append(new FieldDifference("", first, second)).append("\n");
+                continue;
+            }
+            for (FieldDifference difference : EqualityComparator
+                .of((Class<T>) first.getClass(), entityFieldNames)
+                .diff(first, second))
+                errors.append(difference).append("\n");
         }
 
         return errors.length() > 0
@@ -0,0 +1,168 @@
+package com.ridgid.oss.common.helper;
+
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.TypeVariable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled, cached dotted path of field names (e.g., "customer.address.city") into an object graph.
+ * <p>
+ * The path is split once; each step of the path then resolves its field (as a method-handle based FieldAccessor) for
+ * the runtime class of the object it is applied to, or the nearest of its super-classes that declares it (so, fields
+ * inherited from a mapped super-class, or by a proxy sub-class, resolve), and remembers the class and field it last resolved; so, applying a
+ * path to objects of the same classes, as is the case for the rows of a bulk operation, neither splits the path nor
+ * looks up any field.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class FieldPath
+{
+    private static final ConcurrentHashMap<String, FieldPath> paths = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final Step[] steps;
+
+    private FieldPath(String path) {
+        this.path = path;
+        String[] names = path.split("\\.");
+        this.steps = new Step[names.length];
+        for ( int i = 0; i < names.length; i++ ) steps[i] = new Step(names[i]);
+    }
+
+    /**
+     * @param path dotted path of field names
+     * @return the (cached) compiled path
+     */
+    public static FieldPath of(String path) {
+        FieldPath fieldPath = paths.get(path);
+        return fieldPath != null ? fieldPath : paths.computeIfAbsent(path, FieldPath::new);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @param obj object to apply the path to
+     * @return the object that holds the last field of the path, or null if the object, or any intermediate value along
+     * the path, is null
+     * @throws RuntimeException (wrapping a NoSuchFieldException) if neither a class along the path nor any of its
+     *                          super-classes declares the field
+     */
+    public Object resolveOwner(Object obj) {
+        Object value = obj;
+        for ( int i = 0; i < steps.length - 1 && value != null; i++ )
+            value = steps[i].accessorFor(value.getClass()).get(value);
+        return value;
+    }
+
+    /**
+     * @param owner (non-null) object holding the last field of the path, as returned by resolveOwner
+     * @return accessor of the last field of the path, for the class of the owner
+     */
+    public FieldAccessor lastField(Object owner) {
+        return steps[steps.length - 1].accessorFor(owner.getClass());
+    }
+
+    /**
+     * @param obj object to apply the path to
+     * @return value of the last field of the path, or null if the object, or any intermediate value, is null
+     */
+    public Object get(Object obj) {
+        Object owner = resolveOwner(obj);
+        return owner == null ? null : lastField(owner).get(owner);
+    }
+
+    /**
+     * Checks the path against the declared types of its fields, ahead of applying it: each field must be declared by the
+     * given class (or one of its super-classes) for the first step, and then by the declared type of the field of the
+     * previous step. Steps that follow a field declared as Object, as an interface, or as a type variable are left to be
+     * resolved for the runtime class of the value, as is the case when the path is applied.
+     *
+     * @param type class of the objects the path will be applied to
+     * @return this path
+     * @throws IllegalArgumentException if a field of the path is not declared by the type it is looked up in
+     */
+    public FieldPath checkDeclaredBy(Class<?> type) {
+        Class<?> declaringType = type;
+        for ( Step step : steps ) {
+            if ( declaringType == Object.class || declaringType.isInterface() ) return this;
+            Field field = findDeclaredField(declaringType, step.name);
+            if ( field == null )
+                throw new IllegalArgumentException("No field " + step.name + " of path " + path + " in " + declaringType);
+            if ( field.getGenericType() instanceof TypeVariable ) return this;
+            declaringType = field.getType();
+        }
+        return this;
+    }
+
+    /**
+     * @return the field declared by the class, or by the nearest of its super-classes, or null if none does; looked up
+     * without making it accessible
+     */
+    private static Field findDeclaredField(Class<?> type,
+                                           String name)
+    {
+        for ( Class<?> c = type; c != null; c = c.getSuperclass() )
+            try {
+                return c.getDeclaredField(name);
+            } catch ( NoSuchFieldException e ) {
+                // look in the super-class
+            }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * @return accessor of the field declared by the class, or by the nearest of its super-classes, or null if none does
+     */
+    private static FieldAccessor findField(Class<?> type,
+                                           String name)
+    {
+        FieldAccessor accessor = null;
+        for ( Class<?> c = type; c != null && accessor == null; c = c.getSuperclass() )
+            accessor = ClassAccessor.of(c).getDeclaredField(name).orElse(null);
+        return accessor;
+    }
+
+    /**
+     * Field of one step of the path, with the class and accessor it was last resolved for (replaced together, so that
+     * concurrent applications of the path never see a class paired with the accessor of another)
+     */
+    private static final class Step
+    {
+        private final    String   name;
+        private volatile Resolved resolved;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        private FieldAccessor accessorFor(Class<?> type) {
+            Resolved r = resolved;
+            if ( r != null && r.type == type ) return r.accessor;
+            FieldAccessor accessor = findField(type, name);
+            if ( accessor == null ) throw new RuntimeException(new NoSuchFieldException(name));
+            resolved = new Resolved(type, accessor);
+            return accessor;
+        }
+    }
+
+    private static final class Resolved
+    {
+        private final Class<?>      type;
+        private final FieldAccessor accessor;
+
+        private Resolved(Class<?> type,
+                         FieldAccessor accessor)
+        {
+            this.type     = type;
+            this.accessor = accessor;
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.ridgid.oss.common.helper;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.AbstractMap;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
@@ -11,8 +9,6 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.toList;
-
 /**
  *
  */
@@ -28,13 +24,10 @@ public final class FieldReflectionHelpers {
      * @return
      */
     public static Field getFieldOrThrowRuntimeException(Class<?> objClass, String fieldName) {
-        try {
-            Field f = objClass.getDeclaredField(fieldName);
-            enableFieldAccess(f);
-            return f;
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        }
+        return ClassAccessor.of(objClass)
+                .getDeclaredField(fieldName)
+                .orElseThrow(() -> new RuntimeException(new NoSuchFieldException(fieldName)))
+                .getField();
     }
 
     /**
@@ -43,18 +36,10 @@ public final class FieldReflectionHelpers {
      * @return
      */
     public static Optional<Map.Entry<Object, Field>> determineObjectAndFieldForPathIntoObject(Object obj, String fieldName) {
-        if (obj == null) return Optional.empty();
-        String[] fieldNamePath = fieldName.split("\\.");
-        Object valueObj = obj;
-        fieldName = fieldNamePath[0];
-        for (int j = 1; j < fieldNamePath.length; j++) {
-            Field f = FieldReflectionHelpers.getFieldOrThrowRuntimeException(valueObj.getClass(), fieldName);
-            valueObj = FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(valueObj, f);
-            fieldName = fieldNamePath[j];
-        }
+        FieldPath path = FieldPath.of(fieldName);
+        Object valueObj = path.resolveOwner(obj);
         if (valueObj == null) return Optional.empty();
-        Field f = FieldReflectionHelpers.getFieldOrThrowRuntimeException(valueObj.getClass(), fieldName);
-        return Optional.of(new AbstractMap.SimpleEntry<>(valueObj, f));
+        return Optional.of(new AbstractMap.SimpleEntry<>(valueObj, path.lastField(valueObj).getField()));
     }
 
     /**
@@ -63,11 +48,7 @@ public final class FieldReflectionHelpers {
      * @return
      */
     public static Object getFieldValueOrThrowRuntimeException(Object obj, Field field) {
-        try {
-            return field.get(obj);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        return ClassAccessor.of(field).get(obj);
     }
 
     /**
@@ -76,11 +57,7 @@ public final class FieldReflectionHelpers {
      * @param fieldValue
      */
     public static void setFieldValueOrThrowException(Object entity, Field field, Object fieldValue) {
-        try {
-            field.set(entity, fieldValue);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        ClassAccessor.of(field).set(entity, fieldValue);
     }
 
     /**
@@ -133,7 +110,7 @@ public final class FieldReflectionHelpers {
      * @return
      */
     public static Iterable<? extends Field> getAllNonStaticFieldsFor(Class<?> classType) {
-        return streamAllNonStaticFieldsFor(classType).collect(toList());
+        return ClassAccessor.of(classType).getNonStaticReflectedFields();
     }
 
     /**
@@ -141,21 +118,7 @@ public final class FieldReflectionHelpers {
      * @return
      */
     public static Stream<Field> streamAllNonStaticFieldsFor(Class<?> classType) {
-        Stream<Field> fields = Arrays.stream(classType.getDeclaredFields());
-        for (Class<?> clazz = classType.getSuperclass(); clazz != null && clazz != Object.class; clazz = clazz.getSuperclass())
-            fields = Stream.concat(fields, Arrays.stream(clazz.getDeclaredFields()));
-        return fields
-                .peek(f -> {
-                    if (!f.isAccessible()) f.setAccessible(true);
-                })
-                .filter
-                        (
-                                f -> !(Modifier.isStatic(f.getModifiers())
-                                        || Modifier.isFinal(f.getModifiers())
-                                        || Modifier.isTransient(f.getModifiers())
-                                        || Modifier.isVolatile(f.getModifiers())
-                                        || Modifier.isNative(f.getModifiers()))
-                        );
+        return ClassAccessor.of(classType).getNonStaticReflectedFields().stream();
     }
 
     /**
@@ -173,12 +136,12 @@ public final class FieldReflectionHelpers {
     private static void applyToFieldsRecursively(Set<Object> objectsVisited,
                                                  Object obj,
                                                  Function<Object, Object> fieldValueHandler) {
-        for (Field field : getAllNonStaticFieldsFor(obj.getClass())) {
-            Object fieldValue = getFieldValueOrThrowRuntimeException(obj, field);
+        for (ClassAccessor.FieldAccessor field : ClassAccessor.of(obj.getClass()).getNonStaticFields()) {
+            Object fieldValue = field.get(obj);
             if (fieldValue != null) {
                 Object updatedObject = fieldValueHandler.apply(fieldValue);
                 if (updatedObject != null) {
-                    setFieldValueOrThrowException(obj, field, updatedObject);
+                    field.set(obj, updatedObject);
                     if (!objectsVisited.contains(updatedObject))
                         applyToFieldsRecursively(objectsVisited, updatedObject, fieldValueHandler);
                 }
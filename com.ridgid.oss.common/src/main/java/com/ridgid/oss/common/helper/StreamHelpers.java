@@ -1,19 +1,35 @@
 package com.ridgid.oss.common.helper;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings({"unused", "WeakerAccess"})
 public final class StreamHelpers
 {
+    private static final Object NULL_KEY = new Object();
+
     private StreamHelpers() {
     }
 
@@ -71,28 +87,423 @@ public final class StreamHelpers
         return group(groupSize, T -> T, null);
     }
 
+    /**
+     * Group the elements of the stream into batches of the given size (the last batch may be smaller). Unlike group,
+     * the batches are split off the stream by a Spliterator rather than by a stateful function, so no end-of-stream
+     * sentinel is needed, and the stream may be parallel: splitting the stream pulls whole batches ahead from it, so
+     * every batch but the last is full, and the batches keep the encounter order of the elements. If the stream is
+     * SIZED, so is the stream of batches. Closing the stream of batches closes the given stream.
+     *
+     * @param stream to group the elements of
+     * @param size   number of elements of a batch (at least 1)
+     * @param <T>    type of the elements
+     * @return stream of the batches (each a new ArrayList)
+     */
+    public static <T> Stream<List<T>> batches(Stream<T> stream,
+                                              int size)
+    {
+        return batches(stream, size, false);
+    }
+
+    /**
+     * Group the elements of the stream into batches of the given size (see batches(stream, size)), optionally handing
+     * out the same (pre-allocated) list, cleared and refilled, for each batch traversed in sequence. A reused batch
+     * must be fully processed before the next batch is requested, and must not be retained (e.g., collected); batches
+     * split off a parallel stream ahead of their processing are always distinct lists.
+     *
+     * @param stream      to group the elements of
+     * @param size        number of elements of a batch (at least 1)
+     * @param reuseBuffer true to reuse the same list for the batches traversed in sequence
+     * @param <T>         type of the elements
+     * @return stream of the batches
+     */
+    public static <T> Stream<List<T>> batches(Stream<T> stream,
+                                              int size,
+                                              boolean reuseBuffer)
+    {
+        if ( size < 1 ) throw new IllegalArgumentException("Batch size must be at least 1: " + size);
+        return StreamSupport
+            .stream(new BatchSpliterator<>(stream.spliterator(), size, reuseBuffer), stream.isParallel())
+            .onClose(stream::close);
+    }
+
+    /**
+     * Exact distinct filter, for use in a flatMap: passes an element only if no element with the same values of the
+     * selected fields has been passed before. The memory used grows with the number of distinct keys: one entry, in a
+     * single set of (composite) keys, per distinct key; for long-running streams, see the windowed and approximate
+     * variants.
+     *
+     * @param fieldSelectors selectors of the fields whose values form the key of an element
+     * @param <T>            type of the elements
+     * @return thread-safe function mapping an element to a stream of the element, or to null (no element) if it is a
+     * duplicate
+     */
     @SafeVarargs
     public static <T> Function<T, Stream<T>> distinctBy(Function<T, ?>... fieldSelectors) {
-        ConcurrentMap keysSeen = new ConcurrentHashMap<>();
+        Set<Object> keysSeen = ConcurrentHashMap.newKeySet();
+        return t -> keysSeen.add(keyFor(t, fieldSelectors)) ? Stream.of(t) : null;
+    }
+
+    /**
+     * Count-windowed distinct filter, for use in a flatMap: passes an element only if its key (the values of the
+     * selected fields) is not among the keys of the last windowSize elements passed. At most windowSize keys are held.
+     *
+     * @param windowSize     number of keys remembered (at least 1)
+     * @param fieldSelectors selectors of the fields whose values form the key of an element
+     * @param <T>            type of the elements
+     * @return thread-safe function mapping an element to a stream of the element, or to null (no element) if it is a
+     * duplicate within the window
+     */
+    @SafeVarargs
+    public static <T> Function<T, Stream<T>> distinctByWithinLast(int windowSize,
+                                                                  Function<T, ?>... fieldSelectors)
+    {
+        if ( windowSize < 1 ) throw new IllegalArgumentException("Window size must be at least 1: " + windowSize);
+        Map<Object, Boolean> keysSeen = new LinkedHashMap<Object, Boolean>()
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Boolean> eldest) {
+                return size() > windowSize;
+            }
+        };
+        return t -> {
+            Object key = keyFor(t, fieldSelectors);
+            synchronized ( keysSeen ) {
+                return keysSeen.putIfAbsent(key, Boolean.TRUE) == null ? Stream.of(t) : null;
+            }
+        };
+    }
+
+    /**
+     * Time-windowed distinct filter, for use in a flatMap: passes an element only if no element with the same key (the
+     * values of the selected fields) has been passed within the given window of time. Only the keys passed within the
+     * window are held, so the memory used is proportional to the rate of distinct keys times the window.
+     *
+     * @param window         time for which a key passed is remembered
+     * @param fieldSelectors selectors of the fields whose values form the key of an element
+     * @param <T>            type of the elements
+     * @return thread-safe function mapping an element to a stream of the element, or to null (no element) if it is a
+     * duplicate within the window
+     */
+    @SafeVarargs
+    public static <T> Function<T, Stream<T>> distinctByWithin(Duration window,
+                                                              Function<T, ?>... fieldSelectors)
+    {
+        return distinctByWithin(window, System::nanoTime, fieldSelectors);
+    }
+
+    @SafeVarargs
+    static <T> Function<T, Stream<T>> distinctByWithin(Duration window,
+                                                       LongSupplier nanoClock,
+                                                       Function<T, ?>... fieldSelectors)
+    {
+        long windowNanos = window.toNanos();
+        if ( windowNanos <= 0 ) throw new IllegalArgumentException("Window must be positive: " + window);
+        LinkedHashMap<Object, Long> keysSeen = new LinkedHashMap<>();
         return t -> {
-            ConcurrentMap keyMap = keysSeen;
-            for ( int i = 0; i < fieldSelectors.length - 1; i++ ) {
-                Function<T, ?> selector = fieldSelectors[i];
-                //noinspection unchecked
-                keyMap = (ConcurrentMap) keyMap.computeIfAbsent
-                    (
-                        selector.apply(t),
-                        k -> new ConcurrentHashMap()
-                    );
+            Object key = keyFor(t, fieldSelectors);
+            synchronized ( keysSeen ) {
+                long now = nanoClock.getAsLong();
+                for ( Iterator<Long> passed = keysSeen.values().iterator(); passed.hasNext(); ) {
+                    if ( now - passed.next() < windowNanos ) break;
+                    passed.remove();
+                }
+                return keysSeen.putIfAbsent(key, now) == null ? Stream.of(t) : null;
             }
-            @SuppressWarnings("unchecked")
-            boolean seen = (boolean) keyMap.compute
-                (
-                    fieldSelectors[fieldSelectors.length - 1].apply(t),
-                    (k, v) -> v != null
-                );
-            return seen ? null : Stream.of(t);
         };
     }
 
+    /**
+     * Approximate distinct filter, for use in a flatMap, backed by a Bloom filter of fixed size: a duplicate is never
+     * passed, but a distinct element may be (wrongly) dropped as a duplicate, with a probability that stays below the
+     * given false-positive rate until expectedDistinct distinct keys have been passed. The memory used, about
+     * -expectedDistinct * ln(falsePositiveRate) / ln(2)^2 bits, is allocated up front and never grows.
+     * <p>
+     * The filter is indexed by a 64-bit hash of the values of the selected fields, computed from the contents of
+     * CharSequence (e.g., String), integral and floating-point Number, BigInteger, BigDecimal, Character, Boolean, UUID and
+     * Enum values, and from the hashCode of values of any other type. So, for keys made of such values, distinct keys are
+     * only ever treated as duplicates at the false-positive rate (e.g., the strings "Aa" and "BB", whose hash codes are
+     * equal, are told apart); keys with a field of another type whose values have equal hash codes are always treated as
+     * duplicates of one another. Use distinctByKeyHashApproximately to supply the 64-bit hash of such keys.
+     *
+     * @param expectedDistinct  number of distinct keys expected (at least 1)
+     * @param falsePositiveRate probability of dropping a distinct element (between 0 and 1, exclusive)
+     * @param fieldSelectors    selectors of the fields whose values form the key of an element
+     * @param <T>               type of the elements
+     * @return thread-safe function mapping an element to a stream of the element, or to null (no element) if it is
+     * (probably) a duplicate
+     */
+    @SafeVarargs
+    public static <T> Function<T, Stream<T>> distinctByApproximately(long expectedDistinct,
+                                                                     double falsePositiveRate,
+                                                                     Function<T, ?>... fieldSelectors)
+    {
+        return distinctByKeyHashApproximately(expectedDistinct,
+                                              falsePositiveRate,
+                                              t -> keyHashFor(t, fieldSelectors));
+    }
+
+    /**
+     * Same as distinctByApproximately, except that the Bloom filter is indexed by the given 64-bit hash of the key of
+     * each element instead of the hashCode of its key, so that only elements whose keys have equal 64-bit hashes are
+     * always treated as duplicates of one another
+     *
+     * @param expectedDistinct  number of distinct keys expected (at least 1)
+     * @param falsePositiveRate probability of dropping a distinct element (between 0 and 1, exclusive)
+     * @param keyHash           64-bit hash of the key of an element, computed from the contents of the key
+     * @param <T>               type of the elements
+     * @return thread-safe function mapping an element to a stream of the element, or to null (no element) if it is
+     * (probably) a duplicate
+     */
+    public static <T> Function<T, Stream<T>> distinctByKeyHashApproximately(long expectedDistinct,
+                                                                            double falsePositiveRate,
+                                                                            ToLongFunction<? super T> keyHash)
+    {
+        BloomFilter keysSeen = new BloomFilter(expectedDistinct, falsePositiveRate);
+        return t -> keysSeen.add(keyHash.applyAsLong(t)) ? Stream.of(t) : null;
+    }
+
+    private static <T> long keyHashFor(T t,
+                                       Function<T, ?>[] fieldSelectors)
+    {
+        long hash = fieldSelectors.length;
+        for ( Function<T, ?> fieldSelector : fieldSelectors )
+            hash = BloomFilter.mix(Long.rotateLeft(hash, 31) ^ hash64(fieldSelector.apply(t)));
+        return hash;
+    }
+
+    /**
+     * @return 64-bit hash of the value, computed from its contents if it is of one of the types listed in
+     * distinctByApproximately, otherwise, from its hashCode; values of different classes are hashed apart
+     */
+    private static long hash64(Object value) {
+        if ( value == null ) return 0;
+        long contents;
+        if ( value instanceof CharSequence )
+            contents = hash64((CharSequence) value);
+        else if ( value instanceof Long
+                  || value instanceof Integer
+                  || value instanceof Short
+                  || value instanceof Byte )
+            contents = ((Number) value).longValue();
+        else if ( value instanceof Double || value instanceof Float )
+            contents = Double.doubleToLongBits(((Number) value).doubleValue());
+        else if ( value instanceof BigInteger || value instanceof BigDecimal )
+            contents = hash64(value.toString());
+        else if ( value instanceof Character )
+            contents = (Character) value;
+        else if ( value instanceof Boolean )
+            contents = (Boolean) value ? 1 : 2;
+        else if ( value instanceof UUID )
+            contents = ((UUID) value).getMostSignificantBits()
+                       ^ BloomFilter.mix(((UUID) value).getLeastSignificantBits());
+        else if ( value instanceof Enum )
+            contents = hash64(((Enum<?>) value).name());
+        else
+            contents = value.hashCode();
+        return BloomFilter.mix(contents) ^ value.getClass().getName().hashCode();
+    }
+
+    private static long hash64(CharSequence chars) {
+        // FNV-1a (64-bit) of the chars
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = 0; i < chars.length(); i++ ) {
+            hash ^= chars.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static <T> Object keyFor(T t,
+                                     Function<T, ?>[] fieldSelectors)
+    {
+        if ( fieldSelectors.length == 1 ) {
+            Object value = fieldSelectors[0].apply(t);
+            return value == null ? NULL_KEY : value;
+        }
+        Object[] values = new Object[fieldSelectors.length];
+        for ( int i = 0; i < values.length; i++ ) values[i] = fieldSelectors[i].apply(t);
+        return new CompositeKey(values);
+    }
+
+    /**
+     * Spliterator of the batches of the elements of a source spliterator
+     */
+    private static final class BatchSpliterator<T> implements Spliterator<List<T>>
+    {
+        private static final int SPLIT_UNIT         = 1 << 10;
+        private static final int MAX_SPLIT_ELEMENTS = 1 << 25;
+
+        private final Spliterator<T> source;
+        private final int            size;
+        private final List<T>        buffer;
+
+        private int splits;
+
+        private BatchSpliterator(Spliterator<T> source,
+                                 int size,
+                                 boolean reuseBuffer)
+        {
+            this.source = source;
+            this.size   = size;
+            this.buffer = reuseBuffer ? new ArrayList<>(size) : null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            List<T> batch;
+            if ( buffer == null )
+                batch = new ArrayList<>(size);
+            else {
+                buffer.clear();
+                batch = buffer;
+            }
+            if ( !fill(batch) ) return false;
+            action.accept(batch);
+            return true;
+        }
+
+        /**
+         * Pull whole batches ahead from the source: the number of elements pulled grows with each split (as for a
+         * spliterator over an iterator), and the batches pulled are split further by the ArrayList spliterator
+         */
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            if ( source.estimateSize() <= size ) return null;
+            int           count = Math.max(1, Math.min(++splits * SPLIT_UNIT, MAX_SPLIT_ELEMENTS) / size);
+            List<List<T>> split = new ArrayList<>(Math.min(count, SPLIT_UNIT));
+            for ( int i = 0; i < count; i++ ) {
+                List<T> batch = new ArrayList<>(size);
+                if ( !fill(batch) ) break;
+                split.add(batch);
+                if ( batch.size() < size ) break;
+            }
+            return split.isEmpty() ? null : split.spliterator();
+        }
+
+        /**
+         * @return true if any elements were added to the batch
+         */
+        private boolean fill(List<T> batch) {
+            Consumer<T> add = batch::add;
+            //noinspection StatementWithEmptyBody
+            while ( batch.size() < size && source.tryAdvance(add) ) ;
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public long estimateSize() {
+            long elements = source.estimateSize();
+            return elements == Long.MAX_VALUE
+                   ? Long.MAX_VALUE
+                   : elements / size + (elements % size == 0 ? 0 : 1);
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & ORDERED)
+                   | (source.hasCharacteristics(SIZED) ? SIZED | SUBSIZED : 0)
+                   | NONNULL;
+        }
+    }
+
+    /**
+     * Key made of the values of several fields, with its hash computed once
+     */
+    private static final class CompositeKey
+    {
+        private final Object[] values;
+        private final int      hash;
+
+        private CompositeKey(Object[] values) {
+            this.values = values;
+            this.hash   = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o
+                   || o instanceof CompositeKey
+                      && hash == ((CompositeKey) o).hash
+                      && Arrays.equals(values, ((CompositeKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Thread-safe Bloom filter over the (64-bit) hashes of the keys; the bits are indexed by double hashing of the
+     * (mixed) hash, and a key is checked and added under one of a set of locks striped by its hash, so that the same key
+     * added concurrently is reported as new only once
+     */
+    private static final class BloomFilter
+    {
+        private static final double LN2          = Math.log(2);
+        private static final int    LOCK_STRIPES = 64;
+
+        private final AtomicLongArray bits;
+        private final long            bitCount;
+        private final int             hashCount;
+        private final Object[]        locks = new Object[LOCK_STRIPES];
+
+        private BloomFilter(long expectedDistinct,
+                            double falsePositiveRate)
+        {
+            if ( expectedDistinct < 1 )
+                throw new IllegalArgumentException("Expected distinct count must be at least 1: " + expectedDistinct);
+            if ( !(falsePositiveRate > 0 && falsePositiveRate < 1) )
+                throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+            long bits = (long) Math.ceil(-expectedDistinct * Math.log(falsePositiveRate) / (LN2 * LN2));
+            long words = Math.max(1, (bits + 63) >>> 6);
+            if ( words > Integer.MAX_VALUE )
+                throw new IllegalArgumentException("Bloom filter for " + expectedDistinct + " keys at a false positive"
+                                                   + " rate of " + falsePositiveRate + " is too large");
+            this.bits      = new AtomicLongArray((int) words);
+            this.bitCount  = words << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedDistinct * LN2));
+            for ( int i = 0; i < locks.length; i++ ) locks[i] = new Object();
+        }
+
+        /**
+         * @return true if the key with the given hash was (probably) not added before
+         */
+        private boolean add(long keyHash) {
+            long hash1 = mix(keyHash);
+            long hash2 = mix(hash1) | 1;
+            synchronized ( locks[(int) hash1 & (LOCK_STRIPES - 1)] ) {
+                boolean added = false;
+                for ( int i = 0; i < hashCount; i++ ) {
+                    long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+                    added |= set((int) (index >>> 6), 1L << index);
+                }
+                return added;
+            }
+        }
+
+        /**
+         * @return true if the bit was not already set
+         */
+        private boolean set(int word,
+                            long bit)
+        {
+            for ( ; ; ) {
+                long value = bits.get(word);
+                if ( (value & bit) != 0 ) return false;
+                if ( bits.compareAndSet(word, value, value | bit) ) return true;
+            }
+        }
+
+        private static long mix(long h) {
+            // finalizer of MurmurHash3 (64-bit)
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.ridgid.oss.common.hierarchy;
+
+/**
+ * Thread-safe set of objects compared by identity: the objects are spread, by identity hash, over independently locked
+ * IdentitySet stripes so that concurrent additions rarely contend
+ */
+final class ConcurrentIdentitySet
+{
+    private final IdentitySet[] stripes;
+
+    ConcurrentIdentitySet() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    ConcurrentIdentitySet(int concurrency) {
+        stripes = new IdentitySet[Integer.highestOneBit(Math.max(1, concurrency) * 8 - 1) * 2];
+        for ( int i = 0; i < stripes.length; i++ ) stripes[i] = new IdentitySet();
+    }
+
+    /**
+     * @param obj (non-null) object to add
+     * @return true if the object was not already in the set
+     */
+    boolean add(Object obj) {
+        IdentitySet stripe = stripeFor(obj);
+        synchronized ( stripe ) {
+            return stripe.add(obj);
+        }
+    }
+
+    /**
+     * @param obj object to look for
+     * @return true if the object is in the set
+     */
+    boolean contains(Object obj) {
+        IdentitySet stripe = stripeFor(obj);
+        synchronized ( stripe ) {
+            return stripe.contains(obj);
+        }
+    }
+
+    private IdentitySet stripeFor(Object obj) {
+        // the low bits pick the stripe; within the stripe, IdentitySet indexes by the (Fibonacci-mixed) high bits
+        return stripes[System.identityHashCode(obj) & (stripes.length - 1)];
+    }
+}
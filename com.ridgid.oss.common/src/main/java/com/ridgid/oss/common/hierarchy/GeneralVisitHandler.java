@@ -3,4 +3,22 @@ package com.ridgid.oss.common.hierarchy;
 @SuppressWarnings({"unused"})
 @FunctionalInterface
 public interface GeneralVisitHandler extends VisitHandler<Object, Object> {
+
+    /**
+     * @param handler thread-safe handler
+     * @return the handler, declared thread-safe
+     */
+    static GeneralVisitHandler threadSafe(GeneralVisitHandler handler) {
+        return new GeneralVisitHandler() {
+            @Override
+            public VisitStatus handle(Object parent, Object self) {
+                return handler.handle(parent, self);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        };
+    }
 }
@@ -1,27 +1,37 @@
 package com.ridgid.oss.common.hierarchy;
 
+import com.ridgid.oss.common.callback.BiHandler;
 import com.ridgid.oss.common.callback.BiHandlerList;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.BREADTH_FIRST;
-import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.DEPTH_FIRST;
+import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.PARALLEL;
 import static com.ridgid.oss.common.hierarchy.VisitStatus.OK_CONTINUE;
+import static com.ridgid.oss.common.hierarchy.VisitStatus.SKIP_CURRENT_AND_ALL_REMAINING_AND_STOP;
+import static java.util.stream.Collectors.toList;
 
 @SuppressWarnings({"unused", "WeakerAccess", "DeprecatedStillUsed"})
 public class HierarchyProcessor<PARENT_T>
 {
+    /**
+     * Number of elements of a multi-valued child at or below which a parallel visit visits them sequentially
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16;
 
     private final HierarchyProcessorBuilder<PARENT_T> built;
 
@@ -43,44 +53,108 @@ public class HierarchyProcessor<PARENT_T>
               traversal);
     }
 
+    /**
+     * Visits the hierarchy for the given parent (root). All the state of the visit is held by the visit itself (not
+     * shared with other, possibly concurrent, visits), and the nodes being visited are kept on an explicit stack rather
+     * than the thread stack, so arbitrarily deep hierarchies can be visited.
+     *
+     * @param parent                to visit the hierarchy for
+     * @param beforeChildrenVisitor called for each value (and each container of multi-valued children) before its
+     *                              children
+     * @param afterChildrenVisitor  called for each value after its children (may be null)
+     * @param traversal             order of the visit; PARALLEL visits in the common ForkJoinPool, with the
+     *                              DEFAULT_PARALLEL_THRESHOLD (see visitInParallel, which requires thread-safe child
+     *                              selectors)
+     */
     public void visit(PARENT_T parent,
                       GeneralVisitHandler beforeChildrenVisitor,
                       GeneralVisitHandler afterChildrenVisitor,
                       Traversal traversal)
     {
-        UUID key = UUID.randomUUID();
-        try {
-            built.visit(
-                key,
-                parent,
-                beforeChildrenVisitor,
-                Optional.ofNullable(afterChildrenVisitor),
-                traversal);
-        } finally {
-            SAVED_STATE.remove(key);
-        }
+        if ( traversal == PARALLEL )
+            visitInParallel(parent,
+                            beforeChildrenVisitor,
+                            afterChildrenVisitor,
+                            ForkJoinPool.commonPool(),
+                            DEFAULT_PARALLEL_THRESHOLD);
+        else
+            new Visit(beforeChildrenVisitor, afterChildrenVisitor, traversal, null)
+                .visitRoot(parent, built.childNodes);
+    }
+
+    /**
+     * Visits the hierarchy for the given parent (root) depth-first, splitting the elements of multi-valued children
+     * (the sibling subtrees) that number more than the threshold in halves, recursively, and visiting the halves as
+     * tasks of the pool. Every value is visited at most once (by identity) across all the workers, even if it is
+     * reachable through several paths of the hierarchy.
+     * <p>
+     * The handlers (the visitors, and those configured on the nodes) that do not declare themselves thread-safe (see
+     * VisitHandler.isThreadSafe) are never invoked concurrently with one another; thread-safe handlers are invoked
+     * concurrently. A value is always handled after its parent and before the after-children handlers of its parent,
+     * but siblings visited by different workers are handled in no particular order. A status that stops the visit
+     * stops every worker, and a status that skips the remaining siblings skips those of the same multi-valued child
+     * that follow it and have not been started yet.
+     * <p>
+     * The child selectors of the hierarchy, unlike the handlers, ARE invoked concurrently, so they must be thread-safe:
+     * in particular, selectors that may lazy-load (e.g., the associations of entities managed by a JPA EntityManager or
+     * Hibernate Session, which are not thread-safe) must not be used with a parallel visit unless everything they select
+     * is already loaded.
+     *
+     * @param parent                to visit the hierarchy for
+     * @param beforeChildrenVisitor called for each value (and each container of multi-valued children) before its
+     *                              children
+     * @param afterChildrenVisitor  called for each value after its children (may be null)
+     * @param pool                  to visit in
+     * @param threshold             number of elements of a multi-valued child at or below which they are visited
+     *                              sequentially by the worker that reached them (at least 1)
+     */
+    public void visitInParallel(PARENT_T parent,
+                                GeneralVisitHandler beforeChildrenVisitor,
+                                GeneralVisitHandler afterChildrenVisitor,
+                                ForkJoinPool pool,
+                                int threshold)
+    {
+        if ( threshold < 1 ) throw new IllegalArgumentException("Parallel threshold must be at least 1: " + threshold);
+        Visit visit = new Visit(beforeChildrenVisitor, afterChildrenVisitor, PARALLEL, new Parallel(threshold));
+        pool.invoke(ForkJoinTask.adapt(() -> visit.visitRoot(parent, built.childNodes)));
+    }
+
+    /**
+     * Visits the hierarchy for all the given roots at once, level by level: the levelVisitor is called with all the
+     * roots, then, for each level of the hierarchy, with all the values selected for that level across every parent
+     * (single children, and the Iterable/array containers of multi-valued children, BEFORE they are iterated), and then
+     * with all the elements of those containers. Each value is passed at most once per call (by identity). Streams of
+     * children are not passed as containers: each is consumed (once) only to pass its elements.
+     * <p>
+     * The number of calls to the levelVisitor is proportional to the depth of the hierarchy, not the number of roots,
+     * which allows a levelVisitor to prepare (e.g., batch-load) a whole level at once. The visit handlers configured on
+     * the nodes (onVisit) are NOT invoked.
+     *
+     * @param roots        to visit the hierarchy for
+     * @param levelVisitor called with the (non-null) values of each level
+     */
+    public void visitLevels(Collection<? extends PARENT_T> roots,
+                            Consumer<List<Object>> levelVisitor)
+    {
+        built.visitLevels(roots, levelVisitor);
     }
 
     public enum Traversal
     {
         DEPTH_FIRST,
-        BREADTH_FIRST
+        BREADTH_FIRST,
+        PARALLEL
     }
 
-    private static ConcurrentMap<UUID, ConcurrentMap<VisitableNode, Object>> SAVED_STATE = new ConcurrentHashMap<>();
-
     private interface VisitableNode<PARENT_T, T> extends Node<PARENT_T, T>
     {
-        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-        VisitStatus visit(UUID traversalKey,
-                          PARENT_T parent,
-                          VisitHandler<Object, Object> visitor,
-                          Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                          Traversal traversal);
-
-        VisitStatus visitOnlySelf(UUID traversalKey,
-                                  PARENT_T parent,
-                                  VisitHandler<Object, Object> visitor);
+        List<VisitableNode> getChildNodes();
+
+        boolean isMultiValued();
+
+        Object select(PARENT_T parent);
+
+        void forEachElement(Object selected, Consumer<T> action);
     }
 
     @SuppressWarnings("FieldCanBeLocal")
@@ -158,29 +232,59 @@ public class HierarchyProcessor<PARENT_T>
             return new HierarchyProcessor<>(this);
         }
 
-        @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored", "OptionalUsedAsFieldOrParameterType"})
-        private void visit(UUID key,
-                           T obj,
-                           VisitHandler<Object, Object> visitor,
-                           Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                           Traversal traversal)
+        @SuppressWarnings("unchecked")
+        private void visitLevels(Collection<? extends T> roots,
+                                 Consumer<List<Object>> levelVisitor)
         {
-            if ( visitor.handle(null, obj).isNotOk() ) return;
-            if ( traversal.equals(BREADTH_FIRST) )
-                if ( childNodes
-                    .stream()
-                    .map(child -> child.visitOnlySelf(key, obj, visitor))
-                    .anyMatch(VisitStatus::isSkipSiblings) )
-                    return;
-            childNodes
-                .stream()
-                .map(child -> child.visit(key, obj, visitor, afterChildrenVisitor, traversal))
-                .anyMatch(VisitStatus::isSkipSiblings);
-            afterChildrenVisitor.ifPresent(vh -> vh.handle(null, obj));
+            List<Object> parents = distinct(roots.stream().map(Object.class::cast));
+            if ( parents.isEmpty() ) return;
+            levelVisitor.accept(parents);
+            List<Map.Entry<VisitableNode, List<Object>>> frontier = new ArrayList<>();
+            childNodes.forEach(child -> frontier.add(new SimpleImmutableEntry<>(child, parents)));
+            while ( !frontier.isEmpty() ) {
+                List<Map.Entry<VisitableNode, List<Object>>> selections = new ArrayList<>(frontier.size());
+                for ( Map.Entry<VisitableNode, List<Object>> entry : frontier )
+                    selections.add(new SimpleImmutableEntry<>(entry.getKey(),
+                                                              distinct(entry.getValue()
+                                                                            .stream()
+                                                                            .map(entry.getKey()::select))));
+                List<Object> level = distinct(selections.stream()
+                                                        .flatMap(entry -> entry.getValue().stream())
+                                                        .filter(selected -> !(selected instanceof Stream)));
+                if ( !level.isEmpty() ) levelVisitor.accept(level);
+
+                List<Map.Entry<VisitableNode, List<Object>>> expanded = new ArrayList<>(selections.size());
+                for ( Map.Entry<VisitableNode, List<Object>> entry : selections ) {
+                    if ( !entry.getKey().isMultiValued() ) {
+                        expanded.add(entry);
+                        continue;
+                    }
+                    List<Object> elements = new ArrayList<>();
+                    entry.getValue().forEach(selected -> entry.getKey().forEachElement(selected, elements::add));
+                    expanded.add(new SimpleImmutableEntry<>(entry.getKey(), distinct(elements.stream())));
+                }
+                List<Object> elements = distinct(expanded.stream()
+                                                         .filter(entry -> entry.getKey().isMultiValued())
+                                                         .flatMap(entry -> entry.getValue().stream()));
+                if ( !elements.isEmpty() ) levelVisitor.accept(elements);
+
+                frontier.clear();
+                for ( Map.Entry<VisitableNode, List<Object>> entry : expanded ) {
+                    List<VisitableNode> children = entry.getKey().getChildNodes();
+                    if ( children == null || entry.getValue().isEmpty() ) continue;
+                    children.forEach(child -> frontier.add(new SimpleImmutableEntry<>(child, entry.getValue())));
+                }
+            }
+        }
+
+        private static List<Object> distinct(Stream<Object> values) {
+            IdentitySet seen = new IdentitySet();
+            return values
+                .filter(value -> value != null && seen.add(value))
+                .collect(toList());
         }
     }
 
-    @SuppressWarnings({"OptionalUsedAsFieldOrParameterType", "RedundantSuppression"})
     private static abstract class BaseNode<PARENT_T, T, NC extends Consumer<Node<PARENT_T, T>>>
         implements
         VisitableNode<PARENT_T, T>,
@@ -200,6 +304,11 @@ public class HierarchyProcessor<PARENT_T>
             childNodes.add(child);
         }
 
+        @Override
+        public final List<VisitableNode> getChildNodes() {
+            return childNodes;
+        }
+
         @SuppressWarnings({"unchecked", "deprecation"})
         @Override
         public <CHILD_T, N extends Node<PARENT_T, T>, INC extends Consumer<Node<T, CHILD_T>>>
@@ -289,132 +398,520 @@ public class HierarchyProcessor<PARENT_T>
             afterVisitHandlers.add(handler);
             return this;
         }
+    }
+
+    /**
+     * A single visit of the hierarchy: the handlers and traversal order of the visit, and the stack of frames (the
+     * nodes and containers being visited, each with the position it has reached) standing in for the recursion through
+     * the hierarchy. Each worker of a parallel visit has a Visit of its own, sharing the state of the parallel visit.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class Visit
+    {
+        private final VisitHandler<Object, Object> visitor;
+        private final VisitHandler<Object, Object> afterChildrenVisitor;
+        private final boolean                      breadthFirst;
+        private final Parallel                     parallel;
+
+        private Frame       top;
+        private VisitStatus completedStatus;
+
+        private Visit(VisitHandler<Object, Object> visitor,
+                      VisitHandler<Object, Object> afterChildrenVisitor,
+                      Traversal traversal,
+                      Parallel parallel)
+        {
+            this.visitor              = visitor;
+            this.afterChildrenVisitor = afterChildrenVisitor;
+            this.breadthFirst         = traversal == BREADTH_FIRST;
+            this.parallel             = parallel;
+        }
+
+        private void visitRoot(Object root,
+                               List<VisitableNode> childNodes)
+        {
+            if ( parallel != null ) parallel.visited.add(root);
+            if ( handle(visitor, null, root).isNotOk() ) return;
+            Prepared[] prepared = null;
+            if ( breadthFirst ) {
+                prepared = new Prepared[childNodes.size()];
+                for ( int i = 0; i < prepared.length; i++ ) {
+                    prepared[i] = prepare(childNodes.get(i), root);
+                    if ( prepared[i].status.isSkipSiblings() ) return;
+                }
+            }
+            for ( int i = 0; i < childNodes.size(); i++ )
+                if ( run(frameFor(childNodes.get(i), root, prepared == null ? null : prepared[i])).isSkipSiblings() )
+                    break;
+            if ( afterChildrenVisitor != null ) handle(afterChildrenVisitor, null, root);
+        }
+
+        /**
+         * Run the frame, and all the frames it pushes, to completion
+         *
+         * @return status the frame completed with
+         */
+        private VisitStatus run(Frame frame) {
+            push(frame);
+            try {
+                while ( top != null ) {
+                    VisitStatus childStatus = completedStatus;
+                    completedStatus = null;
+                    top.resume(this, childStatus);
+                }
+            } finally {
+                for ( ; top != null; top = top.caller ) top.release();
+            }
+            return completedStatus;
+        }
+
+        private void push(Frame frame) {
+            frame.caller = top;
+            top          = frame;
+        }
 
+        private void complete(VisitStatus status) {
+            Frame frame = top;
+            top = frame.caller;
+            frame.release();
+            completedStatus = status;
+        }
 
-        private VisitStatus invokeVisitHandlers(PARENT_T parent,
-                                                T self,
-                                                BiHandlerList<PARENT_T, T, VisitStatus> visitHandlers)
+        private Frame frameFor(VisitableNode node,
+                               Object parent,
+                               Prepared prepared)
         {
-            return visitHandlers == null
-                   ? OK_CONTINUE
-                   : visitHandlers
-                       .invoke(parent, self, VisitStatus::isNotOk)
-                       .orElse(OK_CONTINUE);
+            if ( !node.isMultiValued() )
+                return new NodeFrame((BaseNode) node,
+                                     parent,
+                                     prepared == null ? node.select(parent) : prepared.selected);
+            ManyBaseNode many = (ManyBaseNode) node;
+            if ( prepared != null )
+                return new CollectionFrame(many,
+                                           parent,
+                                           prepared.selected,
+                                           prepared.included == null ? null : prepared.included.iterator(),
+                                           false);
+            Object collection = many.selectCollection(parent);
+            return new CollectionFrame(many,
+                                       parent,
+                                       collection,
+                                       collection == null ? null : many.iterator(collection),
+                                       collection != null);
         }
 
-        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-        protected final VisitStatus visit(UUID key,
-                                          VisitHandler<Object, Object> visitor,
-                                          Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                          Traversal traversal,
-                                          PARENT_T parent,
-                                          T self)
+        /**
+         * Visit (only) the value(s) a child node selects from its parent ahead of visiting any of their children, for a
+         * breadth-first visit, remembering the values selected and the elements that were not skipped
+         */
+        private Prepared prepare(VisitableNode node,
+                                 Object parent)
         {
-            if ( self != null ) {
-                if ( traversal.equals(DEPTH_FIRST) ) {
-                    VisitStatus vs = visitStart(key, visitor, parent, self);
-                    if ( vs.isSkipNode() ) return vs;
+            if ( !node.isMultiValued() ) {
+                Object self = node.select(parent);
+                return new Prepared(visitStart((BaseNode) node, parent, self), self, null);
+            }
+            ManyBaseNode many       = (ManyBaseNode) node;
+            Object       collection = many.selectCollection(parent);
+            if ( collection == null ) return new Prepared(OK_CONTINUE, null, null);
+            try {
+                VisitStatus vs = visitCollection(many, parent, collection);
+                if ( vs.isStop() || vs.isSkipSiblings() ) return new Prepared(vs, collection, null);
+                List<Object> included = new ArrayList<>();
+                if ( vs.isSkipNode() ) return new Prepared(OK_CONTINUE, collection, included);
+                for ( Iterator<Object> it = many.iterator(collection); it.hasNext(); ) {
+                    Object self = it.next();
+                    vs = visitStart(many, parent, self);
+                    if ( vs.isStop() ) return new Prepared(vs, collection, null);
+                    if ( vs.isSkipSiblings() ) break;
+                    if ( vs.isSkipNode() ) continue;
+                    included.add(self);
                 }
-                VisitStatus vs = visitChildren(key, visitor, afterChildrenVisitor, traversal, parent, self);
-                if ( vs.isSkipNode() ) return vs;
+                return new Prepared(OK_CONTINUE, collection, included);
+            } finally {
+                many.release(collection);
             }
-            return visitEnd(key, afterChildrenVisitor, parent, self);
         }
 
-        protected final VisitStatus visitStart(UUID key,
-                                               VisitHandler<Object, Object> visitor,
-                                               PARENT_T parent,
-                                               T self)
+        private VisitStatus visitStart(BaseNode node,
+                                       Object parent,
+                                       Object self)
         {
             if ( self == null ) return OK_CONTINUE;
-            VisitStatus vs = invokeVisitHandlers(parent, self, beforeVisitHandlers);
+            VisitStatus vs = invoke(node.beforeVisitHandlers, parent, self);
             if ( vs.isSkipNode() ) return vs;
-            return visitor.handle(parent, self);
+            return handle(visitor, parent, self);
         }
 
-        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-        private VisitStatus visitChildren(UUID key,
-                                          VisitHandler<Object, Object> visitor,
-                                          Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                          Traversal traversal,
-                                          PARENT_T parent,
-                                          T self)
+        private VisitStatus visitCollection(ManyBaseNode node,
+                                            Object parent,
+                                            Object collection)
         {
-            VisitStatus vs
-                = invokeVisitHandlers(parent, self, beforeAllChildrenVisitHandlers);
-            if ( vs.isSkipNode() ) return vs;
-            vs = visitEachChild(key, visitor, afterChildrenVisitor, traversal, parent, self);
+            VisitStatus vs = invoke(node.beforeManyVisitHandlers, parent, collection);
             if ( vs.isSkipNode() ) return vs;
-            return invokeVisitHandlers(parent, self, afterAllChildrenVisitHandlers);
+            return handle(visitor, parent, collection);
         }
 
-        @SuppressWarnings("unchecked")
-        private VisitStatus visitEachChild(UUID key,
-                                           VisitHandler<Object, Object> visitor,
-                                           Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                           Traversal traversal,
-                                           PARENT_T parent,
-                                           T self)
-        {
-            if ( childNodes == null ) return OK_CONTINUE;
-
-            HashSet<VisitableNode> includedChildren
-                = ((ConcurrentHashMap<String, HashSet<VisitableNode>>) SAVED_STATE
-                .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(this, k -> new ConcurrentHashMap<>()))
-                .computeIfAbsent("CHILDREN", k -> new HashSet<>());
-            includedChildren.clear();
+        private VisitStatus invoke(BiHandlerList handlers,
+                                   Object parent,
+                                   Object self)
+        {
+            if ( handlers == null ) return OK_CONTINUE;
+            if ( parallel == null )
+                return (VisitStatus) handlers.invoke(parent, self, vs -> ((VisitStatus) vs).isNotOk())
+                                             .orElse(OK_CONTINUE);
+            for ( Object handler : handlers ) {
+                VisitStatus vs = handle((BiHandler) handler, parent, self);
+                if ( vs.isNotOk() ) return vs;
+            }
+            return OK_CONTINUE;
+        }
+
+        private VisitStatus handle(BiHandler handler,
+                                   Object parent,
+                                   Object self)
+        {
+            if ( parallel == null || handler instanceof VisitHandler && ((VisitHandler) handler).isThreadSafe() )
+                return (VisitStatus) handler.handle(parent, self);
+            synchronized ( parallel ) {
+                return (VisitStatus) handler.handle(parent, self);
+            }
+        }
+
+        /**
+         * Visit the elements of a multi-valued child as tasks of the pool of the (parallel) visit
+         *
+         * @return true if the visit was stopped
+         */
+        private boolean visitInParallel(ManyBaseNode node,
+                                        Object parent,
+                                        List<Object> elements)
+        {
+            new SiblingsTask(this,
+                             node,
+                             parent,
+                             elements,
+                             0,
+                             elements.size(),
+                             new AtomicInteger(elements.size()))
+                .invoke();
+            return parallel.stopped;
+        }
+    }
+
+    /**
+     * State shared by all the workers of a parallel visit; also the lock under which the handlers that are not
+     * thread-safe are invoked
+     */
+    private static final class Parallel
+    {
+        private final int                   threshold;
+        private final ConcurrentIdentitySet visited = new ConcurrentIdentitySet();
+
+        private volatile boolean stopped;
+
+        private Parallel(int threshold) {
+            this.threshold = threshold;
+        }
+    }
 
+    /**
+     * Elements [from, to) of a multi-valued child visited in parallel: split in halves while there are more of them
+     * than the threshold, and otherwise visited one after the other, each with a Visit of the worker's own
+     */
+    @SuppressWarnings({"rawtypes"})
+    private static final class SiblingsTask extends RecursiveAction
+    {
+        private final Visit         visit;
+        private final ManyBaseNode  node;
+        private final Object        parent;
+        private final List<Object>  elements;
+        private final int           from;
+        private final int           to;
+        private final AtomicInteger skippedFrom;
+
+        private SiblingsTask(Visit visit,
+                             ManyBaseNode node,
+                             Object parent,
+                             List<Object> elements,
+                             int from,
+                             int to,
+                             AtomicInteger skippedFrom)
+        {
+            this.visit       = visit;
+            this.node        = node;
+            this.parent      = parent;
+            this.elements    = elements;
+            this.from        = from;
+            this.to          = to;
+            this.skippedFrom = skippedFrom;
+        }
+
+        @Override
+        protected void compute() {
+            Parallel parallel = visit.parallel;
             try {
-                if ( traversal.equals(BREADTH_FIRST) )
-                    for ( VisitableNode childNode : childNodes ) {
-                        VisitStatus vs = invokeVisitHandlers(parent, self, beforeEachChildVisitHandlers);
-                        if ( vs.isStop() ) return vs;
-                        if ( vs.isSkipSiblings() ) break;
-                        if ( vs.isSkipNode() ) continue;
-                        vs = childNode.visitOnlySelf(key, self, visitor);
-                        if ( vs.isStop() ) return vs;
-                        if ( vs.isSkipSiblings() ) break;
-                        if ( vs.isSkipNode() ) continue;
-                        includedChildren.add(childNode);
+                if ( to - from > parallel.threshold ) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new SiblingsTask(visit, node, parent, elements, from, middle, skippedFrom),
+                              new SiblingsTask(visit, node, parent, elements, middle, to, skippedFrom));
+                    return;
+                }
+                Visit worker = new Visit(visit.visitor, visit.afterChildrenVisitor, PARALLEL, parallel);
+                for ( int i = from; i < to && i < skippedFrom.get() && !parallel.stopped; i++ ) {
+                    VisitStatus vs = worker.run(new NodeFrame(node, parent, elements.get(i)));
+                    if ( vs.isStop() ) {
+                        parallel.stopped = true;
+                        return;
+                    }
+                    if ( vs.isSkipSiblings() ) {
+                        skippedFrom.accumulateAndGet(i + 1, Math::min);
+                        return;
                     }
+                }
+            } catch ( RuntimeException | Error e ) {
+                parallel.stopped = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Value(s) selected for a child node, and visited, ahead of the visit of their children
+     */
+    private static final class Prepared
+    {
+        private final VisitStatus  status;
+        private final Object       selected;
+        private final List<Object> included;
+
+        private Prepared(VisitStatus status,
+                         Object selected,
+                         List<Object> included)
+        {
+            this.status   = status;
+            this.selected = selected;
+            this.included = included;
+        }
+    }
+
+    /**
+     * A node, or container of nodes, being visited: each call to resume advances the frame until it either pushes the
+     * frame of a child (and is resumed with the status of the child once the child completes) or completes
+     */
+    private static abstract class Frame
+    {
+        private Frame caller;
+
+        abstract void resume(Visit visit,
+                             VisitStatus childStatus);
+
+        void release() {
+        }
+    }
 
-                for ( VisitableNode childNode : childNodes ) {
-                    if ( traversal.equals(BREADTH_FIRST) && !includedChildren.contains(childNode) ) continue;
-                    if ( traversal.equals(DEPTH_FIRST) ) {
-                        VisitStatus vs = invokeVisitHandlers(parent, self, beforeEachChildVisitHandlers);
-                        if ( vs.isStop() ) return vs;
-                        if ( vs.isSkipSiblings() ) break;
-                        if ( vs.isSkipNode() ) continue;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class NodeFrame extends Frame
+    {
+        private final BaseNode node;
+        private final Object   parent;
+        private final Object   self;
+
+        private Prepared[] prepared;
+        private int        childIndex = -1;
+
+        private NodeFrame(BaseNode node,
+                          Object parent,
+                          Object self)
+        {
+            this.node   = node;
+            this.parent = parent;
+            this.self   = self;
+        }
+
+        @Override
+        void resume(Visit visit,
+                    VisitStatus childStatus)
+        {
+            if ( childIndex < 0 ) {
+                VisitStatus vs = start(visit);
+                if ( vs != null ) {
+                    visit.complete(vs);
+                    return;
+                }
+                childIndex = 0;
+            } else {
+                VisitStatus vs = childStatus;
+                if ( vs.isStop() ) {
+                    visit.complete(vs);
+                    return;
+                }
+                if ( vs.isSkipSiblings() ) {
+                    finish(visit);
+                    return;
+                }
+                if ( !vs.isSkipNode() ) {
+                    vs = visit.invoke(node.afterEachChildVisitHandlers, parent, self);
+                    if ( vs.isStop() ) {
+                        visit.complete(vs);
+                        return;
+                    }
+                    if ( vs.isSkipSiblings() ) {
+                        finish(visit);
+                        return;
+                    }
+                }
+                childIndex++;
+            }
+            List<VisitableNode> childNodes = node.childNodes;
+            for ( ; childNodes != null && childIndex < childNodes.size(); childIndex++ ) {
+                if ( visit.breadthFirst ) {
+                    if ( prepared[childIndex] == null ) continue;
+                } else {
+                    VisitStatus vs = visit.invoke(node.beforeEachChildVisitHandlers, parent, self);
+                    if ( vs.isStop() ) {
+                        visit.complete(vs);
+                        return;
                     }
-                    VisitStatus vs = childNode.visit(key, self, visitor, afterChildrenVisitor, traversal);
-                    if ( vs.isStop() ) return vs;
                     if ( vs.isSkipSiblings() ) break;
                     if ( vs.isSkipNode() ) continue;
-                    vs = invokeVisitHandlers(parent, self, afterEachChildVisitHandlers);
-                    if ( vs.isStop() ) return vs;
-                    if ( vs.isSkipSiblings() ) break;
                 }
-            } finally {
-                includedChildren.clear();
+                visit.push(visit.frameFor(childNodes.get(childIndex),
+                                          self,
+                                          prepared == null ? null : prepared[childIndex]));
+                return;
             }
-            return OK_CONTINUE;
+            finish(visit);
         }
 
-        private VisitStatus visitEnd(UUID key,
-                                     Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                     PARENT_T parent,
-                                     T self)
-        {
+        /**
+         * @return status to complete the frame with, or null to go on to the children
+         */
+        private VisitStatus start(Visit visit) {
             if ( self == null ) return OK_CONTINUE;
-            VisitStatus vs
-                = afterChildrenVisitor
-                .map(visitor -> visitor.handle(parent, self))
-                .orElse(OK_CONTINUE);
+            if ( visit.parallel != null ) {
+                if ( visit.parallel.stopped ) return SKIP_CURRENT_AND_ALL_REMAINING_AND_STOP;
+                if ( !visit.parallel.visited.add(self) ) return OK_CONTINUE;
+            }
+            VisitStatus vs;
+            if ( !visit.breadthFirst ) {
+                vs = visit.visitStart(node, parent, self);
+                if ( vs.isSkipNode() ) return vs;
+            }
+            vs = visit.invoke(node.beforeAllChildrenVisitHandlers, parent, self);
             if ( vs.isSkipNode() ) return vs;
-            return invokeVisitHandlers(parent, self, afterVisitHandlers);
+            List<VisitableNode> childNodes = node.childNodes;
+            if ( !visit.breadthFirst || childNodes == null ) return null;
+            prepared = new Prepared[childNodes.size()];
+            for ( int i = 0; i < prepared.length; i++ ) {
+                vs = visit.invoke(node.beforeEachChildVisitHandlers, parent, self);
+                if ( vs.isStop() ) return vs;
+                if ( vs.isSkipSiblings() ) break;
+                if ( vs.isSkipNode() ) continue;
+                Prepared child = visit.prepare(childNodes.get(i), self);
+                vs = child.status;
+                if ( vs.isStop() ) return vs;
+                if ( vs.isSkipSiblings() ) break;
+                if ( vs.isSkipNode() ) continue;
+                prepared[i] = child;
+            }
+            return null;
         }
 
+        private void finish(Visit visit) {
+            VisitStatus vs = visit.invoke(node.afterAllChildrenVisitHandlers, parent, self);
+            if ( vs.isSkipNode() ) {
+                visit.complete(vs);
+                return;
+            }
+            if ( visit.afterChildrenVisitor != null ) {
+                vs = visit.handle(visit.afterChildrenVisitor, parent, self);
+                if ( vs.isSkipNode() ) {
+                    visit.complete(vs);
+                    return;
+                }
+            }
+            visit.complete(visit.invoke(node.afterVisitHandlers, parent, self));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class CollectionFrame extends Frame
+    {
+        private final ManyBaseNode node;
+        private final Object       parent;
+        private final Object       collection;
+        private final boolean      releaseCollection;
+
+        private Iterator elements;
+        private boolean  started;
+
+        private CollectionFrame(ManyBaseNode node,
+                                Object parent,
+                                Object collection,
+                                Iterator elements,
+                                boolean releaseCollection)
+        {
+            this.node              = node;
+            this.parent            = parent;
+            this.collection        = collection;
+            this.elements          = elements;
+            this.releaseCollection = releaseCollection;
+        }
+
+        @Override
+        void resume(Visit visit,
+                    VisitStatus childStatus)
+        {
+            if ( !started ) {
+                started = true;
+                if ( collection == null ) {
+                    visit.complete(OK_CONTINUE);
+                    return;
+                }
+                if ( !visit.breadthFirst ) {
+                    VisitStatus vs = visit.visitCollection(node, parent, collection);
+                    if ( vs.isStop() || vs.isSkipSiblings() ) {
+                        visit.complete(vs);
+                        return;
+                    }
+                    if ( vs.isSkipNode() ) {
+                        visit.complete(OK_CONTINUE);
+                        return;
+                    }
+                }
+                if ( visit.parallel != null && elements != null ) {
+                    List<Object> siblings = new ArrayList<>();
+                    elements.forEachRemaining(siblings::add);
+                    if ( siblings.size() > visit.parallel.threshold ) {
+                        visit.complete(visit.visitInParallel(node, parent, siblings)
+                                       ? SKIP_CURRENT_AND_ALL_REMAINING_AND_STOP
+                                       : visit.invoke(node.afterManyVisitHandlers, parent, collection));
+                        return;
+                    }
+                    elements = siblings.iterator();
+                }
+            } else {
+                if ( childStatus.isStop() ) {
+                    visit.complete(childStatus);
+                    return;
+                }
+                if ( childStatus.isSkipSiblings() ) {
+                    visit.complete(OK_CONTINUE);
+                    return;
+                }
+            }
+            if ( elements != null && elements.hasNext() ) {
+                visit.push(new NodeFrame(node, parent, elements.next()));
+                return;
+            }
+            visit.complete(visit.invoke(node.afterManyVisitHandlers, parent, collection));
+        }
+
+        @Override
+        void release() {
+            if ( releaseCollection ) node.release(collection);
+        }
     }
 
     private static class SingleChild<PARENT_T, T, NC extends Consumer<Node<PARENT_T, T>>>
@@ -463,20 +960,19 @@ public class HierarchyProcessor<PARENT_T>
         }
 
         @Override
-        public VisitStatus visit(UUID key,
-                                 PARENT_T parent,
-                                 VisitHandler<Object, Object> visitor,
-                                 Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                 Traversal traversal)
-        {
-            T self = childSelector.apply(parent);
-            return visit(key, visitor, afterChildrenVisitor, traversal, parent, self);
+        public boolean isMultiValued() {
+            return false;
         }
 
         @Override
-        public VisitStatus visitOnlySelf(UUID key, PARENT_T parent, VisitHandler<Object, Object> visitor) {
-            T self = childSelector.apply(parent);
-            return visitStart(key, visitor, parent, self);
+        public Object select(PARENT_T parent) {
+            return childSelector.apply(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachElement(Object selected, Consumer<T> action) {
+            action.accept((T) selected);
         }
 
         @SuppressWarnings({"deprecation", "RedundantSuppression"})
@@ -487,7 +983,6 @@ public class HierarchyProcessor<PARENT_T>
         }
     }
 
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static abstract class ManyBaseNode<PARENT_T, T, CT, NC extends Consumer<Node<PARENT_T, T>>>
         extends
         BaseNode<PARENT_T, T, NC>
@@ -499,15 +994,9 @@ public class HierarchyProcessor<PARENT_T>
         protected BiHandlerList<PARENT_T, CT, VisitStatus> beforeManyVisitHandlers;
         protected BiHandlerList<PARENT_T, CT, VisitStatus> afterManyVisitHandlers;
 
-        protected VisitStatus invokeVisitHandlers(PARENT_T parent,
-                                                  CT collection,
-                                                  BiHandlerList<PARENT_T, CT, VisitStatus> visitHandlers)
-        {
-            return visitHandlers == null
-                   ? OK_CONTINUE
-                   : visitHandlers
-                       .invoke(parent, collection, VisitStatus::isNotOk)
-                       .orElse(OK_CONTINUE);
+        @Override
+        public final boolean isMultiValued() {
+            return true;
         }
 
         @Override
@@ -567,72 +1056,17 @@ public class HierarchyProcessor<PARENT_T>
             return this;
         }
 
-        @SuppressWarnings("unchecked")
-        protected final VisitStatus visit(UUID key,
-                                          PARENT_T parent,
-                                          VisitHandler<Object, Object> visitor,
-                                          Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                          Traversal traversal,
-                                          CT collection,
-                                          Iterator<T> it)
-        {
-            if ( traversal.equals(DEPTH_FIRST) ) {
-                VisitStatus vs = visitCollection(key, parent, visitor, collection);
-                if ( vs.isStop() ) return vs;
-                if ( vs.isSkipSiblings() ) return vs;
-                if ( vs.isSkipNode() ) return OK_CONTINUE;
-            }
-            HashSet<T> includedEntries
-                = ((ConcurrentHashMap<String, HashSet<T>>) SAVED_STATE
-                .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(this, k -> new ConcurrentHashMap<>()))
-                .computeIfAbsent("COLLECTION", k -> new HashSet<>());
-            while ( it.hasNext() ) {
-                T self = it.next();
-                if ( traversal.equals(BREADTH_FIRST) && !includedEntries.contains(self) ) continue;
-                VisitStatus vs = visit(key, visitor, afterChildrenVisitor, traversal, parent, self);
-                if ( vs.isStop() ) return vs;
-                if ( vs.isSkipSiblings() ) return OK_CONTINUE;
-            }
-            return invokeVisitHandlers(parent, collection, afterManyVisitHandlers);
-        }
-
-        @SuppressWarnings({"unchecked", "DuplicatedCode"})
-        protected final VisitStatus visitOnlySelf(UUID key,
-                                                  PARENT_T parent,
-                                                  VisitHandler<Object, Object> visitor,
-                                                  CT collection,
-                                                  Iterator<T> it)
-        {
-            VisitStatus vs = visitCollection(key, parent, visitor, collection);
-            if ( vs.isStop() ) return vs;
-            if ( vs.isSkipSiblings() ) return vs;
-            if ( vs.isSkipNode() ) return OK_CONTINUE;
-            HashSet<T> includedEntries
-                = ((ConcurrentHashMap<String, HashSet<T>>) SAVED_STATE
-                .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(this, k -> new ConcurrentHashMap<>()))
-                .computeIfAbsent("COLLECTION", k -> new HashSet<>());
-            includedEntries.clear();
-            while ( it.hasNext() ) {
-                T self = it.next();
-                vs = visitStart(key, visitor, parent, self);
-                if ( vs.isStop() ) return vs;
-                if ( vs.isSkipSiblings() ) break;
-                if ( vs.isSkipNode() ) continue;
-                includedEntries.add(self);
-            }
-            return OK_CONTINUE;
-        }
+        /**
+         * @return the container of the children of the parent (not yet iterated), or null if there is none
+         */
+        protected abstract CT selectCollection(PARENT_T parent);
 
-        private VisitStatus visitCollection(UUID key,
-                                            PARENT_T parent,
-                                            VisitHandler<Object, Object> visitor,
-                                            CT collection)
-        {
-            VisitStatus vs = invokeVisitHandlers(parent, collection, beforeManyVisitHandlers);
-            if ( vs.isSkipNode() ) return vs;
-            return visitor.handle(parent, collection);
+        protected abstract Iterator<T> iterator(CT collection);
+
+        /**
+         * Release the container of the children once it has been iterated
+         */
+        protected void release(CT collection) {
         }
     }
 
@@ -647,36 +1081,33 @@ public class HierarchyProcessor<PARENT_T>
         }
 
         @Override
-        public final VisitStatus visit(UUID key,
-                                       PARENT_T parent,
-                                       VisitHandler<Object, Object> visitor,
-                                       Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                       Traversal traversal)
-        {
-            try ( Stream<T> stream = childSelector.apply(parent) ) {
-                return visit(
-                    key,
-                    parent,
-                    visitor,
-                    afterChildrenVisitor,
-                    traversal,
-                    stream,
-                    stream.iterator());
-            }
+        protected Stream<T> selectCollection(PARENT_T parent) {
+            return childSelector.apply(parent);
         }
 
         @Override
-        public final VisitStatus visitOnlySelf(UUID key,
-                                               PARENT_T parent,
-                                               VisitHandler<Object, Object> visitor)
-        {
-            try ( Stream<T> stream = childSelector.apply(parent) ) {
-                return visitOnlySelf(
-                    key,
-                    parent,
-                    visitor,
-                    stream,
-                    stream.iterator());
+        protected Iterator<T> iterator(Stream<T> stream) {
+            return stream.iterator();
+        }
+
+        @Override
+        protected void release(Stream<T> stream) {
+            stream.close();
+        }
+
+        /**
+         * @return the (not yet consumed) stream of the children of the parent, consumed and closed by forEachElement
+         */
+        @Override
+        public Object select(PARENT_T parent) {
+            return childSelector.apply(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachElement(Object selected, Consumer<T> action) {
+            try ( Stream<T> stream = (Stream<T>) selected ) {
+                stream.forEachOrdered(action);
             }
         }
     }
@@ -692,35 +1123,24 @@ public class HierarchyProcessor<PARENT_T>
         }
 
         @Override
-        public final VisitStatus visit(UUID key,
-                                       PARENT_T parent,
-                                       VisitHandler<Object, Object> visitor,
-                                       Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                       Traversal traversal)
-        {
-            Iterable<T> it = childSelector.apply(parent);
-            if ( it == null ) return OK_CONTINUE;
-            return visit(key,
-                         parent,
-                         visitor,
-                         afterChildrenVisitor,
-                         traversal,
-                         it,
-                         it.iterator());
+        protected Iterable<T> selectCollection(PARENT_T parent) {
+            return childSelector.apply(parent);
         }
 
         @Override
-        public final VisitStatus visitOnlySelf(UUID key,
-                                               PARENT_T parent,
-                                               VisitHandler<Object, Object> visitor)
-        {
-            Iterable<T> it = childSelector.apply(parent);
-            if ( it == null ) return OK_CONTINUE;
-            return visitOnlySelf(key,
-                                 parent,
-                                 visitor,
-                                 it,
-                                 it.iterator());
+        protected Iterator<T> iterator(Iterable<T> iterable) {
+            return iterable.iterator();
+        }
+
+        @Override
+        public Object select(PARENT_T parent) {
+            return childSelector.apply(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachElement(Object selected, Consumer<T> action) {
+            ((Iterable<T>) selected).forEach(action);
         }
     }
 
@@ -735,35 +1155,24 @@ public class HierarchyProcessor<PARENT_T>
         }
 
         @Override
-        public final VisitStatus visit(UUID key,
-                                       PARENT_T parent,
-                                       VisitHandler<Object, Object> visitor,
-                                       Optional<VisitHandler<Object, Object>> afterChildrenVisitor,
-                                       Traversal traversal)
-        {
-            T[] array = childSelector.apply(parent);
-            if ( array == null ) return OK_CONTINUE;
-            return visit(key,
-                         parent,
-                         visitor,
-                         afterChildrenVisitor,
-                         traversal,
-                         array,
-                         Arrays.stream(array).iterator());
+        protected T[] selectCollection(PARENT_T parent) {
+            return childSelector.apply(parent);
         }
 
         @Override
-        public final VisitStatus visitOnlySelf(UUID key,
-                                               PARENT_T parent,
-                                               VisitHandler<Object, Object> visitor)
-        {
-            T[] array = childSelector.apply(parent);
-            if ( array == null ) return OK_CONTINUE;
-            return visitOnlySelf(key,
-                                 parent,
-                                 visitor,
-                                 array,
-                                 Arrays.stream(array).iterator());
+        protected Iterator<T> iterator(T[] array) {
+            return Arrays.asList(array).iterator();
+        }
+
+        @Override
+        public Object select(PARENT_T parent) {
+            return childSelector.apply(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachElement(Object selected, Consumer<T> action) {
+            for ( T element : (T[]) selected ) action.accept(element);
         }
     }
 }
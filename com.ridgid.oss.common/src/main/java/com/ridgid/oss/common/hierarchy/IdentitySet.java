@@ -0,0 +1,77 @@
+package com.ridgid.oss.common.hierarchy;
+
+/**
+ * Minimal set of objects compared by identity (never by equals/hashCode, which, for entities, may trigger lazy loading
+ * or walk collections), held in a single open-addressed (linear probing) array; not thread-safe
+ */
+final class IdentitySet
+{
+    private Object[] table;
+    private int      size;
+
+    IdentitySet() {
+        this(16);
+    }
+
+    IdentitySet(int expectedSize) {
+        table = new Object[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * @param obj (non-null) object to add
+     * @return true if the object was not already in the set
+     */
+    boolean add(Object obj) {
+        int mask = table.length - 1;
+        for ( int i = indexFor(obj, mask); ; i = (i + 1) & mask ) {
+            Object existing = table[i];
+            if ( existing == obj ) return false;
+            if ( existing == null ) {
+                table[i] = obj;
+                if ( ++size * 2 > table.length ) resize();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param obj object to look for
+     * @return true if the object is in the set (false for null, which is never in the set)
+     */
+    boolean contains(Object obj) {
+        if ( obj == null ) return false;
+        int mask = table.length - 1;
+        for ( int i = indexFor(obj, mask); ; i = (i + 1) & mask ) {
+            Object existing = table[i];
+            if ( existing == obj ) return true;
+            if ( existing == null ) return false;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        Object[] old = table;
+        table = new Object[old.length * 2];
+        int mask = table.length - 1;
+        for ( Object obj : old )
+            if ( obj != null ) {
+                int i = indexFor(obj, mask);
+                while ( table[i] != null ) i = (i + 1) & mask;
+                table[i] = obj;
+            }
+    }
+
+    private static int indexFor(Object obj,
+                                int mask)
+    {
+        // Fibonacci hashing: the top bits of the product mix all the bits of the identity hash
+        return (System.identityHashCode(obj) * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) * 2);
+    }
+}
@@ -5,4 +5,32 @@ import com.ridgid.oss.common.callback.BiHandler;
 @SuppressWarnings({"unused", "WeakerAccess"})
 @FunctionalInterface
 public interface VisitHandler<PARENT_T, T> extends BiHandler<PARENT_T, T, VisitStatus> {
+
+    /**
+     * @return true if the handler may be invoked concurrently by the workers of a parallel visit; handlers that are not
+     * thread-safe (the default) are never invoked concurrently with one another
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * @param handler thread-safe handler
+     * @param <PARENT_T> parent type
+     * @param <T> type of the values handled
+     * @return the handler, declared thread-safe
+     */
+    static <PARENT_T, T> VisitHandler<PARENT_T, T> threadSafe(VisitHandler<PARENT_T, T> handler) {
+        return new VisitHandler<PARENT_T, T>() {
+            @Override
+            public VisitStatus handle(PARENT_T parent, T self) {
+                return handler.handle(parent, self);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        };
+    }
 }
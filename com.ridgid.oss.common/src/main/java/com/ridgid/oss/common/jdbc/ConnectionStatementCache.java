@@ -0,0 +1,92 @@
+package com.ridgid.oss.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the prepared statements of one connection, keyed by their SQL text, used by
+ * {@code NamedParameterJdbcQuery.prepareCached}.
+ * <p>
+ * The cache belongs to the caller holding the connection: create it after checking out the connection, use it for the
+ * queries repeated on that connection, and close it (e.g., try-with-resources) before the connection is closed or
+ * returned to its pool, which closes the statements cached in it. Statements are prepared on the connection exactly as
+ * given (it is not unwrapped), so a pooled connection's statements stay under the control of the pool, whose (or the
+ * driver's) own statement cache is what makes them cheap to prepare again on the next check-out; code that checks out a
+ * connection per operation should rely on that and use {@code NamedParameterJdbcQuery.prepare} instead. The cache keeps at
+ * most {@code MAX_STATEMENTS} statements, closing the least recently used one when the limit is exceeded. It is not
+ * thread-safe, as neither is the connection it is for.
+ */
+@SuppressWarnings("ClassNamePrefixedWithPackageName")
+public final class ConnectionStatementCache implements AutoCloseable
+{
+    static final int MAX_STATEMENTS = 64;
+
+    private final Connection conn;
+    private final Statements statements = new Statements();
+
+    /**
+     * @param conn connection to prepare and cache the statements on
+     */
+    public ConnectionStatementCache(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * @return connection the statements are prepared and cached on
+     */
+    public Connection getConnection() {
+        return conn;
+    }
+
+    /**
+     * @param sql SQL text of the statement
+     * @return the open statement previously cached for the same SQL (with its parameters cleared), or, a newly prepared
+     * and cached statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if ( statement != null && !statement.isClosed() ) {
+            statement.clearParameters();
+            return statement;
+        }
+        statement = conn.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Closes and discards all the cached statements; the connection itself is left open
+     */
+    @Override
+    public void close() {
+        statements.values().forEach(ConnectionStatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch ( SQLException ignored ) {
+        }
+    }
+
+    private static final class Statements extends LinkedHashMap<String, PreparedStatement>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private Statements() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if ( size() <= MAX_STATEMENTS ) return false;
+            closeQuietly(eldest.getValue());
+            return true;
+        }
+    }
+}
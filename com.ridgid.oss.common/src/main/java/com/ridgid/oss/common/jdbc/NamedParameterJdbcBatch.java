@@ -0,0 +1,175 @@
+package com.ridgid.oss.common.jdbc;
+
+import com.ridgid.oss.common.helper.ClassAccessor;
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+import com.ridgid.oss.common.jdbc.NamedParameterJdbcQuery.PreparedNamedParameterJdbcQuery;
+
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Executes a {@code NamedParameterJdbcQuery} for each of a sequence of parameter sets, in batches, for
+ * {@code NamedParameterJdbcQuery.executeBatch} and {@code NamedParameterJdbcQuery.executeBatchOfBeans}
+ */
+@SuppressWarnings("ClassNamePrefixedWithPackageName")
+final class NamedParameterJdbcBatch
+{
+    private static final ClassValue<Map<String, FieldAccessor>> beanFields
+        = new ClassValue<Map<String, FieldAccessor>>()
+    {
+        @Override
+        protected Map<String, FieldAccessor> computeValue(Class<?> beanClass) {
+            Map<String, FieldAccessor> fields = new HashMap<>();
+            for ( Class<?> c = beanClass; c != null && c != Object.class; c = c.getSuperclass() )
+                for ( FieldAccessor f : ClassAccessor.of(c).getDeclaredFields() )
+                    if ( !Modifier.isStatic(f.getField().getModifiers()) )
+                        fields.putIfAbsent(f.getName(), f);
+            return Collections.unmodifiableMap(fields);
+        }
+    };
+
+    private NamedParameterJdbcBatch() {}
+
+    static <T> int[] execute(NamedParameterJdbcQuery query,
+                             Connection conn,
+                             Iterator<T> parameterSets,
+                             BiFunction<T, String, ?> parameterValue,
+                             int batchSize,
+                             boolean rewriteMultiRowValues)
+        throws SQLException
+    {
+        if ( batchSize < 1 ) throw new IllegalArgumentException("batchSize must be at least 1");
+        UpdateCounts counts = new UpdateCounts();
+        if ( rewriteMultiRowValues && batchSize > 1 && query.getMultiRowValuesQuery(1).isPresent() )
+            executeMultiRow(query, conn, parameterSets, parameterValue, batchSize, counts);
+        else
+            executeBatches(query, conn, parameterSets, parameterValue, batchSize, counts);
+        return counts.toArray();
+    }
+
+    private static <T> void executeBatches(NamedParameterJdbcQuery query,
+                                           Connection conn,
+                                           Iterator<T> parameterSets,
+                                           BiFunction<T, String, ?> parameterValue,
+                                           int batchSize,
+                                           UpdateCounts counts)
+        throws SQLException
+    {
+        try ( PreparedStatement statement = conn.prepareStatement(query.getQuery()) ) {
+            PreparedNamedParameterJdbcQuery prepared = new PreparedNamedParameterJdbcQuery(query, statement, false);
+            int                             pending  = 0;
+            while ( parameterSets.hasNext() ) {
+                setParameters(query, prepared, parameterSets.next(), parameterValue).addBatch();
+                if ( ++pending == batchSize ) {
+                    counts.add(prepared.executeBatch());
+                    pending = 0;
+                }
+            }
+            if ( pending > 0 ) counts.add(prepared.executeBatch());
+        }
+    }
+
+    private static <T> void executeMultiRow(NamedParameterJdbcQuery query,
+                                            Connection conn,
+                                            Iterator<T> parameterSets,
+                                            BiFunction<T, String, ?> parameterValue,
+                                            int batchSize,
+                                            UpdateCounts counts)
+        throws SQLException
+    {
+        List<T>           batch         = new ArrayList<>(batchSize);
+        PreparedStatement fullStatement = null;
+        try {
+            while ( parameterSets.hasNext() ) {
+                batch.add(parameterSets.next());
+                if ( batch.size() < batchSize && parameterSets.hasNext() ) continue;
+                boolean full = batch.size() == batchSize;
+                if ( full && fullStatement == null ) fullStatement = prepareMultiRow(query, conn, batchSize);
+                PreparedStatement statement = full ? fullStatement : prepareMultiRow(query, conn, batch.size());
+                try {
+                    PreparedNamedParameterJdbcQuery prepared
+                        = new PreparedNamedParameterJdbcQuery(query, statement, false);
+                    for ( int row = 0; row < batch.size(); row++ )
+                        setParameters(query, prepared.forRow(row), batch.get(row), parameterValue);
+                    counts.addMultiRow(statement.executeUpdate(), batch.size());
+                } finally {
+                    if ( !full ) statement.close();
+                }
+                batch.clear();
+            }
+        } finally {
+            if ( fullStatement != null ) fullStatement.close();
+        }
+    }
+
+    private static PreparedStatement prepareMultiRow(NamedParameterJdbcQuery query,
+                                                     Connection conn,
+                                                     int rows)
+        throws SQLException
+    {
+        Optional<String> sql = query.getMultiRowValuesQuery(rows);
+        assert sql.isPresent();
+        return conn.prepareStatement(sql.get());
+    }
+
+    private static <T> PreparedNamedParameterJdbcQuery setParameters(NamedParameterJdbcQuery query,
+                                                                     PreparedNamedParameterJdbcQuery prepared,
+                                                                     T parameterSet,
+                                                                     BiFunction<T, String, ?> parameterValue)
+        throws SQLException
+    {
+        for ( String parameterName : query.getParameterNames() )
+            prepared.setParameter(parameterName, parameterValue.apply(parameterSet, parameterName));
+        return prepared;
+    }
+
+    static Object beanFieldValue(Object bean,
+                                 String parameterName)
+    {
+        FieldAccessor field = beanFields.get(bean.getClass()).get(parameterName);
+        if ( field == null )
+            throw new IllegalArgumentException("No field named " + parameterName + " in " + bean.getClass().getName());
+        return field.get(bean);
+    }
+
+    private static final class UpdateCounts
+    {
+        private int[] counts = new int[16];
+        private int   size;
+
+        private void add(int[] batchCounts) {
+            ensureCapacity(batchCounts.length);
+            System.arraycopy(batchCounts, 0, counts, size, batchCounts.length);
+            size += batchCounts.length;
+        }
+
+        private void addMultiRow(int updateCount,
+                                 int rows)
+        {
+            ensureCapacity(rows);
+            Arrays.fill(counts, size, size + rows, updateCount == rows ? 1 : Statement.SUCCESS_NO_INFO);
+            size += rows;
+        }
+
+        private void ensureCapacity(int additional) {
+            if ( size + additional > counts.length )
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, size + additional));
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(counts, size);
+        }
+    }
+}
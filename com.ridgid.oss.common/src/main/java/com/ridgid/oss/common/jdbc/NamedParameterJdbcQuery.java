@@ -6,26 +6,51 @@ import java.net.InetAddress;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
 public class NamedParameterJdbcQuery
 {
-    private static final Pattern PARAMETER_PATTERN = Pattern.compile(":([A-Za-z][A-Za-z0-9_]*)");
+    private static final Pattern PARAMETER_PATTERN     = Pattern.compile(":([A-Za-z][A-Za-z0-9_]*)");
+    private static final Pattern INSERT_VALUES_PATTERN = Pattern.compile("(?is)^(\\s*insert\\s+into\\s+.+?\\s+values\\s*)(\\(.*\\))\\s*;?\\s*$");
+
+    private static final int                      MAX_PARSED_QUERIES = 1024;
+    private static final int                      UNKNOWN_TYPE       = Integer.MIN_VALUE;
+    private static final Map<String, ParsedQuery> parsedQueries      = new ConcurrentHashMap<>();
 
     private final String                     query;
-    private final Map<String, List<Integer>> parameterMap    = new HashMap<>();
-    private       int                        parameterNumber = 0;
+    private final Map<String, List<Integer>> parameterMap;
+    private final int                        parameterNumber;
+    private final String                     multiRowValuesPrefix;
+    private final String                     multiRowValuesRow;
+
+    private volatile int[] parameterTypes;
 
     public NamedParameterJdbcQuery(String query) {
-        this.query = parseParametersInQuery(query);
+        ParsedQuery parsed = parsedQueries.get(query);
+        if ( parsed == null ) {
+            parsed = parseParametersInQuery(query);
+            if ( parsedQueries.size() < MAX_PARSED_QUERIES ) parsedQueries.putIfAbsent(query, parsed);
+        }
+        this.query           = parsed.query;
+        this.parameterMap    = parsed.parameterMap;
+        this.parameterNumber = parsed.parameterNumber;
+        this.parameterTypes  = unknownParameterTypes(parameterNumber);
+
+        this.multiRowValuesPrefix = parsed.multiRowValuesPrefix;
+        this.multiRowValuesRow    = parsed.multiRowValuesRow;
     }
 
     @SuppressWarnings("unchecked")
@@ -53,9 +78,11 @@ public class NamedParameterJdbcQuery
         return converter.convertToEntityAttribute((CT) rs.getObject(columnName));
     }
 
-    private String parseParametersInQuery(String query) {
-        Matcher      m  = PARAMETER_PATTERN.matcher(query);
-        StringBuffer sb = new StringBuffer();
+    private static ParsedQuery parseParametersInQuery(String query) {
+        Map<String, List<Integer>> parameterMap    = new HashMap<>();
+        int                        parameterNumber = 0;
+        Matcher                    m               = PARAMETER_PATTERN.matcher(query);
+        StringBuffer               sb              = new StringBuffer();
         while ( m.find() ) {
             MatchResult mr    = m.toMatchResult();
             String      pName = mr.group(1);
@@ -66,105 +93,371 @@ public class NamedParameterJdbcQuery
             m.appendReplacement(sb, "?");
         }
         m.appendTail(sb);
-        return sb.toString();
+        parameterMap.replaceAll((pName, indices) -> Collections.unmodifiableList(indices));
+        String  parsed = sb.toString();
+        Matcher values = INSERT_VALUES_PATTERN.matcher(parsed);
+        return values.matches() && isSingleRowOfAllParameters(values.group(2), parameterNumber)
+               ? new ParsedQuery(parsed, parameterMap, parameterNumber, values.group(1), values.group(2))
+               : new ParsedQuery(parsed, parameterMap, parameterNumber, null, null);
+    }
+
+    /**
+     * @return true if the row is a single parenthesized list (e.g., not "(?, ?), (?, ?)") holding all the parameters
+     */
+    private static boolean isSingleRowOfAllParameters(String row,
+                                                      int parameterNumber)
+    {
+        int depth      = 0;
+        int parameters = 0;
+        for ( int i = 0; i < row.length(); i++ ) {
+            char c = row.charAt(i);
+            if ( c == '(' ) depth++;
+            else if ( c == ')' && --depth == 0 && i < row.length() - 1 ) return false;
+            else if ( c == '?' ) parameters++;
+        }
+        return depth == 0 && parameters == parameterNumber;
+    }
+
+    private static int[] unknownParameterTypes(int parameterNumber) {
+        int[] types = new int[parameterNumber + 1];
+        Arrays.fill(types, UNKNOWN_TYPE);
+        return types;
     }
 
     private List<Integer> getParameterIndices(String parameterName) {
-        return Collections.unmodifiableList
-            (
-                parameterMap
-                    .getOrDefault(parameterName,
-                                  Collections.emptyList())
-            );
+        return parameterMap.getOrDefault(parameterName, Collections.emptyList());
+    }
+
+    /**
+     * Declare, up front, the SQL type (see {@code java.sql.Types}) of a named parameter, so that its type does not need
+     * to be looked up from the prepared statement's parameter meta-data
+     *
+     * @param parameterName name of the parameter (without the leading colon)
+     * @param sqlType       SQL type of the parameter as given by {@code java.sql.Types}
+     * @return this query
+     */
+    public NamedParameterJdbcQuery declareParameterType(String parameterName,
+                                                        int sqlType)
+    {
+        int[] types = parameterTypes.clone();
+        for ( int pidx : getParameterIndices(parameterName) )
+            types[pidx] = sqlType;
+        parameterTypes = types;
+        return this;
+    }
+
+    /**
+     * @param pidx              1-based index of the positional parameter
+     * @param preparedStatement statement to look up the parameter meta-data from if the parameter's type is not yet known
+     * @return SQL type of the parameter, looked up from the parameter meta-data (for all the parameters at once) on first use
+     * @throws SQLException if the parameter meta-data cannot be retrieved
+     */
+    private int getParameterType(int pidx,
+                                 PreparedStatement preparedStatement)
+        throws SQLException
+    {
+        int[] types = parameterTypes;
+        if ( types[pidx] != UNKNOWN_TYPE ) return types[pidx];
+        ParameterMetaData md = preparedStatement.getParameterMetaData();
+        types = types.clone();
+        for ( int i = 1; i < types.length; i++ )
+            if ( types[i] == UNKNOWN_TYPE )
+                types[i] = md.getParameterType(i);
+        parameterTypes = types;
+        return types[pidx];
     }
 
     public PreparedNamedParameterJdbcQuery prepare(Connection conn) throws SQLException {
         return new PreparedNamedParameterJdbcQuery(this, conn);
     }
 
+    /**
+     * Prepare the query using a statement cached by its SQL text in the given connection's statement cache: the first
+     * call prepares the statement, subsequent calls reuse it with its parameters cleared, so that a query repeated on a
+     * connection the caller holds costs a single execute round trip. The statement is not closed on completion; it
+     * remains open until it is evicted from the cache or the cache is closed. As the statement is shared, a result set
+     * obtained from it must be closed before the same query is prepared again with the same cache.
+     *
+     * @param statements statement cache of the connection to prepare the query on
+     * @return prepared query
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedNamedParameterJdbcQuery prepareCached(ConnectionStatementCache statements) throws SQLException {
+        return new PreparedNamedParameterJdbcQuery(this, statements.prepare(query), false);
+    }
+
+    /**
+     * Execute the query once for each of the given sets of named parameter values, sending the parameter sets to the
+     * database in JDBC batches of (up to) batchSize parameter sets
+     *
+     * @param conn          connection to execute the query on
+     * @param parameterSets named parameter values for each execution; parameters missing from a map are set to null
+     * @param batchSize     number of parameter sets to send to the database at a time
+     * @return update count for each parameter set, in order (see {@code Statement.executeBatch})
+     * @throws SQLException if the query cannot be prepared or a batch fails to execute
+     */
+    public int[] executeBatch(Connection conn,
+                              Stream<? extends Map<String, ?>> parameterSets,
+                              int batchSize)
+        throws SQLException
+    {
+        return executeBatch(conn, parameterSets, batchSize, false);
+    }
+
+    /**
+     * Execute the query once for each of the given sets of named parameter values (see {@code executeBatch}).
+     * <p>
+     * If rewriteMultiRowValues is true and the query is a single-row {@code INSERT ... VALUES ( ... )}, each batch is
+     * instead sent as a single multi-row {@code INSERT ... VALUES ( ... ), ( ... ), ...} statement, as drivers that
+     * rewrite batched inserts do; the update count of each row is then 1 if the statement reports one row per parameter
+     * set, otherwise {@code Statement.SUCCESS_NO_INFO}. Other queries are executed as JDBC batches.
+     *
+     * @param conn                  connection to execute the query on
+     * @param parameterSets         named parameter values for each execution; parameters missing from a map are set to null
+     * @param batchSize             number of parameter sets to send to the database at a time
+     * @param rewriteMultiRowValues true to send each batch of a single-row insert as one multi-row insert
+     * @return update count for each parameter set, in order
+     * @throws SQLException if the query cannot be prepared or a batch fails to execute
+     */
+    public int[] executeBatch(Connection conn,
+                              Stream<? extends Map<String, ?>> parameterSets,
+                              int batchSize,
+                              boolean rewriteMultiRowValues)
+        throws SQLException
+    {
+        return NamedParameterJdbcBatch.execute(this,
+                                               conn,
+                                               parameterSets.iterator(),
+                                               Map::get,
+                                               batchSize,
+                                               rewriteMultiRowValues);
+    }
+
+    /**
+     * Execute the query once for each of the given beans, setting each named parameter from the bean field of the same
+     * name (see {@code executeBatch})
+     *
+     * @param conn      connection to execute the query on
+     * @param beans     beans holding the named parameter values for each execution
+     * @param batchSize number of beans to send to the database at a time
+     * @return update count for each bean, in order
+     * @throws SQLException if the query cannot be prepared or a batch fails to execute
+     */
+    public int[] executeBatchOfBeans(Connection conn,
+                                     Stream<?> beans,
+                                     int batchSize)
+        throws SQLException
+    {
+        return executeBatchOfBeans(conn, beans, batchSize, false);
+    }
+
+    /**
+     * Execute the query once for each of the given beans, setting each named parameter from the bean field of the same
+     * name (see {@code executeBatch} for rewriteMultiRowValues)
+     *
+     * @param conn                  connection to execute the query on
+     * @param beans                 beans holding the named parameter values for each execution
+     * @param batchSize             number of beans to send to the database at a time
+     * @param rewriteMultiRowValues true to send each batch of a single-row insert as one multi-row insert
+     * @return update count for each bean, in order
+     * @throws SQLException if the query cannot be prepared or a batch fails to execute
+     */
+    public int[] executeBatchOfBeans(Connection conn,
+                                     Stream<?> beans,
+                                     int batchSize,
+                                     boolean rewriteMultiRowValues)
+        throws SQLException
+    {
+        return NamedParameterJdbcBatch.execute(this,
+                                               conn,
+                                               beans.iterator(),
+                                               NamedParameterJdbcBatch::beanFieldValue,
+                                               batchSize,
+                                               rewriteMultiRowValues);
+    }
+
+    String getQuery() {
+        return query;
+    }
+
+    int getParameterNumber() {
+        return parameterNumber;
+    }
+
+    Set<String> getParameterNames() {
+        return parameterMap.keySet();
+    }
+
+    /**
+     * @param rows number of rows
+     * @return the query rewritten as a multi-row insert of the given number of rows, or empty if the query is not a
+     * single-row {@code INSERT ... VALUES ( ... )}
+     */
+    Optional<String> getMultiRowValuesQuery(int rows) {
+        if ( multiRowValuesRow == null ) return Optional.empty();
+        return Optional.of(multiRowValuesPrefix + String.join(", ", Collections.nCopies(rows, multiRowValuesRow)));
+    }
+
+    private static final class ParsedQuery
+    {
+        private final String                     query;
+        private final Map<String, List<Integer>> parameterMap;
+        private final int                        parameterNumber;
+        private final String                     multiRowValuesPrefix;
+        private final String                     multiRowValuesRow;
+
+        private ParsedQuery(String query,
+                            Map<String, List<Integer>> parameterMap,
+                            int parameterNumber,
+                            String multiRowValuesPrefix,
+                            String multiRowValuesRow)
+        {
+            this.query                = query;
+            this.parameterMap         = Collections.unmodifiableMap(parameterMap);
+            this.parameterNumber      = parameterNumber;
+            this.multiRowValuesPrefix = multiRowValuesPrefix;
+            this.multiRowValuesRow    = multiRowValuesRow;
+        }
+    }
+
     @SuppressWarnings({"WeakerAccess", "SpellCheckingInspection"})
     public static class PreparedNamedParameterJdbcQuery
     {
         private final NamedParameterJdbcQuery unpreparedQuery;
         private final PreparedStatement       preparedStatement;
+        private final boolean                 closeOnCompletion;
+
+        private int rowOffset;
 
         public PreparedNamedParameterJdbcQuery(NamedParameterJdbcQuery unpreparedQuery,
                                                Connection conn)
             throws SQLException
+        {
+            this(unpreparedQuery, conn.prepareStatement(unpreparedQuery.query), true);
+        }
+
+        PreparedNamedParameterJdbcQuery(NamedParameterJdbcQuery unpreparedQuery,
+                                        PreparedStatement preparedStatement,
+                                        boolean closeOnCompletion)
         {
             this.unpreparedQuery   = unpreparedQuery;
-            this.preparedStatement = conn.prepareStatement(unpreparedQuery.query);
+            this.preparedStatement = preparedStatement;
+            this.closeOnCompletion = closeOnCompletion;
         }
 
         public PreparedNamedParameterJdbcQuery setParameter(String parameterName,
                                                             Object value)
             throws SQLException
         {
-            ParameterMetaData md = preparedStatement.getParameterMetaData();
             for ( int pidx : unpreparedQuery.getParameterIndices(parameterName) )
                 if ( value == null )
                     preparedStatement.setNull
                         (
-                            pidx,
-                            md.getParameterType(pidx)
+                            pidx + rowOffset,
+                            unpreparedQuery.getParameterType(pidx, preparedStatement)
                         );
                 else
-                    setNonNullParameter(value, md, pidx);
+                    setNonNullParameter(value, pidx);
+            return this;
+        }
+
+        /**
+         * Add the currently set parameters to the statement's batch of commands
+         *
+         * @return this prepared query
+         * @throws SQLException if the parameters cannot be added to the batch
+         */
+        public PreparedNamedParameterJdbcQuery addBatch() throws SQLException {
+            preparedStatement.addBatch();
+            return this;
+        }
+
+        /**
+         * @return update count for each of the commands in the statement's batch, in the order they were added
+         * @throws SQLException if the batch fails to execute
+         */
+        public int[] executeBatch() throws SQLException {
+            return preparedStatement.executeBatch();
+        }
+
+        /**
+         * Directs subsequent {@code setParameter} calls to the given row of a multi-row statement
+         *
+         * @param row 0-based row of the multi-row statement
+         * @return this prepared query
+         */
+        PreparedNamedParameterJdbcQuery forRow(int row) {
+            rowOffset = row * unpreparedQuery.parameterNumber;
             return this;
         }
 
         public ResultSet executeQuery() throws SQLException {
-            preparedStatement.closeOnCompletion();
+            if ( closeOnCompletion ) preparedStatement.closeOnCompletion();
             return preparedStatement.executeQuery();
         }
 
+        /**
+         * Execute the query and stream its rows, mapped by the given row mapper, over the forward-only cursor of the
+         * result set, fetching fetchSize rows from the database at a time. The row mapping is compiled once for this
+         * query. The stream should be closed (e.g., try-with-resources) to close the result set.
+         *
+         * @param mapper    row mapper to map each row with
+         * @param fetchSize number of rows to fetch from the database at a time
+         * @param <T>       type each row is mapped to
+         * @return stream of the mapped rows
+         * @throws SQLException if the query cannot be executed
+         */
+        public <T> Stream<T> stream(RowMapper<T> mapper,
+                                    int fetchSize)
+            throws SQLException
+        {
+            preparedStatement.setFetchSize(fetchSize);
+            return mapper.stream(executeQuery(), unpreparedQuery.query);
+        }
+
         public int executeUpdate() throws SQLException {
-            preparedStatement.closeOnCompletion();
+            if ( closeOnCompletion ) preparedStatement.closeOnCompletion();
             return preparedStatement.executeUpdate();
         }
 
         private void setNonNullParameter(Object value,
-                                         ParameterMetaData md,
                                          int pidx)
             throws SQLException
         {
             if ( value.getClass().isEnum() )
-                setEnumParameter((Enum) value, md, pidx);
+                setEnumParameter((Enum) value, pidx);
             else if ( value instanceof UUID )
-                setUUIDParameter((UUID) value, md, pidx);
+                setUUIDParameter((UUID) value, pidx);
             else if ( value instanceof InetAddress )
-                setInetAddressParameter((InetAddress) value, md, pidx);
+                setInetAddressParameter((InetAddress) value, pidx);
             else
                 preparedStatement.setObject
                     (
-                        pidx,
+                        pidx + rowOffset,
                         value,
-                        md.getParameterType(pidx)
+                        unpreparedQuery.getParameterType(pidx, preparedStatement)
                     );
         }
 
         private void setEnumParameter(Enum value,
-                                      ParameterMetaData md,
                                       int pidx)
             throws SQLException
         {
-            setNonNullParameter(value.name(), md, pidx);
+            setNonNullParameter(value.name(), pidx);
         }
 
         private void setUUIDParameter(UUID value,
-                                      ParameterMetaData md,
                                       int pidx)
             throws SQLException
         {
-            setNonNullParameter(value.toString(), md, pidx);
+            setNonNullParameter(value.toString(), pidx);
         }
 
         private void setInetAddressParameter(InetAddress value,
-                                             ParameterMetaData md,
                                              int pidx)
             throws SQLException
         {
-            setNonNullParameter(value.getAddress(), md, pidx);
+            setNonNullParameter(value.getAddress(), pidx);
         }
 
     }
@@ -0,0 +1,354 @@
+package com.ridgid.oss.common.jdbc;
+
+import com.ridgid.oss.common.exception.CapturedCheckedException;
+import com.ridgid.oss.common.helper.ClassAccessor;
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+import com.ridgid.oss.common.jdbc.transform.AttributeConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maps the rows of a {@code ResultSet} to instances of a target class by setting the fields of the target class from
+ * the columns of the same name (ignoring case and underscores), or, from the columns explicitly given for the fields.
+ * Columns may be converted with an {@code AttributeConverter} before being set into a field.
+ * <p>
+ * The mapping of the columns of a result set to the fields of the target class is compiled once per SQL query (or, for
+ * result sets mapped without giving the query, once per distinct list of column labels) into column indexes, typed
+ * column readers and field setter method handles; mapping a row then costs about the same as hand-written code.
+ * <p>
+ * Example Usage:
+ * <pre>
+ * {@code
+ *      RowMapper<Foo> mapper = RowMapper.forClass(Foo.class)
+ *                                       .column("expires", "ExpiresAt")
+ *                                       .converter("expires", new SystemTimeMillisAsLocalDateTimeConverter())
+ *                                       .build();
+ *
+ *      try ( Stream<Foo> foos = query.prepare(conn).setParameter("code", code).stream(mapper, 500) ) {
+ *          ...
+ *      }
+ * }
+ * </pre>
+ *
+ * @param <T> target class to map each row to
+ */
+@SuppressWarnings({"ClassNamePrefixedWithPackageName", "unused"})
+public final class RowMapper<T>
+{
+    private final Class<T>                              targetClass;
+    private final MethodHandle                          constructor;
+    private final Map<String, FieldAccessor>            fieldsByColumn;
+    private final Map<String, AttributeConverter<?, ?>> converters;
+    private final Map<String, CompiledRowMapper<T>>     compiled = new ConcurrentHashMap<>();
+
+    private RowMapper(Builder<T> builder) {
+        this.targetClass    = builder.targetClass;
+        this.constructor    = noArgConstructor(builder.targetClass);
+        this.fieldsByColumn = fieldsByColumn(builder.targetClass, builder.columns);
+        this.converters     = new HashMap<>(builder.converters);
+    }
+
+    /**
+     * @param targetClass class to map each row to; it must have a no-argument constructor (of any visibility)
+     * @param <T>         target class type
+     * @return builder of a row mapper for the target class
+     */
+    public static <T> Builder<T> forClass(Class<T> targetClass) {
+        return new Builder<>(targetClass);
+    }
+
+    /**
+     * Map the current row of the result set
+     *
+     * @param rs  result set positioned on the row to map
+     * @param sql SQL query that produced the result set, used as the key of the compiled mapping (if null, the list of
+     *            column labels of the result set is used as the key instead)
+     * @return new instance of the target class populated from the current row
+     * @throws SQLException if the columns of the result set cannot be read
+     */
+    public T map(ResultSet rs,
+                 String sql)
+        throws SQLException
+    {
+        return compile(rs, sql).map(rs);
+    }
+
+    /**
+     * Stream the rows of the result set, mapped to the target class, by advancing the (forward-only) cursor of the
+     * result set one row at a time as the stream is consumed; rows are never all held in memory at once. Closing the
+     * stream closes the result set. An {@code SQLException} raised while the stream is consumed or closed is thrown
+     * wrapped in a {@code CapturedCheckedException}.
+     *
+     * @param rs  result set positioned before its first row
+     * @param sql SQL query that produced the result set, used as the key of the compiled mapping (if null, the list of
+     *            column labels of the result set is used as the key instead)
+     * @return stream of the mapped rows
+     * @throws SQLException if the result set meta-data cannot be read
+     */
+    public Stream<T> stream(ResultSet rs,
+                            String sql)
+        throws SQLException
+    {
+        CompiledRowMapper<T> mapper = compile(rs, sql);
+        return StreamSupport
+            .stream
+                (
+                    new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+                    {
+                        @Override
+                        public boolean tryAdvance(Consumer<? super T> action) {
+                            try {
+                                if ( !rs.next() ) return false;
+                                action.accept(mapper.map(rs));
+                                return true;
+                            } catch ( SQLException e ) {
+                                throw new CapturedCheckedException(SQLException.class, e);
+                            }
+                        }
+                    },
+                    false
+                )
+            .onClose(() -> {
+                try {
+                    rs.close();
+                } catch ( SQLException e ) {
+                    throw new CapturedCheckedException(SQLException.class, e);
+                }
+            });
+    }
+
+    private CompiledRowMapper<T> compile(ResultSet rs,
+                                         String sql)
+        throws SQLException
+    {
+        CompiledRowMapper<T> mapper = sql == null ? null : compiled.get(sql);
+        if ( mapper != null ) return mapper;
+        ResultSetMetaData md  = rs.getMetaData();
+        String            key = sql != null ? sql : columnLabels(md);
+        mapper = compiled.get(key);
+        if ( mapper == null ) {
+            mapper = new CompiledRowMapper<>(constructor, columnBindings(md));
+            compiled.putIfAbsent(key, mapper);
+        }
+        return mapper;
+    }
+
+    private static String columnLabels(ResultSetMetaData md) throws SQLException {
+        StringBuilder labels = new StringBuilder();
+        for ( int i = 1; i <= md.getColumnCount(); i++ )
+            labels.append(md.getColumnLabel(i)).append('\u0000');
+        return labels.toString();
+    }
+
+    private ColumnBinding[] columnBindings(ResultSetMetaData md) throws SQLException {
+        List<ColumnBinding> bindings = new ArrayList<>(md.getColumnCount());
+        for ( int i = 1; i <= md.getColumnCount(); i++ ) {
+            FieldAccessor field = fieldsByColumn.get(normalize(md.getColumnLabel(i)));
+            if ( field == null ) continue;
+            bindings.add(new ColumnBinding(i,
+                                           columnReader(field, md.getColumnType(i)),
+                                           field,
+                                           field.getType().isPrimitive()));
+        }
+        return bindings.toArray(new ColumnBinding[0]);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ColumnReader columnReader(FieldAccessor field,
+                                      int columnType)
+    {
+        AttributeConverter converter = converters.get(field.getName());
+        if ( converter != null ) {
+            ColumnReader dbValue = columnType == Types.TIMESTAMP
+                                   ? (rs, i) -> rs.getObject(i, LocalDateTime.class)
+                                   : ResultSet::getObject;
+            return (rs, i) -> {
+                Object value = dbValue.read(rs, i);
+                return value == null ? null : converter.convertToEntityAttribute(value);
+            };
+        }
+        Class<?> type = field.getType();
+        if ( type == int.class || type == Integer.class )
+            return (rs, i) -> {
+                int value = rs.getInt(i);
+                return rs.wasNull() ? null : value;
+            };
+        if ( type == long.class || type == Long.class )
+            return (rs, i) -> {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            };
+        if ( type == double.class || type == Double.class )
+            return (rs, i) -> {
+                double value = rs.getDouble(i);
+                return rs.wasNull() ? null : value;
+            };
+        if ( type == boolean.class || type == Boolean.class )
+            return (rs, i) -> {
+                boolean value = rs.getBoolean(i);
+                return rs.wasNull() ? null : value;
+            };
+        if ( type == String.class )
+            return ResultSet::getString;
+        if ( type == BigDecimal.class )
+            return ResultSet::getBigDecimal;
+        if ( type.isPrimitive() || type == Object.class )
+            return ResultSet::getObject;
+        return (rs, i) -> rs.getObject(i, type);
+    }
+
+    private static MethodHandle noArgConstructor(Class<?> targetClass) {
+        try {
+            Constructor<?> constructor = targetClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup()
+                                .unreflectConstructor(constructor)
+                                .asType(MethodType.methodType(Object.class));
+        } catch ( NoSuchMethodException | IllegalAccessException e ) {
+            throw new RuntimeException(targetClass.getName() + " must have a no-argument constructor", e);
+        }
+    }
+
+    private static Map<String, FieldAccessor> fieldsByColumn(Class<?> targetClass,
+                                                             Map<String, String> columns)
+    {
+        Map<String, FieldAccessor> fields = new HashMap<>();
+        for ( Class<?> c = targetClass; c != null && c != Object.class; c = c.getSuperclass() )
+            for ( FieldAccessor f : ClassAccessor.of(c).getDeclaredFields() ) {
+                int modifiers = f.getField().getModifiers();
+                if ( Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) ) continue;
+                fields.putIfAbsent(normalize(columns.getOrDefault(f.getName(), f.getName())), f);
+            }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builder of a {@code RowMapper}
+     *
+     * @param <T> target class to map each row to
+     */
+    public static final class Builder<T>
+    {
+        private final Class<T>                              targetClass;
+        private final Map<String, String>                   columns    = new HashMap<>();
+        private final Map<String, AttributeConverter<?, ?>> converters = new HashMap<>();
+
+        private Builder(Class<T> targetClass) {
+            this.targetClass = targetClass;
+        }
+
+        /**
+         * @param fieldName   name of the field of the target class
+         * @param columnLabel label of the column to set the field from (instead of the column named like the field)
+         * @return this builder
+         */
+        public Builder<T> column(String fieldName,
+                                 String columnLabel)
+        {
+            columns.put(fieldName, columnLabel);
+            return this;
+        }
+
+        /**
+         * @param fieldName name of the field of the target class
+         * @param converter converter to convert the (non-null) column value with before setting it into the field
+         * @return this builder
+         */
+        public Builder<T> converter(String fieldName,
+                                    AttributeConverter<?, ?> converter)
+        {
+            converters.put(fieldName, converter);
+            return this;
+        }
+
+        /**
+         * @return row mapper for the target class
+         */
+        public RowMapper<T> build() {
+            return new RowMapper<>(this);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader
+    {
+        Object read(ResultSet rs,
+                    int columnIndex)
+            throws SQLException;
+    }
+
+    private static final class ColumnBinding
+    {
+        private final int           columnIndex;
+        private final ColumnReader  reader;
+        private final FieldAccessor field;
+        private final boolean       primitive;
+
+        private ColumnBinding(int columnIndex,
+                              ColumnReader reader,
+                              FieldAccessor field,
+                              boolean primitive)
+        {
+            this.columnIndex = columnIndex;
+            this.reader      = reader;
+            this.field       = field;
+            this.primitive   = primitive;
+        }
+    }
+
+    private static final class CompiledRowMapper<T>
+    {
+        private final MethodHandle    constructor;
+        private final ColumnBinding[] bindings;
+
+        private CompiledRowMapper(MethodHandle constructor,
+                                  ColumnBinding[] bindings)
+        {
+            this.constructor = constructor;
+            this.bindings    = bindings;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T map(ResultSet rs) throws SQLException {
+            try {
+                Object row = constructor.invokeExact();
+                for ( ColumnBinding binding : bindings ) {
+                    Object value = binding.reader.read(rs, binding.columnIndex);
+                    if ( value != null || !binding.primitive )
+                        binding.field.set(row, value);
+                }
+                return (T) row;
+            } catch ( SQLException | RuntimeException | Error e ) {
+                throw e;
+            } catch ( Throwable t ) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
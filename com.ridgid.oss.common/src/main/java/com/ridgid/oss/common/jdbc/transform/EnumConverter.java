@@ -2,7 +2,9 @@ package com.ridgid.oss.common.jdbc.transform;
 
 import com.ridgid.oss.common.enumutil.ConvertibleEnum;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 /**
@@ -24,6 +26,8 @@ import java.lang.reflect.Method;
  * }
  * </pre>
  *
+ * The static 'from' method of the enum is looked up, and bound as a method handle, once per converter instance.
+ *
  * @param <ET>   Enum Type of the Enum to Convert
  * @param <DBCT> Java Type to use when persisting the Enum value to the Database
  */
@@ -33,15 +37,20 @@ public class EnumConverter<ET extends ConvertibleEnum<? extends Enum, DBCT>, DBC
 
     private final Class<ET> entityValueClass;
     private final Class<DBCT> dbColumnValueClass;
-    private final Method convertFromDBValueMethod;
+    private final MethodHandle convertFromDBValueMethod;
 
     public EnumConverter(Class<ET> entityValueClass,
                          Class<DBCT> dbColumnValueClass) {
         this.entityValueClass = entityValueClass;
         this.dbColumnValueClass = dbColumnValueClass;
         try {
-            convertFromDBValueMethod = entityValueClass.getMethod("from", dbColumnValueClass);
-        } catch (NoSuchMethodException e) {
+            Method from = entityValueClass.getMethod("from", dbColumnValueClass);
+            from.setAccessible(true);
+            convertFromDBValueMethod
+                    = MethodHandles.lookup()
+                    .unreflect(from)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new RuntimeException(
                     "Class, '" + entityValueClass
                             + "', does not have a public static method 'from' that takes database column value type and returns an enum type of "
@@ -59,13 +68,14 @@ public class EnumConverter<ET extends ConvertibleEnum<? extends Enum, DBCT>, DBC
     @Override
     public ET convertToEntityAttribute(DBCT dbValue) {
         try {
-            return (ET) convertFromDBValueMethod.invoke(null, dbValue);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            Object entityValue = convertFromDBValueMethod.invokeExact((Object) dbValue);
+            return (ET) entityValue;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
             throw new RuntimeException(
-                    "Class, '" + entityValueClass
-                            + "', does not have a public static method 'from' that takes database column value type and returns an enum type of "
-                            + entityValueClass,
-                    e);
+                    "Class, '" + entityValueClass + "', failed to convert database column value: " + dbValue,
+                    t);
         }
     }
 }
@@ -2,6 +2,7 @@ package com.ridgid.oss.common.security.realm.authentication.storage;
 
 import com.ridgid.oss.common.helper.JdbcHelpers;
 import com.ridgid.oss.common.jdbc.NamedParameterJdbcQuery;
+import com.ridgid.oss.common.jdbc.RowMapper;
 import com.ridgid.oss.common.jdbc.transform.AttributeConverter;
 import com.ridgid.oss.common.jdbc.transform.InetAddressConverter;
 import com.ridgid.oss.common.security.realm.authentication.RealmAuthentication;
@@ -14,9 +15,6 @@ import java.sql.SQLException;
 import java.util.Optional;
 import java.util.function.Function;
 
-import static com.ridgid.oss.common.jdbc.NamedParameterJdbcQuery.get;
-import static com.ridgid.oss.common.jdbc.NamedParameterJdbcQuery.getLong;
-
 @SuppressWarnings({
                       "unused",
                       "WeakerAccess",
@@ -36,12 +34,15 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
     private final DataSource dataSource;
     private final Storage    storage;
 
+    private final String                  selectStatement;
     private final NamedParameterJdbcQuery selectQuery;
     private final NamedParameterJdbcQuery upsertStatement;
     private final NamedParameterJdbcQuery insertStatement;
     private final NamedParameterJdbcQuery updateStatement;
     private final NamedParameterJdbcQuery deleteStatement;
 
+    private final RowMapper<AuthenticationRow> rowMapper;
+
     private final String                        expiresColumnName;
     private final AttributeConverter<Long, ECT> expiresColumnConverter;
     private final String                        expiresParameterName;
@@ -93,6 +94,7 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
         upsertStatement                         = JdbcHelpers.parseQuery(namedParameterUpsertStatement);
         insertStatement                         = null;
         updateStatement                         = null;
+        selectStatement                         = namedParameterSelectStatement;
         selectQuery                             = JdbcHelpers.parseQuery(namedParameterSelectStatement);
         deleteStatement                         = JdbcHelpers.parseQuery(namedParameterDeleteStatement);
         this.expiresColumnName                  = expiresColumnName;
@@ -109,6 +111,7 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
         this.clientNetworkAddressColumnName     = clientNetworkAddressColumnName;
         this.clientNetworkAddressParameterName  = clientNetworkAddressParameterName;
         clientNetworkAddressColumnConverter     = new InetAddressConverter();
+        rowMapper                               = authenticationRowMapper();
     }
 
     public StandardJDBCAuthenticationStorage(DataSource dataSource,
@@ -141,6 +144,7 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
         upsertStatement                         = null;
         insertStatement                         = JdbcHelpers.parseQuery(namedParameterInsertStatement);
         updateStatement                         = JdbcHelpers.parseQuery(namedParameterUpdateStatement);
+        selectStatement                         = namedParameterSelectStatement;
         selectQuery                             = JdbcHelpers.parseQuery(namedParameterSelectStatement);
         deleteStatement                         = JdbcHelpers.parseQuery(namedParameterDeleteStatement);
         this.expiresColumnName                  = expiresColumnName;
@@ -158,6 +162,7 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
         this.clientNetworkAddressColumnName     = clientNetworkAddressColumnName;
         this.clientNetworkAddressParameterName  = clientNetworkAddressParameterName;
         clientNetworkAddressColumnConverter     = new InetAddressConverter();
+        rowMapper                               = authenticationRowMapper();
     }
 
     @Override
@@ -179,6 +184,32 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
         storage.remove(dataSource, realmId, id, authenticationToken);
     }
 
+    private RowMapper<AuthenticationRow> authenticationRowMapper() {
+        return RowMapper.forClass(AuthenticationRow.class)
+                        .column("realmId", realmIdColumnName)
+                        .column("id", idColumnName)
+                        .column("authenticationToken", authenticationTokenColumnName)
+                        .column("clientNetworkAddress", clientNetworkAddressColumnName)
+                        .column("expires", expiresColumnName)
+                        .converter("authenticationToken", authenticationTokenColumnConverter)
+                        .converter("clientNetworkAddress", clientNetworkAddressColumnConverter)
+                        .converter("expires", expiresColumnConverter)
+                        .build();
+    }
+
+    /**
+     * Row of the select query, mapped by column name
+     */
+    @SuppressWarnings("ClassNamePrefixedWithPackageName")
+    private static final class AuthenticationRow
+    {
+        private Object      realmId;
+        private Object      id;
+        private Object      authenticationToken;
+        private InetAddress clientNetworkAddress;
+        private long        expires;
+    }
+
     @SuppressWarnings({"ClassNamePrefixedWithPackageName", "NonStaticInnerClassInSecureContext"})
     private abstract class Storage
     {
@@ -200,30 +231,21 @@ public class StandardJDBCAuthenticationStorage<RIDT, IDT, ATT, ECT, ACT>
                                                           authenticationToken)
                                             .executeQuery()
             ) {
-                return
-                    rs.next()
-                    ? Optional.ofNullable
-                        (
-                            construct
-                                (
-                                    getExtensionPolicy()
-                                        .apply(realmIdClass.cast(rs.getObject(realmIdColumnName))),
-                                    getLong(rs,
-                                            expiresColumnConverter,
-                                            expiresColumnName),
-                                    realmIdClass
-                                        .cast(rs.getObject(realmIdColumnName)),
-                                    idClass
-                                        .cast(rs.getObject(idColumnName)),
-                                    get(rs,
-                                        authenticationTokenColumnConverter,
-                                        authenticationTokenColumnName),
-                                    get(rs,
-                                        clientNetworkAddressColumnConverter,
-                                        clientNetworkAddressColumnName)
-                                )
-                        )
-                    : Optional.empty();
+                if ( !rs.next() ) return Optional.empty();
+                AuthenticationRow row              = rowMapper.map(rs, selectStatement);
+                RIDT              retrievedRealmId = realmIdClass.cast(row.realmId);
+                return Optional.ofNullable
+                    (
+                        construct
+                            (
+                                getExtensionPolicy().apply(retrievedRealmId),
+                                row.expires,
+                                retrievedRealmId,
+                                idClass.cast(row.id),
+                                authenticationTokenClass.cast(row.authenticationToken),
+                                row.clientNetworkAddress
+                            )
+                    );
             }
         }
 
@@ -0,0 +1,71 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Hashing and comparison of the primitive components of the primitive-specialized tuples: hashes are mixed
+ * (MurmurHash3 finalizer) so that keys differing only in low bits spread across hash table buckets, and comparisons
+ * return -1, 0 or 1 without branching so that the comparisons of all the components can be combined arithmetically
+ */
+final class Components
+{
+    private Components() {}
+
+    static int hash(long first,
+                    long second)
+    {
+        return (int) mix(mix(first) + second);
+    }
+
+    static int hash(long first,
+                    long second,
+                    long third)
+    {
+        return (int) mix(mix(mix(first) + second) + third);
+    }
+
+    static int compare(int a,
+                       int b)
+    {
+        return Long.signum((long) a - b);
+    }
+
+    static int compare(long a,
+                       long b)
+    {
+        // conditional moves rather than branches once compiled
+        return (a > b ? 1 : 0) - (a < b ? 1 : 0);
+    }
+
+    static int compare(double a,
+                       double b)
+    {
+        return Integer.signum(Double.compare(a, b));
+    }
+
+    /**
+     * @return the lexicographic order of two components given the (-1, 0 or 1) order of each
+     */
+    static int combine(int first,
+                       int second)
+    {
+        return (first << 1) + second;
+    }
+
+    /**
+     * @return the lexicographic order of three components given the (-1, 0 or 1) order of each
+     */
+    static int combine(int first,
+                       int second,
+                       int third)
+    {
+        return (first << 2) + (second << 1) + third;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
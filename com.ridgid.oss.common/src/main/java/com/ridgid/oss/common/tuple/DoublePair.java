@@ -0,0 +1,61 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Pair of double values that is hashed, compared and tested for equality without boxing or allocating; the components
+ * are ordered, and equal, as by Double.compare (so NaN equals NaN, and -0.0 is less than 0.0)
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class DoublePair implements Comparable<DoublePair>
+{
+    public final  double left;
+    public final  double right;
+    private final int    hash;
+
+    private DoublePair(double left,
+                       double right)
+    {
+        this.left  = left;
+        this.right = right;
+        this.hash  = Components.hash(Double.doubleToLongBits(left), Double.doubleToLongBits(right));
+    }
+
+    public static DoublePair of(double left,
+                                double right)
+    {
+        return new DoublePair(left, right);
+    }
+
+    public double getLeft() {
+        return left;
+    }
+
+    public double getRight() {
+        return right;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof DoublePair) ) return false;
+        DoublePair pair = (DoublePair) o;
+        return hash == pair.hash
+               && Double.doubleToLongBits(left) == Double.doubleToLongBits(pair.left)
+               && Double.doubleToLongBits(right) == Double.doubleToLongBits(pair.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(DoublePair o) {
+        return Components.combine(Components.compare(left, o.left),
+                                  Components.compare(right, o.right));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + "," + right + ')';
+    }
+}
@@ -0,0 +1,70 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Pair of int values (e.g., a composite key) that is hashed, compared and tested for equality without boxing or
+ * allocating: the hash code is computed once, on construction, and compareTo combines the orders of the components
+ * without branching. of() returns shared instances for small non-negative components; an Interner may be used to share
+ * other frequently repeated pairs.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class IntPair implements Comparable<IntPair>
+{
+    private static final int       CACHED_RANGE = 16;
+    private static final IntPair[] CACHE        = new IntPair[CACHED_RANGE * CACHED_RANGE];
+
+    static {
+        for ( int i = 0; i < CACHE.length; i++ ) CACHE[i] = new IntPair(i / CACHED_RANGE, i % CACHED_RANGE);
+    }
+
+    public final  int left;
+    public final  int right;
+    private final int hash;
+
+    private IntPair(int left,
+                    int right)
+    {
+        this.left  = left;
+        this.right = right;
+        this.hash  = Components.hash(left, right);
+    }
+
+    public static IntPair of(int left,
+                             int right)
+    {
+        return (left | right) >= 0 && left < CACHED_RANGE && right < CACHED_RANGE
+               ? CACHE[left * CACHED_RANGE + right]
+               : new IntPair(left, right);
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof IntPair) ) return false;
+        IntPair pair = (IntPair) o;
+        return hash == pair.hash && left == pair.left && right == pair.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(IntPair o) {
+        return Components.combine(Components.compare(left, o.left),
+                                  Components.compare(right, o.right));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + "," + right + ')';
+    }
+}
@@ -0,0 +1,69 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Triple of int values (e.g., a composite key) that is hashed, compared and tested for equality without boxing or
+ * allocating: the hash code is computed once, on construction, and compareTo combines the orders of the components
+ * without branching. An Interner may be used to share frequently repeated triples.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class IntTriple implements Comparable<IntTriple>
+{
+    public final  int first;
+    public final  int second;
+    public final  int third;
+    private final int hash;
+
+    private IntTriple(int first,
+                      int second,
+                      int third)
+    {
+        this.first  = first;
+        this.second = second;
+        this.third  = third;
+        this.hash   = Components.hash(first, second, third);
+    }
+
+    public static IntTriple of(int first,
+                               int second,
+                               int third)
+    {
+        return new IntTriple(first, second, third);
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public int getThird() {
+        return third;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof IntTriple) ) return false;
+        IntTriple triple = (IntTriple) o;
+        return hash == triple.hash && first == triple.first && second == triple.second && third == triple.third;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(IntTriple o) {
+        return Components.combine(Components.compare(first, o.first),
+                                  Components.compare(second, o.second),
+                                  Components.compare(third, o.third));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + "," + second + "," + third + ')';
+    }
+}
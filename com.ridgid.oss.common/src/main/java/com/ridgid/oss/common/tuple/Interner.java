@@ -0,0 +1,45 @@
+package com.ridgid.oss.common.tuple;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe, bounded pool of canonical instances of (immutable) values, typically tuples used as keys that repeat
+ * often: intern() returns the pooled instance equal to a value, so that duplicates can be discarded (and compared by
+ * identity first); once the pool holds its maximum number of values, other values are returned as is (not pooled)
+ *
+ * @param <T> type of the values
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class Interner<T>
+{
+    private final ConcurrentHashMap<T, T> pool;
+    private final int                     maximumSize;
+
+    public Interner(int maximumSize) {
+        if ( maximumSize <= 0 ) throw new IllegalArgumentException("maximumSize must be positive");
+        this.pool        = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param value (non-null) value to intern
+     * @return the pooled instance equal to the value, or the value itself if it was pooled, or the pool is full
+     */
+    public T intern(T value) {
+        Objects.requireNonNull(value, "value");
+        T pooled = pool.get(value);
+        if ( pooled != null ) return pooled;
+        if ( pool.size() >= maximumSize ) return value;
+        pooled = pool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public void clear() {
+        pool.clear();
+    }
+}
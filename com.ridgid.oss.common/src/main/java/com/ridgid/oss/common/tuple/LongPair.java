@@ -0,0 +1,60 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Pair of long values (e.g., a composite key) that is hashed, compared and tested for equality without boxing or
+ * allocating: the hash code is computed once, on construction, and compareTo combines the orders of the components
+ * without branching. An Interner may be used to share frequently repeated pairs.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class LongPair implements Comparable<LongPair>
+{
+    public final  long left;
+    public final  long right;
+    private final int  hash;
+
+    private LongPair(long left,
+                     long right)
+    {
+        this.left  = left;
+        this.right = right;
+        this.hash  = Components.hash(left, right);
+    }
+
+    public static LongPair of(long left,
+                              long right)
+    {
+        return new LongPair(left, right);
+    }
+
+    public long getLeft() {
+        return left;
+    }
+
+    public long getRight() {
+        return right;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof LongPair) ) return false;
+        LongPair pair = (LongPair) o;
+        return hash == pair.hash && left == pair.left && right == pair.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(LongPair o) {
+        return Components.combine(Components.compare(left, o.left),
+                                  Components.compare(right, o.right));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + "," + right + ')';
+    }
+}
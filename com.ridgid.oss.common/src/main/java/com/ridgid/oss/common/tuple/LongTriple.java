@@ -0,0 +1,69 @@
+package com.ridgid.oss.common.tuple;
+
+/**
+ * Triple of long values (e.g., a composite key) that is hashed, compared and tested for equality without boxing or
+ * allocating: the hash code is computed once, on construction, and compareTo combines the orders of the components
+ * without branching. An Interner may be used to share frequently repeated triples.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class LongTriple implements Comparable<LongTriple>
+{
+    public final  long first;
+    public final  long second;
+    public final  long third;
+    private final int  hash;
+
+    private LongTriple(long first,
+                       long second,
+                       long third)
+    {
+        this.first  = first;
+        this.second = second;
+        this.third  = third;
+        this.hash   = Components.hash(first, second, third);
+    }
+
+    public static LongTriple of(long first,
+                                long second,
+                                long third)
+    {
+        return new LongTriple(first, second, third);
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getSecond() {
+        return second;
+    }
+
+    public long getThird() {
+        return third;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof LongTriple) ) return false;
+        LongTriple triple = (LongTriple) o;
+        return hash == triple.hash && first == triple.first && second == triple.second && third == triple.third;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(LongTriple o) {
+        return Components.combine(Components.compare(first, o.first),
+                                  Components.compare(second, o.second),
+                                  Components.compare(third, o.third));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + "," + second + "," + third + ')';
+    }
+}
@@ -14,6 +14,8 @@ public final class Pair<L, R> implements Comparable<Pair<L, R>>
     public final BiFunction<L, L, Integer> leftComparer;
     public final BiFunction<R, R, Integer> rightComparer;
 
+    private final int hash;
+
     public Pair(L left, R right) {
         Objects.requireNonNull(left, "Left value must be non-null");
         Objects.requireNonNull(left, "Right value must be non-null");
@@ -21,6 +23,7 @@ public final class Pair<L, R> implements Comparable<Pair<L, R>>
         this.right         = right;
         this.leftComparer  = makeComparer(left);
         this.rightComparer = makeComparer(right);
+        this.hash          = 31 * (31 + left.hashCode()) + Objects.hashCode(right);
     }
 
     @SuppressWarnings("unchecked")
@@ -56,7 +59,7 @@ public final class Pair<L, R> implements Comparable<Pair<L, R>>
 
     @Override
     public int hashCode() {
-        return Objects.hash(left, right);
+        return hash;
     }
 
     @Override
@@ -164,6 +164,14 @@ public interface Tuple extends Comparable<Tuple>
     {
         private Implementation() {}
 
+        @SuppressWarnings("unchecked")
+        private static int compareNullsLast(Comparable a,
+                                            Comparable b)
+        {
+            if ( a == null ) return b == null ? 0 : 1;
+            return b == null ? -1 : a.compareTo(b);
+        }
+
         static class Tuple0Impl implements Tuple0
         {
             @Override
@@ -189,10 +197,12 @@ public interface Tuple extends Comparable<Tuple>
 
         static class Tuple1Impl<T extends Comparable<? super T>> implements Tuple1<T>
         {
-            private T value;
+            private final T   value;
+            private final int hash;
 
             Tuple1Impl(T value) {
                 this.value = value;
+                this.hash  = Objects.hash(value);
             }
 
             @Override
@@ -220,7 +230,14 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple1Impl) ) return Tuple1.super.compareTo(o);
+                Tuple1Impl<?> that = (Tuple1Impl<?>) o;
+                return compareNullsLast(value, that.value);
             }
 
             @Override
@@ -232,12 +249,14 @@ public interface Tuple extends Comparable<Tuple>
         static class Tuple2Impl<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>>
             implements Tuple2<T1, T2>
         {
-            private T1 value1;
-            private T2 value2;
+            private final T1  value1;
+            private final T2  value2;
+            private final int hash;
 
             Tuple2Impl(T1 value1, T2 value2) {
                 this.value1 = value1;
                 this.value2 = value2;
+                this.hash   = Objects.hash(value1, value2);
             }
 
             @Override
@@ -273,7 +292,15 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value1, value2);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple2Impl) ) return Tuple2.super.compareTo(o);
+                Tuple2Impl<?, ?> that = (Tuple2Impl<?, ?>) o;
+                int rv = compareNullsLast(value1, that.value1);
+                return rv != 0 ? rv : compareNullsLast(value2, that.value2);
             }
 
             @Override
@@ -287,9 +314,10 @@ public interface Tuple extends Comparable<Tuple>
         static class Tuple3Impl<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>, T3 extends Comparable<? super T3>>
             implements Tuple3<T1, T2, T3>
         {
-            private T1 value1;
-            private T2 value2;
-            private T3 value3;
+            private final T1  value1;
+            private final T2  value2;
+            private final T3  value3;
+            private final int hash;
 
             @SuppressWarnings("DuplicatedCode")
             Tuple3Impl(T1 value1,
@@ -299,6 +327,7 @@ public interface Tuple extends Comparable<Tuple>
                 this.value1 = value1;
                 this.value2 = value2;
                 this.value3 = value3;
+                this.hash   = Objects.hash(value1, value2, value3);
             }
 
             @Override
@@ -342,7 +371,16 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value1, value2, value3);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple3Impl) ) return Tuple3.super.compareTo(o);
+                Tuple3Impl<?, ?, ?> that = (Tuple3Impl<?, ?, ?>) o;
+                int rv = compareNullsLast(value1, that.value1);
+                if ( rv == 0 ) rv = compareNullsLast(value2, that.value2);
+                return rv != 0 ? rv : compareNullsLast(value3, that.value3);
             }
 
             @Override
@@ -357,10 +395,11 @@ public interface Tuple extends Comparable<Tuple>
         static class Tuple4Impl<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>, T3 extends Comparable<? super T3>, T4 extends Comparable<? super T4>>
             implements Tuple4<T1, T2, T3, T4>
         {
-            private T1 value1;
-            private T2 value2;
-            private T3 value3;
-            private T4 value4;
+            private final T1  value1;
+            private final T2  value2;
+            private final T3  value3;
+            private final T4  value4;
+            private final int hash;
 
             @SuppressWarnings("DuplicatedCode")
             Tuple4Impl(T1 value1,
@@ -372,6 +411,7 @@ public interface Tuple extends Comparable<Tuple>
                 this.value2 = value2;
                 this.value3 = value3;
                 this.value4 = value4;
+                this.hash   = Objects.hash(value1, value2, value3, value4);
             }
 
             @Override
@@ -423,7 +463,17 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value1, value2, value3, value4);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple4Impl) ) return Tuple4.super.compareTo(o);
+                Tuple4Impl<?, ?, ?, ?> that = (Tuple4Impl<?, ?, ?, ?>) o;
+                int rv = compareNullsLast(value1, that.value1);
+                if ( rv == 0 ) rv = compareNullsLast(value2, that.value2);
+                if ( rv == 0 ) rv = compareNullsLast(value3, that.value3);
+                return rv != 0 ? rv : compareNullsLast(value4, that.value4);
             }
 
             @Override
@@ -439,11 +489,12 @@ public interface Tuple extends Comparable<Tuple>
         static class Tuple5Impl<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>, T3 extends Comparable<? super T3>, T4 extends Comparable<? super T4>, T5 extends Comparable<? super T5>>
             implements Tuple5<T1, T2, T3, T4, T5>
         {
-            private T1 value1;
-            private T2 value2;
-            private T3 value3;
-            private T4 value4;
-            private T5 value5;
+            private final T1  value1;
+            private final T2  value2;
+            private final T3  value3;
+            private final T4  value4;
+            private final T5  value5;
+            private final int hash;
 
             @SuppressWarnings("DuplicatedCode")
             Tuple5Impl(T1 value1,
@@ -457,6 +508,7 @@ public interface Tuple extends Comparable<Tuple>
                 this.value3 = value3;
                 this.value4 = value4;
                 this.value5 = value5;
+                this.hash   = Objects.hash(value1, value2, value3, value4, value5);
             }
 
             @Override
@@ -516,7 +568,18 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value1, value2, value3, value4, value5);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple5Impl) ) return Tuple5.super.compareTo(o);
+                Tuple5Impl<?, ?, ?, ?, ?> that = (Tuple5Impl<?, ?, ?, ?, ?>) o;
+                int rv = compareNullsLast(value1, that.value1);
+                if ( rv == 0 ) rv = compareNullsLast(value2, that.value2);
+                if ( rv == 0 ) rv = compareNullsLast(value3, that.value3);
+                if ( rv == 0 ) rv = compareNullsLast(value4, that.value4);
+                return rv != 0 ? rv : compareNullsLast(value5, that.value5);
             }
 
             @Override
@@ -533,12 +596,13 @@ public interface Tuple extends Comparable<Tuple>
         static class Tuple6Impl<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>, T3 extends Comparable<? super T3>, T4 extends Comparable<? super T4>, T5 extends Comparable<? super T5>, T6 extends Comparable<? super T6>>
             implements Tuple6<T1, T2, T3, T4, T5, T6>
         {
-            private T1 value1;
-            private T2 value2;
-            private T3 value3;
-            private T4 value4;
-            private T5 value5;
-            private T6 value6;
+            private final T1  value1;
+            private final T2  value2;
+            private final T3  value3;
+            private final T4  value4;
+            private final T5  value5;
+            private final T6  value6;
+            private final int hash;
 
             @SuppressWarnings("DuplicatedCode")
             Tuple6Impl(T1 value1,
@@ -554,6 +618,7 @@ public interface Tuple extends Comparable<Tuple>
                 this.value4 = value4;
                 this.value5 = value5;
                 this.value6 = value6;
+                this.hash   = Objects.hash(value1, value2, value3, value4, value5, value6);
             }
 
             @Override
@@ -621,7 +686,19 @@ public interface Tuple extends Comparable<Tuple>
 
             @Override
             public int hashCode() {
-                return Objects.hash(value1, value2, value3, value4, value5, value6);
+                return hash;
+            }
+
+            @Override
+            public int compareTo(Tuple o) {
+                if ( !(o instanceof Tuple6Impl) ) return Tuple6.super.compareTo(o);
+                Tuple6Impl<?, ?, ?, ?, ?, ?> that = (Tuple6Impl<?, ?, ?, ?, ?, ?>) o;
+                int rv = compareNullsLast(value1, that.value1);
+                if ( rv == 0 ) rv = compareNullsLast(value2, that.value2);
+                if ( rv == 0 ) rv = compareNullsLast(value3, that.value3);
+                if ( rv == 0 ) rv = compareNullsLast(value4, that.value4);
+                if ( rv == 0 ) rv = compareNullsLast(value5, that.value5);
+                return rv != 0 ? rv : compareNullsLast(value6, that.value6);
             }
 
             @Override
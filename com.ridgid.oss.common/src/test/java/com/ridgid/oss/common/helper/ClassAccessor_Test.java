@@ -0,0 +1,79 @@
+package com.ridgid.oss.common.helper;
+
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClassAccessor_Test {
+
+    @SuppressWarnings("unused")
+    private static class Base {
+        private static int instances;
+        private long id;
+        private String name;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Derived extends Base {
+        private final String constant = "constant";
+        private transient String cached;
+        private int count;
+        private Integer boxed;
+    }
+
+    @Test
+    void it_caches_the_accessor_per_class() {
+        assertSame(ClassAccessor.of(Derived.class), ClassAccessor.of(Derived.class));
+    }
+
+    @Test
+    void it_lists_the_non_static_fields_of_the_class_and_its_super_classes() {
+        List<String> names = ClassAccessor.of(Derived.class)
+                .getNonStaticFields()
+                .stream()
+                .map(FieldAccessor::getName)
+                .collect(toList());
+        assertEquals(Arrays.asList("count", "boxed", "id", "name"), names);
+    }
+
+    @Test
+    void it_reads_writes_and_copies_field_values() {
+        Derived from = new Derived();
+        Derived to = new Derived();
+        ClassAccessor<Derived> accessor = ClassAccessor.of(Derived.class);
+        FieldAccessor count = accessor.getDeclaredField("count").orElseThrow(IllegalStateException::new);
+        FieldAccessor boxed = accessor.getDeclaredField("boxed").orElseThrow(IllegalStateException::new);
+        FieldAccessor id = ClassAccessor.of(Base.class).getDeclaredField("id").orElseThrow(IllegalStateException::new);
+        count.setInt(from, 7);
+        boxed.set(from, 8);
+        id.setLong(from, 9L);
+        accessor.getNonStaticFields().forEach(field -> field.copy(from, to));
+        assertEquals(7, count.getInt(to));
+        assertEquals(8, boxed.get(to));
+        assertEquals(9L, id.get(to));
+        assertThrows(IllegalArgumentException.class, () -> count.getLong(to));
+    }
+
+    @Test
+    void it_backs_the_field_reflection_helpers() {
+        Derived obj = new Derived();
+        FieldReflectionHelpers.setFieldValueOrThrowException(
+                obj,
+                FieldReflectionHelpers.getFieldOrThrowRuntimeException(Derived.class, "count"),
+                3);
+        assertEquals(3, FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(
+                obj,
+                FieldReflectionHelpers.getFieldOrThrowRuntimeException(Derived.class, "count")));
+        assertEquals("constant", FieldReflectionHelpers.getFieldValueOrThrowRuntimeException(
+                obj,
+                FieldReflectionHelpers.getFieldOrThrowRuntimeException(Derived.class, "constant")));
+        assertThrows(RuntimeException.class, () -> FieldReflectionHelpers.getFieldOrThrowRuntimeException(Derived.class, "id"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ridgid.oss.common.helper;
+
+import com.ridgid.oss.common.helper.CopyHelpers.ModelTransformer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CopyHelpers_Test {
+
+    @SuppressWarnings("unused")
+    public static class Address implements CopyableModel {
+        private String city;
+
+        public Address() {
+        }
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Person implements CopyableModel {
+        private int age;
+        private long id;
+        private String name;
+        private Address address;
+        private Person manager;
+    }
+
+    @SuppressWarnings("unused")
+    public static class PersonDTO implements CopyableModel {
+        private long age;
+        private Long id;
+        private String fullName;
+        private Address address;
+        private Person manager;
+    }
+
+    private static Person person(int age, String name) {
+        Person person = new Person();
+        person.age = age;
+        person.id = age * 100L;
+        person.name = name;
+        person.address = new Address("City " + age);
+        return person;
+    }
+
+    @Test
+    void it_caches_the_transformer_per_classes_and_options() {
+        assertSame(CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class),
+                CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class));
+        assertSame(CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class, Collections.singleton("age")),
+                CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class, Collections.singleton("age")));
+        assertNotSame(CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class),
+                CopyHelpers.deepCopyTransformerFor(Person.class, PersonDTO.class));
+    }
+
+    @Test
+    void it_keeps_caching_after_many_plans_with_fresh_value_mappers() {
+        for (int i = 0; i < 2000; i++) {
+            int offset = i;
+            PersonDTO to = CopyHelpers
+                    .copyTransformerFor(Person.class, PersonDTO.class, Collections.emptyMap(),
+                            Collections.singletonMap("age", age -> (Integer) age + offset))
+                    .transform(person(1, "Jane"));
+            assertEquals(1L + i, to.age);
+        }
+        assertSame(CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class, Collections.singleton("name")),
+                CopyHelpers.copyTransformerFor(Person.class, PersonDTO.class, Collections.singleton("name")));
+    }
+
+    @Test
+    void it_copies_aliased_and_widened_fields_shallowly() {
+        Person from = person(42, "Jane");
+        PersonDTO to = CopyHelpers
+                .copyTransformerFor(Person.class, PersonDTO.class, Collections.singletonMap("name", "fullName"))
+                .transform(from);
+        assertEquals(42L, to.age);
+        assertEquals(Long.valueOf(4200L), to.id);
+        assertEquals("Jane", to.fullName);
+        assertSame(from.address, to.address);
+    }
+
+    @Test
+    void it_deep_copies_copyable_model_fields() {
+        Person from = person(42, "Jane");
+        from.manager = person(60, "Joan");
+        PersonDTO to = CopyHelpers.deepCopyTransformerFor(Person.class, PersonDTO.class).transform(from);
+        assertNotSame(from.address, to.address);
+        assertEquals("City 42", to.address.city);
+        assertNotSame(from.manager, to.manager);
+        assertEquals("Joan", to.manager.name);
+        assertEquals("City 60", to.manager.address.city);
+        assertNull(to.manager.manager);
+        assertNull(to.fullName);
+    }
+
+    @Test
+    void it_copies_the_same_after_the_copy_plan_becomes_hot() {
+        ModelTransformer<Person, PersonDTO> transformer = CopyHelpers.copyTransformerFor
+                (
+                        Person.class,
+                        PersonDTO.class,
+                        Collections.singletonMap("name", "fullName"),
+                        Collections.singletonMap("name", name -> ((String) name).toUpperCase())
+                );
+        List<String> names = IntStream.range(0, 20_000)
+                .mapToObj(i -> transformer.transform(person(i, "p" + i)))
+                .map(to -> to.age + ":" + to.id + ":" + to.fullName)
+                .collect(toList());
+        assertEquals("0:0:P0", names.get(0));
+        assertEquals("19999:1999900:P19999", names.get(19_999));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ridgid.oss.common.helper;
+
+import com.ridgid.oss.common.helper.EqualityComparator.FieldDifference;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EqualityComparator_Test {
+
+    @SuppressWarnings("unused")
+    private static class Customer implements Serializable {
+        private String code;
+        private double rating;
+
+        Customer(String code, double rating) {
+            this.code = code;
+            this.rating = rating;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Line implements Serializable {
+        private int quantity;
+        private String product;
+
+        Line(int quantity, String product) {
+            this.quantity = quantity;
+            this.product = product;
+        }
+
+        @Override
+        public String toString() {
+            return quantity + " x " + product;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Order implements Serializable {
+        private long number;
+        private String note;
+        private Customer customer;
+        private List<Line> lines = new ArrayList<>();
+        private Set<Line> extras = new HashSet<>();
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.number = 1;
+        order.note = "note";
+        order.customer = new Customer("C1", 4.5);
+        for (int i = 0; i < 100; i++) {
+            order.lines.add(new Line(i, "P" + i));
+            order.extras.add(new Line(i, "E" + i));
+        }
+        return order;
+    }
+
+    private static final List<String> FIELDS = Arrays.asList("number", "customer.code", "customer.rating");
+    private static final List<String> COLLECTIONS = Arrays.asList("lines", "extras");
+    private static final List<Class<?>> ELEMENTS = Arrays.asList(Line.class, Line.class);
+
+    @Test
+    void it_caches_the_comparator_per_class_and_fields() {
+        assertSame(EqualityComparator.of(Order.class, FIELDS), EqualityComparator.of(Order.class, FIELDS));
+        assertSame(EqualityComparator.of(Order.class), EqualityComparator.of(Order.class));
+    }
+
+    @Test
+    void it_compares_fields_paths_and_child_collections() {
+        EqualityComparator<Order> comparator = EqualityComparator.of(Order.class, FIELDS, COLLECTIONS, ELEMENTS);
+        Order order1 = order();
+        Order order2 = order();
+        order2.note = "ignored";
+        assertTrue(comparator.areEqual(order1, order2));
+        assertTrue(comparator.diff(order1, order2).isEmpty());
+        assertEquals(comparator.hash(order1), comparator.hash(order2));
+
+        order2.customer.rating = 3.0;
+        order2.lines.get(7).product = "X";
+        order2.extras.iterator().next().quantity = -1;
+        assertFalse(comparator.areEqual(order1, order2));
+        List<String> paths = comparator.diff(order1, order2)
+                .stream()
+                .map(FieldDifference::getPath)
+                .collect(toList());
+        assertEquals(Arrays.asList("customer.rating", "lines[7].product", "extras[]", "extras[]"), paths);
+    }
+
+    @Test
+    void it_matches_unordered_collections_regardless_of_order() {
+        EqualityComparator<Line> comparator = EqualityComparator.of(Line.class);
+        List<Line> lines1 = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            lines1.add(new Line(i % 10, "P" + (i % 7)));
+        List<Line> lines2 = new ArrayList<>();
+        for (int i = 999; i >= 0; i--)
+            lines2.add(new Line(i % 10, "P" + (i % 7)));
+        assertTrue(comparator.diff(new HashSet<>(lines1), new HashSet<>(lines2), "lines").isEmpty());
+        assertTrue(comparator.diff(Collections.unmodifiableCollection(lines1),
+                Collections.unmodifiableCollection(lines2),
+                "lines").isEmpty());
+        assertFalse(comparator.diff(lines1, lines2, "lines").isEmpty());
+    }
+
+    @Test
+    void it_reports_field_differences_through_the_equality_helpers() {
+        Order order1 = order();
+        Order order2 = order();
+        order2.number = 2;
+        order2.customer.code = "C2";
+        List<String> errors = new ArrayList<>();
+        assertFalse(EqualityHelpers.fieldsAreEqual(FIELDS, order1, order2, errors));
+        assertEquals(Arrays.asList("Field Not Equal: number, Value Expected = 1, Actual Value = 2",
+                "Field Not Equal: customer.code, Value Expected = C1, Actual Value = C2"), errors);
+    }
+}
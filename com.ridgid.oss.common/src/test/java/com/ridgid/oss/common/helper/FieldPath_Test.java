@@ -0,0 +1,106 @@
+package com.ridgid.oss.common.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldPath_Test {
+
+    @SuppressWarnings("unused")
+    private static class Address {
+        private String city;
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class OtherAddress {
+        private String city = "Elsewhere";
+    }
+
+    @SuppressWarnings("unused")
+    private static class Customer {
+        private long number = 7;
+        private Object address;
+    }
+
+    @SuppressWarnings("unused")
+    private static class PreferredCustomer extends Customer {
+        private String tier = "Gold";
+    }
+
+    @SuppressWarnings("unused")
+    private static class ShadowingAddress extends Address {
+        private String city = "Shadowed";
+
+        ShadowingAddress() {
+            super("Elyria");
+        }
+    }
+
+    @Test
+    void it_caches_the_compiled_path() {
+        assertSame(FieldPath.of("address.city"), FieldPath.of("address.city"));
+    }
+
+    @Test
+    void it_resolves_paths_across_changing_runtime_classes() {
+        Customer customer = new Customer();
+        FieldPath path = FieldPath.of("address.city");
+        assertNull(path.get(customer));
+        assertNull(path.get(null));
+        customer.address = new Address("Elyria");
+        assertEquals("Elyria", path.get(customer));
+        customer.address = new OtherAddress();
+        assertEquals("Elsewhere", path.get(customer));
+        customer.address = new Address("Elyria");
+        assertEquals("Elyria", path.get(customer));
+        assertEquals(7L, FieldPath.of("number").get(customer));
+        assertThrows(RuntimeException.class, () -> FieldPath.of("address.zip").get(customer));
+    }
+
+    @Test
+    void it_resolves_the_fields_inherited_from_super_classes() {
+        Customer customer = new PreferredCustomer();
+        customer.address = new Address("Elyria");
+        assertEquals("Elyria", FieldPath.of("address.city").get(customer));
+        assertEquals(7L, FieldPath.of("number").get(customer));
+        assertEquals("Gold", FieldPath.of("tier").get(customer));
+        customer.address = new ShadowingAddress();
+        assertEquals("Shadowed", FieldPath.of("address.city").get(customer));
+        assertThrows(RuntimeException.class, () -> FieldPath.of("address.zip").get(customer));
+    }
+
+    @Test
+    void it_checks_the_path_against_the_declared_types_of_its_fields() {
+        assertSame(FieldPath.of("tier"), FieldPath.of("tier").checkDeclaredBy(PreferredCustomer.class));
+        FieldPath.of("number").checkDeclaredBy(PreferredCustomer.class);
+        FieldPath.of("address.city").checkDeclaredBy(Customer.class);
+        FieldPath.of("address.zip").checkDeclaredBy(Customer.class);
+        assertThrows(IllegalArgumentException.class, () -> FieldPath.of("tier").checkDeclaredBy(Customer.class));
+        assertThrows(IllegalArgumentException.class, () -> FieldPath.of("number.value").checkDeclaredBy(Customer.class));
+        assertThrows(IllegalArgumentException.class, () -> FieldPath.of("city.size").checkDeclaredBy(Address.class));
+    }
+
+    @Test
+    void it_backs_the_object_and_field_path_helper() {
+        Customer customer = new Customer();
+        customer.address = new Address("Elyria");
+        Optional<Map.Entry<Object, Field>> objectField
+                = FieldReflectionHelpers.determineObjectAndFieldForPathIntoObject(customer, "address.city");
+        assertSame(customer.address, objectField.get().getKey());
+        assertEquals("city", objectField.get().getValue().getName());
+        customer.address = null;
+        assertFalse(FieldReflectionHelpers.determineObjectAndFieldForPathIntoObject(customer, "address.city").isPresent());
+    }
+}
@@ -3,13 +3,28 @@ package com.ridgid.oss.common.helper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.ridgid.oss.common.helper.StreamHelpers.batches;
 import static com.ridgid.oss.common.helper.StreamHelpers.distinctBy;
+import static com.ridgid.oss.common.helper.StreamHelpers.distinctByApproximately;
+import static com.ridgid.oss.common.helper.StreamHelpers.distinctByKeyHashApproximately;
+import static com.ridgid.oss.common.helper.StreamHelpers.distinctByWithin;
+import static com.ridgid.oss.common.helper.StreamHelpers.distinctByWithinLast;
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class StreamHelpers_Test {
 
@@ -124,4 +139,164 @@ class StreamHelpers_Test {
                                 )).count()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void when_distinctBy_is_used_on_a_parallel_stream_it_passes_each_distinct_key_once() {
+        assertEquals(
+                12,
+                IntStream.range(0, 100)
+                        .boxed()
+                        .flatMap(i -> testPersons.stream())
+                        .parallel()
+                        .flatMap(
+                                distinctBy(
+                                        Person::getLastName,
+                                        Person::getFirstName)
+                        ).count()
+        );
+    }
+
+    @Test
+    void when_distinctByWithinLast_is_used_it_only_drops_duplicates_of_the_keys_in_the_window() {
+        assertEquals(
+                120,
+                testPersons.stream()
+                        .flatMap(
+                                distinctByWithinLast(
+                                        3,
+                                        Person::getFirstName)
+                        ).count()
+        );
+        assertEquals(
+                4,
+                testPersons.stream()
+                        .flatMap(
+                                distinctByWithinLast(
+                                        4,
+                                        Person::getFirstName)
+                        ).count()
+        );
+    }
+
+    @Test
+    void when_distinctByWithin_is_used_it_only_drops_duplicates_of_the_keys_passed_within_the_window() {
+        AtomicLong clock = new AtomicLong();
+        List<String> passed = testPersons.stream()
+                .limit(12)
+                .peek(p -> clock.addAndGet(Duration.ofSeconds(1).toNanos()))
+                .flatMap(
+                        distinctByWithin(
+                                Duration.ofSeconds(6),
+                                clock::get,
+                                Person::getFirstName)
+                )
+                .map(p -> p.getFirstName() + "@" + clock.get() / 1_000_000_000L)
+                .collect(toList());
+        assertEquals(
+                Arrays.asList("FirstName0@1", "FirstName1@2", "FirstName2@3", "FirstName3@4",
+                        "FirstName0@9", "FirstName1@10", "FirstName2@11", "FirstName3@12"),
+                passed
+        );
+    }
+
+    @Test
+    void when_distinctByApproximately_is_used_it_never_passes_a_duplicate_and_rarely_drops_a_distinct_element() {
+        long passed = IntStream.range(0, 200_000)
+                .map(i -> i % 20_000)
+                .boxed()
+                .parallel()
+                .flatMap(
+                        distinctByApproximately(
+                                20_000,
+                                0.01,
+                                Function.identity())
+                ).count();
+        assertTrue(passed <= 20_000);
+        assertTrue(passed >= 19_600, () -> "passed " + passed);
+    }
+
+    @Test
+    void when_distinctByApproximately_is_used_keys_with_colliding_hash_codes_are_told_apart() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        List<String> passed = Stream.of("Aa", "BB", "Aa", "BB")
+                .flatMap(distinctByApproximately(100, 0.01, Function.identity()))
+                .collect(toList());
+        assertEquals(Arrays.asList("Aa", "BB"), passed);
+        assertEquals(Long.hashCode(1L << 32), Long.hashCode(1L));
+        List<Long> longs = Stream.of(1L, 1L << 32, 1L)
+                .flatMap(distinctByApproximately(100, 0.01, Function.identity()))
+                .collect(toList());
+        assertEquals(Arrays.asList(1L, 1L << 32), longs);
+    }
+
+    @Test
+    void when_distinctByApproximately_is_used_with_several_fields_each_combination_of_values_is_distinct() {
+        assertEquals(Arrays.asList("Aa", "BB").hashCode(), Arrays.asList("BB", "Aa").hashCode());
+        List<List<Object>> keys = Arrays.asList(Arrays.asList("Aa", "BB"),
+                Arrays.asList("BB", "Aa"),
+                Arrays.asList("Aa", null),
+                Arrays.asList(null, "Aa"),
+                Arrays.asList(1, 1L),
+                Arrays.asList(1L, 1),
+                Arrays.asList("Aa", "BB"));
+        List<List<Object>> passed = keys.stream()
+                .flatMap(distinctByApproximately(100, 0.01, key -> key.get(0), key -> key.get(1)))
+                .collect(toList());
+        assertEquals(keys.subList(0, 6), passed);
+    }
+
+    @Test
+    void when_distinctByKeyHashApproximately_is_used_keys_with_colliding_hash_codes_but_distinct_64_bit_hashes_are_passed() {
+        List<String> passed = Stream.of("Aa", "BB", "Aa", "BB")
+                .flatMap(distinctByKeyHashApproximately(100, 0.01, StreamHelpers_Test::fnv1a64))
+                .collect(toList());
+        assertEquals(Arrays.asList("Aa", "BB"), passed);
+    }
+
+    private static long fnv1a64(String s) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Test
+    void when_batches_is_used_on_a_stream_it_groups_the_elements_into_full_batches_in_order() {
+        List<Integer> numbers = IntStream.range(0, 10_007).boxed().collect(toList());
+        for (boolean parallel : new boolean[]{false, true}) {
+            Stream<Integer> stream = parallel ? numbers.parallelStream() : numbers.stream();
+            List<List<Integer>> batches = batches(stream, 100).collect(toList());
+            assertEquals(101, batches.size());
+            for (int i = 0; i < batches.size() - 1; i++)
+                assertEquals(100, batches.get(i).size());
+            assertEquals(7, batches.get(100).size());
+            assertEquals(numbers, batches.stream().flatMap(List::stream).collect(toList()));
+        }
+        assertEquals(10_007, batches(numbers.parallelStream(), 64).mapToInt(List::size).sum());
+        assertEquals(0, batches(Stream.empty(), 10).count());
+    }
+
+    @Test
+    void when_batches_is_used_on_a_sized_stream_it_reports_the_number_of_batches() {
+        Spliterator<List<Integer>> spliterator = batches(IntStream.range(0, 250).boxed(), 100).spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+    }
+
+    @Test
+    void when_batches_reuses_its_buffer_it_hands_out_the_same_list_refilled() {
+        List<List<Integer>> seen = new ArrayList<>();
+        List<Integer> sums = batches(IntStream.range(0, 25).boxed(), 10, true)
+                .peek(seen::add)
+                .map(batch -> batch.stream().mapToInt(Integer::intValue).sum())
+                .collect(toList());
+        assertEquals(3, seen.size());
+        assertSame(seen.get(0), seen.get(2));
+        assertEquals(3, sums.size());
+        assertEquals(45, (int) sums.get(0));
+        assertEquals(145, (int) sums.get(1));
+        assertEquals(110, (int) sums.get(2));
+    }
+}
@@ -6,6 +6,11 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -14,10 +19,14 @@ import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.DEPTH
 import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.from;
 import static com.ridgid.oss.common.hierarchy.Node.viewAs;
 import static com.ridgid.oss.common.hierarchy.VisitStatus.OK_CONTINUE;
+import static com.ridgid.oss.common.hierarchy.VisitStatus.SKIP_CURRENT_AND_ALL_REMAINING_AND_STOP;
 import static com.ridgid.oss.common.hierarchy.VisitStatus.SKIP_CURRENT_AND_REMAINING_SIBLINGS;
 import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
 class HierarchyBuilder_Test
@@ -593,6 +602,158 @@ class HierarchyBuilder_Test
                         .toArray(Food[]::new);
     }
 
+    @Test
+    void can_visit_a_complex_hierarchy_for_many_roots_level_by_level() {
+        HierarchyProcessor<Person> h
+            = from(Person.class)
+            .include(Person::getSpouse,
+                     s -> s
+                         .includeCollection(
+                             Person::getPets,
+                             p -> p.includeArray(Pet::getFavoriteFoods)
+                                           )
+                    )
+            .includeStream(Person::getFriends,
+                           friends -> friends.include(Person::getSpouse))
+            .buildProcessor();
+
+        List<String> levels = new ArrayList<>();
+        h.visitLevels(Arrays.asList(samplePerson, new Person("Solo", samplePerson.getSpouse())),
+                      level -> levels.add(level.stream()
+                                               .filter(Name.class::isInstance)
+                                               .map(o -> ((Name) o).getName())
+                                               .collect(Collectors.joining(","))));
+
+        assertIterableEquals(
+            Arrays.asList(
+                "John Smith,Solo",
+                "Jane Doe",
+                "Friend 1,Friend 2",
+                "Spouse of Friend 2",
+                "Spot",
+                "",
+                "Kibble,Milk-Bone"
+                         ),
+            levels,
+            () -> "Level-by-Level Visited List does not match expected list:\n"
+                  + String.join("|", levels)
+                  + "\n"
+                            );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void can_traverse_a_hierarchy_deeper_than_the_thread_stack_allows_recursion_for() {
+        int depth = 50_000;
+        Person root = new Person("0");
+        Person last = root;
+        for ( int i = 1; i < depth; i++ ) {
+            Person spouse = new Person(Integer.toString(i));
+            last.spouse = spouse;
+            last        = spouse;
+        }
+        Node<Person, Person>[] deepest = new Node[1];
+        HierarchyProcessor.HierarchyProcessorBuilder<Person> builder
+            = from(Person.class).include(Person::getSpouse, s -> deepest[0] = s);
+        for ( int i = 2; i < depth; i++ )
+            deepest[0].include(Person::getSpouse, s -> deepest[0] = (Node<Person, Person>) (Node<?, ?>) s);
+        HierarchyProcessor<Person> h = builder.buildProcessor();
+
+        List<String> names = new ArrayList<>();
+        h.visit(root, addToNamesFound(names), DEPTH_FIRST);
+        assertIterableEquals(IntStream.range(0, depth).mapToObj(Integer::toString).collect(toList()), names);
+
+        names.clear();
+        h.visit(root, addToNamesFound(names), BREADTH_FIRST);
+        assertIterableEquals(IntStream.range(0, depth).mapToObj(Integer::toString).collect(toList()), names);
+    }
+
+    @Test
+    void can_traverse_a_wide_hierarchy_in_parallel_visiting_each_value_once() {
+        Person shared = new Person("Shared");
+        Person root   = new Person("Root", null, null, widePeople("F", 200, 20, shared));
+        HierarchyProcessor<Person> h
+            = from(Person.class)
+            .includeStream(Person::getFriends,
+                           friends -> friends.includeStream(Person::getFriends))
+            .buildProcessor();
+
+        Set<String>   visited     = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates  = new AtomicInteger();
+        AtomicInteger inside      = new AtomicInteger();
+        AtomicInteger overlapping = new AtomicInteger();
+        List<String>  after       = new ArrayList<>();
+        h.visitInParallel(root,
+                          GeneralVisitHandler.threadSafe((p, c) -> {
+                              if ( c instanceof Name && !visited.add(((Name) c).getName()) )
+                                  duplicates.incrementAndGet();
+                              return OK_CONTINUE;
+                          }),
+                          (p, c) -> {
+                              if ( inside.incrementAndGet() > 1 ) overlapping.incrementAndGet();
+                              after.add(((Name) c).getName());
+                              inside.decrementAndGet();
+                              return OK_CONTINUE;
+                          },
+                          new ForkJoinPool(4),
+                          4);
+
+        assertEquals(1 + 200 + 200 * 19 + 1, visited.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(0, overlapping.get());
+        assertEquals(visited.size(), after.size());
+        assertEquals("Root", after.get(after.size() - 1));
+        for ( int i = 0; i < 200; i++ )
+            assertTrue(after.indexOf("F" + i) > after.indexOf("F" + i + ".19"));
+    }
+
+    @Test
+    void can_stop_a_parallel_traversal_from_any_worker() {
+        Person root = new Person("Root", null, null, widePeople("F", 200, 20, null));
+        HierarchyProcessor<Person> h
+            = from(Person.class)
+            .includeStream(Person::getFriends,
+                           friends -> friends.includeStream(Person::getFriends))
+            .buildProcessor();
+
+        AtomicInteger visited = new AtomicInteger();
+        List<String>  after   = new ArrayList<>();
+        h.visitInParallel(root,
+                          GeneralVisitHandler.threadSafe((p, c) -> {
+                              if ( !(c instanceof Name) ) return OK_CONTINUE;
+                              visited.incrementAndGet();
+                              return "F7.3".equals(((Name) c).getName())
+                                     ? SKIP_CURRENT_AND_ALL_REMAINING_AND_STOP
+                                     : OK_CONTINUE;
+                          }),
+                          (p, c) -> {
+                              after.add(((Name) c).getName());
+                              return OK_CONTINUE;
+                          },
+                          new ForkJoinPool(4),
+                          4);
+
+        assertTrue(visited.get() < 1 + 200 + 200 * 20);
+        assertFalse(after.contains("F7"));
+        assertFalse(after.contains("F7.4"));
+    }
+
+    private static Person[] widePeople(String prefix,
+                                       int width,
+                                       int childWidth,
+                                       Person shared)
+    {
+        return IntStream.range(0, width)
+                        .mapToObj(i -> {
+                            Person[] friends = IntStream.range(0, childWidth)
+                                                        .mapToObj(j -> new Person(prefix + i + "." + j))
+                                                        .toArray(Person[]::new);
+                            if ( shared != null ) friends[childWidth / 2] = shared;
+                            return new Person(prefix + i, null, null, friends);
+                        })
+                        .toArray(Person[]::new);
+    }
+
     private GeneralVisitHandler addToNamesFound(List<String> names) {
         return (p, c) -> {
             if ( c instanceof Name )
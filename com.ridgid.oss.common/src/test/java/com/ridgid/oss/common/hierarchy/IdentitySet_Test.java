@@ -0,0 +1,35 @@
+package com.ridgid.oss.common.hierarchy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentitySet_Test
+{
+
+    @Test
+    void it_never_contains_null() {
+        IdentitySet set = new IdentitySet();
+        assertFalse(set.contains(null));
+        set.add("a");
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    void it_compares_by_identity_and_grows_past_its_initial_size() {
+        IdentitySet set    = new IdentitySet(2);
+        String[]    values = new String[100];
+        for ( int i = 0; i < values.length; i++ ) {
+            values[i] = new String("value");
+            assertTrue(set.add(values[i]));
+        }
+        assertEquals(values.length, set.size());
+        for ( String value : values ) {
+            assertTrue(set.contains(value));
+            assertFalse(set.add(value));
+        }
+        assertFalse(set.contains(new String("value")));
+    }
+}
@@ -12,8 +12,18 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("SpellCheckingInspection")
 class NamedParameterJdbcQuery_Test
@@ -121,5 +131,143 @@ class NamedParameterJdbcQuery_Test
         assertEquals(1, rowsAffected);
     }
 
+    @Test
+    void it_executes_a_batch_of_parameter_maps() throws SQLException {
+        deleteBatchRows();
+        NamedParameterJdbcQuery query = new NamedParameterJdbcQuery
+            (
+                "insert into Dummy ( Id, Code, Name ) values ( :id, :code, :name )"
+            );
+        int[] counts = query.executeBatch
+            (
+                conn,
+                IntStream.range(100, 105)
+                         .mapToObj(id -> {
+                             Map<String, Object> parameters = new HashMap<>();
+                             parameters.put("id", id);
+                             parameters.put("code", "B" + (id - 100));
+                             parameters.put("name", "Batch " + id);
+                             return parameters;
+                         }),
+                2
+            );
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, counts);
+        assertEquals(5, countBatchRows());
+    }
+
+    @Test
+    void it_executes_a_batch_of_beans_rewritten_as_multi_row_inserts() throws SQLException {
+        deleteBatchRows();
+        NamedParameterJdbcQuery query = new NamedParameterJdbcQuery
+            (
+                "insert into Dummy ( Id, Code, Name ) values ( :id, :code, :name )"
+            );
+        int[] counts = query.executeBatchOfBeans
+            (
+                conn,
+                IntStream.range(100, 105).mapToObj(DummyRow::new),
+                2,
+                true
+            );
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, counts);
+        assertEquals(5, countBatchRows());
+    }
+
+    private void deleteBatchRows() throws SQLException {
+        try ( PreparedStatement delete = conn.prepareStatement("delete from Dummy where Id >= 100") ) {
+            delete.executeUpdate();
+        }
+    }
+
+    private int countBatchRows() throws SQLException {
+        try ( PreparedStatement count = conn.prepareStatement("select count(*) from Dummy where Id >= 100");
+              ResultSet rs = count.executeQuery() )
+        {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    private static final class DummyRow
+    {
+        private final int    id;
+        private final String code;
+        private final String name;
+
+        private DummyRow(int id) {
+            this.id   = id;
+            this.code = "B" + (id - 100);
+            this.name = "Batch " + id;
+        }
+    }
+
+    @SuppressWarnings("StatementWithEmptyBody")
+    @Test
+    void it_reuses_the_cached_statement_for_the_same_query_in_the_same_statement_cache() throws SQLException {
+        Statement first;
+        Statement second;
+        try ( ConnectionStatementCache statements = new ConnectionStatementCache(conn) ) {
+            try ( ResultSet rs = new NamedParameterJdbcQuery("select * from Dummy where Code = :code")
+                .prepareCached(statements)
+                .setParameter("code", "XXX")
+                .executeQuery() )
+            {
+                while ( rs.next() ) ;
+                first = rs.getStatement();
+            }
+            try ( ResultSet rs = new NamedParameterJdbcQuery("select * from Dummy where Code = :code")
+                .prepareCached(statements)
+                .setParameter("code", "YYY")
+                .executeQuery() )
+            {
+                while ( rs.next() ) ;
+                second = rs.getStatement();
+            }
+            assertSame(first, second);
+            assertFalse(first.isClosed());
+        }
+        assertTrue(first.isClosed());
+        assertFalse(conn.isClosed());
+    }
+
+    @SuppressWarnings("StatementWithEmptyBody")
+    @Test
+    void separate_statement_caches_of_a_connection_do_not_share_statements() throws SQLException {
+        Statement first;
+        Statement second;
+        try ( ConnectionStatementCache statements = new ConnectionStatementCache(conn);
+              ResultSet rs = new NamedParameterJdbcQuery("select * from Dummy where Code = :code")
+                  .prepareCached(statements)
+                  .setParameter("code", "XXX")
+                  .executeQuery() )
+        {
+            while ( rs.next() ) ;
+            first = rs.getStatement();
+        }
+        try ( ConnectionStatementCache statements = new ConnectionStatementCache(conn);
+              ResultSet rs = new NamedParameterJdbcQuery("select * from Dummy where Code = :code")
+                  .prepareCached(statements)
+                  .setParameter("code", "YYY")
+                  .executeQuery() )
+        {
+            while ( rs.next() ) ;
+            second = rs.getStatement();
+            assertNotSame(first, second);
+            assertTrue(first.isClosed());
+            assertFalse(second.isClosed());
+        }
+    }
+
+    @SuppressWarnings("StatementWithEmptyBody")
+    @Test
+    void it_executes_a_parameterized_query_with_a_declared_parameter_type() throws SQLException {
+        NamedParameterJdbcQuery query = new NamedParameterJdbcQuery("select * from Dummy where Code = :code")
+            .declareParameterType("code", Types.VARCHAR);
+        try ( ResultSet rs = query.prepare(conn).setParameter("code", null).executeQuery() ) {
+            while ( rs.next() ) ;
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.ridgid.oss.common.jdbc;
+
+import com.ridgid.oss.common.helper.ResourceHelper;
+import com.ridgid.oss.common.jdbc.transform.AttributeConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SuppressWarnings("SpellCheckingInspection")
+class RowMapper_Test
+{
+    private Connection conn;
+
+    @BeforeEach
+    void setup() throws SQLException, IOException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:bootapp;"
+                                           + "DB_CLOSE_DELAY=-1");
+        PreparedStatement initialization = conn.prepareStatement
+            (
+                ResourceHelper.loadResourceToString("NamedParameterJdbcQuery_Test_Setup.sql",
+                                                    this.getClass())
+            );
+        initialization.execute();
+        initialization.close();
+        try ( PreparedStatement delete = conn.prepareStatement("delete from Dummy where Id between 300 and 399") ) {
+            delete.executeUpdate();
+        }
+        try ( PreparedStatement insert = conn.prepareStatement
+            (
+                "insert into Dummy ( Id, Code, Name ) values ( 300, 'abc', 'First' ), ( 301, 'def', 'Second' )"
+            ) )
+        {
+            insert.executeUpdate();
+        }
+    }
+
+    @Test
+    void it_streams_the_rows_of_a_query_mapped_by_column_name_and_converter() throws SQLException {
+        RowMapper<DummyRow> mapper = RowMapper.forClass(DummyRow.class)
+                                              .column("label", "Name")
+                                              .converter("code", new UpperCaseConverter())
+                                              .build();
+        NamedParameterJdbcQuery query = new NamedParameterJdbcQuery
+            (
+                "select Id, Code, Name, CreatedBy from Dummy where Id between :from and :to order by Id"
+            );
+        for ( int i = 0; i < 2; i++ ) {
+            List<String> rows;
+            try ( Stream<DummyRow> stream = query.prepare(conn)
+                                                 .setParameter("from", 300)
+                                                 .setParameter("to", 399)
+                                                 .stream(mapper, 1) )
+            {
+                rows = stream.map(DummyRow::toString).collect(toList());
+            }
+            assertEquals(Arrays.asList("300:ABC:First:*AUTO*", "301:DEF:Second:*AUTO*"), rows);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class DummyRow
+    {
+        private int    id;
+        private String code;
+        private String label;
+        private String createdBy;
+
+        @Override
+        public String toString() {
+            return id + ":" + code + ":" + label + ":" + createdBy;
+        }
+    }
+
+    private static final class UpperCaseConverter implements AttributeConverter<String, String>
+    {
+        @Override
+        public String convertToDatabaseColumn(String entityValue) {
+            return entityValue.toLowerCase();
+        }
+
+        @Override
+        public String convertToEntityAttribute(String dbValue) {
+            return dbValue.toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ridgid.oss.common.tuple;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveTuples_Test {
+
+    @Test
+    void compareTo_orders_pairs_and_triples_lexicographically() {
+        Random random = new Random(7);
+        List<IntPair> pairs = new ArrayList<>();
+        List<LongTriple> triples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            pairs.add(IntPair.of(random.nextInt(5) - 2 + (i % 3 == 0 ? Integer.MIN_VALUE : 0), random.nextInt()));
+            triples.add(LongTriple.of(random.nextInt(3), random.nextLong(), i % 2 == 0 ? Long.MAX_VALUE : Long.MIN_VALUE));
+        }
+        for (IntPair p1 : pairs.subList(0, 200))
+            for (IntPair p2 : pairs) {
+                int expected = Integer.compare(p1.left, p2.left) != 0
+                        ? Integer.compare(p1.left, p2.left)
+                        : Integer.compare(p1.right, p2.right);
+                assertEquals(Integer.signum(expected), Integer.signum(p1.compareTo(p2)));
+                assertEquals(expected == 0, p1.equals(p2));
+            }
+        Comparator<LongTriple> reference = Comparator.comparingLong((LongTriple t) -> t.first)
+                .thenComparingLong(t -> t.second)
+                .thenComparingLong(t -> t.third);
+        for (LongTriple t1 : triples.subList(0, 200))
+            for (LongTriple t2 : triples)
+                assertEquals(Integer.signum(reference.compare(t1, t2)), Integer.signum(t1.compareTo(t2)));
+    }
+
+    @Test
+    void equal_tuples_have_equal_cached_hashes() {
+        assertEquals(IntPair.of(100, -3), IntPair.of(100, -3));
+        assertEquals(IntPair.of(100, -3).hashCode(), IntPair.of(100, -3).hashCode());
+        assertEquals(DoublePair.of(Double.NaN, -0.0), DoublePair.of(Double.NaN, -0.0));
+        assertTrue(DoublePair.of(1, -0.0).compareTo(DoublePair.of(1, 0.0)) < 0);
+        Set<Integer> hashes = new HashSet<>();
+        for (int i = 0; i < 64; i++)
+            for (int j = 0; j < 64; j++)
+                hashes.add(IntTriple.of(i, j, 1).hashCode() & 0xFFF);
+        assertTrue(hashes.size() > 2000, "hashes should spread over the low bits: " + hashes.size());
+    }
+
+    @Test
+    void of_and_interner_share_repeated_keys() {
+        assertSame(IntPair.of(3, 15), IntPair.of(3, 15));
+        assertNotSame(IntPair.of(3, 16), IntPair.of(3, 16));
+
+        Interner<LongPair> interner = new Interner<>(2);
+        LongPair first = interner.intern(LongPair.of(1, 2));
+        assertSame(first, interner.intern(LongPair.of(1, 2)));
+        interner.intern(LongPair.of(3, 4));
+        LongPair unpooled = LongPair.of(5, 6);
+        assertSame(unpooled, interner.intern(unpooled));
+        assertNotSame(unpooled, interner.intern(LongPair.of(5, 6)));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    void tuples_compare_component_wise_with_nulls_last() {
+        List<Tuple> tuples = new ArrayList<>();
+        tuples.add(Tuple.of("b", 1));
+        tuples.add(Tuple.of(null, 0));
+        tuples.add(Tuple.of("a", 2));
+        tuples.add(Tuple.of("a", null));
+        tuples.add(Tuple.of("a", 1));
+        Collections.sort(tuples);
+        assertEquals("[(a,1), (a,2), (a,null), (b,1), (null,0)]", tuples.toString());
+        assertEquals(Tuple.of("a", 1).hashCode(), Tuple.of("a", 1).hashCode());
+    }
+}
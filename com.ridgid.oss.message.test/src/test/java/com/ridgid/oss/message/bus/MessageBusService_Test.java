@@ -1,11 +1,16 @@
 package com.ridgid.oss.message.bus;
 
+import com.ridgid.oss.message.bus.spi.MessageBus;
 import com.ridgid.oss.message.inmemory.bus.InMemoryMessageBus;
 import com.ridgid.oss.message.test.mock.MessageBusMock;
+import com.ridgid.oss.spi.SPIProvider;
+import com.ridgid.oss.spi.SPIServiceListener;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SuppressWarnings("LocalVariableOfConcreteClass")
@@ -61,4 +66,58 @@ class MessageBusService_Test
                    "Did not get the configured implementation");
         System.clearProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS);
     }
+
+    @Test
+    void it_keeps_the_default_provider_until_cleared() {
+        MessageBusService.instance().clearDefaultProvider();
+        System.clearProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS);
+        MessageBus firstProvider = MessageBusService.instance().defaultProvider();
+        System.setProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS, InMemoryMessageBus.class.getName());
+        assertSame(firstProvider,
+                   MessageBusService.instance().defaultProvider(),
+                   "Default provider changed without being cleared");
+        System.clearProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS);
+    }
+
+    @Test
+    void it_notifies_listeners_and_gives_new_provider_instances_on_reload() {
+        MessageBusService.instance().clearDefaultProvider();
+        System.clearProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS);
+        MessageBus                     firstProvider = MessageBusService.instance().defaultProvider();
+        AtomicInteger                  notified      = new AtomicInteger();
+        SPIServiceListener<MessageBus> listener      = service -> notified.incrementAndGet();
+        MessageBusService.instance().addListener(listener);
+        try {
+            MessageBusService.instance().reload();
+            assertEquals(1, notified.get(), "Listener not notified of reload");
+            assertNotSame(firstProvider,
+                          MessageBusService.instance().defaultProvider(),
+                          "Reload did not re-scan the providers");
+            assertSame(MessageBusService.instance().defaultProvider(),
+                       MessageBusService.instance()
+                                        .provider(MessageBusMock.class.getName())
+                                        .orElseThrow(AssertionError::new),
+                       "Default provider not the same instance as the named provider");
+        } finally {
+            MessageBusService.instance().removeListener(listener);
+        }
+    }
+
+    @Test
+    void it_does_not_instantiate_providers_until_they_are_used() {
+        System.clearProperty(COM_RIDGID_OSS_MESSAGE_BUS_SERVICE_CLASS);
+        MessageBusService.instance().reload();
+        MessageBusService.instance().discover();
+        assertTrue(MessageBusService.instance().streamProviderHandles().count() > 1,
+                   "Expected more than one MessageBus provider to be discovered");
+        assertTrue(MessageBusService.instance().streamProviderHandles().noneMatch(SPIProvider::isInstantiated),
+                   "Providers instantiated by discovery");
+        MessageBus defaultProvider = MessageBusService.instance().defaultProvider();
+        MessageBusService.instance()
+                         .streamProviderHandles()
+                         .forEach(handle -> assertEquals(handle.getClassName()
+                                                               .equals(defaultProvider.getClass().getName()),
+                                                         handle.isInstantiated(),
+                                                         "Only the default provider should be instantiated: " + handle));
+    }
 }
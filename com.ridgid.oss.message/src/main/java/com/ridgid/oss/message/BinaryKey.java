@@ -0,0 +1,282 @@
+package com.ridgid.oss.message;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * SerializableKey held in a canonical, compact binary form: the components of a (composite) key are encoded, in order,
+ * such that the unsigned lexicographic order of the encodings is the natural order of the components (integers by
+ * value, strings by code point, UUIDs by their most and then least significant bits, as unsigned), and a 64-bit hash of
+ * the encoding is computed once, on construction.
+ * <p>
+ * Unlike the default {@code SerializableKey.compareTo} (by hash code, then by toString), keys are compared on their
+ * binary form without allocating, and both the order and the hash are the same on every JVM; so, keys may be sorted,
+ * used to route messages, or partition topics, consistently across nodes. {@code writeTo} and {@code readFrom}
+ * transfer just the encoding (as a length-prefixed byte array).
+ * <pre>{@code
+ *     BinaryKey key = BinaryKey.builder().add(customerNumber).add(orderNumber).build();
+ * }</pre>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class BinaryKey implements SerializableKey<BinaryKey>
+{
+    private static final long serialVersionUID = 4183607452296751081L;
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private final     byte[] bytes;
+    private transient long   hash64;
+
+    /**
+     * Empty key (no components), as required of a SerializableKey
+     */
+    public BinaryKey() {
+        this(EMPTY_BYTES);
+    }
+
+    private BinaryKey(byte[] bytes) {
+        this.bytes  = bytes;
+        this.hash64 = hash64(bytes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static BinaryKey of(long value) {
+        return builder().add(value).build();
+    }
+
+    public static BinaryKey of(String value) {
+        return builder().add(value).build();
+    }
+
+    public static BinaryKey of(UUID value) {
+        return builder().add(value).build();
+    }
+
+    /**
+     * @param bytes canonical binary form of a key, as returned by toBytes
+     * @return the key
+     */
+    public static BinaryKey fromBytes(byte[] bytes) {
+        return new BinaryKey(bytes.clone());
+    }
+
+    /**
+     * @param in to read a key written by writeTo from
+     * @return the key
+     * @throws IOException if the key could not be read
+     */
+    public static BinaryKey readFrom(DataInput in)
+        throws IOException
+    {
+        int length = in.readInt();
+        if ( length < 0 ) throw new IOException("Invalid BinaryKey length: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new BinaryKey(bytes);
+    }
+
+    /**
+     * @param out to write the binary form of the key to
+     * @throws IOException if the key could not be written
+     */
+    public void writeTo(DataOutput out)
+        throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @return copy of the canonical binary form of the key
+     */
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * @return 64-bit hash of the binary form of the key, the same on every JVM
+     */
+    public long hash64() {
+        return hash64;
+    }
+
+    /**
+     * Orders keys by the unsigned lexicographic order of their binary forms, i.e., by the natural order of their
+     * components; a key that is a prefix of another is ordered first
+     *
+     * @throws NullPointerException if o is null
+     */
+    @Override
+    public int compareTo(BinaryKey o) {
+        if ( this == o ) return 0;
+        byte[] other  = o.bytes;
+        int    length = Math.min(bytes.length, other.length);
+        for ( int i = 0; i < length; i++ ) {
+            int order = (bytes[i] & 0xFF) - (other[i] & 0xFF);
+            if ( order != 0 ) return order;
+        }
+        return bytes.length - other.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof BinaryKey) ) return false;
+        BinaryKey key = (BinaryKey) o;
+        return hash64 == key.hash64 && Arrays.equals(bytes, key.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash64 ^ (hash64 >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(11 + bytes.length * 2).append("BinaryKey[");
+        for ( byte b : bytes ) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.append(']').toString();
+    }
+
+    private void readObject(ObjectInputStream in)
+        throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        if ( bytes == null ) throw new InvalidObjectException("BinaryKey without bytes");
+        hash64 = hash64(bytes);
+    }
+
+    /**
+     * 64-bit hash of the bytes, eight at a time (big-endian), with the MurmurHash3 finalizer
+     */
+    private static long hash64(byte[] bytes) {
+        long h = 0x9E3779B97F4A7C15L ^ bytes.length;
+        int  i = 0;
+        for ( ; i + 8 <= bytes.length; i += 8 ) {
+            long word = 0;
+            for ( int j = i; j < i + 8; j++ ) word = (word << 8) | (bytes[j] & 0xFF);
+            h = (h ^ mix(word)) * 0xC2B2AE3D27D4EB4FL;
+        }
+        if ( i < bytes.length ) {
+            long word = 0;
+            for ( ; i < bytes.length; i++ ) word = (word << 8) | (bytes[i] & 0xFF);
+            h = (h ^ mix(word)) * 0xC2B2AE3D27D4EB4FL;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Builds a key from its components, in order; keys are only comparable (meaningfully) with keys built from
+     * components of the same types, in the same order
+     */
+    public static final class Builder
+    {
+        private byte[] buffer = new byte[32];
+        private int    size;
+
+        private Builder() {
+        }
+
+        public Builder add(boolean value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) (value ? 1 : 0);
+            return this;
+        }
+
+        /**
+         * Big-endian, with the sign bit flipped (so that negative values are ordered first)
+         */
+        public Builder add(int value) {
+            ensureCapacity(4);
+            putInt(value ^ Integer.MIN_VALUE);
+            return this;
+        }
+
+        /**
+         * Big-endian, with the sign bit flipped (so that negative values are ordered first)
+         */
+        public Builder add(long value) {
+            ensureCapacity(8);
+            putLong(value ^ Long.MIN_VALUE);
+            return this;
+        }
+
+        public Builder add(UUID value) {
+            Objects.requireNonNull(value, "value");
+            ensureCapacity(16);
+            putLong(value.getMostSignificantBits());
+            putLong(value.getLeastSignificantBits());
+            return this;
+        }
+
+        /**
+         * UTF-8, with each 0x00 byte escaped as 0x00 0xFF and terminated by 0x00 0x00; so, a string is ordered before
+         * any longer string it is a prefix of, whatever the components that follow
+         */
+        public Builder add(String value) {
+            return addTerminated(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Escaped and terminated as strings are
+         */
+        public Builder add(byte[] value) {
+            return addTerminated(value);
+        }
+
+        public Builder add(Enum<?> value) {
+            return add(value.ordinal());
+        }
+
+        public BinaryKey build() {
+            return new BinaryKey(Arrays.copyOf(buffer, size));
+        }
+
+        private Builder addTerminated(byte[] value) {
+            ensureCapacity(value.length * 2 + 2);
+            for ( byte b : value ) {
+                buffer[size++] = b;
+                if ( b == 0 ) buffer[size++] = (byte) 0xFF;
+            }
+            buffer[size++] = 0;
+            buffer[size++] = 0;
+            return this;
+        }
+
+        private void putInt(int value) {
+            for ( int shift = 24; shift >= 0; shift -= 8 ) buffer[size++] = (byte) (value >>> shift);
+        }
+
+        private void putLong(long value) {
+            for ( int shift = 56; shift >= 0; shift -= 8 ) buffer[size++] = (byte) (value >>> shift);
+        }
+
+        private void ensureCapacity(int additional) {
+            if ( size + additional > buffer.length )
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
@@ -11,6 +11,9 @@ import java.io.Serializable;
  * <p>
  * Also, the implementation should override {@code compareTo(T o)} if specific ordering is needed, but, the default
  * implementation provided by this interface is acceptable for anything that relies on this interface.
+ * <p>
+ * The default ordering compares toString() values when hash codes collide, and is only stable within a JVM; keys that
+ * are sorted or compared often, or whose order must agree across nodes, should be (or wrap) a {@code BinaryKey}.
  * *
  *
  * @param <T> Type that is implementing SerializableKey
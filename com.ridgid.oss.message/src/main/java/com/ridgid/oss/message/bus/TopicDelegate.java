@@ -1,9 +1,11 @@
 package com.ridgid.oss.message.bus;
 
+import com.ridgid.oss.message.bus.spi.MessageBus;
 import com.ridgid.oss.message.bus.spi.MessageBus.MessageBusException;
 import com.ridgid.oss.message.bus.spi.TopicReceiver;
 import com.ridgid.oss.message.bus.spi.TopicSender;
 import com.ridgid.oss.message.bus.spi.TopicSender.TopicSenderException;
+import com.ridgid.oss.spi.SPIServiceListener;
 
 import java.io.Serializable;
 import java.util.Optional;
@@ -12,6 +14,9 @@ import java.util.stream.Stream;
 
 /**
  * Delegagte for {@code TopicEnum} enumerations.
+ * <p>
+ * Once bound to a MessageBus, the delegate resets itself whenever the {@code MessageBusService} providers are
+ * reloaded, so that the next send or listen re-binds to the current default provider.
  *
  * @param <TE> Enumeration Type of the topic
  * @param <TG> Enumeration Type of the topic group
@@ -27,6 +32,8 @@ public class TopicDelegate<TE extends Enum<TE> & TopicEnum<TE>, TG extends Enum<
     private static final Object globalResetLock = new Object();
     @SuppressWarnings("NonSerializableFieldInSerializableClass")
     private final        Object resetLock       = new Object();
+    @SuppressWarnings("NonSerializableFieldInSerializableClass")
+    private final        SPIServiceListener<MessageBus> rebindListener = service -> resetMessageBus();
 
     private final TE                  topic;
     private final TG                  group;
@@ -37,6 +44,7 @@ public class TopicDelegate<TE extends Enum<TE> & TopicEnum<TE>, TG extends Enum<
 
     private TopicReceiver<TE> receiver;
     private TopicSender<TE>   sender;
+    private boolean           rebindOnReload;
 
     /**
      * Construct a {@code TopicEnum<TE,TG>} delegate
@@ -202,9 +210,7 @@ public class TopicDelegate<TE extends Enum<TE> & TopicEnum<TE>, TG extends Enum<
     {
         TopicSender<TE> currentSender;
         synchronized ( resetLock ) {
-            if ( sender == null ) sender = MessageBusService.instance()
-                                                            .defaultProvider()
-                                                            .create(topic);
+            if ( sender == null ) sender = currentMessageBus().create(topic);
             currentSender = sender;
         }
         return currentSender;
@@ -215,20 +221,33 @@ public class TopicDelegate<TE extends Enum<TE> & TopicEnum<TE>, TG extends Enum<
     {
         TopicReceiver<TE> currentReceiver;
         synchronized ( resetLock ) {
-            if ( receiver == null ) receiver = MessageBusService.instance()
-                                                                .defaultProvider()
-                                                                .subscribe(topic);
+            if ( receiver == null ) receiver = currentMessageBus().subscribe(topic);
             currentReceiver = receiver;
         }
         return currentReceiver;
     }
 
+    private MessageBus currentMessageBus() {
+        MessageBusService service = MessageBusService.instance();
+        if ( !rebindOnReload ) {
+            service.addListener(rebindListener);
+            rebindOnReload = true;
+        }
+        return service.defaultProvider();
+    }
+
     private static void close(AutoCloseable closeable) {
         if ( closeable != null ) try {closeable.close();} catch ( Exception ignore ) {}
     }
 
     @Override
     public void close() {
+        synchronized ( resetLock ) {
+            if ( rebindOnReload ) {
+                MessageBusService.instance().removeListener(rebindListener);
+                rebindOnReload = false;
+            }
+        }
         resetMessageBus();
     }
 
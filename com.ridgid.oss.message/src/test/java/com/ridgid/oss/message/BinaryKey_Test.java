@@ -0,0 +1,173 @@
+package com.ridgid.oss.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryKey_Test
+{
+
+    private static <V> void assertOrderedAsNaturally(List<V> values,
+                                                     Comparator<? super V> naturalOrder,
+                                                     Function<V, BinaryKey> toKey)
+    {
+        List<V> expected = new ArrayList<>(values);
+        expected.sort(naturalOrder);
+        List<V> actual = new ArrayList<>(values);
+        actual.sort(Comparator.comparing(toKey));
+        assertEquals(expected, actual);
+        for ( V a : values )
+            for ( V b : values )
+                assertEquals(Integer.signum(naturalOrder.compare(a, b)),
+                             Integer.signum(toKey.apply(a).compareTo(toKey.apply(b))),
+                             a + " vs " + b);
+    }
+
+    @Test
+    void longs_including_negative_numbers_are_ordered_by_value() {
+        assertOrderedAsNaturally(Arrays.asList(0L, -1L, 1L, Long.MIN_VALUE, Long.MAX_VALUE, -256L, 255L, 256L),
+                                 Comparator.naturalOrder(),
+                                 BinaryKey::of);
+    }
+
+    @Test
+    void ints_including_negative_numbers_are_ordered_by_value() {
+        assertOrderedAsNaturally(Arrays.asList(0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, -256, 255, 256),
+                                 Comparator.naturalOrder(),
+                                 value -> BinaryKey.builder().add(value).build());
+    }
+
+    @Test
+    void strings_including_escaped_nul_characters_are_ordered_by_code_point() {
+        assertOrderedAsNaturally(Arrays.asList("", "\0", "\0\0", "\u0001", "a", "a\0", "a\0b", "a\u0001", "ab", "b",
+                                               "\u00E9", "\u0800"),
+                                 Comparator.naturalOrder(),
+                                 BinaryKey::of);
+    }
+
+    @Test
+    void byte_arrays_including_escaped_zero_bytes_are_ordered_lexicographically_as_unsigned() {
+        List<byte[]> values = Arrays.asList(new byte[0],
+                                            new byte[]{0},
+                                            new byte[]{0, 0},
+                                            new byte[]{0, 1},
+                                            new byte[]{1},
+                                            new byte[]{(byte) 0xFF},
+                                            new byte[]{(byte) 0xFF, 0});
+        Comparator<byte[]> unsigned = (a, b) -> {
+            for ( int i = 0; i < Math.min(a.length, b.length); i++ )
+                if ( a[i] != b[i] ) return (a[i] & 0xFF) - (b[i] & 0xFF);
+            return a.length - b.length;
+        };
+        assertOrderedAsNaturally(values, unsigned, value -> BinaryKey.builder().add(value).build());
+    }
+
+    @Test
+    void a_string_component_is_ordered_before_the_longer_strings_it_is_a_prefix_of_whatever_follows_it() {
+        List<List<Object>> values = Arrays.asList(Arrays.asList("a", Long.MAX_VALUE),
+                                                  Arrays.asList("a\0", Long.MIN_VALUE),
+                                                  Arrays.asList("ab", Long.MIN_VALUE),
+                                                  Arrays.asList("a", -1L),
+                                                  Arrays.asList("", 7L));
+        Comparator<List<Object>> natural = Comparator.<List<Object>, String>comparing(value -> (String) value.get(0))
+                                                     .thenComparing(value -> (Long) value.get(1));
+        assertOrderedAsNaturally(values,
+                                 natural,
+                                 value -> BinaryKey.builder()
+                                                   .add((String) value.get(0))
+                                                   .add((long) (Long) value.get(1))
+                                                   .build());
+    }
+
+    @Test
+    void a_key_that_is_a_prefix_of_another_is_ordered_first() {
+        BinaryKey prefix = BinaryKey.of(1L);
+        BinaryKey longer = BinaryKey.builder().add(1L).add(Long.MIN_VALUE).build();
+        assertTrue(new BinaryKey().compareTo(prefix) < 0);
+        assertTrue(prefix.compareTo(longer) < 0);
+        assertTrue(longer.compareTo(prefix) > 0);
+        assertEquals(0, prefix.compareTo(BinaryKey.of(1L)));
+    }
+
+    @Test
+    void compareTo_null_throws_a_NullPointerException() {
+        assertThrows(NullPointerException.class, () -> BinaryKey.of(1L).compareTo(null));
+    }
+
+    @Test
+    void equal_keys_have_equal_hashes() {
+        UUID uuid = UUID.randomUUID();
+        BinaryKey a = BinaryKey.builder().add("customer").add(42L).add(uuid).add(true).build();
+        BinaryKey b = BinaryKey.builder().add("customer").add(42L).add(uuid).add(true).build();
+        BinaryKey c = BinaryKey.fromBytes(a.toBytes());
+        for ( BinaryKey other : Arrays.asList(b, c) ) {
+            assertEquals(a, other);
+            assertEquals(a.hashCode(), other.hashCode());
+            assertEquals(a.hash64(), other.hash64());
+            assertEquals(0, a.compareTo(other));
+        }
+        assertNotEquals(a, BinaryKey.builder().add("customer").add(43L).add(uuid).add(true).build());
+        assertEquals(new BinaryKey(), BinaryKey.fromBytes(new byte[0]));
+    }
+
+    @Test
+    void it_round_trips_through_java_serialization() throws IOException, ClassNotFoundException {
+        BinaryKey key = BinaryKey.builder().add("a\0b").add(-5L).add(UUID.randomUUID()).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream(bytes) ) {
+            out.writeObject(key);
+        }
+        BinaryKey read;
+        try ( ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) ) {
+            read = (BinaryKey) in.readObject();
+        }
+        assertEquals(key, read);
+        assertEquals(key.hash64(), read.hash64());
+        assertEquals(key.hashCode(), read.hashCode());
+        assertEquals(0, key.compareTo(read));
+    }
+
+    @Test
+    void it_round_trips_through_writeTo_and_readFrom() throws IOException {
+        List<BinaryKey> keys = Arrays.asList(new BinaryKey(),
+                                             BinaryKey.of("x"),
+                                             BinaryKey.builder().add(1).add("y").add(new byte[]{0, 0}).build());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream(bytes) ) {
+            for ( BinaryKey key : keys ) key.writeTo(out);
+        }
+        List<BinaryKey> read = new ArrayList<>();
+        try ( DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())) ) {
+            for ( int i = 0; i < keys.size(); i++ ) read.add(BinaryKey.readFrom(in));
+            assertEquals(-1, in.read());
+        }
+        assertEquals(keys, read);
+        assertEquals(keys.stream().map(BinaryKey::hash64).collect(toList()),
+                     read.stream().map(BinaryKey::hash64).collect(toList()));
+    }
+
+    @Test
+    void readFrom_rejects_a_negative_length() {
+        byte[] negativeLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        assertThrows(IOException.class,
+                     () -> BinaryKey.readFrom(new DataInputStream(new ByteArrayInputStream(negativeLength))));
+    }
+}
@@ -1,12 +1,16 @@
 package com.ridgid.oss.orm.jpa.test;
 
+import com.ridgid.oss.common.function.PredicateExpression;
+import com.ridgid.oss.common.function.PredicateExpression.ObjectProperty;
 import com.ridgid.oss.common.helper.EqualityHelpers;
+import com.ridgid.oss.common.helper.FieldPath;
 import com.ridgid.oss.common.helper.FieldReflectionHelpers;
 import com.ridgid.oss.common.helper.PrimaryKeyAutoGenerationType;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.jpa.JPAEntityCRUDDelegateRequired;
 import com.ridgid.oss.orm.jpa.helper.JPAEntityHelpers;
 import com.ridgid.oss.orm.jpa.helper.JPAFieldPopulationHelpers;
+import com.ridgid.oss.orm.jpa.helper.JPANativeBulkWriter;
 import com.ridgid.oss.orm.jpa.helper.JPANativeQueryHelpers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,6 +49,8 @@ public abstract class JPADAO_TestBase<DAO extends JPAEntityCRUDDelegateRequired<
 
     private final Map<Class<?>, List<PrimaryKeyedEntity<?>>> TEST_DATA_MAP = new ConcurrentHashMap<>();
 
+    private static final Map<List<Object>, JPANativeBulkWriter<?>> NATIVE_BULK_WRITERS = new ConcurrentHashMap<>();
+
     private final DAO dao;
     private final int numberOfTestRecords;
     private final Class<ET> entityClass;
@@ -515,6 +521,83 @@ public abstract class JPADAO_TestBase<DAO extends JPAEntityCRUDDelegateRequired<
         return (List<T2>) TEST_DATA_MAP.get(entityClass);
     }
 
+    /**
+     * @param sample entity whose field value is matched
+     * @return expression matching the entities whose value of a field equals that of the sample; the field is the first
+     * entity field holding a (non-null) String, Integer, Long, Short, Byte, Boolean or Enum value in the sample. Empty if
+     * there is no such field
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected final Optional<PredicateExpression<ET>> createFieldEqualityExpressionFrom(ET sample) {
+        return findExpressionFieldNameFor(sample).map(fieldName -> {
+            FieldPath path = FieldPath.of(fieldName);
+            ObjectProperty property = PredicateExpression.property(fieldName, entity -> (Comparable) path.get(entity));
+            return property.isEqualTo((Comparable) path.get(sample));
+        });
+    }
+
+    /**
+     * @param sample entity whose field value is compared
+     * @param other  entity whose value of the same field is compared as well
+     * @return expressions using each comparison operator, junction, negation and constant on the field of
+     * {@link #createFieldEqualityExpressionFrom(PrimaryKeyedEntity)}, compared to the values of both entities; the ordering
+     * comparisons are left out for Boolean and Enum fields, whose order in the database depends on their mapping. Empty if
+     * there is no such field
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected final List<PredicateExpression<ET>> createFieldExpressionsFrom(ET sample,
+                                                                            ET other) {
+        Optional<String> fieldName = findExpressionFieldNameFor(sample);
+        if (!fieldName.isPresent())
+            return Collections.emptyList();
+        FieldPath path = FieldPath.of(fieldName.get());
+        ObjectProperty property = PredicateExpression.property(fieldName.get(), entity -> (Comparable) path.get(entity));
+        Comparable value = (Comparable) path.get(sample);
+        Comparable otherValue = Optional.ofNullable((Comparable) path.get(other)).orElse(value);
+        List<PredicateExpression<ET>> expressions = new ArrayList<>(Arrays.<PredicateExpression<ET>>asList(
+                property.isEqualTo(value),
+                property.isNotEqualTo(value),
+                property.isIn(value, otherValue),
+                property.isNull(),
+                property.isNotNull(),
+                PredicateExpression.not(property.isEqualTo(value)),
+                PredicateExpression.not(PredicateExpression.not(property.isEqualTo(value))),
+                PredicateExpression.allOf(property.isEqualTo(value), property.isNotNull()),
+                PredicateExpression.anyOf(property.isNull(), property.isEqualTo(value), property.isEqualTo(otherValue)),
+                PredicateExpression.not(PredicateExpression.anyOf(property.isEqualTo(value), property.isEqualTo(otherValue))),
+                PredicateExpression.allOf(property.isNotNull(), PredicateExpression.never()),
+                PredicateExpression.always(),
+                PredicateExpression.never()));
+        if (value instanceof Boolean || value instanceof Enum)
+            return expressions;
+        Comparable lower = value.compareTo(otherValue) <= 0 ? value : otherValue;
+        Comparable upper = lower == value ? otherValue : value;
+        expressions.addAll(Arrays.<PredicateExpression<ET>>asList(
+                property.isLessThan(value),
+                property.isLessThanOrEqualTo(value),
+                property.isGreaterThan(value),
+                property.isGreaterThanOrEqualTo(value),
+                property.isBetween(lower, upper),
+                PredicateExpression.not(property.isBetween(lower, upper)),
+                PredicateExpression.allOf(property.isGreaterThan(lower), property.isLessThanOrEqualTo(upper))));
+        return expressions;
+    }
+
+    private Optional<String> findExpressionFieldNameFor(ET sample) {
+        for (String fieldName : getEntityFieldNames()) {
+            Object value = FieldPath.of(fieldName).get(sample);
+            if (value instanceof String
+                    || value instanceof Integer
+                    || value instanceof Long
+                    || value instanceof Short
+                    || value instanceof Byte
+                    || value instanceof Boolean
+                    || value instanceof Enum)
+                return Optional.of(fieldName);
+        }
+        return Optional.empty();
+    }
+
     /**
      * @param numRecsToGenerate
      * @param generatorFunction
@@ -762,40 +845,11 @@ public abstract class JPADAO_TestBase<DAO extends JPAEntityCRUDDelegateRequired<
                                 additionalColumnNames)
                 );
 
-        switch (primaryKeyAutoGenerationType) {
-            case GUID:
-            case SEQUENCE:
-                Field f = FieldReflectionHelpers.getFieldOrThrowRuntimeException(entity.getClass(), primaryKeyFieldNames.get(0));
-                switch (primaryKeyAutoGenerationType) {
-                    case GUID:
-                        FieldReflectionHelpers.setFieldValueOrThrowException(entity, f, UUID.randomUUID());
-                        break;
-                    case SEQUENCE:
-                        FieldReflectionHelpers.setFieldValueOrThrowException(entity, f, syntheticSequence++);
-                        break;
-                }
-                break;
-            case IDENTITY:
-                throw new IllegalArgumentException("IDENTITY auto-generated primary key not supported by the test framework at this time");
-        }
+        assignAutoGeneratedPrimaryKey(entity, primaryKeyFieldNames);
 
         JPANativeQueryHelpers.setInsertQueryColumnValues(
                 query,
-                (
-                        primaryKeyFieldNames.size() == 1
-                                &&
-                                (
-                                        Byte.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || Short.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || Integer.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || Long.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || BigInteger.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || String.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || LocalDateTime.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || LocalDate.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                                || LocalTime.class.isAssignableFrom(getEntityPrimaryKeyClass())
-                                )
-                )
+                isPrimaryKeyFieldOfEntity(primaryKeyFieldNames)
                         ? entity
                         : entity.getPk(),
                 0,
@@ -815,6 +869,155 @@ public abstract class JPADAO_TestBase<DAO extends JPAEntityCRUDDelegateRequired<
         return query;
     }
 
+    /**
+     * Inserts the entities through multi-row native insert statements (rather than one statement per entity, as with
+     * createNativeInsertQueryFrom)
+     *
+     * @param schemaName
+     * @param tableName
+     * @param primaryKeyColumnAndFieldNames
+     * @param entityColumnAndFieldNames
+     * @param entities
+     * @param <T2>
+     * @param <PKT2>
+     * @return number of records inserted
+     */
+    public final <T2 extends PrimaryKeyedEntity<PKT2>, PKT2 extends Comparable<PKT2>>
+    int insertNativelyInBulk(String schemaName,
+                             String tableName,
+                             List<String> primaryKeyColumnAndFieldNames,
+                             List<String> entityColumnAndFieldNames,
+                             List<T2> entities) {
+        if (entities.isEmpty())
+            return 0;
+        JPANativeBulkWriter<T2> writer
+                = nativeBulkWriterFor(schemaName, tableName, primaryKeyColumnAndFieldNames, entityColumnAndFieldNames, entities);
+        List<String> primaryKeyFieldNames = new ArrayList<>();
+        JPAEntityHelpers.separateColumnAndFieldNames(primaryKeyColumnAndFieldNames, new ArrayList<>(), primaryKeyFieldNames);
+        entities.forEach(entity -> assignAutoGeneratedPrimaryKey(entity, primaryKeyFieldNames));
+        return writer.insert(entityManager, entities);
+    }
+
+    /**
+     * Inserts the entities, or updates the rows that already exist with the same primary keys, through multi-row native
+     * upsert statements; unlike insertNativelyInBulk, the primary keys of the entities are kept as they are
+     *
+     * @param schemaName
+     * @param tableName
+     * @param primaryKeyColumnAndFieldNames
+     * @param entityColumnAndFieldNames
+     * @param entities
+     * @param <T2>
+     * @param <PKT2>
+     * @return number of records inserted or updated
+     */
+    public final <T2 extends PrimaryKeyedEntity<PKT2>, PKT2 extends Comparable<PKT2>>
+    int upsertNativelyInBulk(String schemaName,
+                             String tableName,
+                             List<String> primaryKeyColumnAndFieldNames,
+                             List<String> entityColumnAndFieldNames,
+                             List<T2> entities) {
+        if (entities.isEmpty())
+            return 0;
+        return nativeBulkWriterFor(schemaName, tableName, primaryKeyColumnAndFieldNames, entityColumnAndFieldNames, entities)
+                .upsert(entityManager, entities);
+    }
+
+    /**
+     * @return the bulk writer of the entity type of the entities into the table, built on first use and then reused by
+     * every test (JUnit creates a test instance per test), so that the statements it generates for each row count are
+     * reused too
+     */
+    @SuppressWarnings("unchecked")
+    private <T2 extends PrimaryKeyedEntity<PKT2>, PKT2 extends Comparable<PKT2>>
+    JPANativeBulkWriter<T2> nativeBulkWriterFor(String schemaName,
+                                                String tableName,
+                                                List<String> primaryKeyColumnAndFieldNames,
+                                                List<String> entityColumnAndFieldNames,
+                                                List<T2> entities) {
+        List<Object> key = Arrays.asList(entities.get(0).getClass(),
+                schemaName,
+                tableName,
+                primaryKeyColumnAndFieldNames,
+                entityColumnAndFieldNames);
+        return (JPANativeBulkWriter<T2>) NATIVE_BULK_WRITERS.computeIfAbsent(key,
+                k -> createNativeBulkWriterFor(schemaName,
+                        tableName,
+                        primaryKeyColumnAndFieldNames,
+                        entityColumnAndFieldNames,
+                        entities));
+    }
+
+    private <T2 extends PrimaryKeyedEntity<PKT2>, PKT2 extends Comparable<PKT2>>
+    JPANativeBulkWriter<T2> createNativeBulkWriterFor(String schemaName,
+                                                      String tableName,
+                                                      List<String> primaryKeyColumnAndFieldNames,
+                                                      List<String> entityColumnAndFieldNames,
+                                                      List<T2> entities) {
+        List<String> primaryKeyColumnNames = new ArrayList<>();
+        List<String> primaryKeyFieldNames = new ArrayList<>();
+        JPAEntityHelpers.separateColumnAndFieldNames(primaryKeyColumnAndFieldNames, primaryKeyColumnNames, primaryKeyFieldNames);
+
+        List<String> entityColumnNames = new ArrayList<>();
+        List<String> entityFieldNames = new ArrayList<>();
+        JPAEntityHelpers.separateColumnAndFieldNames(entityColumnAndFieldNames, entityColumnNames, entityFieldNames);
+
+        List<String> additionalColumnNames = new ArrayList<>();
+        List<Function<Object, Object>> additonalColumnGetters = new ArrayList<>();
+        JPANativeQueryHelpers.determineEmbeddedAdditionalRequiredFields(entities.get(0).getClass(), additionalColumnNames, additonalColumnGetters);
+
+        //noinspection unchecked
+        JPANativeBulkWriter.Builder<T2> builder
+                = JPANativeBulkWriter.builder((Class<T2>) entities.get(0).getClass(), tableName)
+                .schema(schemaName)
+                .dialect(JPANativeBulkWriter.Dialect.H2)
+                .keyColumns(primaryKeyColumnNames);
+        if (isPrimaryKeyFieldOfEntity(primaryKeyFieldNames))
+            builder.columns(primaryKeyColumnNames, primaryKeyFieldNames);
+        else
+            builder.columns(primaryKeyColumnNames, primaryKeyFieldNames, PrimaryKeyedEntity::getPk);
+        builder.columns(entityColumnNames, entityFieldNames);
+        for (int i = 0; i < additionalColumnNames.size(); i++)
+            builder.column(additionalColumnNames.get(i), additonalColumnGetters.get(i));
+        return builder.build();
+    }
+
+    private void assignAutoGeneratedPrimaryKey(Object entity,
+                                               List<String> primaryKeyFieldNames) {
+        switch (primaryKeyAutoGenerationType) {
+            case GUID:
+            case SEQUENCE:
+                Field f = FieldReflectionHelpers.getFieldOrThrowRuntimeException(entity.getClass(), primaryKeyFieldNames.get(0));
+                switch (primaryKeyAutoGenerationType) {
+                    case GUID:
+                        FieldReflectionHelpers.setFieldValueOrThrowException(entity, f, UUID.randomUUID());
+                        break;
+                    case SEQUENCE:
+                        FieldReflectionHelpers.setFieldValueOrThrowException(entity, f, syntheticSequence++);
+                        break;
+                }
+                break;
+            case IDENTITY:
+                throw new IllegalArgumentException("IDENTITY auto-generated primary key not supported by the test framework at this time");
+        }
+    }
+
+    private boolean isPrimaryKeyFieldOfEntity(List<String> primaryKeyFieldNames) {
+        return primaryKeyFieldNames.size() == 1
+                &&
+                (
+                        Byte.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || Short.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || Integer.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || Long.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || BigInteger.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || String.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || LocalDateTime.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || LocalDate.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                                || LocalTime.class.isAssignableFrom(getEntityPrimaryKeyClass())
+                );
+    }
+
     public final <T2 extends PrimaryKeyedEntity<PKT2>, PKT2 extends Comparable<PKT2>>
     Query createNativeDeleteQueryFrom(String tableName) {
         return createNativeDeleteQueryFrom(null, tableName);
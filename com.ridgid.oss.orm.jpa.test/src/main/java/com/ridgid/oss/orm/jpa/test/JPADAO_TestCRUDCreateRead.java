@@ -13,6 +13,7 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SuppressWarnings({"JavaDoc", "unused"})
 @ExtendWith(SpringExtension.class)
@@ -152,6 +153,34 @@ public abstract class JPADAO_TestCRUDCreateRead<DAO extends JPAEntityCRUDCreateR
         addRecordsOneAtATimeThroughAddMethodAndThenReadBackAndVerify(true);
     }
 
+    @Test
+    void when_findAll_is_called_after_addAll_it_retrieves_all_added_records_from_the_db() {
+        createNativeDeleteQueryFrom
+                (
+                        getSchemaName(),
+                        getTableName()
+                )
+                .executeUpdate();
+        assertEquals(0, getDao().findAll(0, 10).size(), "Should be 0 records found");
+        List<ET> records = generateTestEntities();
+        int recordNumber = 0;
+        for (ET rec : records) {
+            foreignKeysUpdater(recordNumber, rec);
+            storeSetupRecord(rec);
+            recordNumber++;
+        }
+        long added = assertDoesNotThrow(() -> getDao().addAll(records.stream(), 3, false));
+        assertEquals(records.size(), added, "Should have added all records");
+        findAndCompareAllWithoutSetup(false);
+    }
+
+    @Test
+    void when_addAll_is_called_with_a_batch_size_that_is_not_positive_it_throws_an_IllegalArgumentException() {
+        List<ET> records = generateTestEntities();
+        assertThrows(IllegalArgumentException.class, () -> getDao().addAll(records.stream(), 0, false));
+        assertThrows(IllegalArgumentException.class, () -> getDao().addAll(records.stream(), -1, false));
+    }
+
     private void addRecordsOneAtATimeThroughAddMethodAndThenReadBackAndVerify(boolean validateChildCollections) {
         createNativeDeleteQueryFrom
                 (
@@ -1,6 +1,9 @@
 package com.ridgid.oss.orm.jpa.test;
 
+import com.ridgid.oss.common.cache.InMemoryUnmanagedCache;
+import com.ridgid.oss.common.helper.FieldPath;
 import com.ridgid.oss.common.helper.PrimaryKeyAutoGenerationType;
+import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.jpa.JPAEntityCRUDCreateReadUpdate;
 import com.ridgid.oss.orm.jpa.helper.JPAFieldModificationHelpers;
@@ -9,9 +12,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.PersistenceUnitUtil;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SuppressWarnings({"JavaDoc", "unused"})
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -162,6 +175,99 @@ public abstract class JPADAO_TestCRUDCreateReadUpdate<DAO extends JPAEntityCRUDC
         findAndCompareAllWithoutSetup(false);
     }
 
+    @Test
+    void when_updateAll_is_called_on_all_existing_records_to_update_some_fields_the_records_read_back_reflect_the_changes() {
+        setupTestEntities();
+        for (ET rec : getAllEntitiesFromTestSet(getEntityClass()))
+            JPAFieldModificationHelpers.modifyFields
+                    (
+                            rec,
+                            getEntityFieldNames(),
+                            getForeignKeyFieldNames()
+                    );
+        List<ET> records = getDao().findAll(0, Integer.MAX_VALUE);
+        for (ET rec : records)
+            JPAFieldModificationHelpers.modifyFields
+                    (
+                            rec,
+                            getEntityFieldNames(),
+                            getForeignKeyFieldNames()
+                    );
+        long updated = assertDoesNotThrow(() -> getDao().updateAll(records.stream(), 3));
+        assertEquals(records.size(), updated, "All existing records should be updated");
+        getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        findAndCompareAllWithoutSetup(false);
+    }
+
+    @Test
+    void when_updateAll_is_called_with_a_batch_size_that_is_not_positive_it_throws_an_IllegalArgumentException() {
+        List<ET> records = generateTestEntities();
+        assertThrows(IllegalArgumentException.class, () -> getDao().updateAll(records.stream(), 0));
+        assertThrows(IllegalArgumentException.class, () -> getDao().updateAll(records.stream(), -1));
+    }
+
+    @Test
+    void when_an_entity_cache_is_set_find_returns_copies_of_the_cached_snapshot_until_the_entity_is_updated() {
+        setupTestEntities();
+        getEntityManager().flush();
+        getEntityManager().clear();
+        PKT pk = getEntityFromTestSet(getEntityClass(), 0).getPk();
+        getDao().setEntityCache(new InMemoryUnmanagedCache<>((short) 16));
+        try {
+            ET cached = getDao().find(pk);
+            assertFalse(getEntityManager().contains(cached), "Find should return a detached snapshot");
+            ET copy = getDao().find(pk);
+            assertNotSame(cached, copy, "Each find should return its own copy of the cached snapshot");
+            assertEquals(pk, copy.getPk());
+            JPAFieldModificationHelpers.modifyFields
+                    (
+                            cached,
+                            getEntityFieldNames(),
+                            getForeignKeyFieldNames()
+                    );
+            getDao().update(cached);
+            getEntityManager().flush();
+            getEntityManager().clear();
+            validateExpectedAndActualEntitiesAreAllEqual(Collections.singletonList(getDao().find(pk)),
+                    Collections.singletonList(cached),
+                    false);
+        } finally {
+            getDao().setEntityCache(null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void when_an_entity_cache_is_set_find_with_another_hierarchy_does_not_return_the_snapshot_of_the_first() {
+        if (getChildCollectionFieldNames().size() == 0)
+            return; // Test auto-succeeds if there are no designated child collections to test
+        setupTestEntities();
+        getEntityManager().flush();
+        getEntityManager().clear();
+        PKT pk = getEntityFromTestSet(getEntityClass(), 0).getPk();
+        HierarchyProcessor.HierarchyProcessorBuilder<ET> builder = HierarchyProcessor.from(getEntityClass());
+        for (String fieldName : getChildCollectionFieldNames()) {
+            FieldPath path = FieldPath.of(fieldName);
+            builder.includeCollection(entity -> (Iterable<Object>) path.get(entity));
+        }
+        HierarchyProcessor<ET> hierarchy = builder.buildProcessor();
+        PersistenceUnitUtil util = getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        getDao().setEntityCache(new InMemoryUnmanagedCache<>((short) 16));
+        try {
+            getDao().find(pk);
+            getEntityManager().clear();
+            ET deeper = getDao().find(pk, hierarchy);
+            getEntityManager().clear();
+            ET again = getDao().find(pk, hierarchy);
+            for (ET entity : Arrays.asList(deeper, again))
+                for (String fieldName : getChildCollectionFieldNames())
+                    assertTrue(util.isLoaded(entity, fieldName),
+                            "Child collection " + fieldName + " not initialized for " + entity.getPk());
+        } finally {
+            getDao().setEntityCache(null);
+        }
+    }
+
     @Test
     void when_update_is_called_on_all_existing_records_to_modify_collections_and_then_read_back_the_collections_reflect_the_changes() {
         setupTestEntities();
@@ -1,7 +1,9 @@
 package com.ridgid.oss.orm.jpa.test;
 
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.helper.CollectionHelpers;
 import com.ridgid.oss.common.helper.PrimaryKeyAutoGenerationType;
+import com.ridgid.oss.orm.EntityCRUDDelete;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.jpa.JPAEntityCRUDCreateReadUpdateDelete;
 import org.junit.jupiter.api.Test;
@@ -11,10 +13,14 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static java.util.Comparator.comparing;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -117,6 +123,43 @@ public abstract class JPADAO_TestCRUDCreateReadUpdateDelete<DAO extends JPAEntit
         assertEquals(expected, actual, "After all records removed there should be zero records");
     }
 
+    @Test
+    void when_deleteAll_is_called_on_all_records_and_then_all_are_retrieved_the_count_is_zero() {
+        setupTestEntities();
+        List<PKT> pks = getDao().findAll(0, Integer.MAX_VALUE)
+                .stream()
+                .map(ET::getPk)
+                .collect(Collectors.toList());
+        long deleted = assertDoesNotThrow(() -> getDao().deleteAll(pks.stream(), 3));
+        assertEquals(pks.size(), deleted, "All records should be deleted");
+        int actual = getDao().findAll(0, Integer.MAX_VALUE).size();
+        int expected = 0;
+        assertEquals(expected, actual, "After all records removed there should be zero records");
+    }
+
+    @Test
+    void when_deleteAll_is_called_with_a_batch_size_that_is_not_positive_it_throws_an_IllegalArgumentException() {
+        List<PKT> pks = generateTestEntities().stream().map(ET::getPk).collect(Collectors.toList());
+        assertThrows(IllegalArgumentException.class, () -> getDao().deleteAll(pks.stream(), 0));
+        assertThrows(IllegalArgumentException.class, () -> getDao().deleteAll(pks.stream(), -1));
+    }
+
+    @Test
+    void when_deleteWhere_is_called_it_deletes_exactly_the_records_matching_the_expression() {
+        setupTestEntities();
+        List<ET> all = getAllEntitiesFromTestSet(getEntityClass());
+        Optional<PredicateExpression<ET>> where = createFieldEqualityExpressionFrom(all.get(0));
+        if (!where.isPresent())
+            return; // Test auto-succeeds if the entity has no field suited to an equality expression
+        Predicate<ET> matches = where.get().compile();
+        List<PKT> expected = all.stream().filter(matches.negate()).map(ET::getPk).sorted().collect(Collectors.toList());
+        EntityCRUDDelete<ET, PKT> dao = getDao();
+        int deleted = assertDoesNotThrow(() -> dao.deleteWhere(where.get()));
+        assertEquals(all.size() - expected.size(), deleted, "Should have deleted the records matching the expression");
+        List<PKT> actual = getDao().findAll(0, Integer.MAX_VALUE).stream().map(ET::getPk).sorted().collect(Collectors.toList());
+        assertEquals(expected, actual, "Only the records not matching the expression should remain");
+    }
+
     @Test
     void when_remove_is_called_on_a_record_that_has_any_child_collections_populated_an_exception_is_thrown_and_the_record_is_not_deleted() {
 
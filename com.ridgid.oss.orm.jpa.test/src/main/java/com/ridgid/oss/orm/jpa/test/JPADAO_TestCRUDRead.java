@@ -1,8 +1,12 @@
 package com.ridgid.oss.orm.jpa.test;
 
+import com.ridgid.oss.common.function.PredicateExpression;
+import com.ridgid.oss.common.helper.FieldPath;
 import com.ridgid.oss.common.helper.PrimaryKeyAutoGenerationType;
+import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.jpa.JPAEntityCRUDRead;
+import com.ridgid.oss.orm.jpa.helper.JPACriteriaHelpers;
 import com.ridgid.oss.orm.jpa.helper.JPAEntityHelpers;
 import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.Test;
@@ -10,15 +14,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import javax.persistence.Query;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings({"JavaDoc", "unused"})
 @ExtendWith(SpringExtension.class)
@@ -183,22 +193,130 @@ public abstract class JPADAO_TestCRUDRead<DAO extends JPAEntityCRUDRead<ET, PKT>
         findAndCompareAllWithoutSetup(false);
     }
 
+    @Test
+    void when_load_is_called_for_all_primary_keys_it_returns_each_existing_record_once_whether_or_not_already_in_the_persistence_context() {
+        setupTestEntities();
+        List<PKT> expected = getAllEntitiesFromTestSet(getEntityClass()).stream().map(ET::getPk).sorted().collect(toList());
+        getEntityManager().flush();
+        getEntityManager().clear();
+        getDao().find(expected.get(0));
+        List<PKT> actual = getDao()
+                .load(Stream.concat(expected.stream(), expected.stream().limit(2)))
+                .map(ET::getPk)
+                .sorted()
+                .collect(toList());
+        assertEquals(expected, actual, "Loaded primary keys do not match the stored records");
+    }
+
+    @Test
+    void when_streamLoadInitializeAndDetach_is_called_it_returns_each_existing_record_detached_and_leaves_the_persistence_context_empty() {
+        setupTestEntities();
+        List<PKT> expected = getAllEntitiesFromTestSet(getEntityClass()).stream().map(ET::getPk).sorted().collect(toList());
+        getEntityManager().flush();
+        List<ET> actual = new ArrayList<>();
+        long count = getDao().loadInitializeAndDetach(expected.stream(), actual::add);
+        assertEquals(expected.size(), count, "Number of entities handed to the consumer does not match the stored records");
+        assertEquals(expected, actual.stream().map(ET::getPk).sorted().collect(toList()), "Loaded primary keys do not match the stored records");
+        actual.forEach(entity -> assertFalse(getEntityManager().contains(entity), "Loaded entity was not detached"));
+    }
+
+    @Test
+    void when_findAfter_is_called_page_by_page_it_returns_all_existing_records_in_primary_key_order() {
+        setupTestEntities();
+        List<ET> actual = new ArrayList<>();
+        List<ET> page = getDao().findAfter(null, 3);
+        while (!page.isEmpty()) {
+            actual.addAll(page);
+            page = getDao().findAfter(page.get(page.size() - 1).getPk(), 3);
+        }
+        actual.forEach(obj -> JPAEntityHelpers.unproxy(obj, INGORED_EXCEPTIONS_FOR_STANDARD_UNPROXY));
+        List<ET> expected = getAllEntitiesFromTestSet(getEntityClass()).stream().sorted(comparing(ET::getPk)).collect(toList());
+        validateExpectedAndActualEntitiesAreAllEqual(actual, expected, false);
+    }
+
+    @Test
+    void when_streamAll_is_called_it_streams_all_existing_records_in_primary_key_order() {
+        setupTestEntities();
+        List<PKT> expected = getAllEntitiesFromTestSet(getEntityClass()).stream().map(ET::getPk).sorted().collect(toList());
+        List<PKT> actual;
+        try (Stream<ET> all = getDao().streamAll(3)) {
+            actual = all.map(ET::getPk).collect(toList());
+        }
+        assertEquals(expected, actual, "Streamed primary keys do not match the stored records in primary key order");
+    }
+
+    @Test
+    void when_streamAll_is_called_each_record_is_still_managed_when_it_is_streamed() {
+        setupTestEntities();
+        int[] streamed = {0};
+        try (Stream<ET> all = getDao().streamAll(2)) {
+            all.forEach(entity -> {
+                assertTrue(getEntityManager().contains(entity),
+                        "Streamed record was detached before it was consumed: " + entity.getPk());
+                streamed[0]++;
+            });
+        }
+        assertEquals(getAllEntitiesFromTestSet(getEntityClass()).size(), streamed[0], "Should have streamed all records");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void when_initializeBatch_is_called_the_child_collections_of_all_the_records_are_initialized() {
+        if (getChildCollectionFieldNames().size() == 0)
+            return; // Test auto-succeeds if there are no designated child collections to test
+        setupTestEntities();
+        getEntityManager().clear();
+        HierarchyProcessor.HierarchyProcessorBuilder<ET> builder = HierarchyProcessor.from(getEntityClass());
+        for (String fieldName : getChildCollectionFieldNames()) {
+            FieldPath path = FieldPath.of(fieldName);
+            builder.includeCollection(entity -> (Iterable<Object>) path.get(entity));
+        }
+        HierarchyProcessor<ET> hierarchy = builder.buildProcessor();
+        List<ET> entities = getDao().findAll(0, Integer.MAX_VALUE);
+        assertDoesNotThrow(() -> getDao().initializeBatch(entities, hierarchy));
+        PersistenceUnitUtil util = getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        for (ET entity : entities)
+            for (String fieldName : getChildCollectionFieldNames())
+                assertTrue(util.isLoaded(entity, fieldName),
+                        "Child collection " + fieldName + " not initialized for " + entity.getPk());
+    }
+
+    @Test
+    void when_an_expression_is_translated_with_JPACriteriaHelpers_it_selects_the_records_it_accepts_in_memory() {
+        setupTestEntities();
+        List<ET> all = getAllEntitiesFromTestSet(getEntityClass());
+        List<PredicateExpression<ET>> expressions = createFieldExpressionsFrom(all.get(0), all.get(all.size() - 1));
+        if (expressions.isEmpty())
+            return; // Test auto-succeeds if the entity has no field suited to the expressions
+        for (PredicateExpression<ET> tested : expressions) {
+            Predicate<ET> accepts = tested.compile();
+            List<PKT> expected = all.stream().filter(accepts).map(ET::getPk).sorted().collect(toList());
+            List<PKT> actual = getEntityManager()
+                    .createQuery(JPACriteriaHelpers.createQuery(getEntityManager(), getEntityClass(), tested))
+                    .getResultList()
+                    .stream()
+                    .map(ET::getPk)
+                    .sorted()
+                    .collect(toList());
+            assertEquals(expected, actual, "Should select the records accepted in memory by " + tested);
+        }
+    }
+
     @Test
     void it_retrieves_records_that_were_not_added_through_jpa_from_the_correct_fields() {
 
         // Arrange & Set-Up Expectations
         List<ET> expected
                 = generateTestEntitiesAndFillForeignKeys();
-        for (ET entity : expected) {
-            Query query = createNativeInsertQueryFrom(
-                    getSchemaName(),
-                    getTableName(),
-                    getPrimaryKeyColumnAndFieldNames(),
-                    getEntityColumnAndFieldNames(),
-                    entity);
-            if (query.executeUpdate() < 1)
-                throw new RuntimeException("Unable to insert record in preparation for test through direct insert SQL query");
-        }
+        int inserted
+                = insertNativelyInBulk(
+                getSchemaName(),
+                getTableName(),
+                getPrimaryKeyColumnAndFieldNames(),
+                getEntityColumnAndFieldNames(),
+                expected);
+        if (inserted < expected.size())
+            throw new RuntimeException("Unable to insert records in preparation for test through direct insert SQL query");
 
         // Act & Get Actual Values
         List<ET> actual
@@ -219,6 +337,52 @@ public abstract class JPADAO_TestCRUDRead<DAO extends JPAEntityCRUDRead<ET, PKT>
                 );
     }
 
+    @Test
+    void when_records_are_upserted_natively_the_existing_records_are_updated() {
+        List<ET> expected = generateTestEntitiesAndFillForeignKeys();
+        Optional<FieldPath> updatedField = getEntityFieldNames()
+                .stream()
+                .filter(fieldName -> !getForeignKeyFieldNames().contains(fieldName))
+                .map(FieldPath::of)
+                .filter(path -> path.get(expected.get(0)) instanceof String)
+                .findFirst();
+        if (!updatedField.isPresent())
+            return; // Test auto-succeeds if the entity has no String field to update
+        int inserted = insertNativelyInBulk(getSchemaName(),
+                getTableName(),
+                getPrimaryKeyColumnAndFieldNames(),
+                getEntityColumnAndFieldNames(),
+                expected);
+        assertEquals(expected.size(), inserted, "Should have inserted all records");
+        for (ET entity : expected) {
+            Object owner = updatedField.get().resolveOwner(entity);
+            String value = (String) updatedField.get().lastField(owner).get(owner);
+            if (value != null)
+                updatedField.get().lastField(owner).set(owner, new StringBuilder(value).reverse().toString());
+        }
+
+        int upserted = upsertNativelyInBulk(getSchemaName(),
+                getTableName(),
+                getPrimaryKeyColumnAndFieldNames(),
+                getEntityColumnAndFieldNames(),
+                expected);
+        getEntityManager().clear();
+
+        assertEquals(expected.size(), upserted, "Should have updated all records");
+        List<ET> actual = getDao().findAll(0, Integer.MAX_VALUE);
+        actual.forEach(obj -> JPAEntityHelpers.unproxy(obj, INGORED_EXCEPTIONS_FOR_STANDARD_UNPROXY));
+        validateExpectedAndActualEntitiesAreAllEqual
+                (
+                        actual.stream()
+                                .sorted(comparing(ET::getPk))
+                                .collect(toList()),
+                        expected.stream()
+                                .sorted(comparing(ET::getPk))
+                                .collect(toList()),
+                        false
+                );
+    }
+
     /**
      *
      */
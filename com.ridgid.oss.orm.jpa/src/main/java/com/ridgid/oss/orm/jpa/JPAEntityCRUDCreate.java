@@ -1,5 +1,6 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionAlreadyExists;
@@ -62,6 +63,16 @@ public class JPAEntityCRUDCreate<ET extends PrimaryKeyedEntity<PKT>, PKT extends
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public Class<ET> getClassType() {
         return baseDelegate.getClassType();
@@ -92,6 +103,11 @@ public class JPAEntityCRUDCreate<ET extends PrimaryKeyedEntity<PKT>, PKT extends
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -118,4 +134,9 @@ public class JPAEntityCRUDCreate<ET extends PrimaryKeyedEntity<PKT>, PKT extends
     public ET add(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
         return baseDelegate.add(entity, hierarchy);
     }
+
+    @Override
+    public long addAll(Stream<ET> entities, int batchSize, boolean refresh) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
+        return baseDelegate.addAll(entities, batchSize, refresh);
+    }
 }
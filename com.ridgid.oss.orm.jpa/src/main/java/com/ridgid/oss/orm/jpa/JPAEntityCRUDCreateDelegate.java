@@ -1,11 +1,13 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDCreate;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionAlreadyExists;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
+import javax.persistence.EntityExistsException;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
@@ -63,6 +65,16 @@ final class JPAEntityCRUDCreateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public Class<ET> getClassType() {
         return baseDelegate.getClassType();
@@ -93,6 +105,11 @@ final class JPAEntityCRUDCreateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy)
@@ -132,9 +149,61 @@ final class JPAEntityCRUDCreateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
             baseDelegate.getEntityManager().persist(entity);
             baseDelegate.getEntityManager().flush();
             baseDelegate.getEntityManager().refresh(entity);
+            baseDelegate.invalidateCachedEntity(entity.getPk());
             return entity;
+        } catch ( EntityExistsException e ) {
+            throw new EntityCRUDExceptionAlreadyExists(e);
         } catch ( RuntimeException e ) {
             throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(e);
         }
     }
+
+    /**
+     * Adds all the given entities to the persistence store (insert/create) in batches of the given size. Each batch is
+     * persisted, written with Hibernate JDBC batching (batch size set for the current session only), refreshed if
+     * requested, and then the persistence context is cleared so that memory use is bounded by the batch size.
+     * <p>
+     * NOTE: clearing the persistence context detaches ALL entities managed by the entity manager, not only the ones
+     * added. Also, Hibernate cannot JDBC batch inserts for entities using IDENTITY primary key generation.
+     *
+     * @param entities  the valid entities to store in the persistence layer that are not already created/inserted by primary key
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @param refresh   if true, each entity is refreshed after its batch is written
+     * @return the number of entities added
+     * @throws IllegalArgumentException         if batchSize is not positive
+     * @throws EntityCRUDExceptionError         if there is an issue inserting/creating the records (specific "cause" may vary)
+     * @throws EntityCRUDExceptionAlreadyExists if an entity with the same primary key of one of the given entities already exists in the persistent storage
+     */
+    @Override
+    public long addAll(Stream<ET> entities, int batchSize, boolean refresh)
+        throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists
+    {
+        if ( batchSize < 1 ) throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        try {
+            return baseDelegate.withJdbcBatchSize
+                (
+                    batchSize,
+                    () -> JPAEntityCRUDDelegate.forEachBatch
+                        (
+                            entities,
+                            batchSize,
+                            batch -> writeBatch(batch, refresh)
+                        )
+                );
+        } catch ( EntityExistsException e ) {
+            throw new EntityCRUDExceptionAlreadyExists(e);
+        } catch ( RuntimeException e ) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(e);
+        }
+    }
+
+    private int writeBatch(List<ET> batch, boolean refresh) {
+        EntityManager entityManager = baseDelegate.getEntityManager();
+        batch.forEach(entityManager::persist);
+        entityManager.flush();
+        if ( refresh ) batch.forEach(entityManager::refresh);
+        entityManager.clear();
+        batch.forEach(entity -> baseDelegate.invalidateCachedEntity(entity.getPk()));
+        return batch.size();
+    }
 }
@@ -6,10 +6,15 @@ import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionAlreadyExists;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
+import java.util.stream.Stream;
+
 @SuppressWarnings("unused")
 public interface JPAEntityCRUDCreateDelegateRequired<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
         extends EntityCRUDCreate<ET, PKT> {
 
     @Override
     ET add(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists;
+
+    @Override
+    long addAll(Stream<ET> entities, int batchSize, boolean refresh) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists;
 }
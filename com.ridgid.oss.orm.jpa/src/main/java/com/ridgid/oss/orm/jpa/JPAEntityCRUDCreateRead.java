@@ -7,6 +7,7 @@ import com.ridgid.oss.orm.exception.EntityCRUDExceptionAlreadyExists;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
 import javax.persistence.EntityManager;
+import java.util.stream.Stream;
 
 /**
  * Base class for a JPA DAO that provides CREATE and READ CRUD operations only
@@ -73,4 +74,19 @@ public abstract class JPAEntityCRUDCreateRead<ET extends PrimaryKeyedEntity<PKT>
     public ET add(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
         return createDelegate.add(entity, hierarchy);
     }
+
+    /**
+     * Adds all the given entities to the persistence store (insert/create) in batches of the given size
+     *
+     * @param entities  the valid entities to store in the persistence layer that are not already created/inserted by primary key
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @param refresh   if true, each entity is refreshed after its batch is written
+     * @return the number of entities added
+     * @throws EntityCRUDExceptionError         if there is an issue inserting/creating the records (specific "cause" may vary)
+     * @throws EntityCRUDExceptionAlreadyExists if an entity with the same primary key of one of the given entities already exists in the persistent storage
+     */
+    @Override
+    public long addAll(Stream<ET> entities, int batchSize, boolean refresh) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
+        return createDelegate.addAll(entities, batchSize, refresh);
+    }
 }
@@ -7,6 +7,7 @@ import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
 import javax.persistence.EntityManager;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Base class for a JPA DAO that provides CREATE, READ, and UPDATE CRUD operations only
@@ -72,4 +73,17 @@ public abstract class JPAEntityCRUDCreateReadUpdate<ET extends PrimaryKeyedEntit
     public Optional<ET> optionalUpdate(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
         return updateDelegate.optionalUpdate(entity, hierarchy);
     }
+
+    /**
+     * Updates each of the given entities that exists in the persistent storage (by primary key) in batches of the given size; entities that do not exist are skipped.
+     *
+     * @param entities  entities to update in the persistent storage
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @return the number of entities updated
+     * @throws EntityCRUDExceptionError if there is an issue updating the records (specific "cause" may vary)
+     */
+    @Override
+    public long updateAll(Stream<ET> entities, int batchSize) throws EntityCRUDExceptionError {
+        return updateDelegate.updateAll(entities, batchSize);
+    }
 }
@@ -1,5 +1,6 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDCreateReadUpdateDelete;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
@@ -7,6 +8,11 @@ import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 /**
  * Base class for a JPA DAO that provides CREATE, READ, UPDATE, and DELETE CRUD operations only
@@ -72,4 +78,43 @@ public abstract class JPAEntityCRUDCreateReadUpdateDelete<ET extends PrimaryKeye
     public void delete(PKT pk, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionNotFound {
         deleteDelegate.delete(pk, hierarchy);
     }
+
+    /**
+     * Deletes the entities one the given primary keys from the persistent storage in batches of the given size, using a single bulk delete statement per batch. Primary keys that do not exist are skipped.
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param pks       primary keys of the entities to delete from persistent storage
+     * @param batchSize number of entities to delete from the persistence store at a time
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    @Override
+    public long deleteAll(Stream<PKT> pks, int batchSize) throws EntityCRUDExceptionError {
+        return deleteDelegate.deleteAll(pks, batchSize);
+    }
+
+    /**
+     * Deletes all the entities matching the given criteria from the persistent storage using a single bulk delete statement.
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param criteria function producing the restriction (where clause) for the entities to delete
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    public int deleteWhere(BiFunction<CriteriaBuilder, Root<ET>, Predicate> criteria) throws EntityCRUDExceptionError {
+        return deleteDelegate.deleteWhere(criteria);
+    }
+
+    /**
+     * Deletes all the entities matching the given expression from the persistent storage using a single bulk delete statement.
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param where expression the entities to delete satisfy
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    @Override
+    public int deleteWhere(PredicateExpression<? super ET> where) throws EntityCRUDExceptionError {
+        return deleteDelegate.deleteWhere(where);
+    }
 }
@@ -1,24 +1,58 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.GeneralVisitHandler;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal;
 import com.ridgid.oss.common.hierarchy.VisitStatus;
 import com.ridgid.oss.orm.EntityCRUD;
+import com.ridgid.oss.orm.entity.ExpirableEntityTracking;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.jpa.exception.EntityManagerNullException;
 import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.BREADTH_FIRST;
 import static com.ridgid.oss.common.hierarchy.HierarchyProcessor.Traversal.DEPTH_FIRST;
@@ -35,6 +69,11 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
 
     EntityManager entityManager;
 
+    private volatile CriteriaQuery<ET> entitiesForPrimaryKeysQuery;
+    private volatile Cache<PKT, ET>    entityCache;
+
+    private final Map<PKT, Optional<HierarchyProcessor<ET>>> cachedHierarchies = new ConcurrentHashMap<>();
+
     public JPAEntityCRUDDelegate(Class<ET> classType,
                                  Class<PKT> pkType)
     {
@@ -77,7 +116,8 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
 
     @Override
     public void setEntityManager(EntityManager entityManager) {
-        this.entityManager = entityManager;
+        this.entityManager               = entityManager;
+        this.entitiesForPrimaryKeysQuery = null;
     }
 
     @Override
@@ -85,6 +125,17 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
         return entityManager;
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        this.entityCache = entityCache;
+        cachedHierarchies.clear();
+    }
+
+    @Override
+    public final Optional<Cache<PKT, ET>> getEntityCache() {
+        return Optional.ofNullable(entityCache);
+    }
+
     public Class<ET> getClassType() {
         return classType;
     }
@@ -116,15 +167,109 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
             );
     }
 
+    /**
+     * Loads the entities with the given primary keys. Entities already managed by the persistence context are returned
+     * as-is; only the remaining (missed) primary keys are queried, in chunks of at most {@code getLoadBatchSize()}, using a
+     * criteria query that is built once per DAO. Each chunk's IN-list is padded (by repeating its last key) up to the next
+     * bucket size (1, 4, 16, 64, 256, ... capped at the load batch size) so that the number of distinct SQL statements, and
+     * therefore of query plans in the persistence provider and database statement caches, stays small.
+     *
+     * @param pkList primary keys of the entities to load
+     * @return stream of the entities that exist for the given primary keys (in no particular order)
+     */
     @Override
     public final Stream<ET> loadBatch(List<PKT> pkList) {
+        List<ET>  managed = new ArrayList<>();
+        List<PKT> misses  = partitionByPersistenceContext(pkList, managed);
+        if ( misses.isEmpty() ) return managed.stream();
+        Stream<ET> loaded = misses.size() <= loadBatchSize
+                            ? queryBatch(misses)
+                            : Stream.iterate(0, from -> from + loadBatchSize)
+                                    .limit((misses.size() + loadBatchSize - 1) / loadBatchSize)
+                                    .flatMap(from -> queryBatch(misses.subList(from,
+                                                                               Math.min(from + loadBatchSize,
+                                                                                        misses.size()))));
+        return managed.isEmpty() ? loaded : Stream.concat(managed.stream(), loaded);
+    }
+
+    private Stream<ET> queryBatch(List<PKT> pkList) {
         return entityManager
             .createQuery(getEntitiesForPrimaryKeysQuery())
-            .setParameter("searchKeys", pkList)
+            .setParameter("searchKeys", padToBucketSize(pkList))
             .getResultStream();
     }
 
+    private List<PKT> padToBucketSize(List<PKT> pkList) {
+        int size = bucketSize(pkList.size());
+        if ( size == pkList.size() ) return pkList;
+        List<PKT> padded = new ArrayList<>(size);
+        padded.addAll(pkList);
+        PKT last = pkList.get(pkList.size() - 1);
+        while ( padded.size() < size ) padded.add(last);
+        return padded;
+    }
+
+    /**
+     * @param size number of primary keys to query for (at least 1)
+     * @return smallest power of 4 that is at least size, capped at the larger of size and the load batch size
+     */
+    final int bucketSize(int size) {
+        int bucket = 1;
+        while ( bucket < size ) bucket <<= 2;
+        return Math.min(bucket, Math.max(size, (int) loadBatchSize));
+    }
+
+    /**
+     * Splits the given primary keys into those whose entities are already managed by the current Hibernate session's
+     * persistence context (added to managed) and those that are not (returned). If the entity manager is not backed by
+     * a Hibernate session, all the primary keys are returned.
+     */
+    private List<PKT> partitionByPersistenceContext(List<PKT> pkList,
+                                                    List<ET> managed)
+    {
+        Optional<SessionImplementor> session = hibernateSessionImplementor();
+        if ( !session.isPresent() ) return pkList;
+        EntityPersister persister = session.get().getFactory().getMetamodel().entityPersister(classType);
+        List<PKT>       misses    = new ArrayList<>(pkList.size());
+        for ( PKT pk : new LinkedHashSet<>(pkList) ) {
+            Optional<ET> entity = managedEntity(session.get(), persister, pk);
+            if ( entity.isPresent() )
+                managed.add(entity.get());
+            else
+                misses.add(pk);
+        }
+        return misses;
+    }
+
+    /**
+     * @param pk primary key of the entity
+     * @return the entity with the given primary key if it is currently managed by the Hibernate session's persistence
+     * context (and not removed); empty if it is not, or, if the entity manager is not backed by a Hibernate session
+     */
+    final Optional<ET> managedEntity(PKT pk) {
+        return hibernateSessionImplementor()
+            .flatMap(session -> managedEntity(session,
+                                              session.getFactory().getMetamodel().entityPersister(classType),
+                                              pk));
+    }
+
+    private Optional<ET> managedEntity(SessionImplementor session,
+                                       EntityPersister persister,
+                                       PKT pk)
+    {
+        PersistenceContext context = session.getPersistenceContext();
+        Object             entity  = context.getEntity(session.generateEntityKey((Serializable) pk, persister));
+        if ( entity == null || context.getEntry(entity).getStatus() == Status.DELETED ) return Optional.empty();
+        return Optional.of(classType.cast(entity));
+    }
+
     private CriteriaQuery<ET> getEntitiesForPrimaryKeysQuery() {
+        CriteriaQuery<ET> cQuery = entitiesForPrimaryKeysQuery;
+        if ( cQuery == null ) entitiesForPrimaryKeysQuery = cQuery = buildEntitiesForPrimaryKeysQuery(entityManager);
+        return cQuery;
+    }
+
+    private CriteriaQuery<ET> buildEntitiesForPrimaryKeysQuery(EntityManager entityManager) {
         CriteriaBuilder           builder    = entityManager.getCriteriaBuilder();
         CriteriaQuery<ET>         cQuery     = builder.createQuery(classType);
         Root<ET>                  entity     = cQuery.from(classType);
@@ -134,6 +279,62 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
         return cQuery;
     }
 
+    /**
+     * Loads the entities for the given primary keys concurrently: the primary keys are partitioned into batches of
+     * {@code getLoadBatchSize()}, and the batches are loaded by up to concurrency worker threads, each using its own
+     * EntityManager obtained from the given EntityManagerFactory. The entities are initialized per the hierarchy on the
+     * worker that loaded them and are returned detached; the persistence context of this DAO's EntityManager is neither
+     * consulted nor changed. The returned stream should be closed (e.g., try-with-resources) if it is not fully consumed,
+     * so that the workers and their EntityManagers are released.
+     *
+     * @param entityManagerFactory factory to obtain the EntityManager for each worker from
+     * @param pktStream            primary keys of the entities to load
+     * @param concurrency          number of batches to load at the same time (at least 1)
+     * @param ordered              true to return the entities in the order of the batches of primary keys; false to return
+     *                             each batch as soon as it is loaded
+     * @param hierarchy            hierarchy with each of the loaded entities as the root to initialize (may be null)
+     * @return stream of the detached entities that exist for the given primary keys
+     */
+    public final Stream<ET> parallelLoad(EntityManagerFactory entityManagerFactory,
+                                         Stream<PKT> pktStream,
+                                         int concurrency,
+                                         boolean ordered,
+                                         HierarchyProcessor<ET> hierarchy)
+    {
+        if ( concurrency < 1 ) throw new IllegalArgumentException("concurrency must be at least 1");
+        JPAEntityCRUDParallelLoader<ET, PKT> loader
+            = new JPAEntityCRUDParallelLoader<>(this,
+                                                entityManagerFactory,
+                                                pktStream.filter(Objects::nonNull).iterator(),
+                                                concurrency,
+                                                ordered,
+                                                hierarchy);
+        return StreamSupport.stream(loader, false)
+                            .onClose(loader::close)
+                            .onClose(pktStream::close)
+                            .flatMap(List::stream);
+    }
+
+    /**
+     * Loads, on the calling worker thread, the entities for the given primary keys through the given worker EntityManager,
+     * initializes them per the hierarchy, then, detaches them by clearing the worker EntityManager
+     */
+    final List<ET> loadDetached(EntityManager workerEntityManager,
+                                List<PKT> pkList,
+                                HierarchyProcessor<ET> hierarchy)
+    {
+        try {
+            List<ET> entities = workerEntityManager
+                .createQuery(buildEntitiesForPrimaryKeysQuery(workerEntityManager))
+                .setParameter("searchKeys", padToBucketSize(pkList))
+                .getResultList();
+            entities.forEach(entity -> initializeEntity(entity, hierarchy));
+            return entities;
+        } finally {
+            workerEntityManager.clear();
+        }
+    }
+
     @Override
     public final short getLoadBatchSize() {
         return loadBatchSize;
@@ -154,6 +355,120 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
         return entity;
     }
 
+    /**
+     * Initializes all the given entities per the hierarchy. If the entity manager is backed by a Hibernate session, each
+     * level of the hierarchy is first prepared for the whole batch at once: uninitialized proxies are loaded with a single
+     * multi-id load per entity class, and uninitialized collections with a single join fetch query (over chunks of at
+     * most {@code getLoadBatchSize()} owners) per collection role. The per-entity initialization that follows then finds
+     * everything in the persistence context, so the number of queries grows with the depth of the hierarchy rather than
+     * with the number of entities.
+     *
+     * @param entities  to load lazy loaded fields and lazy loaded dependencies for
+     * @param hierarchy hierarchy with each of the given entities as the root to load
+     * @return the given list of entities
+     */
+    @Override
+    public final List<ET> initializeBatch(List<ET> entities,
+                                          HierarchyProcessor<ET> hierarchy)
+    {
+        if ( entities.size() > 1 ) {
+            try {
+                Optional<Session> session = hibernateSession();
+                if ( session.isPresent() ) {
+                    if ( hierarchy == null )
+                        initializeLevel(session.get(), new ArrayList<>(entities));
+                    else
+                        hierarchy.visitLevels(entities, level -> initializeLevel(session.get(), level));
+                }
+            } catch ( Exception e ) {
+                throw enhanceExceptionWithEntityManagerNullCheck(e);
+            }
+        }
+        entities.forEach(entity -> initializeEntity(entity, hierarchy));
+        return entities;
+    }
+
+    private void initializeLevel(Session session,
+                                 List<Object> level)
+    {
+        Map<Class<?>, List<Serializable>> proxies     = new LinkedHashMap<>();
+        Map<String, List<Object>>         collections = new LinkedHashMap<>();
+        for ( Object o : level ) {
+            if ( o instanceof HibernateProxy ) {
+                LazyInitializer initializer = ((HibernateProxy) o).getHibernateLazyInitializer();
+                if ( initializer.isUninitialized() )
+                    proxies.computeIfAbsent(initializer.getPersistentClass(), k -> new ArrayList<>())
+                           .add((Serializable) initializer.getIdentifier());
+            } else if ( o instanceof PersistentCollection ) {
+                PersistentCollection collection = (PersistentCollection) o;
+                if ( !collection.wasInitialized() && collection.getOwner() != null && collection.getRole() != null )
+                    collections.computeIfAbsent(collection.getRole(), k -> new ArrayList<>())
+                               .add(collection.getOwner());
+            }
+        }
+        proxies.forEach((proxyClass, ids) -> {
+            if ( ids.size() > 1 ) session.byMultipleIds(proxyClass).withBatchSize(loadBatchSize).multiLoad(ids);
+        });
+        collections.forEach((role, owners) -> {
+            if ( owners.size() > 1 ) initializeCollections(role, owners);
+        });
+    }
+
+    /**
+     * Initializes the collection (role) of all the owners with join fetch queries restricted by the id attribute of the
+     * owner's entity type (found through the metamodel); owners whose entity type has an id class (several id
+     * attributes) are left to the per-entity initialization
+     */
+    private void initializeCollections(String role,
+                                       List<Object> owners)
+    {
+        Optional<Class<?>> ownerClass = ownerEntityClass(role, owners.get(0).getClass());
+        if ( !ownerClass.isPresent() ) return;
+        EntityType<?> ownerType = entityManager.getMetamodel().entity(ownerClass.get());
+        if ( !ownerType.hasSingleIdAttribute() ) return;
+        Optional<SingularAttribute<?, ?>> id = idAttributeOf(ownerType);
+        if ( !id.isPresent() ) return;
+        String idPath = "o." + id.get().getName();
+        boolean embeddedId = id.get().getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED;
+        String select = "select o from " + ownerClass.get().getName()
+                        + " o left join fetch o." + role.substring(ownerClass.get().getName().length() + 1);
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        forEachBatch
+            (
+                owners.stream().map(util::getIdentifier),
+                loadBatchSize,
+                ids -> {
+                    if ( !embeddedId )
+                        return entityManager.createQuery(select + " where " + idPath + " in (:ids)")
+                                            .setParameter("ids", ids)
+                                            .getResultList()
+                                            .size();
+                    // tuple IN is not portable; embedded ids are compared one at a time
+                    StringBuilder where = new StringBuilder(" where ");
+                    for ( int i = 0; i < ids.size(); i++ )
+                        where.append(i == 0 ? "" : " or ").append(idPath).append(" = :id").append(i);
+                    Query query = entityManager.createQuery(select + where);
+                    for ( int i = 0; i < ids.size(); i++ ) query.setParameter("id" + i, ids.get(i));
+                    return query.getResultList().size();
+                }
+            );
+    }
+
+    private static Optional<SingularAttribute<?, ?>> idAttributeOf(EntityType<?> entityType) {
+        for ( Attribute<?, ?> attribute : entityType.getAttributes() )
+            if ( attribute instanceof SingularAttribute && ((SingularAttribute<?, ?>) attribute).isId() )
+                return Optional.of((SingularAttribute<?, ?>) attribute);
+        return Optional.empty();
+    }
+
+    private static Optional<Class<?>> ownerEntityClass(String role,
+                                                       Class<?> ownerClass)
+    {
+        for ( Class<?> c = ownerClass; c != null; c = c.getSuperclass() )
+            if ( role.startsWith(c.getName() + ".") ) return Optional.of(c);
+        return Optional.empty();
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     public final <ET> ET detachEntity(ET entity,
                                       HierarchyProcessor<ET> hierarchy)
@@ -179,6 +494,193 @@ final class JPAEntityCRUDDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
         entityManager.clear();
     }
 
+    /**
+     * Runs the given action with the JDBC batch size of the current Hibernate session set to batchSize, restoring the
+     * session's previous JDBC batch size afterwards. If the entity manager is not backed by a Hibernate session, the
+     * action is run as-is.
+     *
+     * @param batchSize number of statements for Hibernate to group into a single JDBC batch
+     * @param action    to run
+     * @param <R>       type of the result of the action
+     * @return result of the action
+     */
+    final <R> R withJdbcBatchSize(int batchSize,
+                                  Supplier<R> action)
+    {
+        Optional<Session> session = hibernateSession();
+        if ( !session.isPresent() ) return action.get();
+        Integer previousBatchSize = session.get().getJdbcBatchSize();
+        session.get().setJdbcBatchSize(batchSize);
+        try {
+            return action.get();
+        } finally {
+            session.get().setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * Splits the given stream into consecutive batches of (at most) batchSize elements and applies the batchAction to
+     * each batch in turn. The same list instance is re-used for every batch, so the batchAction must not hold on to it.
+     *
+     * @param stream      of elements to batch
+     * @param batchSize   maximum number of elements in each batch
+     * @param batchAction applied to each batch, returning a count (e.g., of the records written)
+     * @param <T>         type of the elements
+     * @return sum of the counts returned by the batchAction
+     */
+    static <T> long forEachBatch(Stream<T> stream,
+                                 int batchSize,
+                                 ToLongFunction<List<T>> batchAction)
+    {
+        List<T> batch = new ArrayList<>(batchSize);
+        long    count = 0;
+        for ( T element : (Iterable<T>) stream::iterator ) {
+            batch.add(element);
+            if ( batch.size() >= batchSize ) {
+                count += batchAction.applyAsLong(batch);
+                batch.clear();
+            }
+        }
+        if ( !batch.isEmpty() ) count += batchAction.applyAsLong(batch);
+        return count;
+    }
+
+    /**
+     * Evicts the entities with the given primary keys from the second-level cache (if any) and the entity cache (if set)
+     *
+     * @param pks primary keys of the entities to evict
+     */
+    final void evictFromCache(Collection<PKT> pks) {
+        invalidateCachedEntities(pks);
+        javax.persistence.Cache cache = entityManager.getEntityManagerFactory().getCache();
+        if ( cache == null ) return;
+        pks.forEach(pk -> cache.evict(classType, pk));
+    }
+
+    /**
+     * Evicts all entities of this entity type from the second-level cache (if any) and the entity cache (if set)
+     */
+    final void evictAllFromCache() {
+        Cache<PKT, ET> entityCache = this.entityCache;
+        if ( entityCache != null ) entityCache.clear();
+        cachedHierarchies.clear();
+        javax.persistence.Cache cache = entityManager.getEntityManagerFactory().getCache();
+        if ( cache != null ) cache.evict(classType);
+    }
+
+    /**
+     * @param pk        primary key of the entity to look up in the entity cache
+     * @param hierarchy the snapshot must have been initialized per (may be null)
+     * @return a detached copy of the snapshot of the entity from the entity cache, or empty if there is no entity cache,
+     * the entity is not cached, the cached snapshot was initialized per another hierarchy, or the cached snapshot is an
+     * {@code ExpirableEntityTracking} that has expired (in which case it is removed from the entity cache)
+     */
+    final Optional<ET> cachedEntity(PKT pk,
+                                    HierarchyProcessor<ET> hierarchy)
+    {
+        Cache<PKT, ET> entityCache = this.entityCache;
+        if ( entityCache == null ) return Optional.empty();
+        Optional<HierarchyProcessor<ET>> cachedHierarchy = cachedHierarchies.get(pk);
+        if ( cachedHierarchy == null || cachedHierarchy.orElse(null) != hierarchy ) return Optional.empty();
+        Optional<ET> entity = entityCache.get(pk);
+        if ( entity.isPresent()
+             && entity.get() instanceof ExpirableEntityTracking
+             && ((ExpirableEntityTracking) entity.get()).isExpired() )
+        {
+            invalidateCachedEntity(pk);
+            return Optional.empty();
+        }
+        return entity.map(this::copyOf);
+    }
+
+    /**
+     * Puts a copy of the given detached snapshot of an entity, initialized per the given hierarchy, in the entity cache
+     * (if set); the given snapshot itself is never cached, so the caller may modify it freely
+     *
+     * @param entity    detached snapshot to cache
+     * @param hierarchy the snapshot was initialized per (may be null)
+     * @return the given entity
+     */
+    final ET cacheEntity(ET entity,
+                         HierarchyProcessor<ET> hierarchy)
+    {
+        Cache<PKT, ET> entityCache = this.entityCache;
+        if ( entityCache == null ) return entity;
+        ET snapshot = copyOf(entity);
+        cachedHierarchies.put(snapshot.getPk(), Optional.ofNullable(hierarchy));
+        entityCache.put(snapshot.getPk(), snapshot);
+        if ( cachedHierarchies.size() > 2 * entityCache.size() + 16 )
+            // the entity cache evicted entries on its own
+            cachedHierarchies.keySet().removeIf(pk -> !entityCache.containsKey(pk));
+        return entity;
+    }
+
+    /**
+     * @param entity detached entity to copy
+     * @return a deep copy of the detached entity (and everything it references), made by Java serialization
+     */
+    private ET copyOf(ET entity) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try ( ObjectOutputStream out = new ObjectOutputStream(bytes) ) {
+                out.writeObject(entity);
+            }
+            try ( ObjectInputStream in = new EntityClassObjectInputStream(bytes.toByteArray()) ) {
+                return classType.cast(in.readObject());
+            }
+        } catch ( IOException | ClassNotFoundException e ) {
+            throw new EntityCRUDExceptionError(e);
+        }
+    }
+
+    /**
+     * Resolves the classes of the copied entities with the class loader of the entity type first, since the classes of
+     * the entities may not be visible to the class loader of this class
+     */
+    private final class EntityClassObjectInputStream extends ObjectInputStream
+    {
+        private EntityClassObjectInputStream(byte[] bytes) throws IOException {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classType.getClassLoader());
+            } catch ( ClassNotFoundException e ) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+    final void invalidateCachedEntity(PKT pk) {
+        Cache<PKT, ET> entityCache = this.entityCache;
+        if ( entityCache == null || pk == null ) return;
+        entityCache.remove(pk);
+        cachedHierarchies.remove(pk);
+    }
+
+    final void invalidateCachedEntities(Collection<PKT> pks) {
+        Cache<PKT, ET> entityCache = this.entityCache;
+        if ( entityCache != null ) pks.forEach(this::invalidateCachedEntity);
+    }
+
+    final Optional<Session> hibernateSession() {
+        try {
+            return Optional.of(entityManager.unwrap(Session.class));
+        } catch ( PersistenceException e ) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<SessionImplementor> hibernateSessionImplementor() {
+        try {
+            return Optional.of(entityManager.unwrap(SessionImplementor.class));
+        } catch ( PersistenceException e ) {
+            return Optional.empty();
+        }
+    }
+
     final RuntimeException enhanceExceptionWithEntityManagerNullCheck(Exception e) {
         if ( entityManager == null )
             return new EntityManagerNullException(e);
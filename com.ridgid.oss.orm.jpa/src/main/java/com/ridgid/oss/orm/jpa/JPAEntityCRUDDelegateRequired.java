@@ -1,5 +1,6 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUD;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
@@ -27,6 +28,24 @@ public interface JPAEntityCRUDDelegateRequired<ET extends PrimaryKeyedEntity<PKT
      */
     EntityManager getEntityManager();
 
+    /**
+     * Sets the (optional) cache of detached entity snapshots, keyed by primary key, that the DAO reads through when
+     * finding an entity by primary key. Create, update and delete operations through the DAO invalidate the affected
+     * entries. If the entity type implements {@code ExpirableEntityTracking}, expired snapshots are re-read from the
+     * persistence store. A snapshot is only read back for the hierarchy it was initialized per, and each read returns
+     * its own copy of it.
+     *
+     * @param entityCache cache of entity snapshots, or null to disable entity caching
+     */
+    void setEntityCache(Cache<PKT, ET> entityCache);
+
+    /**
+     * Gets the entity cache set for the DAO
+     *
+     * @return the entity cache, or empty if not set
+     */
+    Optional<Cache<PKT, ET>> getEntityCache();
+
     Class<ET> getClassType();
 
     Class<PKT> getPkType();
@@ -49,6 +68,10 @@ public interface JPAEntityCRUDDelegateRequired<ET extends PrimaryKeyedEntity<PKT
     <ET> ET initializeEntity(ET entity,
                              HierarchyProcessor<ET> hierarchy);
 
+    @Override
+    List<ET> initializeBatch(List<ET> entities,
+                             HierarchyProcessor<ET> hierarchy);
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     <ET> ET detachEntity(ET entity,
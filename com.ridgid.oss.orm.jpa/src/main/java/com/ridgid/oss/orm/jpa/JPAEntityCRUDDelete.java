@@ -1,13 +1,19 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
 /**
@@ -62,6 +68,16 @@ public class JPAEntityCRUDDelete<ET extends PrimaryKeyedEntity<PKT>, PKT extends
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public short getLoadBatchSize() {
         return baseDelegate.getLoadBatchSize();
@@ -82,6 +98,11 @@ public class JPAEntityCRUDDelete<ET extends PrimaryKeyedEntity<PKT>, PKT extends
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -118,4 +139,19 @@ public class JPAEntityCRUDDelete<ET extends PrimaryKeyedEntity<PKT>, PKT extends
     public void delete(PKT pk, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionNotFound {
         baseDelegate.delete(pk, hierarchy);
     }
+
+    @Override
+    public long deleteAll(Stream<PKT> pks, int batchSize) throws EntityCRUDExceptionError {
+        return baseDelegate.deleteAll(pks, batchSize);
+    }
+
+    @Override
+    public int deleteWhere(BiFunction<CriteriaBuilder, Root<ET>, Predicate> criteria) throws EntityCRUDExceptionError {
+        return baseDelegate.deleteWhere(criteria);
+    }
+
+    @Override
+    public int deleteWhere(PredicateExpression<? super ET> where) throws EntityCRUDExceptionError {
+        return baseDelegate.deleteWhere(where);
+    }
 }
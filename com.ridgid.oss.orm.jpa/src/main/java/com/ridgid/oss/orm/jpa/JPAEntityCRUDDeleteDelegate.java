@@ -1,14 +1,22 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDDelete;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
+import com.ridgid.oss.orm.jpa.helper.JPACriteriaHelpers;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
@@ -58,6 +66,16 @@ final class JPAEntityCRUDDeleteDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public short getLoadBatchSize() {
         return baseDelegate.getLoadBatchSize();
@@ -78,6 +96,11 @@ final class JPAEntityCRUDDeleteDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -124,10 +147,95 @@ final class JPAEntityCRUDDeleteDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
             if (entity == null) throw new EntityCRUDExceptionNotFound();
             baseDelegate.getEntityManager().remove(entity);
             baseDelegate.getEntityManager().flush();
+            baseDelegate.invalidateCachedEntity(pk);
         } catch (EntityCRUDExceptionNotFound ex) {
             throw ex;
         } catch (RuntimeException ex) {
             throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
         }
     }
+
+    /**
+     * Deletes the entities one the given primary keys from the persistent storage in batches of the given size, using a
+     * single bulk delete statement (pk IN (...)) per batch. The entity manager is flushed before the first batch, the
+     * deleted entities are evicted from the second-level cache and the persistence context is cleared afterwards.
+     * <p>
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param pks       primary keys of the entities to delete from persistent storage
+     * @param batchSize number of entities to delete from the persistence store at a time
+     * @return the number of entities deleted
+     * @throws IllegalArgumentException if batchSize is not positive
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    @Override
+    public long deleteAll(Stream<PKT> pks, int batchSize) throws EntityCRUDExceptionError {
+        if ( batchSize < 1 ) throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        try {
+            baseDelegate.getEntityManager().flush();
+            long deleted = JPAEntityCRUDDelegate.forEachBatch
+                (
+                    pks,
+                    batchSize,
+                    batch -> {
+                        int count = deleteWhere((builder, root) -> root.get(baseDelegate.PK_NAME).in(batch), false);
+                        baseDelegate.evictFromCache(batch);
+                        return count;
+                    }
+                );
+            baseDelegate.getEntityManager().clear();
+            return deleted;
+        } catch (RuntimeException ex) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
+        }
+    }
+
+    /**
+     * Deletes all the entities matching the given criteria from the persistent storage using a single bulk delete
+     * statement. The entity manager is flushed first; afterwards all entities of this type are evicted from the
+     * second-level cache and the persistence context is cleared.
+     * <p>
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param criteria function producing the restriction (where clause) for the entities to delete
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    @Override
+    public int deleteWhere(BiFunction<CriteriaBuilder, Root<ET>, Predicate> criteria) throws EntityCRUDExceptionError {
+        try {
+            baseDelegate.getEntityManager().flush();
+            int deleted = deleteWhere(criteria, true);
+            baseDelegate.getEntityManager().clear();
+            return deleted;
+        } catch (RuntimeException ex) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
+        }
+    }
+
+    /**
+     * Deletes all the entities matching the given expression from the persistent storage using a single bulk delete
+     * statement, as deleteWhere(criteria) does
+     * <p>
+     * NOTE: bulk deletes bypass the persistence context: cascades and entity life-cycle callbacks are NOT applied.
+     *
+     * @param where expression the entities to delete satisfy, translated with JPACriteriaHelpers
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    @Override
+    public int deleteWhere(PredicateExpression<? super ET> where) throws EntityCRUDExceptionError {
+        return deleteWhere((builder, root) -> JPACriteriaHelpers.toPredicate(builder, root, where));
+    }
+
+    private int deleteWhere(BiFunction<CriteriaBuilder, Root<ET>, Predicate> criteria, boolean evictAll) {
+        EntityManager      entityManager = baseDelegate.getEntityManager();
+        CriteriaBuilder    builder       = entityManager.getCriteriaBuilder();
+        CriteriaDelete<ET> delete        = builder.createCriteriaDelete(baseDelegate.getClassType());
+        Root<ET>           root          = delete.from(baseDelegate.getClassType());
+        delete.where(criteria.apply(builder, root));
+        int deleted = entityManager.createQuery(delete).executeUpdate();
+        if (evictAll) baseDelegate.evictAllFromCache();
+        return deleted;
+    }
 }
@@ -1,11 +1,18 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDDelete;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
 @SuppressWarnings("unused")
 public interface JPAEntityCRUDDeleteDelegateRequired<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
         extends EntityCRUDDelete<ET, PKT> {
@@ -13,4 +20,12 @@ public interface JPAEntityCRUDDeleteDelegateRequired<ET extends PrimaryKeyedEnti
     @Override
     void delete(PKT pk, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionNotFound;
 
+    @Override
+    long deleteAll(Stream<PKT> pks, int batchSize) throws EntityCRUDExceptionError;
+
+    int deleteWhere(BiFunction<CriteriaBuilder, Root<ET>, Predicate> criteria) throws EntityCRUDExceptionError;
+
+    @Override
+    int deleteWhere(PredicateExpression<? super ET> where) throws EntityCRUDExceptionError;
+
 }
@@ -0,0 +1,168 @@
+package com.ridgid.oss.orm.jpa;
+
+import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
+import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
+import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loads batches of primary keys concurrently for {@code JPAEntityCRUDDelegate.parallelLoad}, each worker thread using
+ * its own EntityManager obtained from the given EntityManagerFactory. At most twice the concurrency level batches are in
+ * flight at a time, so the primary keys are only consumed as fast as the loaded batches are.
+ *
+ * @param <ET>  entity type
+ * @param <PKT> primary key type
+ */
+final class JPAEntityCRUDParallelLoader<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
+    extends Spliterators.AbstractSpliterator<List<ET>>
+{
+    private static final AtomicInteger loaderCount = new AtomicInteger();
+
+    private final JPAEntityCRUDDelegate<ET, PKT> delegate;
+    private final Iterator<PKT>                  pks;
+    private final boolean                        ordered;
+    private final HierarchyProcessor<ET>         hierarchy;
+    private final int                            maxInFlight;
+    private final ExecutorService                executor;
+    private final CompletionService<List<ET>>    completion;
+    private final Deque<Future<List<ET>>>        inFlight;
+    private final BlockingQueue<EntityManager>   entityManagers;
+
+    private volatile boolean closed;
+
+    JPAEntityCRUDParallelLoader(JPAEntityCRUDDelegate<ET, PKT> delegate,
+                                EntityManagerFactory entityManagerFactory,
+                                Iterator<PKT> pks,
+                                int concurrency,
+                                boolean ordered,
+                                HierarchyProcessor<ET> hierarchy)
+    {
+        super(Long.MAX_VALUE, ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL);
+        this.delegate    = delegate;
+        this.pks         = pks;
+        this.ordered     = ordered;
+        this.hierarchy   = hierarchy;
+        this.maxInFlight = concurrency * 2;
+        this.inFlight    = new ArrayDeque<>(maxInFlight);
+        String threadNamePrefix = "JPAEntityCRUDParallelLoader-"
+                                  + delegate.classType.getSimpleName() + "-"
+                                  + loaderCount.incrementAndGet() + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool
+            (
+                concurrency,
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        this.completion     = ordered ? null : new ExecutorCompletionService<>(executor);
+        this.entityManagers = new ArrayBlockingQueue<>(concurrency);
+        try {
+            for ( int i = 0; i < concurrency; i++ )
+                entityManagers.add(entityManagerFactory.createEntityManager());
+        } catch ( RuntimeException e ) {
+            close();
+            throw new EntityCRUDExceptionError(e);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<ET>> action) {
+        if ( closed ) return false;
+        submitBatches();
+        if ( inFlight.isEmpty() ) {
+            close();
+            return false;
+        }
+        action.accept(nextBatch());
+        return true;
+    }
+
+    private void submitBatches() {
+        while ( inFlight.size() < maxInFlight && pks.hasNext() ) {
+            List<PKT> batch = new ArrayList<>(delegate.loadBatchSize);
+            while ( batch.size() < delegate.loadBatchSize && pks.hasNext() )
+                batch.add(pks.next());
+            inFlight.addLast(ordered
+                             ? executor.submit(() -> load(batch))
+                             : completion.submit(() -> load(batch)));
+        }
+    }
+
+    private List<ET> nextBatch() {
+        try {
+            if ( ordered )
+                return inFlight.removeFirst().get();
+            Future<List<ET>> done = completion.take();
+            inFlight.remove(done);
+            return done.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new EntityCRUDExceptionError(e);
+        } catch ( ExecutionException e ) {
+            close();
+            if ( e.getCause() instanceof RuntimeException ) throw (RuntimeException) e.getCause();
+            throw new EntityCRUDExceptionError(e.getCause());
+        }
+    }
+
+    private List<ET> load(List<PKT> batch) throws InterruptedException {
+        EntityManager entityManager = entityManagers.take();
+        try {
+            return delegate.loadDetached(entityManager, batch, hierarchy);
+        } finally {
+            release(entityManager);
+        }
+    }
+
+    /**
+     * Returns the worker's EntityManager to the pool, or closes it if the loader was closed while the worker was using it
+     */
+    private void release(EntityManager entityManager) {
+        synchronized ( entityManagers ) {
+            if ( closed )
+                entityManager.close();
+            else
+                entityManagers.add(entityManager);
+        }
+    }
+
+    /**
+     * Stops the workers and closes the idle EntityManagers; called once all the batches are consumed, on error, or when
+     * the stream returned by {@code JPAEntityCRUDDelegate.parallelLoad} is closed. A worker still loading a batch when the
+     * loader is closed is interrupted and closes its own EntityManager once it stops, so no EntityManager is ever closed
+     * while a worker is using it.
+     */
+    void close() {
+        synchronized ( entityManagers ) {
+            if ( closed ) return;
+            closed = true;
+            entityManagers.forEach(EntityManager::close);
+            entityManagers.clear();
+        }
+        inFlight.clear();
+        executor.shutdownNow();
+    }
+}
@@ -1,10 +1,12 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -59,6 +61,16 @@ public class JPAEntityCRUDRead<ET extends PrimaryKeyedEntity<PKT>, PKT extends C
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public short getLoadBatchSize() {
         return baseDelegate.getLoadBatchSize();
@@ -79,6 +91,11 @@ public class JPAEntityCRUDRead<ET extends PrimaryKeyedEntity<PKT>, PKT extends C
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -125,4 +142,19 @@ public class JPAEntityCRUDRead<ET extends PrimaryKeyedEntity<PKT>, PKT extends C
     public List<ET> findAll(int offset, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
         return baseDelegate.findAll(offset, limit, hierarchy);
     }
+
+    @Override
+    public List<ET> findAfter(PKT lastPk, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
+        return baseDelegate.findAfter(lastPk, limit, hierarchy);
+    }
+
+    @Override
+    public Stream<ET> streamAll(int fetchSize) throws EntityCRUDExceptionError {
+        return baseDelegate.streamAll(fetchSize);
+    }
+
+    @Override
+    public Stream<ET> parallelLoad(EntityManagerFactory entityManagerFactory, Stream<PKT> pktStream, int concurrency, boolean ordered, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
+        return baseDelegate.parallelLoad(entityManagerFactory, pktStream, concurrency, ordered, hierarchy);
+    }
 }
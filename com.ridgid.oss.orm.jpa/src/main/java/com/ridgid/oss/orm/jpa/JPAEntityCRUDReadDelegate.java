@@ -1,18 +1,33 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDRead;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 final class JPAEntityCRUDReadDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
     implements
@@ -65,6 +80,16 @@ final class JPAEntityCRUDReadDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT ex
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public Class<ET> getClassType() {
         return baseDelegate.getClassType();
@@ -95,6 +120,11 @@ final class JPAEntityCRUDReadDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT ex
         return baseDelegate.initializeAndDetach(entity, hierarchy);
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -117,20 +147,58 @@ final class JPAEntityCRUDReadDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT ex
         baseDelegate.clearContext();
     }
 
+    /**
+     * Finds the entity with the given primary key. If an entity cache is set, this is the same as
+     * {@code optionalFind(pk, null)}: the entity is read through the cache as a snapshot that has none of its lazy loaded
+     * fields initialized; otherwise, the entity is found in the persistence context or store.
+     *
+     * @param pk primary key of the entity ET type to find and retrieve
+     * @return Optional entity instance of type ET if the entity exists under the given primary key, pk, in the persistence store; otherwise, Optional is empty
+     * @throws EntityCRUDExceptionError if there is some error retrieving the value beyond it not existing
+     */
     @Override
     public Optional<ET> optionalFind(PKT pk) throws EntityCRUDExceptionError {
+        if ( baseDelegate.getEntityCache().isPresent() ) return optionalFind(pk, null);
         try {
-            return Optional.ofNullable(
-                baseDelegate.getEntityManager().find(baseDelegate.classType, pk, LockModeType.NONE));
+            return findInPersistenceStore(pk);
         } catch ( Exception ex ) {
             throw new EntityCRUDExceptionError(ex);
         }
     }
 
+    private Optional<ET> findInPersistenceStore(PKT pk) {
+        return Optional.ofNullable(baseDelegate.getEntityManager().find(baseDelegate.classType, pk, LockModeType.NONE));
+    }
+
+    /**
+     * Finds the entity with the given primary key. If an entity cache is set, the entity is read through the cache:
+     * a copy of the snapshot cached for the same hierarchy (and, for {@code ExpirableEntityTracking} entities, unexpired)
+     * is returned without going to the persistence store; otherwise, unless the entity is already managed by the
+     * persistence context (in which case the managed entity is returned and not cached), the entity is found, initialized
+     * per the hierarchy, and detached, and a copy of it is cached (replacing any snapshot cached for another hierarchy).
+     * <p>
+     * NOTE: each caller gets its own detached copy (made by Java serialization), so it may be modified freely; the cached
+     * snapshot is replaced only by a later read, and is invalidated by creating, updating, or deleting the entity through
+     * the DAO. Hierarchies are matched by identity, so reuse one HierarchyProcessor instance per shape of read.
+     *
+     * @param pk        primary key of the entity ET type to find and retrieve
+     * @param hierarchy to initialize for the entity before it is detached and cached (when an entity cache is set)
+     * @return Optional entity instance of type ET if the entity exists under the given primary key, pk, in the persistence store; otherwise, Optional is empty
+     * @throws EntityCRUDExceptionError if there is some error retrieving the value beyond it not existing
+     */
     @Override
     public Optional<ET> optionalFind(PKT pk, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
         try {
-            return optionalFind(pk);
+            if ( !baseDelegate.getEntityCache().isPresent() ) return findInPersistenceStore(pk);
+            Optional<ET> entity = baseDelegate.cachedEntity(pk, hierarchy);
+            if ( entity.isPresent() ) return entity;
+            entity = baseDelegate.managedEntity(pk);
+            if ( entity.isPresent() ) return entity;
+            entity = findInPersistenceStore(pk);
+            if ( !entity.isPresent() ) return entity;
+            return Optional.of(baseDelegate.cacheEntity(initializeAndDetach(entity.get(), hierarchy), hierarchy));
+        } catch ( EntityCRUDExceptionError ex ) {
+            throw ex;
         } catch ( Exception ex ) {
             throw new EntityCRUDExceptionError(ex);
         }
@@ -174,4 +242,140 @@ final class JPAEntityCRUDReadDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT ex
         }
     }
 
+    /**
+     * Finds and retrieves, in primary key order, up to limit entities of type ET whose primary key is greater than lastPk (keyset/seek pagination).
+     * NOTE: requires a primary key that the persistence provider can order and compare as a single value (i.e., not an embedded/composite id).
+     *
+     * @param lastPk    primary key of the last entity of the previous page, or null to retrieve the first page
+     * @param limit     maximum number of records to retrieve
+     * @param hierarchy to initialize for each entity retrieved
+     * @return list of entities of type ET ordered by primary key. If none available after lastPk, then returns a 0 length list.
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    @Override
+    public List<ET> findAfter(PKT lastPk, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError {
+        try {
+            return initialize
+                (
+                    getFindAfterQuery(lastPk)
+                        .setMaxResults(limit)
+                        .getResultStream(),
+                    hierarchy
+                );
+        } catch ( Exception ex ) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
+        }
+    }
+
+    private TypedQuery<ET> getFindAfterQuery(PKT lastPk) {
+        CriteriaBuilder   builder = baseDelegate.getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<ET> cQuery  = builder.createQuery(baseDelegate.classType);
+        Root<ET>          entity  = cQuery.from(baseDelegate.classType);
+        Path<PKT>         pk      = entity.get(baseDelegate.PK_NAME);
+        cQuery.select(entity).orderBy(builder.asc(pk));
+        if ( lastPk != null ) cQuery.where(builder.greaterThan(pk, lastPk));
+        return baseDelegate.getEntityManager()
+                           .createQuery(cQuery)
+                           .setLockMode(LockModeType.NONE);
+    }
+
+    /**
+     * Streams all available entities of type ET in the persistence store, in primary key order, over a single forward-only
+     * (read-only) Hibernate cursor that fetches fetchSize rows at a time. The persistence context is cleared after every
+     * fetchSize entities, before the next entity is fetched, so that memory use stays constant regardless of the number of
+     * records; each entity should be processed before the next is requested as it will be detached once its chunk is
+     * cleared. If the entity manager is not backed by Hibernate, the entities are instead read a page of fetchSize
+     * entities at a time (as by findAfter), clearing the persistence context before each page is read.
+     * <p>
+     * NOTE: clearing the persistence context detaches ALL entities managed by the entity manager, not only the ones streamed.
+     * The stream MUST be closed to release the cursor.
+     *
+     * @param fetchSize number of records to retrieve from the persistence store at a time
+     * @return stream of all entities of type ET that are available in the persistence store
+     * @throws IllegalArgumentException if fetchSize is not positive
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    @Override
+    public Stream<ET> streamAll(int fetchSize) throws EntityCRUDExceptionError {
+        if ( fetchSize < 1 ) throw new IllegalArgumentException("fetchSize must be positive: " + fetchSize);
+        try {
+            TypedQuery<ET> query = getFindAfterQuery(null);
+            Optional<Query<ET>> hibernateQuery = unwrapHibernateQuery(query);
+            if ( !hibernateQuery.isPresent() )
+                return streamAllByPage(fetchSize);
+            ScrollableResults results = hibernateQuery.get()
+                                                      .setFetchSize(fetchSize)
+                                                      .setReadOnly(true)
+                                                      .scroll(ScrollMode.FORWARD_ONLY);
+            return StreamSupport.stream
+                (
+                    new Spliterators.AbstractSpliterator<ET>(Long.MAX_VALUE,
+                                                            Spliterator.ORDERED | Spliterator.NONNULL)
+                    {
+                        private long count;
+
+                        @Override
+                        public boolean tryAdvance(Consumer<? super ET> action) {
+                            if ( count > 0 && count % fetchSize == 0 ) baseDelegate.getEntityManager().clear();
+                            if ( !results.next() ) return false;
+                            count++;
+                            action.accept(baseDelegate.classType.cast(results.get(0)));
+                            return true;
+                        }
+                    },
+                    false
+                ).onClose(results::close);
+        } catch ( Exception ex ) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
+        }
+    }
+
+    private Stream<ET> streamAllByPage(int fetchSize) {
+        return StreamSupport.stream
+            (
+                new Spliterators.AbstractSpliterator<ET>(Long.MAX_VALUE,
+                                                        Spliterator.ORDERED | Spliterator.NONNULL)
+                {
+                    private Iterator<ET> page = Collections.emptyIterator();
+                    private PKT          lastPk;
+                    private boolean      exhausted;
+
+                    @Override
+                    public boolean tryAdvance(Consumer<? super ET> action) {
+                        if ( !page.hasNext() ) {
+                            if ( exhausted ) return false;
+                            baseDelegate.getEntityManager().clear();
+                            List<ET> entities = getFindAfterQuery(lastPk).setMaxResults(fetchSize).getResultList();
+                            exhausted = entities.size() < fetchSize;
+                            if ( entities.isEmpty() ) return false;
+                            page = entities.iterator();
+                        }
+                        ET entity = page.next();
+                        lastPk = entity.getPk();
+                        action.accept(entity);
+                        return true;
+                    }
+                },
+                false
+            );
+    }
+
+    @Override
+    public Stream<ET> parallelLoad(EntityManagerFactory entityManagerFactory,
+                                   Stream<PKT> pktStream,
+                                   int concurrency,
+                                   boolean ordered,
+                                   HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError
+    {
+        return baseDelegate.parallelLoad(entityManagerFactory, pktStream, concurrency, ordered, hierarchy);
+    }
+
+    private Optional<Query<ET>> unwrapHibernateQuery(TypedQuery<ET> query) {
+        try {
+            //noinspection unchecked
+            return Optional.of(query.unwrap(Query.class));
+        } catch ( PersistenceException e ) {
+            return Optional.empty();
+        }
+    }
 }
@@ -5,8 +5,10 @@ import com.ridgid.oss.orm.EntityCRUDRead;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface JPAEntityCRUDReadDelegateRequired<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
         extends EntityCRUDRead<ET, PKT> {
@@ -29,4 +31,43 @@ public interface JPAEntityCRUDReadDelegateRequired<ET extends PrimaryKeyedEntity
      * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
      */
     List<ET> findAll(int offset, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    /**
+     * Finds and retrieves, in primary key order, up to limit entities of type ET whose primary key is greater than lastPk (keyset/seek pagination)
+     *
+     * @param lastPk primary key of the last entity of the previous page, or null to retrieve the first page
+     * @param limit  maximum number of records to retrieve
+     * @return list of entities of type ET ordered by primary key. If none available after lastPk, then returns a 0 length list.
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    List<ET> findAfter(PKT lastPk, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    @Override
+    Stream<ET> streamAll(int fetchSize) throws EntityCRUDExceptionError;
+
+    /**
+     * Loads the entities for the given primary keys concurrently, in batches of {@code getLoadBatchSize()}, with one
+     * EntityManager (obtained from the given factory) per worker. The entities are returned initialized per the hierarchy
+     * and detached. The returned stream should be closed if it is not fully consumed.
+     *
+     * @param entityManagerFactory factory to obtain the EntityManager for each worker from
+     * @param pktStream            primary keys of the entities to load
+     * @param concurrency          number of batches to load at the same time (at least 1)
+     * @param ordered              true to return the entities in the order of the batches of primary keys; false to return each batch as soon as it is loaded
+     * @param hierarchy            hierarchy with each of the loaded entities as the root to initialize (may be null)
+     * @return stream of the detached entities that exist for the given primary keys
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    Stream<ET> parallelLoad(EntityManagerFactory entityManagerFactory,
+                            Stream<PKT> pktStream,
+                            int concurrency,
+                            boolean ordered,
+                            HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    default Stream<ET> parallelLoad(EntityManagerFactory entityManagerFactory,
+                                    Stream<PKT> pktStream,
+                                    int concurrency,
+                                    boolean ordered) throws EntityCRUDExceptionError {
+        return parallelLoad(entityManagerFactory, pktStream, concurrency, ordered, null);
+    }
 }
@@ -1,5 +1,6 @@
 package com.ridgid.oss.orm.jpa;
 
+import com.ridgid.oss.common.cache.Cache;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.EntityCRUDUpdate;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
@@ -8,8 +9,12 @@ import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
 @SuppressWarnings({"unused", "WeakerAccess"})
 public class JPAEntityCRUDUpdateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
     implements
@@ -62,6 +67,16 @@ public class JPAEntityCRUDUpdateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.getEntityManager();
     }
 
+    @Override
+    public void setEntityCache(Cache<PKT, ET> entityCache) {
+        baseDelegate.setEntityCache(entityCache);
+    }
+
+    @Override
+    public Optional<Cache<PKT, ET>> getEntityCache() {
+        return baseDelegate.getEntityCache();
+    }
+
     @Override
     public Class<ET> getClassType() {
         return baseDelegate.getClassType();
@@ -92,6 +107,11 @@ public class JPAEntityCRUDUpdateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
         return baseDelegate.getLoadBatchSize();
     }
 
+    @Override
+    public List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        return baseDelegate.initializeBatch(entities, hierarchy);
+    }
+
     @SuppressWarnings("TypeParameterHidesVisibleType")
     @Override
     public <ET> ET initializeEntity(ET entity, HierarchyProcessor<ET> hierarchy) {
@@ -130,9 +150,62 @@ public class JPAEntityCRUDUpdateDelegate<ET extends PrimaryKeyedEntity<PKT>, PKT
                 baseDelegate.getEntityManager().merge(entity);
             }
             baseDelegate.getEntityManager().flush();
+            baseDelegate.invalidateCachedEntity(entity.getPk());
             return Optional.of(entity);
         } catch ( Exception ex ) {
             throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
         }
     }
+
+    /**
+     * Updates each of the given entities that exists in the persistent storage (by primary key) in batches of the given size.
+     * For each batch, the existing entities are found with a single select (by primary key), the given entities that exist
+     * are merged and written with Hibernate JDBC batching (batch size set for the current session only), and then the
+     * persistence context is cleared so that memory use is bounded by the batch size. Entities that do not exist are skipped.
+     * <p>
+     * NOTE: clearing the persistence context detaches ALL entities managed by the entity manager, not only the ones updated.
+     *
+     * @param entities  entities to update in the persistent storage
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @return the number of entities updated
+     * @throws IllegalArgumentException if batchSize is not positive
+     * @throws EntityCRUDExceptionError if there is an issue updating the records (specific "cause" may vary)
+     */
+    @Override
+    public long updateAll(Stream<ET> entities, int batchSize) throws EntityCRUDExceptionError {
+        if ( batchSize < 1 ) throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        try {
+            return baseDelegate.withJdbcBatchSize
+                (
+                    batchSize,
+                    () -> JPAEntityCRUDDelegate.forEachBatch
+                        (
+                            entities,
+                            batchSize,
+                            this::writeBatch
+                        )
+                );
+        } catch ( RuntimeException ex ) {
+            throw baseDelegate.enhanceExceptionWithEntityManagerNullCheck(ex);
+        }
+    }
+
+    private long writeBatch(List<ET> batch) {
+        EntityManager entityManager = baseDelegate.getEntityManager();
+        Set<PKT> existing
+            = baseDelegate
+            .loadBatch(batch.stream().map(ET::getPk).collect(toList()))
+            .map(ET::getPk)
+            .collect(toSet());
+        long updated = 0;
+        for ( ET entity : batch ) {
+            if ( !existing.contains(entity.getPk()) ) continue;
+            entityManager.merge(entity);
+            updated++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        baseDelegate.invalidateCachedEntities(existing);
+        return updated;
+    }
 }
@@ -6,6 +6,7 @@ import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
 public interface JPAEntityCRUDUpdateDelegateRequired<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comparable<PKT>>
@@ -13,4 +14,7 @@ public interface JPAEntityCRUDUpdateDelegateRequired<ET extends PrimaryKeyedEnti
 
     @Override
     Optional<ET> optionalUpdate(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    @Override
+    long updateAll(Stream<ET> entities, int batchSize) throws EntityCRUDExceptionError;
 }
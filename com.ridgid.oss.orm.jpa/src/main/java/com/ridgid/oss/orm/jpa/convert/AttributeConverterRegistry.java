@@ -0,0 +1,56 @@
+package com.ridgid.oss.orm.jpa.convert;
+
+import javax.persistence.AttributeConverter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of shared AttributeConverter instances, for code that applies the converters named by {@code @Convert}
+ * annotations itself (e.g., native queries): each converter class is instantiated, through its public no-argument
+ * constructor, once; converters are expected to be stateless and thread-safe (as JPA providers also assume).
+ * <p>
+ * An instance may be registered for a converter class that has no no-argument constructor (e.g., a parameterized
+ * EnumConverter), or to replace the default instance.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class AttributeConverterRegistry {
+
+    private static final Map<Class<?>, AttributeConverter<?, ?>> converters = new ConcurrentHashMap<>();
+
+    private AttributeConverterRegistry() {
+    }
+
+    /**
+     * @param converterClass class of the converter
+     * @param converter      instance to use for the class
+     * @param <X>            entity attribute type
+     * @param <Y>            database column type
+     */
+    public static <X, Y> void register(Class<? extends AttributeConverter<X, Y>> converterClass,
+                                       AttributeConverter<X, Y> converter) {
+        converters.put(converterClass, converter);
+    }
+
+    /**
+     * @param converterClass class of the converter
+     * @return the shared instance of the converter class
+     * @throws IllegalArgumentException if the class is not an AttributeConverter, or could not be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    public static AttributeConverter<Object, Object> of(Class<?> converterClass) {
+        AttributeConverter<?, ?> converter = converters.get(converterClass);
+        if (converter == null)
+            converter = converters.computeIfAbsent(converterClass, AttributeConverterRegistry::instantiate);
+        return (AttributeConverter<Object, Object>) converter;
+    }
+
+    private static AttributeConverter<?, ?> instantiate(Class<?> converterClass) {
+        if (!AttributeConverter.class.isAssignableFrom(converterClass))
+            throw new IllegalArgumentException("Not an AttributeConverter: " + converterClass);
+        try {
+            return (AttributeConverter<?, ?>) converterClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to instantiate AttributeConverter: " + converterClass, e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ridgid.oss.orm.jpa.helper;
+
+import com.ridgid.oss.common.function.PredicateExpression;
+import com.ridgid.oss.common.function.PredicateExpression.Comparison;
+import com.ridgid.oss.common.function.PredicateExpression.Constant;
+import com.ridgid.oss.common.function.PredicateExpression.Junction;
+import com.ridgid.oss.common.function.PredicateExpression.Negation;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Translation of PredicateExpression trees into JPA Criteria predicates, so that the same filter may be evaluated in
+ * memory (PredicateExpression.compile) or pushed down to the database; the name of each property of the expression is
+ * the (dotted) path of the corresponding attribute of the entity. Both follow SQL three-valued logic: a comparison of a
+ * null attribute is unknown, so neither it nor its negation selects the entity.
+ */
+@SuppressWarnings({"WeakerAccess", "unused", "JavaDoc"})
+public final class JPACriteriaHelpers {
+
+    private JPACriteriaHelpers() {
+    }
+
+    /**
+     * @param entityManager
+     * @param entityClass
+     * @param expression
+     * @param <T>
+     * @return query selecting the entities of the class that satisfy the (simplified) expression
+     */
+    public static <T> CriteriaQuery<T> createQuery(EntityManager entityManager,
+                                                   Class<T> entityClass,
+                                                   PredicateExpression<? super T> expression) {
+        return createQuery(entityManager.getCriteriaBuilder(), entityClass, expression);
+    }
+
+    /**
+     * @param criteriaBuilder
+     * @param entityClass
+     * @param expression
+     * @param <T>
+     * @return query selecting the entities of the class that satisfy the (simplified) expression
+     */
+    public static <T> CriteriaQuery<T> createQuery(CriteriaBuilder criteriaBuilder,
+                                                   Class<T> entityClass,
+                                                   PredicateExpression<? super T> expression) {
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        return query.select(root).where(toPredicate(criteriaBuilder, root, expression));
+    }
+
+    /**
+     * @param criteriaBuilder
+     * @param root            path the property names of the expression are relative to
+     * @param expression
+     * @return criteria predicate equivalent to the (simplified) expression
+     */
+    public static Predicate toPredicate(CriteriaBuilder criteriaBuilder,
+                                        Path<?> root,
+                                        PredicateExpression<?> expression) {
+        return translate(criteriaBuilder, root, expression.simplify());
+    }
+
+    private static <T> Predicate translate(CriteriaBuilder criteriaBuilder,
+                                           Path<?> root,
+                                           PredicateExpression<T> expression) {
+        return expression.accept(new PredicateExpression.Visitor<T, Predicate>() {
+            @Override
+            public Predicate visitConstant(Constant<T> constant) {
+                return constant.getValue() ? criteriaBuilder.conjunction() : criteriaBuilder.disjunction();
+            }
+
+            @Override
+            public Predicate visitComparison(Comparison<T> comparison) {
+                return compare(criteriaBuilder, pathOf(root, comparison.getProperty().getName()), comparison);
+            }
+
+            @Override
+            public Predicate visitJunction(Junction<T> junction) {
+                List<PredicateExpression<T>> operands = junction.getOperands();
+                Predicate[] predicates = new Predicate[operands.size()];
+                for (int i = 0; i < predicates.length; i++)
+                    predicates[i] = operands.get(i).accept(this);
+                return junction.isConjunction() ? criteriaBuilder.and(predicates) : criteriaBuilder.or(predicates);
+            }
+
+            @Override
+            public Predicate visitNegation(Negation<T> negation) {
+                return criteriaBuilder.not(negation.getOperand().accept(this));
+            }
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder criteriaBuilder,
+                                     Path path,
+                                     Comparison<?> comparison) {
+        List<Object> operands = comparison.getOperands();
+        switch (comparison.getOperator()) {
+            case EQUAL:
+                return criteriaBuilder.equal(path, operands.get(0));
+            case NOT_EQUAL:
+                return criteriaBuilder.notEqual(path, operands.get(0));
+            case LESS_THAN:
+                return criteriaBuilder.lessThan(path, (Comparable) operands.get(0));
+            case LESS_THAN_OR_EQUAL:
+                return criteriaBuilder.lessThanOrEqualTo(path, (Comparable) operands.get(0));
+            case GREATER_THAN:
+                return criteriaBuilder.greaterThan(path, (Comparable) operands.get(0));
+            case GREATER_THAN_OR_EQUAL:
+                return criteriaBuilder.greaterThanOrEqualTo(path, (Comparable) operands.get(0));
+            case BETWEEN:
+                return criteriaBuilder.between(path, (Comparable) operands.get(0), (Comparable) operands.get(1));
+            case IN:
+                return path.in(operands);
+            case IS_NULL:
+                return criteriaBuilder.isNull(path);
+            case IS_NOT_NULL:
+                return criteriaBuilder.isNotNull(path);
+            default:
+                throw new IllegalArgumentException("Unsupported operator: " + comparison.getOperator());
+        }
+    }
+
+    private static Path<?> pathOf(Path<?> root,
+                                  String propertyName) {
+        Path<?> path = root;
+        for (String attributeName : propertyName.split("\\."))
+            path = path.get(attributeName);
+        return path;
+    }
+}
@@ -0,0 +1,429 @@
+package com.ridgid.oss.orm.jpa.helper;
+
+import com.ridgid.oss.common.helper.FieldPath;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes entities to a table through native, multi-row {@code INSERT ... VALUES (...),(...)} (or, per Dialect, upsert)
+ * statements, rather than one statement per entity as with the helpers of JPANativeQueryHelpers.
+ * <p>
+ * A writer is built once for an entity class and set of columns, and is thread-safe: the statement text for each number
+ * of rows is generated once and cached, field paths are compiled once, and the binding of each field (converter,
+ * temporal type, enum type) is the cached one of JPANativeQueryHelpers. The entities written are split into chunks of
+ * as many rows as fit within the parameter limit (and row limit) of the dialect, each chunk being one statement.
+ * <p>
+ * The field paths of the columns are checked against the entity class when the writer is built.
+ *
+ * @param <T> type of entity written
+ */
+@SuppressWarnings({"WeakerAccess", "unused", "JavaDoc"})
+public final class JPANativeBulkWriter<T> {
+
+    private final String tableName;
+    private final Dialect dialect;
+    private final List<Column<T>> columns;
+    private final List<String> columnNames;
+    private final List<String> keyColumnNames;
+    private final int rowsPerStatement;
+    private final Map<Integer, String> insertStatements = new ConcurrentHashMap<>();
+    private final Map<Integer, String> upsertStatements = new ConcurrentHashMap<>();
+
+    private JPANativeBulkWriter(Builder<T> builder) {
+        this.dialect = builder.dialect;
+        this.tableName
+                = builder.schemaName == null
+                ? dialect.quote(builder.tableName)
+                : dialect.quote(builder.schemaName) + "." + dialect.quote(builder.tableName);
+        this.columns = Collections.unmodifiableList(new ArrayList<>(builder.columns));
+        this.columnNames = Collections.unmodifiableList(columns.stream().map(c -> c.name).collect(Collectors.toList()));
+        this.keyColumnNames = Collections.unmodifiableList(new ArrayList<>(builder.keyColumnNames));
+        int maximumParameters = builder.maximumParameters > 0 ? builder.maximumParameters : dialect.maximumParameters;
+        this.rowsPerStatement = Math.min(dialect.maximumRows, Math.max(1, maximumParameters / columns.size()));
+    }
+
+    /**
+     * @param entityClass class of the entities written, against which the field paths of the columns are checked
+     * @param tableName
+     * @param <T>
+     * @return
+     */
+    public static <T> Builder<T> builder(Class<T> entityClass,
+                                         String tableName) {
+        return new Builder<>(entityClass, tableName);
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    /**
+     * @param entityManager
+     * @param entities
+     * @return total of the update counts reported for the statements executed
+     */
+    public int insert(EntityManager entityManager,
+                      Collection<? extends T> entities) {
+        return write(entityManager, entities, insertStatements, false);
+    }
+
+    /**
+     * Inserts the entities, or updates the non-key columns of the rows that already exist with the same key columns.
+     * <p>
+     * The key of each entity must be unique among the entities written: on PostgreSQL (ON CONFLICT DO UPDATE) and SQL
+     * Server (MERGE), a statement that contains the same key twice fails, rather than applying the rows in turn; as the
+     * entities are split into statements by count, duplicates must be removed by the caller.
+     *
+     * @param entityManager
+     * @param entities
+     * @return total of the update counts reported for the statements executed (as counted by the database; e.g., MySQL
+     * counts an updated row twice)
+     * @throws IllegalStateException         if the writer was built without key columns
+     * @throws UnsupportedOperationException if the dialect has no upsert statement
+     */
+    public int upsert(EntityManager entityManager,
+                      Collection<? extends T> entities) {
+        if (keyColumnNames.isEmpty())
+            throw new IllegalStateException("key columns must be specified to upsert into " + tableName);
+        return write(entityManager, entities, upsertStatements, true);
+    }
+
+    /**
+     * @param rowCount
+     * @return text of the insert statement for the number of rows
+     */
+    public String insertStatement(int rowCount) {
+        return statement(insertStatements, rowCount, false);
+    }
+
+    /**
+     * @param rowCount
+     * @return text of the upsert statement for the number of rows
+     */
+    public String upsertStatement(int rowCount) {
+        return statement(upsertStatements, rowCount, true);
+    }
+
+    private int write(EntityManager entityManager,
+                      Collection<? extends T> entities,
+                      Map<Integer, String> statements,
+                      boolean upsert) {
+        Objects.requireNonNull(entityManager, "entityManager must be non-null");
+        int count = 0;
+        int remaining = entities.size();
+        Iterator<? extends T> it = entities.iterator();
+        while (remaining > 0) {
+            int rowCount = Math.min(remaining, rowsPerStatement);
+            Query query = entityManager.createNativeQuery(statement(statements, rowCount, upsert));
+            int idx = 1;
+            for (int row = 0; row < rowCount; row++) {
+                T entity = it.next();
+                for (Column<T> column : columns)
+                    column.binder.bind(query, idx++, entity);
+            }
+            count += query.executeUpdate();
+            remaining -= rowCount;
+        }
+        return count;
+    }
+
+    private String statement(Map<Integer, String> statements,
+                             int rowCount,
+                             boolean upsert) {
+        String statement = statements.get(rowCount);
+        return statement != null
+                ? statement
+                : statements.computeIfAbsent(rowCount, n -> generateStatement(n, upsert));
+    }
+
+    private String generateStatement(int rowCount,
+                                     boolean upsert) {
+        if (rowCount < 1 || rowCount > rowsPerStatement)
+            throw new IllegalArgumentException("rowCount must be between 1 and " + rowsPerStatement);
+        String row = columns.stream().map(c -> "?").collect(Collectors.joining(",", "(", ")"));
+        String rows = String.join(",", Collections.nCopies(rowCount, row));
+        return upsert
+                ? dialect.upsert(tableName, columnNames, keyColumnNames, rows)
+                : dialect.insert(tableName, columnNames, rows);
+    }
+
+    /**
+     * Database specific identifier quoting, parameter and row limits, and upsert statement
+     */
+    public enum Dialect {
+
+        /**
+         * Standard SQL multi-row insert, with a conservative parameter limit; no upsert
+         */
+        GENERIC(999, Integer.MAX_VALUE) {
+            @Override
+            String upsert(String table, List<String> columns, List<String> keyColumns, String rows) {
+                throw new UnsupportedOperationException("upsert is not supported for the GENERIC dialect");
+            }
+        },
+
+        /**
+         * {@code MERGE INTO ... KEY (...) VALUES ...}
+         */
+        H2(Short.MAX_VALUE, Integer.MAX_VALUE) {
+            @Override
+            String upsert(String table, List<String> columns, List<String> keyColumns, String rows) {
+                return "MERGE INTO " + table + " (" + quoteAll(columns) + ") KEY (" + quoteAll(keyColumns) + ") VALUES " + rows;
+            }
+        },
+
+        /**
+         * {@code INSERT ... ON CONFLICT (...) DO UPDATE SET c = EXCLUDED.c}; the statement fails if it contains the same
+         * key twice ("ON CONFLICT DO UPDATE command cannot affect row a second time")
+         */
+        POSTGRESQL(Short.MAX_VALUE, Integer.MAX_VALUE) {
+            @Override
+            String upsert(String table, List<String> columns, List<String> keyColumns, String rows) {
+                List<String> updated = nonKeyColumns(columns, keyColumns);
+                return insert(table, columns, rows)
+                        + " ON CONFLICT (" + quoteAll(keyColumns) + ") DO "
+                        + (updated.isEmpty()
+                        ? "NOTHING"
+                        : "UPDATE SET " + updated.stream()
+                        .map(c -> quote(c) + " = EXCLUDED." + quote(c))
+                        .collect(Collectors.joining(",")));
+            }
+        },
+
+        /**
+         * {@code INSERT ... ON DUPLICATE KEY UPDATE c = VALUES(c)}
+         */
+        MYSQL(65535, Integer.MAX_VALUE) {
+            @Override
+            String quote(String identifier) {
+                return "`" + identifier + "`";
+            }
+
+            @Override
+            String upsert(String table, List<String> columns, List<String> keyColumns, String rows) {
+                List<String> updated = nonKeyColumns(columns, keyColumns);
+                if (updated.isEmpty())
+                    updated = keyColumns.subList(0, 1);
+                return insert(table, columns, rows)
+                        + " ON DUPLICATE KEY UPDATE "
+                        + updated.stream()
+                        .map(c -> quote(c) + " = VALUES(" + quote(c) + ")")
+                        .collect(Collectors.joining(","));
+            }
+        },
+
+        /**
+         * {@code MERGE INTO ... USING (VALUES ...) AS src (...) ON ...}; SQL Server allows 2100 parameters per statement
+         * (less a margin for the driver) and 1000 rows per table value constructor; the statement fails if it contains the
+         * same key twice (a MERGE may not update or delete the same target row more than once)
+         */
+        SQL_SERVER(2000, 1000) {
+            @Override
+            String quote(String identifier) {
+                return "[" + identifier + "]";
+            }
+
+            @Override
+            String upsert(String table, List<String> columns, List<String> keyColumns, String rows) {
+                List<String> updated = nonKeyColumns(columns, keyColumns);
+                return "MERGE INTO " + table + " AS tgt USING (VALUES " + rows + ") AS src (" + quoteAll(columns) + ")"
+                        + " ON " + keyColumns.stream()
+                        .map(c -> "tgt." + quote(c) + " = src." + quote(c))
+                        .collect(Collectors.joining(" AND "))
+                        + (updated.isEmpty()
+                        ? ""
+                        : " WHEN MATCHED THEN UPDATE SET " + updated.stream()
+                        .map(c -> quote(c) + " = src." + quote(c))
+                        .collect(Collectors.joining(",")))
+                        + " WHEN NOT MATCHED THEN INSERT (" + quoteAll(columns) + ") VALUES ("
+                        + columns.stream().map(c -> "src." + quote(c)).collect(Collectors.joining(","))
+                        + ");";
+            }
+        };
+
+        private final int maximumParameters;
+        private final int maximumRows;
+
+        Dialect(int maximumParameters,
+                int maximumRows) {
+            this.maximumParameters = maximumParameters;
+            this.maximumRows = maximumRows;
+        }
+
+        public int getMaximumParameters() {
+            return maximumParameters;
+        }
+
+        public int getMaximumRows() {
+            return maximumRows;
+        }
+
+        String quote(String identifier) {
+            return "\"" + identifier + "\"";
+        }
+
+        final String quoteAll(List<String> identifiers) {
+            return identifiers.stream().map(this::quote).collect(Collectors.joining(","));
+        }
+
+        String insert(String table, List<String> columns, String rows) {
+            return "INSERT INTO " + table + " (" + quoteAll(columns) + ") VALUES " + rows;
+        }
+
+        abstract String upsert(String table, List<String> columns, List<String> keyColumns, String rows);
+
+        private static List<String> nonKeyColumns(List<String> columns,
+                                                  List<String> keyColumns) {
+            return columns.stream().filter(c -> !keyColumns.contains(c)).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param <T> type of entity written
+     */
+    public static final class Builder<T> {
+
+        private final Class<T> entityClass;
+        private final String tableName;
+        private final List<Column<T>> columns = new ArrayList<>();
+        private final List<String> keyColumnNames = new ArrayList<>();
+        private String schemaName;
+        private Dialect dialect = Dialect.GENERIC;
+        private int maximumParameters;
+
+        private Builder(Class<T> entityClass,
+                        String tableName) {
+            this.entityClass = Objects.requireNonNull(entityClass, "entityClass must be non-null");
+            this.tableName = Objects.requireNonNull(tableName, "tableName must be non-null");
+        }
+
+        public Builder<T> schema(String schemaName) {
+            this.schemaName = schemaName;
+            return this;
+        }
+
+        public Builder<T> dialect(Dialect dialect) {
+            this.dialect = Objects.requireNonNull(dialect, "dialect must be non-null");
+            return this;
+        }
+
+        /**
+         * @param maximumParameters parameter limit of the driver, when lower than that of the dialect
+         * @return
+         */
+        public Builder<T> maximumParameters(int maximumParameters) {
+            if (maximumParameters < 1)
+                throw new IllegalArgumentException("maximumParameters must be positive");
+            this.maximumParameters = maximumParameters;
+            return this;
+        }
+
+        /**
+         * @param columnNames
+         * @param fieldPaths  (dotted) paths of the fields, in the entity, holding the values of the columns
+         * @return
+         * @throws IllegalArgumentException if a field path is not declared by the entity class (see
+         *                                  {@code FieldPath.checkDeclaredBy})
+         */
+        public Builder<T> columns(List<String> columnNames,
+                                  List<String> fieldPaths) {
+            fieldPaths.forEach(fieldPath -> FieldPath.of(fieldPath).checkDeclaredBy(entityClass));
+            return columns(columnNames, fieldPaths, Function.identity());
+        }
+
+        /**
+         * @param columnNames
+         * @param fieldPaths  (dotted) paths of the fields, in the object the root function obtains from the entity (e.g.,
+         *                    its primary key), holding the values of the columns
+         * @param root
+         * @return
+         */
+        public Builder<T> columns(List<String> columnNames,
+                                  List<String> fieldPaths,
+                                  Function<? super T, ?> root) {
+            if (columnNames.size() != fieldPaths.size())
+                throw new IllegalArgumentException("column names and field paths must match in number");
+            for (int i = 0; i < columnNames.size(); i++) {
+                FieldPath path = FieldPath.of(fieldPaths.get(i));
+                addColumn(columnNames.get(i),
+                        (q, idx, entity) -> JPANativeQueryHelpers.setFieldPathParameterValue(q, idx, root.apply(entity), path));
+            }
+            return this;
+        }
+
+        /**
+         * @param columnName
+         * @param getter     function obtaining the (basic, non Date/Calendar) value of the column from the entity; a Date
+         *                   or Calendar value is rejected with an IllegalArgumentException when written, as its temporal
+         *                   type is unknown
+         * @return
+         */
+        public Builder<T> column(String columnName,
+                                 Function<? super T, ?> getter) {
+            return addColumn(columnName,
+                    (q, idx, entity) -> JPANativeQueryHelpers.setBasicParameterValue(q, idx, getter.apply(entity)));
+        }
+
+        /**
+         * @param keyColumnNames columns (among those written) identifying the rows to update when upserting
+         * @return
+         */
+        public Builder<T> keyColumns(List<String> keyColumnNames) {
+            this.keyColumnNames.addAll(keyColumnNames);
+            return this;
+        }
+
+        public JPANativeBulkWriter<T> build() {
+            if (columns.isEmpty())
+                throw new IllegalStateException("at least one column must be specified");
+            for (String keyColumnName : keyColumnNames)
+                if (columns.stream().noneMatch(c -> c.name.equals(keyColumnName)))
+                    throw new IllegalStateException("key column " + keyColumnName + " is not among the columns written");
+            return new JPANativeBulkWriter<>(this);
+        }
+
+        private Builder<T> addColumn(String columnName,
+                                     ColumnBinder<T> binder) {
+            Objects.requireNonNull(columnName, "columnName must be non-null");
+            if (columns.stream().anyMatch(c -> c.name.equals(columnName)))
+                throw new IllegalArgumentException("duplicate column " + columnName);
+            columns.add(new Column<>(columnName, binder));
+            return this;
+        }
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final ColumnBinder<T> binder;
+
+        private Column(String name,
+                       ColumnBinder<T> binder) {
+            this.name = name;
+            this.binder = binder;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnBinder<T> {
+        void bind(Query q, int idx, T entity);
+    }
+}
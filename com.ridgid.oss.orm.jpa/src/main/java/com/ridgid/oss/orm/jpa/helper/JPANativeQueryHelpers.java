@@ -1,8 +1,10 @@
 package com.ridgid.oss.orm.jpa.helper;
 
-import com.ridgid.oss.common.helper.FieldReflectionHelpers;
+import com.ridgid.oss.common.helper.ClassAccessor.FieldAccessor;
+import com.ridgid.oss.common.helper.FieldPath;
 import com.ridgid.oss.common.helper.PrimaryKeyAutoGenerationType;
 import com.ridgid.oss.orm.entity.CreateModifyTracking;
+import com.ridgid.oss.orm.jpa.convert.AttributeConverterRegistry;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Column;
@@ -12,7 +14,6 @@ import javax.persistence.Enumerated;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -22,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -39,6 +41,8 @@ import static javax.persistence.EnumType.STRING;
 @SuppressWarnings({"WeakerAccess", "unused", "JavaDoc"})
 public final class JPANativeQueryHelpers {
 
+    private static final Map<Field, ParameterBinder> parameterBinders = new ConcurrentHashMap<>();
+
     private JPANativeQueryHelpers() {
     }
 
@@ -171,17 +175,25 @@ public final class JPANativeQueryHelpers {
                                                   Object obj,
                                                   int offset,
                                                   List<String> fieldNames) {
-        for (int i = 0; i < fieldNames.size(); i++) {
-            Optional<Map.Entry<Object, Field>> objectField = FieldReflectionHelpers.determineObjectAndFieldForPathIntoObject(obj, fieldNames.get(i));
-            Optional<Object> valueObj = objectField.map(Map.Entry::getKey);
-            Optional<Field> f = objectField.map(Map.Entry::getValue);
-            if (!f.isPresent())
-                q.setParameter(offset + i + 1, null);
-            else if (f.get().isAnnotationPresent(Convert.class))
-                setConvertedParameterValue(q, valueObj.orElse(null), offset, i, f.get());
-            else
-                setBasicParameterValue(q, valueObj.orElse(null), offset, i, f.get());
-        }
+        for (int i = 0; i < fieldNames.size(); i++)
+            setFieldPathParameterValue(q, offset + i + 1, obj, FieldPath.of(fieldNames.get(i)));
+    }
+
+    /**
+     * @param q
+     * @param idx
+     * @param obj
+     * @param path
+     */
+    static void setFieldPathParameterValue(Query q,
+                                           int idx,
+                                           Object obj,
+                                           FieldPath path) {
+        Object valueObj = path.resolveOwner(obj);
+        if (valueObj == null)
+            q.setParameter(idx, null);
+        else
+            parameterBinderFor(path.lastField(valueObj)).bind(q, idx, valueObj);
     }
 
     public static void setInsertQueryColumnValues(Query q,
@@ -193,44 +205,42 @@ public final class JPANativeQueryHelpers {
             setBasicParameterValue(q, obj, offset, i, additionalColumnGetters.get(i));
     }
 
-    private static void setConvertedParameterValue(Query q,
-                                                   Object obj,
-                                                   int offset,
-                                                   int i,
-                                                   Field f) {
-        try {
-            @SuppressWarnings("unchecked")
-            AttributeConverter converter
-                    = (AttributeConverter) f
-                    .getAnnotation(Convert.class)
-                    .converter()
-                    .getConstructor()
-                    .newInstance();
-            //noinspection unchecked
-            q.setParameter
-                    (
-                            i + offset + 1,
-                            converter.convertToDatabaseColumn(getFieldValueOrThrowRuntimeException(obj, f))
-                    );
-        } catch (InstantiationException | InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * @param field
+     * @return (cached) binder of the value of the field to a query parameter; the converter, temporal type, or enum type
+     * of the field is determined once
+     */
+    private static ParameterBinder parameterBinderFor(FieldAccessor field) {
+        ParameterBinder binder = parameterBinders.get(field.getField());
+        return binder != null
+                ? binder
+                : parameterBinders.computeIfAbsent(field.getField(), f -> createParameterBinder(field));
     }
 
-    private static void setBasicParameterValue(Query q,
-                                               Object obj,
-                                               int offset,
-                                               int i,
-                                               Field f) {
+    private static ParameterBinder createParameterBinder(FieldAccessor field) {
+        Field f = field.getField();
+        if (f.isAnnotationPresent(Convert.class)) {
+            AttributeConverter<Object, Object> converter
+                    = AttributeConverterRegistry.of(f.getAnnotation(Convert.class).converter());
+            return (q, idx, obj) -> q.setParameter(idx, converter.convertToDatabaseColumn(field.get(obj)));
+        }
         Class<?> ft = f.getType();
-        if (ft == Calendar.class)
-            setCalendarParameterValue(q, obj, i + offset + 1, f);
-        else if (ft == Date.class)
-            setDateParameterValue(q, obj, i + offset + 1, f);
-        else if (ft.isEnum())
-            setEnumParameterValue(q, obj, i + offset + 1, f);
-        else
-            q.setParameter(i + offset + 1, getFieldValueOrThrowRuntimeException(obj, f));
+        if (ft == Calendar.class) {
+            TemporalType tt = JPAFieldReflectionHelpers.getJPATemporalTypeForAmbiguousTemporalField(f);
+            return (q, idx, obj) -> q.setParameter(idx, (Calendar) field.get(obj), tt);
+        }
+        if (ft == Date.class) {
+            TemporalType tt = JPAFieldReflectionHelpers.getJPATemporalTypeForAmbiguousTemporalField(f);
+            return (q, idx, obj) -> q.setParameter(idx, (Date) field.get(obj), tt);
+        }
+        if (ft.isEnum()) {
+            boolean ordinal = determineEnumType(f).equals(ORDINAL);
+            return (q, idx, obj) -> {
+                Enum value = (Enum) field.get(obj);
+                q.setParameter(idx, value == null ? null : ordinal ? value.ordinal() : value.name());
+            };
+        }
+        return (q, idx, obj) -> q.setParameter(idx, field.get(obj));
     }
 
     /**
@@ -245,11 +255,22 @@ public final class JPANativeQueryHelpers {
                                                int offset,
                                                int i,
                                                Function<Object, Object> getter) {
-        Object val = getter.apply(obj);
+        setBasicParameterValue(q, i + offset + 1, getter.apply(obj));
+    }
+
+    /**
+     * @param q
+     * @param idx
+     * @param val value, obtained without a field (so without its temporal type), of a query parameter
+     * @throws IllegalArgumentException if the value is a Date or Calendar
+     */
+    static void setBasicParameterValue(Query q,
+                                       int idx,
+                                       Object val) {
         if (val instanceof Calendar || val instanceof Date)
             throw new IllegalArgumentException("Embedded required fields of type Date or Calendar not supported. Used java.time package Date/Time types instead");
         else
-            q.setParameter(i + offset + 1, val);
+            q.setParameter(idx, val);
     }
 
     /**
@@ -281,16 +302,11 @@ public final class JPANativeQueryHelpers {
     }
 
     /**
-     * @param q
-     * @param obj
      * @param f
+     * @return
      */
-    private static void setEnumParameterValue(Query q,
-                                              Object obj,
-                                              int idx,
-                                              Field f) {
-        EnumType enumType
-                = Optional.ofNullable(f.getAnnotation(Enumerated.class))
+    private static EnumType determineEnumType(Field f) {
+        return Optional.ofNullable(f.getAnnotation(Enumerated.class))
                 .map(Enumerated::value)
                 .orElseGet(
                         () -> Optional.ofNullable(f.getAnnotation(Column.class))
@@ -299,13 +315,6 @@ public final class JPANativeQueryHelpers {
                                       .map(replaceWith(ORDINAL))
                                       .orElse(STRING)
                 );
-        q.setParameter
-                (
-                        idx,
-                        enumType.equals(ORDINAL)
-                                ? ((Enum) getFieldValueOrThrowRuntimeException(obj, f)).ordinal()
-                                : ((Enum) getFieldValueOrThrowRuntimeException(obj, f)).name()
-                );
     }
 
     /**
@@ -363,4 +372,11 @@ public final class JPANativeQueryHelpers {
         }
     }
 
+    /**
+     * Binds the value of a field of an object to a positional query parameter
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(Query q, int idx, Object obj);
+    }
 }
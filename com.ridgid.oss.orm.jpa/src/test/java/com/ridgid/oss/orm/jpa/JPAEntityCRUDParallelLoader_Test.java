@@ -0,0 +1,217 @@
+package com.ridgid.oss.orm.jpa;
+
+import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JPAEntityCRUDParallelLoader_Test
+{
+
+    @Test
+    void when_ordered_the_entities_are_returned_in_the_order_of_the_primary_keys_even_if_later_batches_load_first() {
+        MockEntityManagers entityManagers = new MockEntityManagers(batch -> {
+            sleep(40 - batch.get(0));
+            return batch;
+        });
+        List<Integer> loaded;
+        try ( Stream<TestEntity> entities = delegate(4).parallelLoad(entityManagers.factory(),
+                                                                     IntStream.range(0, 40).boxed(),
+                                                                     4,
+                                                                     true,
+                                                                     null) )
+        {
+            loaded = entities.map(TestEntity::getPk).collect(toList());
+        }
+        assertEquals(IntStream.range(0, 40).boxed().collect(toList()), loaded);
+        entityManagers.assertAllClosedAndNoneWhileInUse();
+    }
+
+    @Test
+    void when_unordered_each_entity_is_returned_exactly_once() {
+        MockEntityManagers entityManagers = new MockEntityManagers(batch -> {
+            sleep(40 - batch.get(0));
+            return batch;
+        });
+        List<Integer> loaded;
+        try ( Stream<TestEntity> entities = delegate(4).parallelLoad(entityManagers.factory(),
+                                                                     IntStream.range(0, 40).boxed(),
+                                                                     4,
+                                                                     false,
+                                                                     null) )
+        {
+            loaded = entities.map(TestEntity::getPk).sorted().collect(toList());
+        }
+        assertEquals(IntStream.range(0, 40).boxed().collect(toList()), loaded);
+        entityManagers.assertAllClosedAndNoneWhileInUse();
+    }
+
+    @Test
+    void when_a_batch_fails_to_load_the_exception_is_thrown_to_the_consumer_and_the_entity_managers_are_closed() {
+        MockEntityManagers entityManagers = new MockEntityManagers(batch -> {
+            if ( batch.contains(13) ) throw new IllegalStateException("failed to load 13");
+            return batch;
+        });
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            try ( Stream<TestEntity> entities = delegate(2).parallelLoad(entityManagers.factory(),
+                                                                         IntStream.range(0, 40).boxed(),
+                                                                         3,
+                                                                         true,
+                                                                         null) )
+            {
+                entities.forEach(entity -> {});
+            }
+        });
+        assertEquals("failed to load 13", e.getMessage());
+        entityManagers.assertAllClosedAndNoneWhileInUse();
+    }
+
+    @Test
+    void when_the_stream_is_closed_early_the_remaining_keys_are_not_consumed_and_busy_workers_close_their_own_entity_managers() {
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        MockEntityManagers entityManagers = new MockEntityManagers(batch -> {
+            if ( batch.get(0) > 0 ) {
+                try {
+                    neverReleased.await();
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return batch;
+        });
+        AtomicInteger consumedKeys = new AtomicInteger();
+        Stream<TestEntity> entities = delegate(2).parallelLoad(entityManagers.factory(),
+                                                              IntStream.range(0, 1000)
+                                                                       .boxed()
+                                                                       .peek(pk -> consumedKeys.incrementAndGet()),
+                                                              2,
+                                                              true,
+                                                              null);
+        Iterator<TestEntity> iterator = entities.iterator();
+        assertEquals(0, (int) iterator.next().getPk());
+        entities.close();
+        assertTrue(consumedKeys.get() <= 10, "Consumed " + consumedKeys.get() + " keys after closing early");
+        entityManagers.assertAllClosedAndNoneWhileInUse();
+    }
+
+    private static JPAEntityCRUDDelegate<TestEntity, Integer> delegate(int loadBatchSize) {
+        return new JPAEntityCRUDDelegate<>(TestEntity.class, Integer.class, (short) loadBatchSize);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands out mock EntityManagers whose queries return an entity per (distinct) primary key of the batch as mapped by
+     * the given loader, and tracks whether any EntityManager is closed while a query through it is running
+     */
+    private static final class MockEntityManagers
+    {
+        private final Function<List<Integer>, List<Integer>> loader;
+        private final List<EntityManager>                    created = Collections.synchronizedList(new ArrayList<>());
+        private final Set<EntityManager>                     closed  = ConcurrentHashMap.newKeySet();
+        private final Set<EntityManager>                     inUse   = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger                          closedWhileInUse = new AtomicInteger();
+
+        private MockEntityManagers(Function<List<Integer>, List<Integer>> loader) {
+            this.loader = loader;
+        }
+
+        private EntityManagerFactory factory() {
+            EntityManagerFactory factory = mock(EntityManagerFactory.class);
+            when(factory.createEntityManager()).thenAnswer(invocation -> createEntityManager());
+            return factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        private EntityManager createEntityManager() {
+            // deep stubs build the criteria query, whose execution is then stubbed
+            EntityManager entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+            when(entityManager.createQuery(any(CriteriaQuery.class))).thenAnswer(invocation -> {
+                inUse.add(entityManager);
+                return query();
+            });
+            doAnswer(invocation -> {
+                inUse.remove(entityManager);
+                return null;
+            }).when(entityManager).clear();
+            doAnswer(invocation -> {
+                if ( inUse.contains(entityManager) ) closedWhileInUse.incrementAndGet();
+                closed.add(entityManager);
+                return null;
+            }).when(entityManager).close();
+            created.add(entityManager);
+            return entityManager;
+        }
+
+        @SuppressWarnings("unchecked")
+        private TypedQuery<TestEntity> query() {
+            List<Integer>          searchKeys = new ArrayList<>();
+            TypedQuery<TestEntity> query      = mock(TypedQuery.class);
+            when(query.setParameter(eq("searchKeys"), any())).thenAnswer(invocation -> {
+                searchKeys.addAll(invocation.getArgument(1));
+                return query;
+            });
+            when(query.getResultList()).thenAnswer(invocation -> {
+                List<Integer> batch = new ArrayList<>(new LinkedHashSet<>(searchKeys));
+                return loader.apply(batch).stream().map(TestEntity::new).collect(toList());
+            });
+            return query;
+        }
+
+        private void assertAllClosedAndNoneWhileInUse() {
+            long deadline = System.currentTimeMillis() + 5000;
+            while ( closed.size() < created.size() && System.currentTimeMillis() < deadline )
+                sleep(10);
+            assertEquals(created.size(), closed.size(), "Every EntityManager should be closed");
+            assertEquals(0, closedWhileInUse.get(), "No EntityManager should be closed while a worker is using it");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class TestEntity implements PrimaryKeyedEntity<Integer>
+    {
+        private final Integer pk;
+
+        private TestEntity(Integer pk) {
+            this.pk = pk;
+        }
+
+        @Override
+        public Integer getPk() {
+            return pk;
+        }
+    }
+}
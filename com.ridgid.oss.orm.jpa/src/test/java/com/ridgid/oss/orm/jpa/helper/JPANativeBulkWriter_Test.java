@@ -0,0 +1,237 @@
+package com.ridgid.oss.orm.jpa.helper;
+
+import com.ridgid.oss.orm.jpa.helper.JPANativeBulkWriter.Dialect;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class JPANativeBulkWriter_Test {
+
+    @SuppressWarnings("unused")
+    private static class Key {
+        private int id;
+
+        Key(int id) {
+            this.id = id;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class BaseItem {
+        private Key key;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Item extends BaseItem {
+        private String name;
+        private Object extra;
+
+        Item(int id) {
+            ((BaseItem) this).key = new Key(id);
+            this.name = "item" + id;
+        }
+    }
+
+    /**
+     * @return entity manager handing out the given queries, in order, for the native statements created
+     */
+    private static EntityManager entityManager(Query query, Query... queries) {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query, queries);
+        return entityManager;
+    }
+
+    /**
+     * @return query reporting the given number of rows written when executed
+     */
+    private static Query query(int rowsWritten) {
+        Query query = mock(Query.class);
+        when(query.executeUpdate()).thenReturn(rowsWritten);
+        return query;
+    }
+
+    /**
+     * Verifies the statements created through the entity manager, in order
+     */
+    private static void verifyStatements(EntityManager entityManager, String... statements) {
+        ArgumentCaptor<String> created = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, times(statements.length)).createNativeQuery(created.capture());
+        assertEquals(Arrays.asList(statements), created.getAllValues());
+    }
+
+    /**
+     * Verifies the query was executed once, with exactly the given parameters by position
+     */
+    private static void verifyExecutedWith(Query query, Object... parameters) {
+        for (int idx = 0; idx < parameters.length; idx++)
+            verify(query).setParameter(idx + 1, parameters[idx]);
+        verify(query).executeUpdate();
+        verifyNoMoreInteractions(query);
+    }
+
+    private static JPANativeBulkWriter.Builder<Item> builder(Dialect dialect) {
+        return JPANativeBulkWriter.builder(Item.class, "item")
+                .schema("inventory")
+                .dialect(dialect)
+                .columns(Arrays.asList("id", "name"), Arrays.asList("key.id", "name"))
+                .keyColumns(Collections.singletonList("id"));
+    }
+
+    private static List<Item> items(int count) {
+        return IntStream.range(0, count).mapToObj(Item::new).collect(toList());
+    }
+
+    @Test
+    void it_generates_the_insert_statement_of_each_dialect() {
+        assertEquals("INSERT INTO \"inventory\".\"item\" (\"id\",\"name\") VALUES (?,?),(?,?)",
+                builder(Dialect.GENERIC).build().insertStatement(2));
+        assertEquals("INSERT INTO \"inventory\".\"item\" (\"id\",\"name\") VALUES (?,?),(?,?)",
+                builder(Dialect.H2).build().insertStatement(2));
+        assertEquals("INSERT INTO \"inventory\".\"item\" (\"id\",\"name\") VALUES (?,?),(?,?)",
+                builder(Dialect.POSTGRESQL).build().insertStatement(2));
+        assertEquals("INSERT INTO `inventory`.`item` (`id`,`name`) VALUES (?,?),(?,?)",
+                builder(Dialect.MYSQL).build().insertStatement(2));
+        assertEquals("INSERT INTO [inventory].[item] ([id],[name]) VALUES (?,?),(?,?)",
+                builder(Dialect.SQL_SERVER).build().insertStatement(2));
+    }
+
+    @Test
+    void it_generates_the_upsert_statement_of_each_dialect() {
+        assertThrows(UnsupportedOperationException.class, () -> builder(Dialect.GENERIC).build().upsertStatement(1));
+        assertEquals("MERGE INTO \"inventory\".\"item\" (\"id\",\"name\") KEY (\"id\") VALUES (?,?),(?,?)",
+                builder(Dialect.H2).build().upsertStatement(2));
+        assertEquals("INSERT INTO \"inventory\".\"item\" (\"id\",\"name\") VALUES (?,?),(?,?)"
+                        + " ON CONFLICT (\"id\") DO UPDATE SET \"name\" = EXCLUDED.\"name\"",
+                builder(Dialect.POSTGRESQL).build().upsertStatement(2));
+        assertEquals("INSERT INTO `inventory`.`item` (`id`,`name`) VALUES (?,?),(?,?)"
+                        + " ON DUPLICATE KEY UPDATE `name` = VALUES(`name`)",
+                builder(Dialect.MYSQL).build().upsertStatement(2));
+        assertEquals("MERGE INTO [inventory].[item] AS tgt USING (VALUES (?,?),(?,?)) AS src ([id],[name])"
+                        + " ON tgt.[id] = src.[id]"
+                        + " WHEN MATCHED THEN UPDATE SET [name] = src.[name]"
+                        + " WHEN NOT MATCHED THEN INSERT ([id],[name]) VALUES (src.[id],src.[name]);",
+                builder(Dialect.SQL_SERVER).build().upsertStatement(2));
+    }
+
+    @Test
+    void it_generates_the_upsert_statement_of_each_dialect_when_all_the_columns_are_keys() {
+        JPANativeBulkWriter.Builder<Item> keysOnly = JPANativeBulkWriter.builder(Item.class, "item")
+                .columns(Collections.singletonList("id"), Collections.singletonList("key.id"))
+                .keyColumns(Collections.singletonList("id"));
+        assertEquals("INSERT INTO \"item\" (\"id\") VALUES (?) ON CONFLICT (\"id\") DO NOTHING",
+                keysOnly.dialect(Dialect.POSTGRESQL).build().upsertStatement(1));
+        assertEquals("INSERT INTO `item` (`id`) VALUES (?) ON DUPLICATE KEY UPDATE `id` = VALUES(`id`)",
+                keysOnly.dialect(Dialect.MYSQL).build().upsertStatement(1));
+        assertEquals("MERGE INTO [item] AS tgt USING (VALUES (?)) AS src ([id]) ON tgt.[id] = src.[id]"
+                        + " WHEN NOT MATCHED THEN INSERT ([id]) VALUES (src.[id]);",
+                keysOnly.dialect(Dialect.SQL_SERVER).build().upsertStatement(1));
+    }
+
+    @Test
+    void it_caches_the_statement_of_each_row_count() {
+        JPANativeBulkWriter<Item> writer = builder(Dialect.H2).build();
+        assertSame(writer.insertStatement(3), writer.insertStatement(3));
+        assertSame(writer.upsertStatement(3), writer.upsertStatement(3));
+        assertThrows(IllegalArgumentException.class, () -> writer.insertStatement(0));
+        assertThrows(IllegalArgumentException.class, () -> writer.insertStatement(writer.getRowsPerStatement() + 1));
+    }
+
+    @Test
+    void the_rows_per_statement_are_limited_by_the_parameters_and_rows_of_the_dialect_or_driver() {
+        assertEquals(499, builder(Dialect.GENERIC).build().getRowsPerStatement());
+        assertEquals(Short.MAX_VALUE / 2, builder(Dialect.H2).build().getRowsPerStatement());
+        assertEquals(1000, builder(Dialect.SQL_SERVER).build().getRowsPerStatement());
+        assertEquals(1000, JPANativeBulkWriter.builder(Item.class, "item")
+                .dialect(Dialect.SQL_SERVER)
+                .columns(Collections.singletonList("id"), Collections.singletonList("key.id"))
+                .build()
+                .getRowsPerStatement());
+        assertEquals(3, builder(Dialect.H2).maximumParameters(7).build().getRowsPerStatement());
+        assertEquals(1, builder(Dialect.H2).maximumParameters(1).build().getRowsPerStatement());
+    }
+
+    @Test
+    void the_entities_are_written_in_full_statements_followed_by_a_final_partial_statement() {
+        JPANativeBulkWriter<Item> writer = builder(Dialect.H2).maximumParameters(6).build();
+        Query first = query(3);
+        Query second = query(3);
+        Query last = query(1);
+        EntityManager entityManager = entityManager(first, second, last);
+        assertEquals(7, writer.insert(entityManager, items(7)));
+        verifyStatements(entityManager, writer.insertStatement(3), writer.insertStatement(3), writer.insertStatement(1));
+        verifyExecutedWith(first, 0, "item0", 1, "item1", 2, "item2");
+        verifyExecutedWith(second, 3, "item3", 4, "item4", 5, "item5");
+        verifyExecutedWith(last, 6, "item6");
+    }
+
+    @Test
+    void an_exact_multiple_of_the_rows_per_statement_is_written_in_full_statements_only() {
+        JPANativeBulkWriter<Item> writer = builder(Dialect.H2).maximumParameters(6).build();
+        EntityManager entityManager = entityManager(query(3), query(3));
+        assertEquals(6, writer.upsert(entityManager, items(6)));
+        verifyStatements(entityManager, writer.upsertStatement(3), writer.upsertStatement(3));
+        EntityManager none = mock(EntityManager.class);
+        assertEquals(0, writer.insert(none, items(0)));
+        verifyNoMoreInteractions(none);
+    }
+
+    @Test
+    void a_getter_column_binds_basic_values_and_rejects_dates() {
+        JPANativeBulkWriter<Item> writer = JPANativeBulkWriter.builder(Item.class, "item")
+                .column("id", item -> ((BaseItem) item).key.id)
+                .column("created", item -> item.extra)
+                .build();
+        Query query = query(1);
+        Item item = new Item(1);
+        item.extra = "basic";
+        writer.insert(entityManager(query), Collections.singletonList(item));
+        verifyExecutedWith(query, 1, "basic");
+        item.extra = new Date();
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.insert(entityManager(query(1)), Collections.singletonList(item)));
+    }
+
+    @Test
+    void the_field_paths_are_checked_against_the_entity_class_when_built() {
+        JPANativeBulkWriter.Builder<Item> builder = JPANativeBulkWriter.builder(Item.class, "item");
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.columns(Collections.singletonList("id"), Collections.singletonList("key.number")));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.columns(Collections.singletonList("id"), Collections.singletonList("code")));
+        // the fields of a value declared as Object are resolved for its runtime class when written
+        builder.columns(Collections.singletonList("extra"), Collections.singletonList("extra.anything"));
+    }
+
+    @Test
+    void upsert_requires_key_columns_among_the_columns_written() {
+        JPANativeBulkWriter<Item> withoutKeys = JPANativeBulkWriter.builder(Item.class, "item")
+                .dialect(Dialect.H2)
+                .columns(Collections.singletonList("id"), Collections.singletonList("key.id"))
+                .build();
+        assertThrows(IllegalStateException.class,
+                () -> withoutKeys.upsert(mock(EntityManager.class), items(1)));
+        assertThrows(IllegalStateException.class,
+                () -> JPANativeBulkWriter.builder(Item.class, "item")
+                        .columns(Collections.singletonList("name"), Collections.singletonList("name"))
+                        .keyColumns(Collections.singletonList("id"))
+                        .build());
+    }
+}
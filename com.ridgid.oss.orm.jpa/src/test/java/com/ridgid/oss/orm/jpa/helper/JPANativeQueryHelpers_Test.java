@@ -0,0 +1,175 @@
+package com.ridgid.oss.orm.jpa.helper;
+
+import com.ridgid.oss.orm.jpa.convert.AttributeConverterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Query;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class JPANativeQueryHelpers_Test {
+
+    private enum Color {RED, GREEN, BLUE}
+
+    public static class CountingConverter implements AttributeConverter<String, String> {
+        static final AtomicInteger instances = new AtomicInteger();
+
+        public CountingConverter() {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public String convertToDatabaseColumn(String attribute) {
+            return attribute == null ? null : attribute.toUpperCase();
+        }
+
+        @Override
+        public String convertToEntityAttribute(String dbData) {
+            return dbData == null ? null : dbData.toLowerCase();
+        }
+    }
+
+    public static class PrefixConverter implements AttributeConverter<String, String> {
+        private final String prefix;
+
+        public PrefixConverter(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String convertToDatabaseColumn(String attribute) {
+            return prefix + attribute;
+        }
+
+        @Override
+        public String convertToEntityAttribute(String dbData) {
+            return dbData.substring(prefix.length());
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Address {
+        private String city;
+    }
+
+    @SuppressWarnings("unused")
+    private static class BaseRow {
+        @Convert(converter = CountingConverter.class)
+        private String code;
+        @Temporal(TemporalType.DATE)
+        private Date date;
+        private Calendar calendar;
+        @Enumerated(EnumType.ORDINAL)
+        private Color ordinalColor;
+        @Enumerated(EnumType.STRING)
+        private Color stringColor;
+        @Column(precision = 1)
+        private Color precisionColor;
+        private Color defaultColor;
+        private Address address;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Row extends BaseRow {
+        @Convert(converter = PrefixConverter.class)
+        private String prefixed;
+    }
+
+    private static final List<String> fieldNames = Arrays.asList("code",
+            "date",
+            "calendar",
+            "ordinalColor",
+            "stringColor",
+            "precisionColor",
+            "defaultColor",
+            "address.city");
+
+    private static Row row(String code, Color color) {
+        Row row = new Row();
+        BaseRow base = row;
+        base.code = code;
+        base.date = new Date(86_400_000L);
+        base.calendar = new GregorianCalendar(2020, Calendar.JANUARY, 2);
+        base.ordinalColor = color;
+        base.stringColor = color;
+        base.precisionColor = color;
+        base.defaultColor = color;
+        return row;
+    }
+
+    @Test
+    void it_binds_each_field_according_to_its_converter_temporal_type_or_enum_type() {
+        Query query = mock(Query.class);
+        JPANativeQueryHelpers.setInsertQueryColumnValues(query, row("abc", Color.BLUE), 2, fieldNames);
+        verify(query).setParameter(3, "ABC");
+        verify(query).setParameter(4, new Date(86_400_000L), TemporalType.DATE);
+        verify(query).setParameter(5, new GregorianCalendar(2020, Calendar.JANUARY, 2), TemporalType.TIMESTAMP);
+        verify(query).setParameter(6, 2);
+        verify(query).setParameter(7, "BLUE");
+        verify(query).setParameter(8, 2);
+        verify(query).setParameter(9, "BLUE");
+        verify(query).setParameter(10, null);
+        verifyNoMoreInteractions(query);
+    }
+
+    @Test
+    void it_binds_null_values_as_null() {
+        Query query = mock(Query.class);
+        JPANativeQueryHelpers.setInsertQueryColumnValues(query,
+                row(null, null),
+                0,
+                Arrays.asList("code", "ordinalColor", "stringColor"));
+        for (int idx = 1; idx <= 3; idx++)
+            verify(query).setParameter(idx, null);
+        verifyNoMoreInteractions(query);
+    }
+
+    @Test
+    void it_reuses_one_converter_instance_for_every_row() {
+        AttributeConverter<Object, Object> shared = AttributeConverterRegistry.of(CountingConverter.class);
+        int instances = CountingConverter.instances.get();
+        for (String code : Arrays.asList("a", "b", "c")) {
+            Query query = mock(Query.class);
+            JPANativeQueryHelpers.setInsertQueryColumnValues(query, row(code, Color.RED), 0, fieldNames);
+            verify(query).setParameter(1, code.toUpperCase());
+        }
+        assertEquals(instances, CountingConverter.instances.get());
+        assertSame(shared, AttributeConverterRegistry.of(CountingConverter.class));
+    }
+
+    @Test
+    void a_converter_without_a_no_argument_constructor_is_used_once_registered() {
+        assertThrows(IllegalArgumentException.class, () -> AttributeConverterRegistry.of(PrefixConverter.class));
+        PrefixConverter converter = new PrefixConverter("#");
+        AttributeConverterRegistry.register(PrefixConverter.class, converter);
+        assertSame(converter, AttributeConverterRegistry.of(PrefixConverter.class));
+        Query query = mock(Query.class);
+        Row row = row("a", Color.RED);
+        row.prefixed = "x";
+        JPANativeQueryHelpers.setInsertQueryColumnValues(query, row, 0, Arrays.asList("prefixed"));
+        verify(query).setParameter(1, "#x");
+    }
+
+    @Test
+    void a_class_that_is_not_a_converter_is_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> AttributeConverterRegistry.of(String.class));
+    }
+}
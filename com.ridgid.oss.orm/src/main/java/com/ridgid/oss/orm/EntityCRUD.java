@@ -6,11 +6,14 @@ import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.common.hierarchy.VisitStatus;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -25,11 +28,25 @@ public interface EntityCRUD<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comp
     GeneralVisitHandler NO_OP_VISIT_HANDLER = (p, o) -> VisitStatus.OK_CONTINUE;
 
     default List<ET> initialize(Stream<ET> entityStream, HierarchyProcessor<ET> hierarchy) {
-        return entityStream.map(e -> initialize(e, hierarchy)).collect(toList());
+        return initializeBatch(entityStream.collect(toCollection(ArrayList::new)), hierarchy);
     }
 
     default List<ET> initialize(Stream<ET> entityStream) {
-        return entityStream.map(this::initialize).collect(toList());
+        return initialize(entityStream, null);
+    }
+
+    /**
+     * Load and initialize Lazily-Loaded fields and dependencies of all the given entities. By default, each entity is
+     * initialized one after another; implementations may instead initialize each level of the hierarchy for the whole
+     * batch of entities at once, so that the cost grows with the depth of the hierarchy rather than with the number of entities.
+     *
+     * @param entities  to load lazy loaded fields and lazy loaded dependencies for
+     * @param hierarchy hierarchy with each of the given entities as the root to load
+     * @return the given list of entities
+     */
+    default List<ET> initializeBatch(List<ET> entities, HierarchyProcessor<ET> hierarchy) {
+        entities.replaceAll(e -> initialize(e, hierarchy));
+        return entities;
     }
 
     /**
@@ -49,21 +66,14 @@ public interface EntityCRUD<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comp
     }
 
     default List<ET> initializeAndDetach(Stream<ET> entityStream, HierarchyProcessor<ET> hierarchy) {
-        return entityStream
-                .map(e -> initialize(e, hierarchy))
-                .collect(toList())
+        return initializeBatch(entityStream.collect(toCollection(ArrayList::new)), hierarchy)
                 .stream()
                 .map(e -> detach(e, hierarchy))
                 .collect(toList());
     }
 
     default List<ET> initializeAndDetach(Stream<ET> entityStream) {
-        return entityStream
-                .map(this::initialize)
-                .collect(toList())
-                .stream()
-                .map(this::detach)
-                .collect(toList());
+        return initializeAndDetach(entityStream, null);
     }
 
 
@@ -75,6 +85,75 @@ public interface EntityCRUD<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comp
         return initializeAndDetach(load(pktStream));
     }
 
+    /**
+     * Lazily load, initialize and detach the entities for the given primary keys, in chunks of {@code getLoadBatchSize()}
+     * primary keys at a time. The Persistence Context is cleared after each chunk has been detached, so memory use is
+     * proportional to the load batch size rather than to the number of primary keys; any changes pending in the
+     * Persistence Context that have not been flushed when the stream is consumed are discarded.
+     *
+     * @param pktStream primary keys of the entities to load
+     * @param hierarchy hierarchy with each of the loaded entities as the root to initialize and detach
+     * @return lazy stream of the detached entities, in the order of the chunks of primary keys
+     */
+    default Stream<ET> streamLoadInitializeAndDetach(Stream<PKT> pktStream, HierarchyProcessor<ET> hierarchy) {
+        return StreamHelpers
+                .batches
+                        (
+                                pktStream.filter(Objects::nonNull),
+                                Math.max(1, getLoadBatchSize())
+                        )
+                .flatMap
+                        (
+                                pkList -> loadInitializeAndDetachBatch(pkList, hierarchy).stream()
+                        );
+    }
+
+    default Stream<ET> streamLoadInitializeAndDetach(Stream<PKT> pktStream) {
+        return streamLoadInitializeAndDetach(pktStream, null);
+    }
+
+    /**
+     * Load, initialize and detach the entities for the given primary keys, in chunks of {@code getLoadBatchSize()}
+     * primary keys at a time, handing each detached entity to the given consumer (see {@code streamLoadInitializeAndDetach})
+     *
+     * @param pktStream primary keys of the entities to load
+     * @param hierarchy hierarchy with each of the loaded entities as the root to initialize and detach
+     * @param consumer  of the detached entities
+     * @return number of entities handed to the consumer
+     */
+    default long loadInitializeAndDetach(Stream<PKT> pktStream, HierarchyProcessor<ET> hierarchy, Consumer<? super ET> consumer) {
+        return streamLoadInitializeAndDetach(pktStream, hierarchy)
+                .mapToLong
+                        (
+                                e -> {
+                                    consumer.accept(e);
+                                    return 1L;
+                                }
+                        )
+                .sum();
+    }
+
+    default long loadInitializeAndDetach(Stream<PKT> pktStream, Consumer<? super ET> consumer) {
+        return loadInitializeAndDetach(pktStream, null, consumer);
+    }
+
+    /**
+     * Load, initialize and detach the entities for a single chunk of primary keys, then, clear the Persistence Context
+     *
+     * @param pkList    primary keys of the entities to load (null keys are ignored)
+     * @param hierarchy hierarchy with each of the loaded entities as the root to initialize and detach
+     * @return detached entities
+     */
+    default List<ET> loadInitializeAndDetachBatch(List<PKT> pkList, HierarchyProcessor<ET> hierarchy) {
+        pkList.removeIf(Objects::isNull);
+        if (pkList.isEmpty())
+            return new ArrayList<>(0);
+        List<ET> entities = initializeBatch(loadBatch(pkList).collect(toCollection(ArrayList::new)), hierarchy);
+        entities.replaceAll(e -> detach(e, hierarchy));
+        clearContext();
+        return entities;
+    }
+
     default Stream<ET> loadAndInitialize(Stream<PKT> pktStream, HierarchyProcessor<ET> hierarchy) {
         return load(pktStream).map(e -> initialize(e, hierarchy));
     }
@@ -85,19 +164,11 @@ public interface EntityCRUD<ET extends PrimaryKeyedEntity<PKT>, PKT extends Comp
 
     default Stream<ET> load(Stream<PKT> pktStream) {
         if (getLoadBatchSize() > 1)
-            return Stream
-                    .concat
+            return StreamHelpers
+                    .batches
                             (
                                     pktStream.filter(Objects::nonNull),
-                                    Stream.of((PKT) null)
-                            )
-                    .flatMap
-                            (
-                                    StreamHelpers.group
-                                            (
-                                                    getLoadBatchSize(),
-                                                    (PKT) null
-                                            )
+                                    getLoadBatchSize()
                             )
                     .flatMap
                             (
@@ -5,6 +5,9 @@ import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionAlreadyExists;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 
+import java.util.Collection;
+import java.util.stream.Stream;
+
 /**
  * Indicates the DAO implements the CREATE (add) method for the Entity Type ET
  *
@@ -27,4 +30,51 @@ public interface EntityCRUDCreate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
     }
 
     ET add(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists;
+
+    /**
+     * Adds all the given entities to the persistence store (insert/create) in batches of {@code getLoadBatchSize()}
+     * without refreshing them from the persistence store after they are added
+     *
+     * @param entities the valid entities to store in the persistence layer that are not already created/inserted by primary key
+     * @return the number of entities added
+     * @throws EntityCRUDExceptionError         if there is an issue inserting/creating the records (specific "cause" may vary)
+     * @throws EntityCRUDExceptionAlreadyExists if an entity with the same primary key of one of the given entities already exists in the persistent storage
+     */
+    default long addAll(Collection<ET> entities) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
+        return addAll(entities.stream());
+    }
+
+    /**
+     * Adds all the given entities to the persistence store (insert/create) in batches of {@code getLoadBatchSize()}
+     * without refreshing them from the persistence store after they are added
+     *
+     * @param entities the valid entities to store in the persistence layer that are not already created/inserted by primary key
+     * @return the number of entities added
+     * @throws EntityCRUDExceptionError         if there is an issue inserting/creating the records (specific "cause" may vary)
+     * @throws EntityCRUDExceptionAlreadyExists if an entity with the same primary key of one of the given entities already exists in the persistent storage
+     */
+    default long addAll(Stream<ET> entities) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
+        return addAll(entities, getLoadBatchSize(), false);
+    }
+
+    /**
+     * Adds all the given entities to the persistence store (insert/create) in batches of the given size. Implementations
+     * may write each batch to the persistence store as a single unit (e.g., a JDBC batch) and may release the entities
+     * of each batch from the persistence context once the batch is written.
+     *
+     * @param entities  the valid entities to store in the persistence layer that are not already created/inserted by primary key
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @param refresh   if true, each entity is refreshed with any database or persistence layer modifications after its batch is written
+     * @return the number of entities added
+     * @throws EntityCRUDExceptionError         if there is an issue inserting/creating the records (specific "cause" may vary)
+     * @throws EntityCRUDExceptionAlreadyExists if an entity with the same primary key of one of the given entities already exists in the persistent storage
+     */
+    default long addAll(Stream<ET> entities, int batchSize, boolean refresh) throws EntityCRUDExceptionError, EntityCRUDExceptionAlreadyExists {
+        long added = 0;
+        for (ET entity : (Iterable<ET>) entities::iterator) {
+            add(entity);
+            added++;
+        }
+        return added;
+    }
 }
@@ -1,10 +1,14 @@
 package com.ridgid.oss.orm;
 
+import com.ridgid.oss.common.function.PredicateExpression;
 import com.ridgid.oss.common.hierarchy.HierarchyProcessor;
 import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
+import java.util.Collection;
+import java.util.stream.Stream;
+
 /**
  * Indicates the DAO implements the CREATE (add) method for the Entity Type ET
  *
@@ -43,4 +47,58 @@ public interface EntityCRUDDelete<ET extends PrimaryKeyedEntity<PKT>, PKT extend
     default void optionalDelete(PKT pk) throws EntityCRUDExceptionError {
         optionalDelete(pk, null);
     }
+
+    /**
+     * Deletes the entities with the given primary keys from the persistent storage in batches of {@code getLoadBatchSize()}. Primary keys that do not exist are skipped.
+     *
+     * @param pks primary keys of the entities to delete from persistent storage
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    default long deleteAll(Collection<PKT> pks) throws EntityCRUDExceptionError {
+        return deleteAll(pks.stream());
+    }
+
+    /**
+     * Deletes the entities with the given primary keys from the persistent storage in batches of {@code getLoadBatchSize()}. Primary keys that do not exist are skipped.
+     *
+     * @param pks primary keys of the entities to delete from persistent storage
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    default long deleteAll(Stream<PKT> pks) throws EntityCRUDExceptionError {
+        return deleteAll(pks, getLoadBatchSize());
+    }
+
+    /**
+     * Deletes the entities with the given primary keys from the persistent storage in batches of the given size. Primary keys that do not exist are skipped.
+     * Implementations may delete each batch with a single statement.
+     *
+     * @param pks       primary keys of the entities to delete from persistent storage
+     * @param batchSize number of entities to delete from the persistence store at a time
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    default long deleteAll(Stream<PKT> pks, int batchSize) throws EntityCRUDExceptionError {
+        long deleted = 0;
+        for (PKT pk : (Iterable<PKT>) pks::iterator) {
+            try {
+                delete(pk);
+                deleted++;
+            } catch (EntityCRUDExceptionNotFound ignore) {
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes all the entities matching the given expression from the persistent storage. The property names of the
+     * expression are the (dotted) paths of the attributes of the entity. Implementations may delete the entities with a
+     * single statement.
+     *
+     * @param where expression the entities to delete satisfy
+     * @return the number of entities deleted
+     * @throws EntityCRUDExceptionError if there is an issue deleting/removing the records (specific "cause" may vary)
+     */
+    int deleteWhere(PredicateExpression<? super ET> where) throws EntityCRUDExceptionError;
 }
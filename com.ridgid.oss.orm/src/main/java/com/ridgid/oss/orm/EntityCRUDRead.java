@@ -5,8 +5,14 @@ import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Indicates the DAO implements the READ (find) methods for the Entity Type ET
@@ -59,4 +65,55 @@ public interface EntityCRUDRead<ET extends PrimaryKeyedEntity<PKT>, PKT extends
     }
 
     List<ET> findAll(int offset, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    /**
+     * Finds and retrieves, in primary key order, up to limit entities of type ET whose primary key is greater than lastPk (keyset/seek pagination).
+     * Unlike {@code findAll(offset, limit)}, the cost of retrieving a page does not grow with the number of records before it, and rows added or removed before the page do not shift its contents.
+     *
+     * @param lastPk primary key of the last entity of the previous page, or null to retrieve the first page
+     * @param limit  maximum number of records to retrieve
+     * @return list of entities of type ET ordered by primary key. If none available after lastPk, then returns a 0 length list.
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    default List<ET> findAfter(PKT lastPk, int limit) throws EntityCRUDExceptionError {
+        return findAfter(lastPk, limit, null);
+    }
+
+    List<ET> findAfter(PKT lastPk, int limit, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    /**
+     * Streams all available entities of type ET in the persistence store, in primary key order, retrieving fetchSize records from the persistence store at a time.
+     * By default, the records are retrieved page by page using {@code findAfter}; implementations may instead use a database cursor.
+     * The stream should be closed when no longer needed (e.g., try-with-resources) so that any underlying cursor is released.
+     *
+     * @param fetchSize number of records to retrieve from the persistence store at a time
+     * @return stream of all entities of type ET that are available in the persistence store
+     * @throws EntityCRUDExceptionError if there is an error retrieving from the persistence store
+     */
+    default Stream<ET> streamAll(int fetchSize) throws EntityCRUDExceptionError {
+        return StreamSupport.stream
+                (
+                        new Spliterators.AbstractSpliterator<ET>(Long.MAX_VALUE,
+                                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT) {
+                            private Iterator<ET> page;
+                            private PKT lastPk;
+                            private int pageCount;
+
+                            @Override
+                            public boolean tryAdvance(Consumer<? super ET> action) {
+                                if (page == null || !page.hasNext() && pageCount == fetchSize) {
+                                    page = findAfter(lastPk, fetchSize).iterator();
+                                    pageCount = 0;
+                                }
+                                if (!page.hasNext()) return false;
+                                ET entity = page.next();
+                                lastPk = entity.getPk();
+                                pageCount++;
+                                action.accept(entity);
+                                return true;
+                            }
+                        },
+                        false
+                );
+    }
 }
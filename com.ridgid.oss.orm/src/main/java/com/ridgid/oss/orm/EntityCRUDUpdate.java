@@ -5,7 +5,9 @@ import com.ridgid.oss.orm.entity.PrimaryKeyedEntity;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionError;
 import com.ridgid.oss.orm.exception.EntityCRUDExceptionNotFound;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Indicates the DAO implements the UPDATE (update) method for the Entity Type ET
@@ -44,4 +46,43 @@ public interface EntityCRUDUpdate<ET extends PrimaryKeyedEntity<PKT>, PKT extend
     }
 
     Optional<ET> optionalUpdate(ET entity, HierarchyProcessor<ET> hierarchy) throws EntityCRUDExceptionError;
+
+    /**
+     * Updates each of the given entities that exists in the persistent storage (by primary key) in batches of {@code getLoadBatchSize()}; entities that do not exist are skipped.
+     *
+     * @param entities entities to update in the persistent storage
+     * @return the number of entities updated
+     * @throws EntityCRUDExceptionError if there is an issue updating the records (specific "cause" may vary)
+     */
+    default long updateAll(Collection<ET> entities) throws EntityCRUDExceptionError {
+        return updateAll(entities.stream());
+    }
+
+    /**
+     * Updates each of the given entities that exists in the persistent storage (by primary key) in batches of {@code getLoadBatchSize()}; entities that do not exist are skipped.
+     *
+     * @param entities entities to update in the persistent storage
+     * @return the number of entities updated
+     * @throws EntityCRUDExceptionError if there is an issue updating the records (specific "cause" may vary)
+     */
+    default long updateAll(Stream<ET> entities) throws EntityCRUDExceptionError {
+        return updateAll(entities, getLoadBatchSize());
+    }
+
+    /**
+     * Updates each of the given entities that exists in the persistent storage (by primary key) in batches of the given size; entities that do not exist are skipped.
+     * Implementations may write each batch to the persistence store as a single unit (e.g., a JDBC batch) and may release the entities of each batch from the persistence context once the batch is written.
+     *
+     * @param entities  entities to update in the persistent storage
+     * @param batchSize number of entities to write to the persistence store at a time
+     * @return the number of entities updated
+     * @throws EntityCRUDExceptionError if there is an issue updating the records (specific "cause" may vary)
+     */
+    default long updateAll(Stream<ET> entities, int batchSize) throws EntityCRUDExceptionError {
+        long updated = 0;
+        for (ET entity : (Iterable<ET>) entities::iterator)
+            if (optionalUpdate(entity).isPresent())
+                updated++;
+        return updated;
+    }
 }
@@ -0,0 +1,120 @@
+package com.ridgid.oss.spi;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lazy handle to a provider discovered for an {@code SPIService}.
+ * <p>
+ * Discovering a provider only reads its class name from the META-INF/services/ meta-data; the provider class is
+ * not loaded, nor is the provider instantiated, until the first call to {@code get()}. The time taken to discover
+ * and to instantiate the provider is recorded so that slow start-up can be diagnosed.
+ *
+ * @param <SI> SPI enabled Service-Interface the provider implements
+ */
+@SuppressWarnings({"ClassNamePrefixedWithPackageName", "PublicMethodNotExposedInInterface"})
+public final class SPIProvider<SI>
+{
+    private static final Logger logger = Logger.getLogger(SPIProvider.class.getName());
+
+    private final Class<SI>   serviceClass;
+    private final String      className;
+    private final ClassLoader classLoader;
+    private final long        discoveryNanos;
+
+    private volatile SI   instance;
+    private volatile long instantiationNanos = -1L;
+
+    SPIProvider(Class<SI> serviceClass,
+                String className,
+                ClassLoader classLoader,
+                long discoveryNanos)
+    {
+        this.serviceClass   = serviceClass;
+        this.className      = className;
+        this.classLoader    = classLoader;
+        this.discoveryNanos = discoveryNanos;
+    }
+
+    /**
+     * Obtain the provider, instantiating it on the first call
+     *
+     * @return the provider instance (always the same instance for this handle)
+     * @throws ServiceConfigurationError if the provider class cannot be loaded or instantiated
+     */
+    public SI get() {
+        SI provider = instance;
+        if ( provider != null ) return provider;
+        synchronized ( this ) {
+            if ( instance == null ) {
+                long start = System.nanoTime();
+                instance           = instantiate();
+                instantiationNanos = System.nanoTime() - start;
+                if ( logger.isLoggable(Level.FINE) )
+                    logger.fine(String.format("Instantiated %s provider %s in %d ms",
+                                              serviceClass.getName(),
+                                              className,
+                                              TimeUnit.NANOSECONDS.toMillis(instantiationNanos)));
+            }
+            return instance;
+        }
+    }
+
+    @SuppressWarnings("OverlyBroadCatchBlock")
+    private SI instantiate() {
+        try {
+            return Class.forName(className, false, classLoader)
+                        .asSubclass(serviceClass)
+                        .getConstructor()
+                        .newInstance();
+        } catch ( ClassNotFoundException e ) {
+            throw new ServiceConfigurationError(serviceClass.getName() + ": Provider " + className + " not found", e);
+        } catch ( ClassCastException e ) {
+            throw new ServiceConfigurationError(serviceClass.getName() + ": Provider " + className + " not a subtype", e);
+        } catch ( InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException | LinkageError e ) {
+            throw new ServiceConfigurationError(serviceClass.getName() + ": Provider " + className + " could not be instantiated", e);
+        }
+    }
+
+    /**
+     * @return fully qualified class name of the provider implementation
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return true if the provider has been instantiated
+     */
+    public boolean isInstantiated() {
+        return instance != null;
+    }
+
+    /**
+     * @return nanoseconds spent reading the META-INF/services/ entry that declared this provider (for the first entry of
+     * a file, including opening the file)
+     */
+    public long getDiscoveryNanos() {
+        return discoveryNanos;
+    }
+
+    /**
+     * @return nanoseconds spent loading and instantiating the provider, or empty if it has not been instantiated yet
+     */
+    public Optional<Long> getInstantiationNanos() {
+        long nanos = instantiationNanos;
+        return nanos < 0 ? Optional.empty() : Optional.of(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[discovery=%dns, instantiation=%s]",
+                             className,
+                             discoveryNanos,
+                             getInstantiationNanos().map(n -> n + "ns").orElse("pending"));
+    }
+}
@@ -34,6 +34,10 @@ public interface SPIService<SI, SE extends SPIServiceException>
      */
     static <S extends SPIService<SI, SE>, SI, SE extends SPIServiceException>
     S instance(Class<? super S> serviceClass) {
+        // Plain get first: computeIfAbsent locks the bin even when the service is already present
+        //noinspection unchecked,SuspiciousMethodCalls
+        S service = (S) SERVICES.services.get(serviceClass);
+        if ( service != null ) return service;
         //noinspection unchecked
         return
             (S) SERVICES.services
@@ -61,6 +65,41 @@ public interface SPIService<SI, SE extends SPIServiceException>
      */
     void clearDefaultProvider() throws SE;
 
+    /**
+     * Discards the currently known providers (and the current default provider) and re-scans the class-path for
+     * available providers. Registered {@code SPIServiceListener}s are notified once the new providers are in place.
+     *
+     * @throws SE when it cannot reload the providers
+     */
+    void reload() throws SE;
+
+    /**
+     * Discovers the available providers, if not already discovered, without instantiating any of them
+     *
+     * @throws SE when it cannot discover the providers
+     */
+    void discover() throws SE;
+
+    /**
+     * @param className fully qualified class name of the provider implementation
+     * @return the available provider with the given class name, or empty if no such provider is available
+     */
+    Optional<SI> provider(String className);
+
+    /**
+     * Register a listener to be notified when the set of available providers changes
+     *
+     * @param listener to register
+     */
+    void addListener(SPIServiceListener<SI> listener);
+
+    /**
+     * Unregister a previously registered listener
+     *
+     * @param listener to unregister
+     */
+    void removeListener(SPIServiceListener<SI> listener);
+
     /**
      * @return the {@code Class<SI>} of the interface for this service
      */
@@ -89,10 +128,17 @@ public interface SPIService<SI, SE extends SPIServiceException>
     }
 
     /**
-     * @return stream of all available providers for this service
+     * @return stream of all available providers for this service; providers are instantiated, if not already, as
+     * the stream is consumed
      */
     Stream<SI> streamProviders();
 
+    /**
+     * @return stream of the lazy handles (including discovery and instantiation timings) for all available providers
+     * for this service; consuming this stream does not instantiate any provider
+     */
+    Stream<SPIProvider<SI>> streamProviderHandles();
+
     /**
      * Get a {@code Supplier} for a {@code SE} Exception
      *
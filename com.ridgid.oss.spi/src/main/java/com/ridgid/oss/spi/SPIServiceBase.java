@@ -1,12 +1,38 @@
 package com.ridgid.oss.spi;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.ServiceLoader;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
- *
+ * Base implementation of {@code SPIService}.
+ * <p>
+ * Providers are discovered once (on first use, or on an explicit call to {@code reload()}) into an immutable
+ * snapshot, keyed by provider class name, that is published through a volatile field. Looking up providers,
+ * including the default provider once it has been resolved, does not take any lock.
+ * <p>
+ * Discovery follows the Java SPI specification (META-INF/services/ meta-data) but, unlike
+ * {@code java.util.ServiceLoader}, does not instantiate the providers it finds: each provider is held as a lazy
+ * {@code SPIProvider} handle and instantiated only when it is actually used.
  */
 @SuppressWarnings({
                       "JavaDoc",
@@ -18,11 +44,19 @@ import java.util.stream.StreamSupport;
 public class SPIServiceBase<SI, SE extends SPIServiceException>
     implements SPIService<SI, SE>
 {
-    private final Class<SI>         serviceClass;
-    private final Class<SE>         serviceException;
-    private final ServiceLoader<SI> loader;
+    private static final Logger logger = Logger.getLogger(SPIServiceBase.class.getName());
 
-    private volatile SI defaultProvider;
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+
+    private final Class<SI>   serviceClass;
+    private final Class<SE>   serviceException;
+    private final ClassLoader classLoader;
+    private final Object      lock = new Object();
+
+    private final List<SPIServiceListener<SI>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, SPIProvider<SI>> providers;
+    private volatile SI                           defaultProvider;
 
     protected SPIServiceBase(Class<SI> serviceClass,
                              Class<SE> serviceException)
@@ -36,7 +70,9 @@ public class SPIServiceBase<SI, SE extends SPIServiceException>
     {
         this.serviceClass     = serviceClass;
         this.serviceException = serviceException;
-        loader                = ServiceLoader.load(serviceClass, classLoader);
+        this.classLoader      = classLoader == null
+                                ? ClassLoader.getSystemClassLoader()
+                                : classLoader;
     }
 
     protected SPIServiceBase(Class<SI> serviceClass,
@@ -45,14 +81,59 @@ public class SPIServiceBase<SI, SE extends SPIServiceException>
     {
         this.serviceClass     = serviceClass;
         this.serviceException = serviceException;
-        loader                = onlyInstalled
-                                ? ServiceLoader.loadInstalled(serviceClass)
-                                : ServiceLoader.load(serviceClass);
+        classLoader           = onlyInstalled
+                                ? installedClassLoader()
+                                : contextClassLoader();
+    }
+
+    /**
+     * Discover, in parallel, the providers of each of the given (independent) services, without instantiating any of
+     * the providers; useful at application start-up, so that services do not discover one after another on first use.
+     * Each service is discovered by its own task of the common fork/join pool, and the call returns once all of them
+     * are done.
+     *
+     * @param services services to discover the providers of
+     * @throws SPIServiceException       the first exception thrown by the discovery of a service
+     * @throws ServiceConfigurationError if the meta-data of a service could not be read
+     */
+    public static void discoverAll(SPIService<?, ?>... services) {
+        discoverAll(Arrays.asList(services));
+    }
+
+    /**
+     * @param services services to discover the providers of
+     * @see #discoverAll(SPIService[])
+     */
+    public static void discoverAll(Collection<? extends SPIService<?, ?>> services) {
+        CompletableFuture<?>[] discoveries = services.stream()
+                                                     .map(service -> CompletableFuture.runAsync(service::discover))
+                                                     .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(discoveries).join();
+        } catch ( CompletionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) throw (RuntimeException) e.getCause();
+            if ( e.getCause() instanceof Error ) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    private static ClassLoader contextClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader == null
+               ? ClassLoader.getSystemClassLoader()
+               : contextClassLoader;
+    }
+
+    private static ClassLoader installedClassLoader() {
+        ClassLoader installedClassLoader = ClassLoader.getSystemClassLoader();
+        while ( installedClassLoader.getParent() != null )
+            installedClassLoader = installedClassLoader.getParent();
+        return installedClassLoader;
     }
 
     @Override
     public void clearDefaultProvider() throws SE {
-        synchronized ( loader ) {
+        synchronized ( lock ) {
             //noinspection AssignmentToNull
             defaultProvider = null;
         }
@@ -60,43 +141,64 @@ public class SPIServiceBase<SI, SE extends SPIServiceException>
 
     @Override
     public SI defaultProvider() throws SE {
-        synchronized ( loader ) {
-            Optional<String> requestedImplementation = defaultProviderPropertyValue();
-            if ( defaultProviderEmptyOrDifferentFrom(requestedImplementation) )
-                defaultProvider
-                    = requestedImplementation
-                    .map
-                        (
-                            className -> streamProviders()
-                                .filter(lc -> lc.getClass()
-                                                .getName()
-                                                .equals(className))
-                                .findFirst()
-                                .orElseThrow(serviceException("Configured Provider Class Not Found: %s", className))
-                        )
-                    .orElseGet
-                        (
-                            () -> streamProviders().findFirst()
-                                                   .orElseThrow(serviceException("No Provider Class Found"))
-                        );
+        SI provider = defaultProvider;
+        if ( provider != null ) return provider;
+        synchronized ( lock ) {
+            if ( defaultProvider == null )
+                defaultProvider = resolveDefaultProvider();
             return defaultProvider;
         }
     }
 
-    @SuppressWarnings({
-                          "OptionalUsedAsFieldOrParameterType",
-                          "BooleanMethodNameMustStartWithQuestion",
-                          "NewMethodNamingConvention"
-                      })
-    private boolean defaultProviderEmptyOrDifferentFrom(Optional<String> defaultProviderPropertyValue) {
-        return
-            defaultProvider == null
-            ||
-            (
-                defaultProviderPropertyValue.isPresent()
-                &&
-                defaultProviderPropertyValue.get().equals(defaultProvider.getClass().getName())
-            );
+    private SI resolveDefaultProvider() throws SE {
+        return defaultProviderPropertyValue()
+            .map
+                (
+                    className -> provider(className)
+                        .orElseThrow(serviceException("Configured Provider Class Not Found: %s", className))
+                )
+            .orElseGet
+                (
+                    () -> streamProviders().findFirst()
+                                           .orElseThrow(serviceException("No Provider Class Found"))
+                );
+    }
+
+    @SuppressWarnings("AssignmentToNull")
+    @Override
+    public void reload() throws SE {
+        synchronized ( lock ) {
+            providers       = discoverProviders();
+            defaultProvider = null;
+        }
+        for ( SPIServiceListener<SI> listener : listeners )
+            listener.providersChanged(this);
+    }
+
+    @Override
+    public void discover() throws SE {
+        currentProviders();
+    }
+
+    @Override
+    public Optional<SI> provider(String className) {
+        return Optional.ofNullable(currentProviders().get(className))
+                       .map(SPIProvider::get);
+    }
+
+    @Override
+    public Stream<SPIProvider<SI>> streamProviderHandles() {
+        return currentProviders().values().stream();
+    }
+
+    @Override
+    public void addListener(SPIServiceListener<SI> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(SPIServiceListener<SI> listener) {
+        listeners.remove(listener);
     }
 
     @Override
@@ -111,7 +213,66 @@ public class SPIServiceBase<SI, SE extends SPIServiceException>
 
     @Override
     public Stream<SI> streamProviders() {
-        return StreamSupport.stream(loader.spliterator(),
-                                    false);
+        return streamProviderHandles().map(SPIProvider::get);
+    }
+
+    private Map<String, SPIProvider<SI>> currentProviders() {
+        Map<String, SPIProvider<SI>> current = providers;
+        if ( current != null ) return current;
+        synchronized ( lock ) {
+            if ( providers == null )
+                providers = discoverProviders();
+            return providers;
+        }
+    }
+
+    private Map<String, SPIProvider<SI>> discoverProviders() {
+        long                         start      = System.nanoTime();
+        Map<String, SPIProvider<SI>> discovered = new LinkedHashMap<>();
+        String                       resource   = SERVICES_PREFIX + serviceClass.getName();
+        try {
+            Enumeration<URL> configurations = classLoader.getResources(resource);
+            while ( configurations.hasMoreElements() )
+                readProviderClassNames(configurations.nextElement(),
+                                       (className, discoveryNanos) -> discovered.putIfAbsent
+                                           (
+                                               className,
+                                               new SPIProvider<>(serviceClass, className, classLoader, discoveryNanos)
+                                           ));
+        } catch ( IOException e ) {
+            throw new ServiceConfigurationError(serviceClass.getName() + ": Error reading " + resource, e);
+        }
+        if ( logger.isLoggable(Level.FINE) )
+            logger.fine(String.format("Discovered %d %s providers in %d ms: %s",
+                                      discovered.size(),
+                                      serviceClass.getName(),
+                                      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                                      discovered.keySet()));
+        return Collections.unmodifiableMap(discovered);
+    }
+
+    /**
+     * Reads the provider class names declared by a configuration file, timing each entry on its own: the time given
+     * with a class name is that spent reading its entry (and the comments and blank lines before it; for the first
+     * entry, also opening the file)
+     */
+    private static void readProviderClassNames(URL configuration,
+                                               ObjLongConsumer<String> provider)
+        throws IOException
+    {
+        long entryStart = System.nanoTime();
+        try ( BufferedReader reader
+                  = new BufferedReader(new InputStreamReader(configuration.openStream(), StandardCharsets.UTF_8)) )
+        {
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+                int comment = line.indexOf('#');
+                if ( comment >= 0 ) line = line.substring(0, comment);
+                line = line.trim();
+                if ( line.isEmpty() ) continue;
+                provider.accept(line, System.nanoTime() - entryStart);
+                entryStart = System.nanoTime();
+            }
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.ridgid.oss.spi;
+
+/**
+ * Listener notified when the set of providers available from an {@code SPIService} changes (e.g., after a call
+ * to {@code SPIService.reload()}), so that components holding on to a provider can re-bind to the current one.
+ *
+ * @param <SI> SPI enabled Service-Interface the listened to service looks up implementations for
+ */
+@SuppressWarnings("ClassNamePrefixedWithPackageName")
+@FunctionalInterface
+public interface SPIServiceListener<SI>
+{
+    /**
+     * Called, on the thread that changed the providers, after the new set of providers is in place
+     *
+     * @param service whose providers changed
+     */
+    void providersChanged(SPIService<SI, ?> service);
+}
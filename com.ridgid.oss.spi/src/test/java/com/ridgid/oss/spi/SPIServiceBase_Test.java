@@ -0,0 +1,152 @@
+package com.ridgid.oss.spi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SPIServiceBase_Test
+{
+    public interface Greeter
+    {
+    }
+
+    public interface Counter
+    {
+    }
+
+    public static class EnglishGreeter implements Greeter
+    {
+    }
+
+    public static class FrenchGreeter implements Greeter
+    {
+    }
+
+    public static class SimpleCounter implements Counter
+    {
+    }
+
+    private static final class Service<SI> extends SPIServiceBase<SI, SPIServiceException>
+    {
+        private Service(Class<SI> serviceClass,
+                        ClassLoader classLoader)
+        {
+            super(serviceClass, SPIServiceException.class, classLoader);
+        }
+    }
+
+    /**
+     * Class loader reading META-INF/services/ from a directory, whose look-ups of the meta-data all wait for each other
+     * at a barrier; so, services sharing it can only be discovered if they are discovered concurrently
+     */
+    private static final class BarrierClassLoader extends URLClassLoader
+    {
+        private final CyclicBarrier barrier;
+
+        private BarrierClassLoader(Path directory,
+                                   int parties)
+            throws IOException
+        {
+            super(new URL[]{directory.toUri().toURL()}, SPIServiceBase_Test.class.getClassLoader());
+            this.barrier = new CyclicBarrier(parties);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch ( InterruptedException | BrokenBarrierException | TimeoutException e ) {
+                throw new IOException("Services were not discovered concurrently", e);
+            }
+            return super.getResources(name);
+        }
+    }
+
+    private static Path servicesDirectory(Class<?>... serviceAndProviderClasses) throws IOException {
+        Path directory = Files.createTempDirectory("spi");
+        Path services  = Files.createDirectories(directory.resolve("META-INF/services"));
+        for ( int i = 0; i < serviceAndProviderClasses.length; i++ ) {
+            Class<?> serviceClass = serviceAndProviderClasses[i++];
+            StringBuilder configuration = new StringBuilder("# providers of ").append(serviceClass.getName()).append('\n');
+            while ( i < serviceAndProviderClasses.length && !serviceAndProviderClasses[i].isInterface() )
+                configuration.append(serviceAndProviderClasses[i++].getName()).append("  # provider\n\n");
+            i--;
+            Files.write(services.resolve(serviceClass.getName()),
+                        configuration.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return directory;
+    }
+
+    @Test
+    void discoverAll_discovers_independent_services_in_parallel_without_instantiating_providers() throws IOException {
+        Path directory = servicesDirectory(Greeter.class,
+                                           EnglishGreeter.class,
+                                           FrenchGreeter.class,
+                                           Counter.class,
+                                           SimpleCounter.class);
+        try ( BarrierClassLoader classLoader = new BarrierClassLoader(directory, 2) ) {
+            Service<Greeter> greeters = new Service<>(Greeter.class, classLoader);
+            Service<Counter> counters = new Service<>(Counter.class, classLoader);
+
+            SPIServiceBase.discoverAll(greeters, counters);
+
+            assertEquals(Arrays.asList(EnglishGreeter.class.getName(), FrenchGreeter.class.getName()),
+                         greeters.streamProviderHandles().map(SPIProvider::getClassName).collect(toList()));
+            assertEquals(Arrays.asList(SimpleCounter.class.getName()),
+                         counters.streamProviderHandles().map(SPIProvider::getClassName).collect(toList()));
+            assertTrue(greeters.streamProviderHandles().noneMatch(SPIProvider::isInstantiated),
+                       "Providers instantiated by discovery");
+            assertTrue(counters.defaultProvider() instanceof SimpleCounter);
+        }
+    }
+
+    @Test
+    void discoverAll_rethrows_the_failure_of_a_discovery() throws IOException {
+        Path directory = servicesDirectory(Greeter.class, EnglishGreeter.class);
+        try ( BarrierClassLoader classLoader = new BarrierClassLoader(directory, 2) ) {
+            // a single service waits at the barrier alone, so its discovery fails
+            Service<Greeter> greeters = new Service<>(Greeter.class, classLoader);
+            assertThrows(Error.class, () -> SPIServiceBase.discoverAll(Arrays.asList(greeters)));
+        }
+    }
+
+    @Test
+    void each_provider_is_timed_on_its_own() throws IOException {
+        Path directory = servicesDirectory(Greeter.class, EnglishGreeter.class, FrenchGreeter.class);
+        try ( URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                                                             SPIServiceBase_Test.class.getClassLoader()) )
+        {
+            long             start     = System.nanoTime();
+            Service<Greeter> greeters  = new Service<>(Greeter.class, classLoader);
+            greeters.discover();
+            long             elapsed   = System.nanoTime() - start;
+            List<Long>       durations = greeters.streamProviderHandles()
+                                                 .map(SPIProvider::getDiscoveryNanos)
+                                                 .collect(toList());
+            assertEquals(2, durations.size());
+            long total = 0;
+            for ( long duration : durations ) {
+                assertTrue(duration >= 0, "Negative discovery time");
+                total += duration;
+            }
+            assertTrue(total <= elapsed, "The providers' discovery times overlap: " + durations + " > " + elapsed);
+        }
+    }
+}